@@ -1,5 +1,7 @@
 package com.Ev0sMods.Ev0sChisel;
 
+import com.Ev0sMods.Ev0sChisel.compat.FamilyRefs;
+import com.Ev0sMods.Ev0sChisel.compat.VariantMatrix;
 import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.codec.KeyedCodec;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
@@ -32,10 +34,20 @@ public class CarpenterHammer {
     public String[] windows;
     public String[] lights;
 
+    // Stable family id (owning block key) used by COMPACT_CODEC; when set,
+    // the category arrays only hold per-instance overrides
+    public String family;
+
     public Data data;
 
     public static final BuilderCodec<CarpenterHammer> CODEC = buildCodec();
 
+    /**
+     * Compact form: family id plus any category arrays that differ from the
+     * family.  Reads the verbose keys for migration.
+     */
+    public static final BuilderCodec<CarpenterHammer> COMPACT_CODEC = buildCompactCodec();
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     private static BuilderCodec<CarpenterHammer> buildCodec() {
         try {
@@ -52,6 +64,81 @@ public class CarpenterHammer {
         }
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static BuilderCodec<CarpenterHammer> buildCompactCodec() {
+        try {
+            return BuilderCodec.builder(CarpenterHammer.class, CarpenterHammer::new)
+                    .append(new KeyedCodec<>("Family",  Codec.STRING,       true), (i, v) -> i.family  = v, CarpenterHammer::familyId).add()
+                    .append(new KeyedCodec<>("Source",  Codec.STRING,       true), (i, v) -> i.source  = v, CarpenterHammer::compactSource).add()
+                    .append(new KeyedCodec<>("Chairs",  Codec.STRING_ARRAY, true), (i, v) -> i.chairs  = v, i -> i.compactCategory(0)).add()
+                    .append(new KeyedCodec<>("Tables",  Codec.STRING_ARRAY, true), (i, v) -> i.tables  = v, i -> i.compactCategory(1)).add()
+                    .append(new KeyedCodec<>("Storage", Codec.STRING_ARRAY, true), (i, v) -> i.storage = v, i -> i.compactCategory(2)).add()
+                    .append(new KeyedCodec<>("Windows", Codec.STRING_ARRAY, true), (i, v) -> i.windows = v, i -> i.compactCategory(3)).add()
+                    .append(new KeyedCodec<>("Lights",  Codec.STRING_ARRAY, true), (i, v) -> i.lights  = v, i -> i.compactCategory(4)).add()
+                    .build();
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the family id to persist: {@link #family}, else {@link #source}
+     *         when it resolves, else a member block with exactly these
+     *         category arrays
+     */
+    public String familyId() {
+        if (family != null) return family;
+        if (FamilyRefs.hammer(source) != null) return source;
+        return FamilyRefs.hammerMember(chairs, tables, storage, windows, lights);
+    }
+
+    /** @return the shared hammer state this instance's family id points at, or {@code null}. */
+    public Data familyData() {
+        return FamilyRefs.hammer(familyId());
+    }
+
+    /**
+     * Size in bytes of this instance encoded with {@link #COMPACT_CODEC} or
+     * {@link #CODEC}: exactly the fields their getters write.
+     */
+    public int encodedSize(boolean compact) {
+        if (!compact) {
+            return FamilyRefs.documentSize(FamilyRefs.fieldSize("Source", source)
+                    + FamilyRefs.fieldSize("Chairs", chairs)
+                    + FamilyRefs.fieldSize("Tables", tables)
+                    + FamilyRefs.fieldSize("Storage", storage)
+                    + FamilyRefs.fieldSize("Windows", windows)
+                    + FamilyRefs.fieldSize("Lights", lights));
+        }
+        return FamilyRefs.documentSize(FamilyRefs.fieldSize("Family", familyId())
+                + FamilyRefs.fieldSize("Source", compactSource())
+                + FamilyRefs.fieldSize("Chairs", compactCategory(0))
+                + FamilyRefs.fieldSize("Tables", compactCategory(1))
+                + FamilyRefs.fieldSize("Storage", compactCategory(2))
+                + FamilyRefs.fieldSize("Windows", compactCategory(3))
+                + FamilyRefs.fieldSize("Lights", compactCategory(4)));
+    }
+
+    /** {@link #source} unless the family id or the family's own source already says it. */
+    private String compactSource() {
+        String id = familyId();
+        if (source == null || source.equals(id)) return null;
+        Data d = FamilyRefs.hammer(id);
+        return d != null && source.equals(d.source) ? null : source;
+    }
+
+    /** Category {@code category} (chairs, tables, storage, windows, lights) when it differs from the family's. */
+    private String[] compactCategory(int category) {
+        Data d = familyData();
+        return switch (category) {
+            case 0 -> FamilyRefs.override(chairs,  d != null ? d.chairs  : null);
+            case 1 -> FamilyRefs.override(tables,  d != null ? d.tables  : null);
+            case 2 -> FamilyRefs.override(storage, d != null ? d.storage : null);
+            case 3 -> FamilyRefs.override(windows, d != null ? d.windows : null);
+            default -> FamilyRefs.override(lights, d != null ? d.lights  : null);
+        };
+    }
+
     /**
      * BlockType-level shared state, injected via reflection (same pattern as
      * {@link Chisel.Data} and {@link Paintbrush.Data}).
@@ -63,5 +150,23 @@ public class CarpenterHammer {
         public String[] storage;
         public String[] windows;
         public String[] lights;
+
+        /**
+         * Shared family matrix when the furniture group is one line of a
+         * larger family (e.g. every sofa shape of one colour), else {@code null}.
+         */
+        public VariantMatrix matrix;
+        /** This block's cell in {@link #matrix}. */
+        public int cell = VariantMatrix.NONE;
+
+        /**
+         * Binds this state to a matrix cell and returns the shared line along
+         * {@code axis}, for use as one of the category arrays.
+         */
+        public String[] bind(VariantMatrix matrix, int cell, int axis) {
+            this.matrix = matrix;
+            this.cell   = cell;
+            return matrix.line(cell, axis);
+        }
     }
 }
@@ -5,10 +5,14 @@
 
 package com.Ev0sMods.Ev0sChisel;
 
+import com.Ev0sMods.Ev0sChisel.compat.ChiselFamily;
+import com.Ev0sMods.Ev0sChisel.compat.FamilyRefs;
+import com.Ev0sMods.Ev0sChisel.compat.FamilyStore;
 import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.codec.KeyedCodec;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.server.core.asset.type.blocktype.config.StateData;
+
 //import com.hypixel.hytale.server.core.universe.world.meta.BlockState;
 
 @SuppressWarnings("removal")
@@ -21,11 +25,22 @@ public class Chisel {
     public String[] halfSlabs;
     public String[] roofing;
 
+    // Stable family id (FamilyStore key or owning block key) used by COMPACT_CODEC;
+    // when set, the arrays above only hold per-instance overrides
+    public String family;
+
     // Optional BlockType-level shared data for compat-injected blocks
     public Data data;
 
     public static final BuilderCodec<Chisel> CODEC = buildCodec();
 
+    /**
+     * Compact form: stores only the family id plus any arrays that differ from
+     * the family.  Still reads the verbose keys, so components saved with
+     * {@link #CODEC} migrate on their next save.
+     */
+    public static final BuilderCodec<Chisel> COMPACT_CODEC = buildCompactCodec();
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     private static BuilderCodec<Chisel> buildCodec() {
         try {
@@ -41,6 +56,96 @@ public class Chisel {
         }
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static BuilderCodec<Chisel> buildCompactCodec() {
+        try {
+            return BuilderCodec.builder(Chisel.class, Chisel::new)
+                    .append(new KeyedCodec<>("Family", Codec.STRING, true), (i, v) -> i.family = v, Chisel::familyId).add()
+                    .append(new KeyedCodec<>("Source", Codec.STRING, true), (i, v) -> i.source = v, Chisel::compactSource).add()
+                    .append(new KeyedCodec<>("Substitutions", Codec.STRING_ARRAY, true), (i, v) -> i.substitutions = v,
+                            i -> i.compactBucket(0)).add()
+                    .append(new KeyedCodec<>("Stairs", Codec.STRING_ARRAY, true), (i, v) -> i.stairs = v,
+                            i -> i.compactBucket(1)).add()
+                    .append(new KeyedCodec<>("HalfSlabs", Codec.STRING_ARRAY, true), (i, v) -> i.halfSlabs = v,
+                            i -> i.compactBucket(2)).add()
+                    .append(new KeyedCodec<>("Roofing", Codec.STRING_ARRAY, true), (i, v) -> i.roofing = v,
+                            i -> i.compactBucket(3)).add()
+                    .build();
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the family id to persist: the explicit {@link #family}, else the
+     * {@link #source} when it resolves to a known family, else the key of a
+     * member block whose family has exactly this instance's arrays, else
+     * {@code null} (the instance is then written out in full).
+     */
+    public String familyId() {
+        if (family != null) return family;
+        if (source != null && FamilyRefs.chisel(source) != null) return source;
+        return FamilyRefs.chiselMember(substitutions, stairs, halfSlabs, roofing);
+    }
+
+    /**
+     * Size in bytes of this instance encoded with {@link #COMPACT_CODEC} or
+     * {@link #CODEC}: exactly the fields their getters write.
+     */
+    public int encodedSize(boolean compact) {
+        if (!compact) {
+            return FamilyRefs.documentSize(FamilyRefs.fieldSize("Source", source)
+                    + FamilyRefs.fieldSize("Substitutions", substitutions)
+                    + FamilyRefs.fieldSize("Stairs", stairs)
+                    + FamilyRefs.fieldSize("HalfSlabs", halfSlabs)
+                    + FamilyRefs.fieldSize("Roofing", roofing));
+        }
+        return FamilyRefs.documentSize(FamilyRefs.fieldSize("Family", familyId())
+                + FamilyRefs.fieldSize("Source", compactSource())
+                + FamilyRefs.fieldSize("Substitutions", compactBucket(0))
+                + FamilyRefs.fieldSize("Stairs", compactBucket(1))
+                + FamilyRefs.fieldSize("HalfSlabs", compactBucket(2))
+                + FamilyRefs.fieldSize("Roofing", compactBucket(3)));
+    }
+
+    /** Resolves this instance to full arrays: per-instance overrides over the family's. */
+    public ChiselFamily resolve() {
+        ChiselFamily f = FamilyRefs.chisel(familyId());
+        if (f == null) return new ChiselFamily(source, substitutions, stairs, halfSlabs, roofing);
+        return new ChiselFamily(source != null ? source : f.source,
+                FamilyRefs.pick(substitutions, f.substitutions), FamilyRefs.pick(stairs, f.stairs),
+                FamilyRefs.pick(halfSlabs, f.halfSlabs), FamilyRefs.pick(roofing, f.roofing));
+    }
+
+    /** {@link #source} unless the family id or the family's own source already says it. */
+    private String compactSource() {
+        String id = familyId();
+        if (source == null || source.equals(id)) return null;
+        ChiselFamily f = FamilyRefs.chisel(id);
+        return f != null && source.equals(f.source) ? null : source;
+    }
+
+    /** Bucket {@code bucket} when it differs from the family's, else {@code null}. */
+    private String[] compactBucket(int bucket) {
+        return switch (bucket) {
+            case 0 -> FamilyRefs.override(substitutions, familyBucket(0));
+            case 1 -> FamilyRefs.override(stairs, familyBucket(1));
+            case 2 -> FamilyRefs.override(halfSlabs, familyBucket(2));
+            default -> FamilyRefs.override(roofing, familyBucket(3));
+        };
+    }
+
+    private String[] familyBucket(int bucket) {
+        ChiselFamily f = FamilyRefs.chisel(familyId());
+        if (f == null) return null;
+        return switch (bucket) {
+            case 0 -> f.substitutions;
+            case 1 -> f.stairs;
+            case 2 -> f.halfSlabs;
+            default -> f.roofing;
+        };
+    }
+
     // Nested StateData class used when attaching chisel metadata to BlockType.state
     public static class Data extends StateData {
         public String source;
@@ -48,5 +153,23 @@ public class Chisel {
         public String[] stairs;
         public String[] halfSlabs;
         public String[] roofing;
+
+        /**
+         * Copy-on-write family reference (see {@link FamilyStore}).  Set on
+         * the first {@link #snapshot()} if no compat pass adopted the block
+         * earlier; from then on it is authoritative and the array fields
+         * above are only the injection-time seed.
+         */
+        public volatile FamilyStore.Ref family;
+
+        /**
+         * Returns one consistent view of this block's family for the current
+         * operation: the same instance on every call until the family is
+         * republished.
+         */
+        public ChiselFamily snapshot() {
+            FamilyStore.Ref ref = family;
+            return (ref != null ? ref : FamilyStore.attach(this)).get();
+        }
     }
 }
@@ -19,7 +19,11 @@ import com.Ev0sMods.Ev0sChisel.Interactions.PaintbrushInteraction;
 import com.Ev0sMods.Ev0sChisel.compat.BreezeBlocksCompat;
 import com.Ev0sMods.Ev0sChisel.compat.CarpentryCompat;
 import com.Ev0sMods.Ev0sChisel.compat.ChippedCompat;
+import com.Ev0sMods.Ev0sChisel.compat.ChiselFamily;
+import com.Ev0sMods.Ev0sChisel.compat.ChiselResolver;
 import com.Ev0sMods.Ev0sChisel.compat.CompatMerger;
+import com.Ev0sMods.Ev0sChisel.compat.CodecSizeReport;
+import com.Ev0sMods.Ev0sChisel.compat.CompatSeal;
 import com.Ev0sMods.Ev0sChisel.compat.FemboyDelightCompat;
 import com.Ev0sMods.Ev0sChisel.compat.FurnitureWindowCompat;
 import com.Ev0sMods.Ev0sChisel.compat.GlassCompat;
@@ -32,14 +36,20 @@ import com.Ev0sMods.Ev0sChisel.compat.NoCubeNeonCompat;
 import com.Ev0sMods.Ev0sChisel.compat.OctaPanelCompat;
 import com.Ev0sMods.Ev0sChisel.compat.PixelHeroesCompat;
 import com.Ev0sMods.Ev0sChisel.compat.SerenalCompat;
+import com.Ev0sMods.Ev0sChisel.compat.HammerIndex;
+import com.Ev0sMods.Ev0sChisel.compat.StatueIndex;
 import com.Ev0sMods.Ev0sChisel.compat.StatuesCompat;
 import com.Ev0sMods.Ev0sChisel.compat.StoneworksCompat;
 import com.Ev0sMods.Ev0sChisel.compat.TreeSourcesCompat;
 import com.Ev0sMods.Ev0sChisel.compat.VanillaClothCompat;
 import com.Ev0sMods.Ev0sChisel.compat.VanillaCompat;
 import com.Ev0sMods.Ev0sChisel.compat.VanillaFurnitureCompat;
+import com.Ev0sMods.Ev0sChisel.compat.VariantPopularity;
+import com.Ev0sMods.Ev0sChisel.ui.CarpenterHammerUIPage;
+import com.Ev0sMods.Ev0sChisel.ui.ChiselUIPage;
 import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
 import com.hypixel.hytale.server.core.asset.type.blocktype.config.StateData;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
 import com.hypixel.hytale.server.core.modules.interaction.interaction.config.Interaction;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
@@ -100,9 +110,21 @@ public class Ev0sChiselPlugin extends JavaPlugin {
         // Labels compat (Yer's Labels + Boske's Chest Labels)
         LabelsCompat.init();
         LabelsCompat.injectChiselStates();
+        // Freeze compat registries and drop startup scratch data
+        CompatSeal.seal();
+        CodecSizeReport.log();
+        // Precompute merged chisel variants, statue eligibility and hammer metadata
+        ChiselResolver.warm();
+        StatueIndex.warm();
+        HammerIndex.warm();
+        // Render the pages chisel opens start on, off the server thread
+        ChiselUIPage.pregenerate();
+        // Variant pick counts for the popularity orderings
+        VariantPopularity.load(getDataDirectory().resolve("variant_popularity.json"));
     }
 
     public void shutdown() {
+        VariantPopularity.save();
         this.getLogger().at(Level.INFO).log("[ChiselPlugin] Plugin disabled!");
     }
 
@@ -110,13 +132,20 @@ public class Ev0sChiselPlugin extends JavaPlugin {
         // Register as components (component API in prerelease) with compatibility fallback
         try {
             // Try to register per-block component types with prerelease ComponentRegistry via reflection.
-            com.Ev0sMods.Ev0sChisel.compat.ComponentCompat.registerComponent(Chisel.class, "Ev0sChisel", Chisel.CODEC);
-            com.Ev0sMods.Ev0sChisel.compat.ComponentCompat.registerComponent(Paintbrush.class, "Ev0sPaintbrush", Paintbrush.CODEC);
-            com.Ev0sMods.Ev0sChisel.compat.ComponentCompat.registerComponent(CarpenterHammer.class, "Ev0sCarpenterHammer", CarpenterHammer.CODEC);
+            com.Ev0sMods.Ev0sChisel.compat.ComponentCompat.registerComponent(Chisel.class, "Ev0sChisel", Chisel.COMPACT_CODEC);
+            com.Ev0sMods.Ev0sChisel.compat.ComponentCompat.registerComponent(Paintbrush.class, "Ev0sPaintbrush", Paintbrush.COMPACT_CODEC);
+            com.Ev0sMods.Ev0sChisel.compat.ComponentCompat.registerComponent(CarpenterHammer.class, "Ev0sCarpenterHammer", CarpenterHammer.COMPACT_CODEC);
         } catch (Throwable ignored) {}
         this.getCodecRegistry(Interaction.CODEC).register("ChiselInteraction", ChiselInteraction.class,  ChiselInteraction.CODEC );
         this.getCodecRegistry(Interaction.CODEC).register("PaintbrushInteraction", PaintbrushInteraction.class, PaintbrushInteraction.CODEC );
         this.getCodecRegistry(Interaction.CODEC).register("CarpenterHammerInteraction", CarpenterHammerInteraction.class, CarpenterHammerInteraction.CODEC);
+        // Drop the player's open page sessions as soon as they leave
+        try {
+            this.getEventRegistry().registerGlobal(PlayerDisconnectEvent.class, e -> {
+                ChiselUIPage.disconnected(e.getPlayerRef());
+                CarpenterHammerUIPage.disconnected(e.getPlayerRef());
+            });
+        } catch (Throwable ignored) {}
     }
 
     private void registerCommands() {
@@ -154,10 +183,11 @@ public class Ev0sChiselPlugin extends JavaPlugin {
                 scanned++;
 
                 // The parent block's full chisel arrays
-                String[] subs   = parentData.substitutions;
-                String[] stairs = parentData.stairs;
-                String[] halfs  = parentData.halfSlabs;
-                String[] roofs  = parentData.roofing;
+                ChiselFamily parent = parentData.snapshot();
+                String[] subs   = parent.substitutions;
+                String[] stairs = parent.stairs;
+                String[] halfs  = parent.halfSlabs;
+                String[] roofs  = parent.roofing;
 
                 // Auto-derive stairs/halfs/roofing from block subs if arrays are empty
                 if (empty(stairs) && !empty(subs)) stairs = MasonryCompat.deriveExistingVariants(subs, "_Stairs");
@@ -2,7 +2,10 @@ package com.Ev0sMods.Ev0sChisel.Interactions;
 
 import com.Ev0sMods.Ev0sChisel.CarpenterHammer;
 import com.Ev0sMods.Ev0sChisel.ComboState;
+import com.Ev0sMods.Ev0sChisel.compat.HammerIndex;
 import com.Ev0sMods.Ev0sChisel.ui.CarpenterHammerUIPage;
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.Ref;
@@ -27,8 +30,6 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
-import java.util.Locale;
-
 /**
  * Server-side interaction for the Carpenter's Hammer.
  * <p>
@@ -44,6 +45,16 @@ public class CarpenterHammerInteraction extends SimpleBlockInteraction {
     public static final BuilderCodec<CarpenterHammerInteraction> CODEC;
     private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
 
+    /** Asset-configurable open throttle (see {@link InteractionGate}); 0 disables. */
+    protected int openCoalesceMs      = InteractionGate.DEFAULT_OPEN_COALESCE_MS;
+    /** Asset-configurable quick-cycle budget (see {@link InteractionGate}); 0 disables. */
+    protected int maxRotationsPerTick = InteractionGate.DEFAULT_MAX_ROTATIONS_PER_TICK;
+    /**
+     * Non-zero turns this interaction into a UI-less quick-cycle: the target
+     * steps this many entries through its variant list (1 = next, -1 = previous).
+     */
+    protected int quickCycle = 0;
+
     // ─────────────────────────────────────────────────────────────────────
     // Core interaction
     // ─────────────────────────────────────────────────────────────────────
@@ -67,6 +78,12 @@ public class CarpenterHammerInteraction extends SimpleBlockInteraction {
                 ChunkUtil.indexChunkFromBlock(target.x, target.z));
         if (chunk == null) return;
 
+        // ── Quick-cycle (asset-configured, no UI) ───────────────────────
+        if (quickCycle != 0) {
+            cycleInPlace(chunk, interactionContext, target);
+            return;
+        }
+
         // ── Resolve player ───────────────────────────────────────────────
         Ref<EntityStore>  playerEnt;
         Store<EntityStore> store;
@@ -84,7 +101,8 @@ public class CarpenterHammerInteraction extends SimpleBlockInteraction {
             return;
         }
 
-        Vector3i blockPos = new Vector3i(target.x, target.y, target.z);
+        // Collapse repeated opens of the same block into one
+        if (!InteractionGate.allowOpen(playerEnt, target.x, target.y, target.z, openCoalesceMs)) return;
 
         // ── Look up CarpenterHammer.Data on the targeted BlockType ───────
         BlockType targetBlockType = chunk.getBlockType(target.x, target.y, target.z);
@@ -92,22 +110,22 @@ public class CarpenterHammerInteraction extends SimpleBlockInteraction {
 
         CarpenterHammer.Data hammerData = extractHammerData(state);
         if (hammerData != null) {
-            CarpenterHammerUIPage.Tab defaultTab = detectDefaultTab(targetBlockType, hammerData);
+            String targetKey = InteractionSupport.keyOf(targetBlockType);
+            CarpenterHammerUIPage.Tab defaultTab = detectDefaultTab(targetKey, hammerData);
 
             // Door stacking requirement: if the target block is a base material (not already a
             // door) and the hammer group contains door options, require 2 of the same block to
             // be stacked vertically (target + block directly above) before showing door options.
             String[] effectiveWindows = safe(hammerData.windows);
-            if (targetBlockType != null && !isBlockDoor(targetBlockType) && containsDoors(effectiveWindows)) {
+            if (targetKey != null && !HammerIndex.isDoor(targetKey) && HammerIndex.hasDoors(effectiveWindows)) {
                 BlockType above = chunk.getBlockType(target.x, target.y + 1, target.z);
-                boolean stacked = above != null
-                        && targetBlockType.getId() != null
-                        && targetBlockType.getId().equals(above.getId());
+                boolean stacked = above != null && targetKey.equals(InteractionSupport.keyOf(above));
                 if (!stacked) {
-                    effectiveWindows = stripDoors(effectiveWindows);
+                    effectiveWindows = HammerIndex.withoutDoors(effectiveWindows);
                 }
             }
 
+            Vector3i blockPos = new Vector3i(target.x, target.y, target.z);
             CarpenterHammerUIPage.openHammer(
                     playerRef, store, world, blockPos, player,
                     safe(hammerData.chairs),
@@ -123,41 +141,17 @@ public class CarpenterHammerInteraction extends SimpleBlockInteraction {
     // Helpers
     // ─────────────────────────────────────────────────────────────────────
 
+    private static final CarpenterHammerUIPage.Tab[] TABS = CarpenterHammerUIPage.Tab.values();
+
     /**
-     * Determines which tab should be shown first based on the block key and
-     * whatever category arrays are non-empty.
+     * Determines which tab should be shown first: the category the block key
+     * was classified into at injection time, else the first non-empty one.
      */
     private static CarpenterHammerUIPage.Tab detectDefaultTab(
-            BlockType bt, CarpenterHammer.Data data) {
-
-        if (bt != null && bt.getId() != null) {
-            String key = bt.getId().toString().toLowerCase(Locale.ROOT);
-
-            if (key.contains("chair")  || key.contains("sofa")    ||
-                key.contains("bench")  || key.contains("stool")   ||
-                key.contains("seat")   || key.contains("couch"))
-                return CarpenterHammerUIPage.Tab.CHAIR;
-
-            if (key.contains("table")  || key.contains("desk")    ||
-                key.contains("coffee"))
-                return CarpenterHammerUIPage.Tab.TABLE;
-
-            if (key.contains("kitchen") || key.contains("counter") ||
-                key.contains("cupboard") || key.contains("shelf") ||
-                key.contains("cabinet") || key.contains("sink")   ||
-                key.contains("storage") || key.contains("chest"))
-                return CarpenterHammerUIPage.Tab.STORAGE;
-
-            if (key.contains("window") || key.contains("shutter") ||
-                key.contains("pane"))
-                return CarpenterHammerUIPage.Tab.WINDOW;
-
-            if (key.contains("lantern") || key.contains("torch")  ||
-                key.contains("candle")  || key.contains("lamp")   ||
-                key.contains("brazier") || key.contains("light")  ||
-                key.contains("glow"))
-                return CarpenterHammerUIPage.Tab.LIGHT;
-        }
+            String key, CarpenterHammer.Data data) {
+
+        int category = HammerIndex.category(key);
+        if (category != HammerIndex.NONE) return TABS[category];
 
         // Fallback: first non-empty category
         if (hasItems(data.chairs))  return CarpenterHammerUIPage.Tab.CHAIR;
@@ -168,25 +162,25 @@ public class CarpenterHammerInteraction extends SimpleBlockInteraction {
         return CarpenterHammerUIPage.Tab.CHAIR;
     }
 
-    /** Returns {@code true} if the block's key contains {@code "_door"} (case-insensitive). */
-    private static boolean isBlockDoor(BlockType bt) {
-        if (bt == null || bt.getId() == null) return false;
-        return bt.getId().toString().toLowerCase(Locale.ROOT).contains("_door");
-    }
-
-    /** Returns {@code true} if any key in {@code arr} is a door block. */
-    private static boolean containsDoors(String[] arr) {
-        if (arr == null) return false;
-        for (String k : arr) if (k != null && k.toLowerCase(Locale.ROOT).contains("_door")) return true;
-        return false;
-    }
-
-    /** Returns a copy of {@code arr} with all door keys removed. */
-    private static String[] stripDoors(String[] arr) {
-        if (arr == null) return new String[0];
-        java.util.List<String> filtered = new java.util.ArrayList<>();
-        for (String k : arr) if (k != null && !k.toLowerCase(Locale.ROOT).contains("_door")) filtered.add(k);
-        return filtered.toArray(new String[0]);
+    /**
+     * Steps the target through its own furniture category.  A door only
+     * cycles through door keys and anything else skips them, since a door
+     * needs two stacked blocks.
+     */
+    private void cycleInPlace(WorldChunk chunk, InteractionContext ctx, BlockPosition pos) {
+        try {
+            BlockType bt = chunk.getBlockType(pos.x, pos.y, pos.z);
+            CarpenterHammer.Data data = extractHammerData(bt != null ? bt.getState() : null);
+            String key = InteractionSupport.keyOf(bt);
+            if (data == null || key == null) return;
+            if (!InteractionGate.allowRotate(ctx.getOwningEntity(), maxRotationsPerTick)) return;
+            String[] windows = HammerIndex.isDoor(key) ? HammerIndex.onlyDoors(data.windows) : HammerIndex.withoutDoors(data.windows);
+            String[] list = QuickCycle.listOf(key, data.chairs, data.tables, data.storage, windows, data.lights);
+            if (list == null) return;
+            QuickCycle.apply(chunk, pos.x, pos.y, pos.z, key, QuickCycle.step(list, key, quickCycle));
+        } catch (Throwable t) {
+            LOGGER.atWarning().log("[CarpenterHammer] Quick-cycle failed: " + t.getMessage());
+        }
     }
 
     /** Extracts {@link CarpenterHammer.Data} from either a plain or combo state, or returns {@code null}. */
@@ -201,7 +195,7 @@ public class CarpenterHammerInteraction extends SimpleBlockInteraction {
     }
 
     private static String[] safe(String[] arr) {
-        return arr != null ? arr : new String[0];
+        return InteractionSupport.safe(arr);
     }
 
     @Override
@@ -220,6 +214,10 @@ public class CarpenterHammerInteraction extends SimpleBlockInteraction {
         CODEC = BuilderCodec.builder(
                 CarpenterHammerInteraction.class,
                 CarpenterHammerInteraction::new,
-                SimpleBlockInteraction.CODEC).build();
+                SimpleBlockInteraction.CODEC)
+                .append(new KeyedCodec<>("OpenCoalesceMs",      Codec.INTEGER, false), (i, v) -> i.openCoalesceMs      = v, i -> i.openCoalesceMs).add()
+                .append(new KeyedCodec<>("MaxRotationsPerTick", Codec.INTEGER, false), (i, v) -> i.maxRotationsPerTick = v, i -> i.maxRotationsPerTick).add()
+                .append(new KeyedCodec<>("QuickCycle",          Codec.INTEGER, false), (i, v) -> i.quickCycle          = v, i -> i.quickCycle).add()
+                .build();
     }
 }
@@ -4,12 +4,13 @@ package com.Ev0sMods.Ev0sChisel.Interactions;
 
 import com.Ev0sMods.Ev0sChisel.Chisel;
 import com.Ev0sMods.Ev0sChisel.ComboState;
-import com.Ev0sMods.Ev0sChisel.compat.CarpentryCompat;
-import com.Ev0sMods.Ev0sChisel.compat.MacawCompat;
-import com.Ev0sMods.Ev0sChisel.compat.MasonryCompat;
-import com.Ev0sMods.Ev0sChisel.compat.StoneworksCompat;
-import com.Ev0sMods.Ev0sChisel.compat.StatuesCompat;
+import com.Ev0sMods.Ev0sChisel.compat.ChiselFamily;
+import com.Ev0sMods.Ev0sChisel.compat.ChiselResolver;
+import com.Ev0sMods.Ev0sChisel.compat.StatueIndex;
+import com.Ev0sMods.Ev0sChisel.compat.VariantPopularity;
 import com.Ev0sMods.Ev0sChisel.ui.ChiselUIPage;
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.Ref;
@@ -22,8 +23,6 @@ import com.hypixel.hytale.protocol.InteractionType;
 import com.hypixel.hytale.protocol.MovementStates;
 import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
 import com.hypixel.hytale.server.core.asset.type.blocktype.config.StateData;
-import com.hypixel.hytale.server.core.asset.type.blocktype.config.RotationTuple;
-import com.hypixel.hytale.server.core.asset.type.blocktype.config.VariantRotation;
 import com.hypixel.hytale.server.core.entity.InteractionContext;
 import com.hypixel.hytale.server.core.entity.movement.MovementStatesComponent;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
@@ -42,6 +41,21 @@ public class ChiselInteraction extends SimpleBlockInteraction {
     public static final BuilderCodec<ChiselInteraction> CODEC;
     private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
 
+    /** Asset-configurable throttle limits (see {@link InteractionGate}); 0 disables. */
+    protected int openCoalesceMs      = InteractionGate.DEFAULT_OPEN_COALESCE_MS;
+    protected int maxRotationsPerTick = InteractionGate.DEFAULT_MAX_ROTATIONS_PER_TICK;
+    /**
+     * Non-zero turns this interaction into a UI-less quick-cycle: the target
+     * steps this many entries through its variant list (1 = next, -1 = previous).
+     */
+    protected int quickCycle = 0;
+    /**
+     * Variant order on the page: 0 = as merged, 1 = most picked server-wide,
+     * 2 = the player's own picks first (see {@link VariantPopularity.Order}).
+     * The shipped chisel sets {@code "VariantOrder": 1} on its Secondary binding.
+     */
+    protected int variantOrder = 0;
+
     protected void interactWithBlock(@NonNullDecl World world, @NonNullDecl CommandBuffer<EntityStore> commandBuffer, @NonNullDecl InteractionType interactionType, @NonNullDecl InteractionContext interactionContext, @NullableDecl ItemStack itemStack, @NonNullDecl Vector3i vector3i, @NonNullDecl CooldownHandler cooldownHandler) {
         if (interactionContext == null) {
             return;
@@ -60,15 +74,15 @@ public class ChiselInteraction extends SimpleBlockInteraction {
         //com.hypixel.hytale.server.core.universe.world.meta.BlockState blockState = null;
         com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType targetBlockType = chunk.getBlockType(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
 
-        // Detect if this is a right-click-like interaction (heuristic)
-        boolean isRightClick = false;
-        try {
-            String it = interactionType != null ? interactionType.toString() : "";
-            if (it != null) {
-                String lit = it.toLowerCase(java.util.Locale.ROOT);
-                if (lit.contains("right") || lit.contains("secondary") || lit.contains("activate")) isRightClick = true;
-            }
-        } catch (Throwable ignored) {}
+        // Detect if this is a right-click-like interaction (heuristic, precomputed per type)
+        boolean isRightClick = InteractionSupport.isRightClick(interactionType);
+        String targetKey = InteractionSupport.keyOf(targetBlockType);
+
+        // ── Quick-cycle (asset-configured, no UI) ──────────────────────
+        if (quickCycle != 0) {
+            cycleInPlace(chunk, interactionContext, targetBlockType, targetKey, contextTargetBlock);
+            return;
+        }
 
         // ── Crouch + interact ───────────────────────────────────────────
         //   • On a chisel block → cycle rotation
@@ -78,79 +92,16 @@ public class ChiselInteraction extends SimpleBlockInteraction {
             // or common derived keys (stairs/halfs/roofs).
             boolean rotated = false;
             try {
-                BlockType blockType = chunk.getBlockType(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
-                String blockKey = blockType != null ? (String) blockType.getId() : null;
-                // Determine chisel-like via injected BlockType state (compat) or derived key
-                boolean isChiselLike = false;
-                // Use outer isRightClick value (computed above)
-                boolean isStatue = false;
-                try {
-                    String probeKey = blockType != null ? (String) blockType.getId() : null;
-                    if (probeKey != null) {
-                        String lk = probeKey.toLowerCase(java.util.Locale.ROOT);
-                        if (lk.contains("ymmersive_statues") || lk.contains("statue")) isStatue = true;
-                        if (!isStatue && com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.isAvailable()) {
-                            try {
-                                String mapped = com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.getMappedChiselTypeForStatue(probeKey);
-                                if (mapped != null) isStatue = true;
-                            } catch (Throwable ignored) {}
-                        }
-                    }
-                } catch (Throwable ignored) {}
-
-                if (!isChiselLike && blockType != null) {
-                    StateData bs = null;
-                    try { bs = blockType.getState(); } catch (Throwable ignored) {}
-                    if (extractChiselData(bs) != null) {
-                        // For compat-injected statues require crouch+right-click to rotate
-                        if (isRightClick) isChiselLike = true;
-                    } else if (blockKey != null) {
-                        String lower = blockKey.toLowerCase(java.util.Locale.ROOT);
-                        if (lower.endsWith("_stairs") || lower.endsWith("_stair") || lower.endsWith("_half") || lower.endsWith("_slab") || lower.contains("_roof") || lower.contains("_roofs")) {
-                            isChiselLike = true;
-                        }
-                    }
-                }
-
-                if (!isChiselLike) {
-                    // skipped: not a chisel-like block
-                } else if (blockType == null) {
-                    LOGGER.atWarning().log("[Chisel] Cannot rotate: blockType is null");
-                } else {
-                    VariantRotation vr = blockType.getVariantRotation();
-                    if (vr == null || vr == VariantRotation.None) {
-                        // block has no VariantRotation
+                if (canRotate(targetBlockType, targetKey, isRightClick)) {
+                    // Statue pillars rotate top and bottom together on crouch+right-click
+                    boolean pillar = isRightClick && StatueIndex.isStatueBlock(targetKey);
+                    // Confirming a prediction is free; a fresh rotation spends the tick budget
+                    if (RotationCycle.pending(world, interactionContext.getOwningEntity(), contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z)
+                            || InteractionGate.allowRotate(interactionContext.getOwningEntity(), maxRotationsPerTick)) {
+                        rotated = RotationCycle.rotate(world, interactionContext.getOwningEntity(), chunk, targetBlockType,
+                                contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z, pillar);
                     } else {
-                        RotationTuple[] validRotations = vr.getRotations();
-                        if (validRotations == null || validRotations.length <= 1) {
-                            // no multiple rotations available
-                        } else {
-                            int currentIdx = chunk.getRotationIndex(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
-                            int pos = 0;
-                            for (int i = 0; i < validRotations.length; i++) { if (validRotations[i].index() == currentIdx) { pos = i; break; } }
-                            int nextPos = (pos + 1) % validRotations.length;
-                            RotationTuple next = validRotations[nextPos];
-                            if (isStatue && isRightClick) {
-                                // Rotate both bottom and top of a statue pillar
-                                int bottomId = chunk.getBlock(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
-                                int bottomFiller = chunk.getFiller(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
-                                int topId = chunk.getBlock(contextTargetBlock.x, contextTargetBlock.y + 1, contextTargetBlock.z);
-                                int topFiller = chunk.getFiller(contextTargetBlock.x, contextTargetBlock.y + 1, contextTargetBlock.z);
-                                try {
-                                    chunk.setBlock(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z, bottomId, blockType, next.index(), bottomFiller, 0);
-                                    chunk.setBlock(contextTargetBlock.x, contextTargetBlock.y + 1, contextTargetBlock.z, topId, blockType, next.index(), topFiller, 0);
-                                    rotated = true;
-                                } catch (Throwable t) {
-                                    // ignore and fall back to single-block rotation
-                                }
-                            } else {
-                                int blockId = chunk.getBlock(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
-                                int filler  = chunk.getFiller(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
-                                chunk.setBlock(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z, blockId, blockType, next.index(), filler, 0);
-                                // rotated block
-                                rotated = true;
-                            }
-                        }
+                        rotated = true; // throttled: swallow the click instead of opening the UI
                     }
                 }
             } catch (Throwable t) {
@@ -176,6 +127,9 @@ public class ChiselInteraction extends SimpleBlockInteraction {
             return;
         }
 
+        // Collapse repeated opens of the same block into one
+        if (!InteractionGate.allowOpen(playerEnt, contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z, openCoalesceMs)) return;
+
         Vector3i blockPos = new Vector3i(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
 
         // ── Non-chisel block → open in Table mode ───────────────────────
@@ -186,27 +140,22 @@ public class ChiselInteraction extends SimpleBlockInteraction {
             Object comp = com.Ev0sMods.Ev0sChisel.compat.ComponentCompat.getBlockComponent(chunk, contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z, com.Ev0sMods.Ev0sChisel.Chisel.class);
             if (comp != null) hasChiselLikeState = true;
         } catch (Throwable ignored) {}
+        StateData targetState = null;
         try {
-                if (targetBlockType != null) {
-                String tbId = targetBlockType.getId() != null ? targetBlockType.getId().toString() : "<null>";
-                StateData tstate = null;
-                try { tstate = targetBlockType.getState(); } catch (Throwable t) { /* ignore */ }
-                boolean inst = (extractChiselData(tstate) != null);
-                if (!hasChiselLikeState && inst) hasChiselLikeState = true;
-            } else {
-                // targetBlockType is null
-            }
+            if (targetBlockType != null) targetState = targetBlockType.getState();
         } catch (Throwable ignored) {}
+        Chisel.Data targetData = extractChiselData(targetState);
+        if (targetData != null) hasChiselLikeState = true;
 
         if (!hasChiselLikeState) {
             // If player right-clicked a statue, open Chisel UI showing mapped material
-            String maybeKey = targetBlockType != null ? (String) targetBlockType.getId() : null;
+            String maybeKey = targetKey;
             try {
                 if (isRightClick && maybeKey != null && com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.isAvailable()) {
                     String mapped = com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.getMappedChiselTypeForStatue(maybeKey);
                     if (mapped != null) {
                         ChiselUIPage.openChisel(playerRef, store, world, blockPos, player,
-                                new String[]{mapped}, new String[0], new String[0], new String[0]);
+                                new String[]{mapped}, InteractionSupport.EMPTY, InteractionSupport.EMPTY, InteractionSupport.EMPTY);
                         return;
                     }
                 }
@@ -216,8 +165,7 @@ public class ChiselInteraction extends SimpleBlockInteraction {
             boolean attemptedRuntimeInject = false;
             try {
                 if (maybeKey != null) {
-                    String lk = maybeKey.toLowerCase(java.util.Locale.ROOT);
-                    if (lk.contains("ymmersive_statues") || lk.startsWith("ymmersive_statues_")) {
+                    if (InteractionSupport.containsIgnoreCase(maybeKey, "ymmersive_statues")) {
                         attemptedRuntimeInject = com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.ensureInjectedFor(maybeKey);
                     }
                 }
@@ -229,141 +177,35 @@ public class ChiselInteraction extends SimpleBlockInteraction {
                     StateData tstate2 = targetBlockType != null ? targetBlockType.getState() : null;
                     Chisel.Data injectedData2 = extractChiselData(tstate2);
                     if (injectedData2 != null) {
+                        ChiselFamily f2 = injectedData2.snapshot();
                         ChiselUIPage.openChisel(playerRef, store, world, blockPos, player,
-                                safe(injectedData2.substitutions), safe(injectedData2.stairs), safe(injectedData2.halfSlabs), safe(injectedData2.roofing));
+                                f2.substitutions, f2.stairs, f2.halfSlabs, f2.roofing);
                         return;
                     }
                 } catch (Throwable ignored) {}
             }
 
-            ChiselUIPage.openTable(playerRef, store, world, blockPos, player);
+            ChiselUIPage.openTable(playerRef, store, world, blockPos, player,
+                    VariantPopularity.Order.of(variantOrder));
             return;
         }
 
-        // Get the block's own key for accurate type detection
-        targetBlockType = chunk.getBlockType(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
-        String blockKey = targetBlockType != null ? (String) targetBlockType.getId() : null;
-
-        // If the BlockType was injected with a `Chisel.Data` state (compat-injected
-        // statue BlockTypes), open the Chisel UI using that injected data.
-        try {
-            StateData tstate = targetBlockType != null ? targetBlockType.getState() : null;
-            Chisel.Data injectedData = extractChiselData(tstate);
-            if (injectedData != null) {
-                ChiselUIPage.openChisel(playerRef, store, world, blockPos, player,
-                        safe(injectedData.substitutions), safe(injectedData.stairs), safe(injectedData.halfSlabs), safe(injectedData.roofing));
-                return;
-            }
-        } catch (Throwable ignored) {}
-
-        // If there is per-block instance state it would be present as a BlockState in older APIs.
         // With components, prefer BlockType-injected `Chisel.Data` for metadata.
-        StateData maybeState = targetBlockType != null ? targetBlockType.getState() : null;
-        Chisel.Data chiselData = extractChiselData(maybeState);
+        Chisel.Data chiselData = targetData;
         if (chiselData != null) {
-            String[] subs     = chiselData.substitutions;
-            String[] stairs   = chiselData.stairs;
-            String[] halfs    = chiselData.halfSlabs;
-            String[] roofs    = chiselData.roofing;
-
-            // ── Detect rock type once (blockKey priority, shared by all) ─
-            String detectedRockType = MasonryCompat.detectStoneType(blockKey, subs);
-            if (detectedRockType == null) {
-                detectedRockType = MacawCompat.detectRockType(blockKey, subs);
-            }
-
-            // ── Filter vanilla Rock_* entries to detected type only ──────
-            //     Prevents cross-family entries (e.g. Rock_Stone in a
-            //     Rock_Basalt block) from polluting the chisel UI.
-            if (detectedRockType != null) {
-                subs   = filterByRockType(subs,   detectedRockType);
-                stairs = filterByRockType(stairs,  detectedRockType);
-                halfs  = filterByRockType(halfs,   detectedRockType);
-                roofs  = filterByRockType(roofs,   detectedRockType);
-            }
-
-            // ── Masonry merge (if Ymmersive is present) ─────────────────
-            if (MasonryCompat.isAvailable() && detectedRockType != null) {
-                subs   = merge(subs,   MasonryCompat.getVariants(detectedRockType));
-                stairs = merge(stairs,  MasonryCompat.getStairVariants(detectedRockType));
-                halfs  = merge(halfs,   MasonryCompat.getHalfVariants(detectedRockType));
-            }
-
-            // ── Stoneworks Expanded merge ────────────────────────────────
-            if (StoneworksCompat.isAvailable() && "stone".equals(detectedRockType)) {
-                subs = merge(subs, StoneworksCompat.getVariants());
-            }
-
-            // ── Macaw merge (Paths + Stairs) ────────────────────────────
-            if ((MacawCompat.isPathsAvailable() || MacawCompat.isStairsAvailable()) && detectedRockType != null) {
-                if (MacawCompat.isPathsAvailable()) {
-                    subs   = merge(subs,   MacawCompat.getPathsBlocks(detectedRockType));
-                    stairs = merge(stairs, MacawCompat.getPathsStairs(detectedRockType));
-                    halfs  = merge(halfs,  MacawCompat.getPathsHalfs(detectedRockType));
-                }
-                if (MacawCompat.isStairsAvailable()) {
-                    stairs = merge(stairs, MacawCompat.getMcwStairs(detectedRockType));
-                }
-            }
-
-            // ── Carpentry merge (if Ymmersive Carpentry is present) ─────
-            if (CarpentryCompat.isAvailable() && subs != null) {
-                String woodType = CarpentryCompat.detectWoodType(blockKey, subs);
-                if (woodType != null) {
-                    subs   = merge(subs,   CarpentryCompat.getVariants(woodType));
-                    stairs = merge(stairs,  CarpentryCompat.getStairVariants(woodType));
-                    halfs  = merge(halfs,   CarpentryCompat.getHalfVariants(woodType));
-                }
-            }
-
-            // ── Auto-derive stairs/halfs/roofing from block subs if empty
-            if (empty(stairs) && !empty(subs)) {
-                stairs = MasonryCompat.deriveExistingVariants(subs, "_Stairs");
-            }
-            if (empty(halfs) && !empty(subs)) {
-                halfs = MasonryCompat.deriveExistingVariants(subs, "_Half");
-            }
-            if (empty(roofs) && !empty(subs)) {
-                roofs = MasonryCompat.deriveExistingRoofing(subs);
-                if (empty(roofs))
-                    roofs = com.Ev0sMods.Ev0sChisel.compat.VanillaCompat.deriveExistingWoodRoofing(subs);
-            }
-
             // ── Open UI ─────────────────────────────────────────────────
-            if (!empty(subs) || !empty(stairs) || !empty(halfs) || !empty(roofs)) {
-                ChiselUIPage.openChisel(playerRef, store, world, blockPos, player,
-                        safe(subs), safe(stairs), safe(halfs), safe(roofs));
-            } else {
-                ((HytaleLogger.Api) HytaleLogger.getLogger().atWarning()).log("[Chisel] No substitutions found on block");
-            }
+            // The page merges this block's family (rock filter, Masonry /
+            // Stoneworks / Macaw / Carpentry, derived stairs / halfs / roofs)
+            // off the world thread; the raw snapshot is its fallback.
+            ChiselFamily family = chiselData.snapshot();
+            ChiselUIPage.openChisel(playerRef, store, world, blockPos, player,
+                    family.substitutions, family.stairs, family.halfSlabs, family.roofing,
+                    VariantPopularity.Order.of(variantOrder));
         }
     }
 
     // ─── helpers ─────────────────────────────────────────────────────────
 
-    /** Pick the first non-empty array. */
-    private static String[] pick(String[] primary, String[] fallback) {
-        if (primary != null && primary.length > 0) return primary;
-        return fallback;
-    }
-
-    /** Merge base array with a list, deduplicating, returning new array. */
-    private static String[] merge(String[] base, java.util.List<String> extra) {
-        if (extra == null || extra.isEmpty()) return base;
-        java.util.LinkedHashSet<String> set = new java.util.LinkedHashSet<>();
-        if (base != null) java.util.Collections.addAll(set, base);
-        set.addAll(extra);
-        return set.toArray(new String[0]);
-    }
-
-    private static boolean empty(String[] arr) { return arr == null || arr.length == 0; }
-    private static String[] safe(String[] arr) { return arr != null ? arr : new String[0]; }
-
-    /**
-     * Filters an array of block keys so that only {@code Rock_} entries
-     * matching the given rock type are kept.  Non-{@code Rock_} entries
-     * (mod blocks, masonry, Macaw, etc.) are always retained.
-     */
     /** Extracts {@link Chisel.Data} from either a plain or combo state, or returns {@code null}. */
     private static Chisel.Data extractChiselData(StateData sd) {
         if (sd instanceof Chisel.Data d) return d;
@@ -371,25 +213,6 @@ public class ChiselInteraction extends SimpleBlockInteraction {
         return null;
     }
 
-    private static String[] filterByRockType(String[] arr, String rockType) {
-        if (arr == null || rockType == null) return arr;
-        String matchPrefix = "rock_" + rockType.toLowerCase(java.util.Locale.ROOT);
-        java.util.List<String> filtered = new java.util.ArrayList<>();
-        for (String s : arr) {
-            if (s == null) continue;
-            String lower = s.toLowerCase(java.util.Locale.ROOT);
-            if (lower.startsWith("rock_")) {
-                if (lower.equals(matchPrefix) || lower.startsWith(matchPrefix + "_")) {
-                    filtered.add(s);
-                }
-                // else: different rock type → skip
-            } else {
-                filtered.add(s);
-            }
-        }
-        return filtered.toArray(new String[0]);
-    }
-
     /** Check if the owning player is crouching (ctrl / sneak). */
     private static boolean isCrouching(CommandBuffer<EntityStore> commandBuffer, InteractionContext ctx) {
         try {
@@ -406,10 +229,74 @@ public class ChiselInteraction extends SimpleBlockInteraction {
         }
     }
 
+    /**
+     * Steps the target through the variant list it belongs to (substitutions,
+     * stairs, half slabs or roofing of its resolved family).  Statue pillars
+     * are skipped; they change as a pair through the UI.
+     */
+    private void cycleInPlace(WorldChunk chunk, InteractionContext ctx, BlockType bt, String key, BlockPosition pos) {
+        try {
+            StateData state = bt != null ? bt.getState() : null;
+            Chisel.Data data = extractChiselData(state);
+            if (data == null || key == null || StatueIndex.isStatueBlock(key)) return;
+            if (!InteractionGate.allowRotate(ctx.getOwningEntity(), maxRotationsPerTick)) return;
+            ChiselFamily f = ChiselResolver.resolve(key);
+            if (f == null) f = data.snapshot();
+            String[] list = QuickCycle.listOf(key, f.substitutions, f.stairs, f.halfSlabs, f.roofing);
+            if (list == null) list = f.substitutions;
+            QuickCycle.apply(chunk, pos.x, pos.y, pos.z, key, QuickCycle.step(list, key, quickCycle));
+        } catch (Throwable t) {
+            LOGGER.atWarning().log("[Chisel] Quick-cycle failed: " + t.getMessage());
+        }
+    }
+
+    /**
+     * Whether crouch-interact rotates this block: blocks carrying Chisel.Data
+     * (compat-injected ones, statues included, need crouch+right-click) and
+     * derived stairs / half-slab / roof keys.
+     */
+    private static boolean canRotate(BlockType blockType, String blockKey, boolean isRightClick) {
+        if (blockType == null) return false;
+        StateData bs = null;
+        try { bs = blockType.getState(); } catch (Throwable ignored) {}
+        if (extractChiselData(bs) != null) return isRightClick;
+        if (blockKey == null) return false;
+        // ("_roofs" is covered by "_roof")
+        return InteractionSupport.endsWithIgnoreCase(blockKey, "_stairs")
+                || InteractionSupport.endsWithIgnoreCase(blockKey, "_stair")
+                || InteractionSupport.endsWithIgnoreCase(blockKey, "_half")
+                || InteractionSupport.endsWithIgnoreCase(blockKey, "_slab")
+                || InteractionSupport.containsIgnoreCase(blockKey, "_roof");
+    }
+
+    /**
+     * Records the crouch-rotate this click is expected to make, without
+     * touching the world; the authoritative run checks it against the live
+     * block and is the one that writes (see {@link RotationCycle}).  The UI
+     * path has nothing to predict.
+     */
     protected void simulateInteractWithBlock(@NonNullDecl InteractionType interactionType, @NonNullDecl InteractionContext interactionContext, @NullableDecl ItemStack itemStack, @NonNullDecl World world, @NonNullDecl Vector3i vector3i) {
+        try {
+            BlockPosition target = interactionContext.getTargetBlock();
+            if (target == null || (target.x == 0 && target.y == 0 && target.z == 0)) return;
+            if (!InteractionSupport.isCrouching(interactionContext)) return;
+            WorldChunk chunk = world.getChunkIfInMemory(ChunkUtil.indexChunkFromBlock(target.x, target.z));
+            if (chunk == null) return;
+            BlockType bt = chunk.getBlockType(target.x, target.y, target.z);
+            String key = InteractionSupport.keyOf(bt);
+            boolean isRightClick = InteractionSupport.isRightClick(interactionType);
+            if (!canRotate(bt, key, isRightClick)) return;
+            if (!InteractionGate.allowRotate(interactionContext.getOwningEntity(), maxRotationsPerTick)) return;
+            RotationCycle.predict(world, interactionContext.getOwningEntity(), bt, target.x, target.y, target.z);
+        } catch (Throwable ignored) {}
     }
 
     static {
-        CODEC = BuilderCodec.builder(ChiselInteraction.class, ChiselInteraction::new, SimpleBlockInteraction.CODEC).build();
+        CODEC = BuilderCodec.builder(ChiselInteraction.class, ChiselInteraction::new, SimpleBlockInteraction.CODEC)
+                .append(new KeyedCodec<>("OpenCoalesceMs",      Codec.INTEGER, false), (i, v) -> i.openCoalesceMs      = v, i -> i.openCoalesceMs).add()
+                .append(new KeyedCodec<>("MaxRotationsPerTick", Codec.INTEGER, false), (i, v) -> i.maxRotationsPerTick = v, i -> i.maxRotationsPerTick).add()
+                .append(new KeyedCodec<>("QuickCycle",          Codec.INTEGER, false), (i, v) -> i.quickCycle          = v, i -> i.quickCycle).add()
+                .append(new KeyedCodec<>("VariantOrder",        Codec.INTEGER, false), (i, v) -> i.variantOrder        = v, i -> i.variantOrder).add()
+                .build();
     }
 }
@@ -0,0 +1,82 @@
+package com.Ev0sMods.Ev0sChisel.Interactions;
+
+import com.hypixel.hytale.component.Ref;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Per-player throttle for the tool interactions.
+ *
+ * <p>Holding the use key fires an interaction every few ticks, and each one
+ * used to rebuild and reopen the whole HyUI page or rotate the block again.
+ * The gate keeps one small record per player entity:
+ * <ul>
+ *   <li>opening a page for the same block again within the coalesce window
+ *       is dropped, so a burst of clicks opens it once;</li>
+ *   <li>rotations and quick-cycle steps are capped per server tick.</li>
+ * </ul>
+ * Both limits come from the interaction asset ({@code OpenCoalesceMs},
+ * {@code MaxRotationsPerTick}); {@code 0} disables a limit.
+ *
+ * <p>Records are keyed weakly by the player's entity ref and dropped with it.
+ */
+final class InteractionGate {
+
+    static final int DEFAULT_OPEN_COALESCE_MS      = 250;
+    static final int DEFAULT_MAX_ROTATIONS_PER_TICK = 1;
+
+    /** Rotation budget window: one server tick. */
+    private static final long TICK_NANOS = 50_000_000L;
+
+    private static final class State {
+        long openPos = Long.MIN_VALUE;
+        long openAt;
+        long tickStart;
+        int  rotations;
+    }
+
+    private static final Map<Ref<?>, State> STATES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private InteractionGate() {}
+
+    /**
+     * @return {@code false} if {@code player} already opened a page for this
+     *         block within the last {@code coalesceMs} milliseconds
+     */
+    static boolean allowOpen(Ref<?> player, int x, int y, int z, int coalesceMs) {
+        if (player == null || coalesceMs <= 0) return true;
+        long pos = InteractionSupport.packPos(x, y, z);
+        long now = System.nanoTime();
+        State s = state(player);
+        synchronized (s) {
+            if (s.openPos == pos && now - s.openAt < coalesceMs * 1_000_000L) return false;
+            s.openPos = pos;
+            s.openAt  = now;
+            return true;
+        }
+    }
+
+    /** @return {@code false} once {@code player} used up this tick's rotation budget */
+    static boolean allowRotate(Ref<?> player, int maxPerTick) {
+        if (player == null || maxPerTick <= 0) return true;
+        long now = System.nanoTime();
+        State s = state(player);
+        synchronized (s) {
+            if (now - s.tickStart >= TICK_NANOS) {
+                s.tickStart = now;
+                s.rotations = 0;
+            }
+            if (s.rotations >= maxPerTick) return false;
+            s.rotations++;
+            return true;
+        }
+    }
+
+    private static State state(Ref<?> player) {
+        synchronized (STATES) {
+            return STATES.computeIfAbsent(player, k -> new State());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.Ev0sMods.Ev0sChisel.Interactions;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.protocol.InteractionType;
+import com.hypixel.hytale.protocol.MovementStates;
+import com.hypixel.hytale.server.core.entity.InteractionContext;
+import com.hypixel.hytale.server.core.entity.movement.MovementStatesComponent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.Locale;
+
+/**
+ * Allocation-free helpers shared by the tool interactions.
+ *
+ * <p>The interaction handlers run on the world thread for every click, so the
+ * steady-state paths avoid per-call garbage: interaction types are classified
+ * once into a table, key tests use {@link String#regionMatches} instead of
+ * lowercased copies, and empty results share one array.
+ */
+final class InteractionSupport {
+
+    /** Shared empty result; never written to. */
+    static final String[] EMPTY = new String[0];
+
+    /** {@code RIGHT_CLICK[type.ordinal()]} – secondary / use-style interaction. */
+    private static final boolean[] RIGHT_CLICK;
+
+    static {
+        boolean[] table;
+        try {
+            InteractionType[] types = InteractionType.values();
+            table = new boolean[types.length];
+            for (InteractionType t : types) {
+                String lit = t.toString().toLowerCase(Locale.ROOT);
+                table[t.ordinal()] = lit.contains("right") || lit.contains("secondary") || lit.contains("activate");
+            }
+        } catch (Throwable t) {
+            table = new boolean[0];
+        }
+        RIGHT_CLICK = table;
+    }
+
+    private InteractionSupport() {}
+
+    /** Right-click-like heuristic, answered from a table built once per type. */
+    static boolean isRightClick(InteractionType type) {
+        if (type == null) return false;
+        int o = type.ordinal();
+        return o < RIGHT_CLICK.length && RIGHT_CLICK[o];
+    }
+
+    /** {@code s.toLowerCase().contains(lowerNeedle)} without the copy. */
+    static boolean containsIgnoreCase(String s, String lowerNeedle) {
+        if (s == null) return false;
+        int n = lowerNeedle.length();
+        for (int i = 0, last = s.length() - n; i <= last; i++)
+            if (s.regionMatches(true, i, lowerNeedle, 0, n)) return true;
+        return false;
+    }
+
+    /** {@code s.toLowerCase().endsWith(lowerSuffix)} without the copy. */
+    static boolean endsWithIgnoreCase(String s, String lowerSuffix) {
+        if (s == null) return false;
+        int n = lowerSuffix.length();
+        return s.length() >= n && s.regionMatches(true, s.length() - n, lowerSuffix, 0, n);
+    }
+
+    /** {@code s.toLowerCase().startsWith(lowerPrefix)} without the copy. */
+    static boolean startsWithIgnoreCase(String s, String lowerPrefix) {
+        return s != null && s.regionMatches(true, 0, lowerPrefix, 0, lowerPrefix.length());
+    }
+
+    /**
+     * Whether the owning entity is crouching, read from its store.  Used by
+     * the simulate hooks, which get no command buffer.
+     */
+    static boolean isCrouching(InteractionContext ctx) {
+        try {
+            Ref<EntityStore> ref = ctx.getOwningEntity();
+            if (ref == null) return false;
+            MovementStatesComponent msc = ref.getStore().getComponent(ref, MovementStatesComponent.getComponentType());
+            MovementStates ms = msc != null ? msc.getMovementStates() : null;
+            return ms != null && ms.crouching;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    /** Returns {@code arr}, or the shared empty array. */
+    static String[] safe(String[] arr) {
+        return arr != null ? arr : EMPTY;
+    }
+
+    /** Packs a block position into one {@code long} map key. */
+    static long packPos(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) z & 0x3FFFFFFL) << 12 | (y & 0xFFFL);
+    }
+
+    /** Block id of {@code bt} as a string, without allocating for the usual {@code String} ids. */
+    static String keyOf(com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType bt) {
+        if (bt == null) return null;
+        Object id = bt.getId();
+        return id == null ? null : id instanceof String s ? s : id.toString();
+    }
+}
@@ -3,6 +3,8 @@ package com.Ev0sMods.Ev0sChisel.Interactions;
 import com.Ev0sMods.Ev0sChisel.ComboState;
 import com.Ev0sMods.Ev0sChisel.Paintbrush;
 import com.Ev0sMods.Ev0sChisel.ui.PaintbrushUIPage;
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.Ref;
@@ -14,8 +16,6 @@ import com.hypixel.hytale.protocol.BlockPosition;
 import com.hypixel.hytale.protocol.InteractionType;
 import com.hypixel.hytale.protocol.MovementStates;
 import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
-import com.hypixel.hytale.server.core.asset.type.blocktype.config.RotationTuple;
-import com.hypixel.hytale.server.core.asset.type.blocktype.config.VariantRotation;
 import com.hypixel.hytale.server.core.entity.InteractionContext;
 import com.hypixel.hytale.server.core.entity.movement.MovementStatesComponent;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
@@ -33,6 +33,15 @@ public class PaintbrushInteraction extends SimpleBlockInteraction {
     public static final BuilderCodec<PaintbrushInteraction> CODEC;
     private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
 
+    /** Asset-configurable throttle limits (see {@link InteractionGate}); 0 disables. */
+    protected int openCoalesceMs      = InteractionGate.DEFAULT_OPEN_COALESCE_MS;
+    protected int maxRotationsPerTick = InteractionGate.DEFAULT_MAX_ROTATIONS_PER_TICK;
+    /**
+     * Non-zero turns this interaction into a UI-less quick-cycle: the target
+     * steps this many entries through its variant list (1 = next, -1 = previous).
+     */
+    protected int quickCycle = 0;
+
     protected void interactWithBlock(@NonNullDecl World world, @NonNullDecl CommandBuffer<com.hypixel.hytale.server.core.universe.world.storage.EntityStore> commandBuffer, @NonNullDecl InteractionType interactionType, @NonNullDecl InteractionContext interactionContext, @NullableDecl ItemStack itemStack, @NonNullDecl Vector3i vector3i, @NonNullDecl CooldownHandler cooldownHandler) {
         if (interactionContext == null) {
             // ignored interaction: missing context
@@ -47,31 +56,44 @@ public class PaintbrushInteraction extends SimpleBlockInteraction {
         WorldChunk chunk = world.getChunkIfInMemory(ChunkUtil.indexChunkFromBlock(contextTargetBlock.x, contextTargetBlock.z));
         if (chunk == null) return;
 
-        // BlockState removed; rely on BlockType.getState() (component/state data)
+        // BlockState removed; rely on BlockType.getState() (component/state data).
+        // Resolved once and shared by the rotate and UI paths.
+        BlockType targetBlockType = chunk.getBlockType(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
+        StateData targetState = null;
+        try { targetState = targetBlockType != null ? targetBlockType.getState() : null; } catch (Throwable ignored) {}
+        Paintbrush.Data pData = extractPaintbrushData(targetState);
+
+        // Quick-cycle (asset-configured, no UI): next / previous colour in place,
+        // paid for with Dye_Base like a pick from the page
+        if (quickCycle != 0) {
+            try {
+                Ref<com.hypixel.hytale.server.core.universe.world.storage.EntityStore> owner = interactionContext.getOwningEntity();
+                if (pData != null && InteractionGate.allowRotate(owner, maxRotationsPerTick)) {
+                    String key = InteractionSupport.keyOf(targetBlockType);
+                    String next = pData.matrix != null
+                            ? pData.nextVariant(key, quickCycle)
+                            : QuickCycle.step(pData.colorVariants, key, quickCycle);
+                    com.hypixel.hytale.server.core.entity.entities.Player player = owner.getStore()
+                            .getComponent(owner, com.hypixel.hytale.server.core.entity.entities.Player.getComponentType());
+                    if (next != null && player != null)
+                        PaintbrushUIPage.paint(player, world,
+                                new Vector3i(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z), next);
+                }
+            } catch (Throwable t) {
+                LOGGER.atWarning().log("[Paintbrush] Quick-cycle failed: " + t.getMessage());
+            }
+            return;
+        }
 
         // Crouch + interact: rotate if block supports rotations (same behavior as Chisel)
         if (isCrouching(commandBuffer, interactionContext)) {
             try {
-                BlockType blockType = chunk.getBlockType(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
-                StateData sd = blockType != null ? blockType.getState() : null;
-                Paintbrush.Data rotPData = extractPaintbrushData(sd);
-                if (rotPData == null) {
-                    // not a paintbrush-annotated block
-                } else {
-                    VariantRotation vr = blockType.getVariantRotation();
-                    if (vr != null && vr != VariantRotation.None) {
-                        RotationTuple[] validRotations = vr.getRotations();
-                        if (validRotations != null && validRotations.length > 1) {
-                            int currentIdx = chunk.getRotationIndex(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
-                            int pos = 0;
-                            for (int i = 0; i < validRotations.length; i++) { if (validRotations[i].index() == currentIdx) { pos = i; break; } }
-                            int nextPos = (pos + 1) % validRotations.length;
-                            RotationTuple next = validRotations[nextPos];
-                            int blockId = chunk.getBlock(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
-                            int filler  = chunk.getFiller(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
-                            chunk.setBlock(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z, blockId, blockType, next.index(), filler, 0);
-                        }
-                    }
+                // Confirming a prediction is free; a fresh rotation spends the tick budget
+                if (pData != null
+                        && (RotationCycle.pending(world, interactionContext.getOwningEntity(), contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z)
+                            || InteractionGate.allowRotate(interactionContext.getOwningEntity(), maxRotationsPerTick))) {
+                    RotationCycle.rotate(world, interactionContext.getOwningEntity(), chunk, targetBlockType,
+                            contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z, false);
                 }
             } catch (Throwable t) {
                 LOGGER.atWarning().log("[Paintbrush] Failed to rotate block: " + t.getMessage());
@@ -95,21 +117,18 @@ public class PaintbrushInteraction extends SimpleBlockInteraction {
             return;
         }
 
+        // Collapse repeated opens of the same block into one
+        if (!InteractionGate.allowOpen(playerEnt, contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z, openCoalesceMs)) return;
+
         // Prefer BlockType-injected Paintbrush.Data for metadata (components)
         try {
-            BlockType bt = chunk.getBlockType(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
-            StateData sd = bt != null ? bt.getState() : null;
-            Paintbrush.Data pData = extractPaintbrushData(sd);
+            Vector3i blockPos = new Vector3i(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z);
             if (pData == null) {
-                PaintbrushUIPage.openTable(playerRef, store, world, new Vector3i(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z), player);
+                PaintbrushUIPage.openTable(playerRef, store, world, blockPos, player);
                 return;
             }
-            String[] variants = pData.colorVariants != null ? pData.colorVariants : new String[0];
-            if (variants != null && variants.length > 0) {
-                PaintbrushUIPage.openPaintbrush(playerRef, store, world, new Vector3i(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z), player, variants);
-            } else {
-                PaintbrushUIPage.openPaintbrush(playerRef, store, world, new Vector3i(contextTargetBlock.x, contextTargetBlock.y, contextTargetBlock.z), player, new String[0]);
-            }
+            PaintbrushUIPage.openPaintbrush(playerRef, store, world, blockPos, player,
+                    InteractionSupport.safe(pData.colorVariants));
         } catch (Throwable ignored) {}
     }
 
@@ -162,7 +181,27 @@ public class PaintbrushInteraction extends SimpleBlockInteraction {
         }
     }
 
-    protected void simulateInteractWithBlock(@NonNullDecl InteractionType interactionType, @NonNullDecl InteractionContext interactionContext, @NullableDecl ItemStack itemStack, @NonNullDecl World world, @NonNullDecl Vector3i vector3i) { }
+    /** Records the expected crouch-rotate; the authoritative run checks and applies it (see {@link RotationCycle}). */
+    protected void simulateInteractWithBlock(@NonNullDecl InteractionType interactionType, @NonNullDecl InteractionContext interactionContext, @NullableDecl ItemStack itemStack, @NonNullDecl World world, @NonNullDecl Vector3i vector3i) {
+        try {
+            BlockPosition target = interactionContext.getTargetBlock();
+            if (target == null || (target.x == 0 && target.y == 0 && target.z == 0)) return;
+            if (!InteractionSupport.isCrouching(interactionContext)) return;
+            WorldChunk chunk = world.getChunkIfInMemory(ChunkUtil.indexChunkFromBlock(target.x, target.z));
+            if (chunk == null) return;
+            BlockType bt = chunk.getBlockType(target.x, target.y, target.z);
+            StateData state = bt != null ? bt.getState() : null;
+            if (extractPaintbrushData(state) == null) return;
+            if (!InteractionGate.allowRotate(interactionContext.getOwningEntity(), maxRotationsPerTick)) return;
+            RotationCycle.predict(world, interactionContext.getOwningEntity(), bt, target.x, target.y, target.z);
+        } catch (Throwable ignored) {}
+    }
 
-    static { CODEC = BuilderCodec.builder(PaintbrushInteraction.class, PaintbrushInteraction::new, SimpleBlockInteraction.CODEC).build(); }
+    static {
+        CODEC = BuilderCodec.builder(PaintbrushInteraction.class, PaintbrushInteraction::new, SimpleBlockInteraction.CODEC)
+                .append(new KeyedCodec<>("OpenCoalesceMs",      Codec.INTEGER, false), (i, v) -> i.openCoalesceMs      = v, i -> i.openCoalesceMs).add()
+                .append(new KeyedCodec<>("MaxRotationsPerTick", Codec.INTEGER, false), (i, v) -> i.maxRotationsPerTick = v, i -> i.maxRotationsPerTick).add()
+                .append(new KeyedCodec<>("QuickCycle",          Codec.INTEGER, false), (i, v) -> i.quickCycle          = v, i -> i.quickCycle).add()
+                .build();
+    }
 }
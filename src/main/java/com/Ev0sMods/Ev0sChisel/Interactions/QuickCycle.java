@@ -0,0 +1,79 @@
+package com.Ev0sMods.Ev0sChisel.Interactions;
+
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * UI-less variant cycling shared by the tool interactions.
+ *
+ * <p>An interaction asset with {@code QuickCycle} set to {@code 1} (next) or
+ * {@code -1} (previous) swaps the targeted block for its neighbour in the
+ * variant list it belongs to, without building a page.
+ *
+ * <p>Variant lists are shared per family, so each list gets one key → index
+ * table, built on first use and keyed by array identity; stepping is then a
+ * hash lookup and an array read.  Tables are held weakly by their list, so
+ * lists the resolver evicts or a republish replaces take theirs with them.
+ *
+ * <p>The shipped chisel, paintbrush and hammer bind it to Primary with
+ * {@code QuickCycle: 1}; Secondary still opens the page.
+ */
+final class QuickCycle {
+
+    /** Variant list → position of each key in it; arrays hash by identity, and the table never refers back to its list. */
+    private static final Map<String[], Object2IntOpenHashMap<String>> INDEX =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private QuickCycle() {}
+
+    /** @return position of {@code key} in {@code variants}, or {@code -1}. */
+    static int indexOf(String[] variants, String key) {
+        if (variants == null || variants.length == 0 || key == null) return -1;
+        return INDEX.computeIfAbsent(variants, QuickCycle::build).getInt(key);
+    }
+
+    /**
+     * Returns the entry {@code step} positions from {@code key} in
+     * {@code variants}, wrapping around.  A key outside the list steps from
+     * just before the first entry.
+     *
+     * @return the neighbouring key, or {@code null} for an empty list
+     */
+    static String step(String[] variants, String key, int step) {
+        if (variants == null || variants.length == 0) return null;
+        int n = variants.length;
+        int idx = indexOf(variants, key);
+        if (idx < 0) idx = step > 0 ? -1 : 0;
+        return variants[Math.floorMod(idx + step, n)];
+    }
+
+    /** Returns the first of {@code lists} that contains {@code key}, or {@code null}. */
+    static String[] listOf(String key, String[]... lists) {
+        for (String[] l : lists) if (indexOf(l, key) >= 0) return l;
+        return null;
+    }
+
+    /**
+     * Replaces the block at the given position with {@code newKey}.
+     *
+     * @return {@code true} if the block changed
+     */
+    static boolean apply(WorldChunk chunk, int x, int y, int z, String currentKey, String newKey) {
+        if (chunk == null || newKey == null || newKey.equals(currentKey)) return false;
+        chunk.setBlock(x, y, z, newKey);
+        return true;
+    }
+
+    private static Object2IntOpenHashMap<String> build(String[] variants) {
+        Object2IntOpenHashMap<String> m = new Object2IntOpenHashMap<>(variants.length);
+        m.defaultReturnValue(-1);
+        for (int i = 0; i < variants.length; i++) {
+            if (variants[i] != null) m.putIfAbsent(variants[i], i);
+        }
+        return m;
+    }
+}
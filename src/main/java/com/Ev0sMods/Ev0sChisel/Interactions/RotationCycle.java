@@ -0,0 +1,215 @@
+package com.Ev0sMods.Ev0sChisel.Interactions;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.RotationTuple;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.VariantRotation;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Crouch-rotate shared by the chisel and paintbrush interactions.
+ *
+ * <p>The next rotation for every {@link VariantRotation} is precomputed into
+ * an int table indexed by the current rotation index, replacing the linear
+ * scan over {@code getRotations()} on each click.
+ *
+ * <p>{@code simulateInteractWithBlock} only records, through {@link #predict},
+ * the rotation it expects: the block and rotation it starts from and the one
+ * it ends on, chained onto the same position's earlier predictions so quick
+ * repeated clicks predict one step each.  It never touches the world.  The
+ * authoritative {@code interactWithBlock} goes through {@link #rotate}, the
+ * only writer: it consumes that player's oldest prediction there and applies
+ * it when the live block still is what the prediction started from.  On a
+ * mismatch (another player rotated or replaced the block in between) it
+ * rotates one step from the live state instead, and a block that no longer
+ * rotates is written back as it is, so a client that showed the prediction
+ * is corrected either way.  Without a prediction it rotates one step as
+ * before.  Expired predictions are dropped whenever their position is
+ * touched and by a sweep every {@value #SWEEP_EVERY} predictions.
+ */
+final class RotationCycle {
+
+    /**
+     * {@code NEXT[vr.ordinal()][current]} → next rotation index; the last slot
+     * holds the fallback for indices outside the cycle.  {@code null} when the
+     * variant has fewer than two rotations.
+     */
+    private static final int[][] NEXT;
+
+    /** Predictions older than this are ignored (the authoritative run never came). */
+    private static final long PREDICTION_TTL_NANOS = 2_000_000_000L;
+
+    /** Predictions between two sweeps of {@link #PREDICTED}. */
+    private static final int SWEEP_EVERY = 256;
+
+    /** {@code owner} expects the block {@code blockId} at rotation {@code from} to end on {@code to}. */
+    private record Prediction(World world, Ref<?> owner, long at, int blockId, int from, int to) {
+        boolean live(long now) { return now - at < PREDICTION_TTL_NANOS; }
+        boolean matches(World w, Ref<?> o) { return world == w && Objects.equals(owner, o); }
+    }
+
+    /** Packed block position → unconfirmed predictions there, oldest first. */
+    private static final Map<Long, ArrayDeque<Prediction>> PREDICTED = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger SINCE_SWEEP = new AtomicInteger();
+
+    static {
+        int[][] table;
+        try {
+            VariantRotation[] all = VariantRotation.values();
+            table = new int[all.length][];
+            for (VariantRotation vr : all) {
+                if (vr == VariantRotation.None) continue;
+                RotationTuple[] rots = vr.getRotations();
+                if (rots == null || rots.length <= 1) continue;
+                int max = 0;
+                for (RotationTuple r : rots) max = Math.max(max, r.index());
+                int[] next = new int[max + 2];
+                // Unknown current rotation behaves like the first entry of the cycle
+                Arrays.fill(next, rots[1].index());
+                for (int i = 0; i < rots.length; i++) next[rots[i].index()] = rots[(i + 1) % rots.length].index();
+                table[vr.ordinal()] = next;
+            }
+        } catch (Throwable t) {
+            table = new int[0][];
+        }
+        NEXT = table;
+    }
+
+    private RotationCycle() {}
+
+    /** @return the rotation index after {@code current}, or {@code -1} if {@code bt} does not rotate. */
+    static int next(BlockType bt, int current) {
+        if (bt == null) return -1;
+        VariantRotation vr = bt.getVariantRotation();
+        if (vr == null) return -1;
+        int o = vr.ordinal();
+        int[] next = o < NEXT.length ? NEXT[o] : null;
+        if (next == null) return -1;
+        return current >= 0 && current < next.length - 1 ? next[current] : next[next.length - 1];
+    }
+
+    /**
+     * Predicted rotation from the simulate hook: queues for {@code owner} the
+     * step after the block's current rotation, or after the last rotation
+     * still predicted there.  Reads the world, never writes it.
+     */
+    static void predict(World world, Ref<?> owner, BlockType bt, int x, int y, int z) {
+        WorldChunk chunk = world.getChunkIfInMemory(ChunkUtil.indexChunkFromBlock(x, z));
+        if (chunk == null) return;
+        int blockId = chunk.getBlock(x, y, z);
+        int current = chunk.getRotationIndex(x, y, z);
+        long now = System.nanoTime();
+        PREDICTED.compute(InteractionSupport.packPos(x, y, z), (k, q) -> {
+            if (q == null) q = new ArrayDeque<>(2);
+            else q.removeIf(e -> !e.live(now));
+            Prediction last = null;
+            for (Prediction e : q) if (e.world == world && e.blockId == blockId) last = e;
+            int from = last != null ? last.to : current;
+            int to = next(bt, from);
+            if (to >= 0) q.addLast(new Prediction(world, owner, now, blockId, from, to));
+            return q.isEmpty() ? null : q;
+        });
+        if (SINCE_SWEEP.incrementAndGet() >= SWEEP_EVERY) {
+            SINCE_SWEEP.set(0);
+            sweep(now);
+        }
+    }
+
+    /** @return {@code true} if {@code owner} has a prediction at this position still waiting to be confirmed. */
+    static boolean pending(World world, Ref<?> owner, int x, int y, int z) {
+        long now = System.nanoTime();
+        boolean[] found = new boolean[1];
+        // Queues are only read or changed inside the map's per-key compute
+        PREDICTED.computeIfPresent(InteractionSupport.packPos(x, y, z), (k, q) -> {
+            q.removeIf(e -> !e.live(now));
+            for (Prediction p : q) if (p.matches(world, owner)) { found[0] = true; break; }
+            return q.isEmpty() ? null : q;
+        });
+        return found[0];
+    }
+
+    /**
+     * Authoritative rotation, and the only write.  Applies {@code owner}'s
+     * oldest pending prediction at this position if the live block still
+     * matches where it started; otherwise rotates one step from the live
+     * rotation, or rewrites a mispredicted block that no longer rotates.
+     *
+     * @return {@code true} if the click was a rotation
+     */
+    static boolean rotate(World world, Ref<?> owner, WorldChunk chunk, BlockType bt, int x, int y, int z, boolean pillar) {
+        Prediction p = consume(world, owner, InteractionSupport.packPos(x, y, z));
+        int current = chunk.getRotationIndex(x, y, z);
+        if (p != null && p.blockId == chunk.getBlock(x, y, z) && p.from == current) {
+            apply(chunk, bt, x, y, z, p.to, pillar);
+            return true;
+        }
+        int target = next(bt, current);
+        if (target < 0) {
+            // The client showed a rotation the server will not make: send the block back as it is
+            if (p != null) apply(chunk, bt, x, y, z, current, pillar);
+            return p != null;
+        }
+        if (target != current) apply(chunk, bt, x, y, z, target, pillar);
+        return true;
+    }
+
+    /** Removes and returns {@code owner}'s oldest live prediction at {@code pos}, dropping expired ones around it. */
+    private static Prediction consume(World world, Ref<?> owner, long pos) {
+        long now = System.nanoTime();
+        Prediction[] found = new Prediction[1];
+        PREDICTED.computeIfPresent(pos, (k, q) -> {
+            for (Iterator<Prediction> it = q.iterator(); it.hasNext(); ) {
+                Prediction p = it.next();
+                if (!p.live(now)) {
+                    it.remove();
+                } else if (found[0] == null && p.matches(world, owner)) {
+                    it.remove();
+                    found[0] = p;
+                }
+            }
+            return q.isEmpty() ? null : q;
+        });
+        return found[0];
+    }
+
+    /** Drops every expired prediction; positions nobody clicks again would otherwise keep theirs. */
+    private static void sweep(long now) {
+        for (Long pos : PREDICTED.keySet()) {
+            PREDICTED.computeIfPresent(pos, (k, q) -> {
+                q.removeIf(e -> !e.live(now));
+                return q.isEmpty() ? null : q;
+            });
+        }
+    }
+
+    private static void apply(WorldChunk chunk, BlockType bt, int x, int y, int z, int rotation, boolean pillar) {
+        if (pillar) {
+            // Rotate both bottom and top of a statue pillar
+            int bottomId = chunk.getBlock(x, y, z);
+            int bottomFiller = chunk.getFiller(x, y, z);
+            int topId = chunk.getBlock(x, y + 1, z);
+            int topFiller = chunk.getFiller(x, y + 1, z);
+            try {
+                chunk.setBlock(x, y, z, bottomId, bt, rotation, bottomFiller, 0);
+                chunk.setBlock(x, y + 1, z, topId, bt, rotation, topFiller, 0);
+                return;
+            } catch (Throwable t) {
+                // ignore and fall back to single-block rotation
+            }
+        }
+        int blockId = chunk.getBlock(x, y, z);
+        int filler  = chunk.getFiller(x, y, z);
+        chunk.setBlock(x, y, z, blockId, bt, rotation, filler, 0);
+    }
+}
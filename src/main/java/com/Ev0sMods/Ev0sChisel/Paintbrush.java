@@ -1,5 +1,7 @@
 package com.Ev0sMods.Ev0sChisel;
 
+import com.Ev0sMods.Ev0sChisel.compat.FamilyRefs;
+import com.Ev0sMods.Ev0sChisel.compat.VariantMatrix;
 import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.codec.KeyedCodec;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
@@ -13,10 +15,20 @@ public class Paintbrush {
     public String source;
     public String[] colorVariants;
 
+    // Stable family id (owning block key) used by COMPACT_CODEC; when set,
+    // colorVariants only holds a per-instance override
+    public String family;
+
     public Data data;
 
     public static final BuilderCodec<Paintbrush> CODEC = buildCodec();
 
+    /**
+     * Compact form: family id plus an optional override.  Reads the verbose
+     * {@code ColorVariants} key for migration.
+     */
+    public static final BuilderCodec<Paintbrush> COMPACT_CODEC = buildCompactCodec();
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     private static BuilderCodec<Paintbrush> buildCodec() {
         try {
@@ -29,8 +41,118 @@ public class Paintbrush {
         }
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static BuilderCodec<Paintbrush> buildCompactCodec() {
+        try {
+            return BuilderCodec.builder(Paintbrush.class, Paintbrush::new)
+                    .append(new KeyedCodec<>("Family", Codec.STRING, true), (i, v) -> i.family = v, Paintbrush::familyId).add()
+                    .append(new KeyedCodec<>("Source", Codec.STRING, true), (i, v) -> i.source = v, Paintbrush::compactSource).add()
+                    .append(new KeyedCodec<>("ColorVariants", Codec.STRING_ARRAY, true), (i, v) -> i.colorVariants = v,
+                            Paintbrush::compactVariants).add()
+                    .build();
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the family id to persist: {@link #family}, else {@link #source}
+     *         when it resolves, else a member block listing exactly
+     *         {@link #colorVariants}
+     */
+    public String familyId() {
+        if (family != null) return family;
+        if (FamilyRefs.paintbrush(source) != null) return source;
+        return FamilyRefs.paintbrushMember(colorVariants);
+    }
+
+    /** Resolves this instance's variants: the override if present, else the family's. */
+    public String[] resolveVariants() {
+        return FamilyRefs.pick(colorVariants, familyVariants());
+    }
+
+    /** Resolves this instance's source: its own if stored, else the family's. */
+    public String resolveSource() {
+        if (source != null) return source;
+        Data d = FamilyRefs.paintbrush(familyId());
+        return d != null ? d.source : null;
+    }
+
+    /**
+     * Size in bytes of this instance encoded with {@link #COMPACT_CODEC} or
+     * {@link #CODEC}: exactly the fields their getters write.
+     */
+    public int encodedSize(boolean compact) {
+        if (!compact) {
+            return FamilyRefs.documentSize(FamilyRefs.fieldSize("Source", source)
+                    + FamilyRefs.fieldSize("ColorVariants", colorVariants));
+        }
+        return FamilyRefs.documentSize(FamilyRefs.fieldSize("Family", familyId())
+                + FamilyRefs.fieldSize("Source", compactSource())
+                + FamilyRefs.fieldSize("ColorVariants", compactVariants()));
+    }
+
+    /** {@link #source} unless the family id or the family's own source already says it. */
+    private String compactSource() {
+        String id = familyId();
+        if (source == null || source.equals(id)) return null;
+        Data d = FamilyRefs.paintbrush(id);
+        return d != null && source.equals(d.source) ? null : source;
+    }
+
+    private String[] compactVariants() {
+        return FamilyRefs.override(colorVariants, familyVariants());
+    }
+
+    private String[] familyVariants() {
+        Data d = FamilyRefs.paintbrush(familyId());
+        return d != null ? d.colorVariants : null;
+    }
+
     public static class Data extends StateData {
         public String source;
         public String[] colorVariants;
+
+        /** Shared family matrix this block belongs to, or {@code null} for legacy flat groups. */
+        public VariantMatrix matrix;
+        /** This block's cell in {@link #matrix}. */
+        public int cell = VariantMatrix.NONE;
+        /** Axis of {@link #matrix} that {@link #colorVariants} runs along. */
+        public int axis = VariantMatrix.NONE;
+
+        /**
+         * Binds this state to a cell of a shared matrix.  {@link #colorVariants}
+         * becomes the shared line through {@code cell} along {@code axis}
+         * instead of a per-block copy.
+         */
+        public Data bind(VariantMatrix matrix, int cell, int axis) {
+            this.matrix = matrix;
+            this.cell   = cell;
+            this.axis   = axis;
+            this.colorVariants = matrix.line(cell, axis);
+            return this;
+        }
+
+        /**
+         * Returns the variant {@code step} positions away from {@code currentKey}
+         * along the colour axis (same shape, next colour), wrapping around.
+         * Constant-time when bound to a matrix; falls back to a scan of
+         * {@link #colorVariants} otherwise.
+         *
+         * @return the neighbouring key, or {@code null} when none is known
+         */
+        public String nextVariant(String currentKey, int step) {
+            if (matrix != null) {
+                int c = matrix.cellOf(currentKey);
+                if (c == VariantMatrix.NONE) c = cell;
+                return matrix.keyAt(matrix.step(c, axis, step));
+            }
+            if (colorVariants == null || colorVariants.length == 0) return null;
+            int idx = 0;
+            for (int i = 0; i < colorVariants.length; i++)
+                if (colorVariants[i].equals(currentKey)) { idx = i; break; }
+            int n = colorVariants.length;
+            return colorVariants[((idx + step) % n + n) % n];
+        }
     }
 }
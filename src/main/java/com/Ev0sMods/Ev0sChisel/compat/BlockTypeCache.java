@@ -50,6 +50,18 @@ public final class BlockTypeCache {
 
     public static void clear() { CACHE.clear(); }
 
+    /**
+     * Returns a copy of every resolved entry (misses are skipped).
+     */
+    public static Map<String, BlockType> snapshot() {
+        Map<String, BlockType> out = new java.util.LinkedHashMap<>();
+        synchronized (CACHE) {
+            for (Map.Entry<String, BlockType> e : CACHE.entrySet())
+                if (e.getValue() != null) out.put(e.getKey(), e.getValue());
+        }
+        return out;
+    }
+
     /**
      * Bulk-preload a collection of keys in parallel using N threads.
      * Returns the number of keys successfully loaded (non-null BlockType).
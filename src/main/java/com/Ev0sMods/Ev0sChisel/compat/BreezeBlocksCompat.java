@@ -133,6 +133,8 @@ public final class BreezeBlocksCompat {
 
                     ReflectionCache.setField(StateData.class, data, "id", "Ev0sCarpenterHammer");
                     ReflectionCache.setField(BlockType.class, bt,   "state", data);
+
+                    HammerIndex.record(key);
                     count++;
                 } catch (Throwable t) {
                     LOGGER.atWarning().log("[BreezeBlocksCompat] Inject failed for " + key + ": " + t.getMessage());
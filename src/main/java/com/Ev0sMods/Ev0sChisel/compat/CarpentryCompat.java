@@ -26,26 +26,13 @@ public final class CarpentryCompat {
     private static boolean detected = false;
 
     /** Wood type (normalised) → unmodifiable list of full-block variant keys. */
-    private static final Map<String, List<String>> VARIANTS_BY_TYPE = new LinkedHashMap<>();
+    private static volatile Map<String, List<String>> VARIANTS_BY_TYPE = new LinkedHashMap<>();
 
     /** Wood type (normalised) → unmodifiable list of stair variant keys. */
-    private static final Map<String, List<String>> STAIR_VARIANTS_BY_TYPE = new LinkedHashMap<>();
+    private static volatile Map<String, List<String>> STAIR_VARIANTS_BY_TYPE = new LinkedHashMap<>();
 
     /** Wood type (normalised) → unmodifiable list of half-slab variant keys. */
-    private static final Map<String, List<String>> HALF_VARIANTS_BY_TYPE = new LinkedHashMap<>();
-
-    /**
-     * Wood-block prefix (normalised, e.g. "wood_hardwood") → wood type key
-     * (normalised, e.g. "hardwood").  Sorted longest-first so
-     * "wood_tropicalwood" matches before shorter prefixes.
-     */
-    private static final List<Map.Entry<String, String>> WOOD_PREFIX_TO_TYPE = new ArrayList<>();
-
-    /**
-     * Bare type-name prefix (normalised, e.g. "hardwood") → wood type key.
-     * Sorted longest-first.  Used to match carpentry variant block keys.
-     */
-    private static final List<Map.Entry<String, String>> TYPE_PREFIX_TO_TYPE = new ArrayList<>();
+    private static volatile Map<String, List<String>> HALF_VARIANTS_BY_TYPE = new LinkedHashMap<>();
 
     // ── The 12 carpentry design patterns ────────────────────────────────
     private static final String[] DESIGNS = {
@@ -75,6 +62,7 @@ public final class CarpentryCompat {
         try {
             Class.forName("net.conczin.YmmersiveCarpentry");
             detected = true;
+            resetRegistries();
             buildVariantMap();
             buildWoodPrefixMap();
         } catch (ClassNotFoundException e) {
@@ -144,29 +132,25 @@ public final class CarpentryCompat {
     public static String detectWoodType(String blockKey, String[] substitutions) {
         if (!detected) return null;
 
-        // Priority: match the block's own key
-        if (blockKey != null) {
-            String keyNorm = blockKey.toLowerCase(Locale.ROOT);
-            // Check "Wood_{Type}" prefix  (e.g. "Wood_Hardwood_Planks")
-            for (Map.Entry<String, String> entry : WOOD_PREFIX_TO_TYPE) {
-                String prefix = entry.getKey();
-                if (keyNorm.equals(prefix) || keyNorm.startsWith(prefix + "_")) {
-                    return entry.getValue();
-                }
-            }
-            // Check bare type name  (e.g. "Hardwood_Arenberg" → hardwood)
-            for (Map.Entry<String, String> entry : TYPE_PREFIX_TO_TYPE) {
-                String prefix = entry.getKey();
-                if (keyNorm.equals(prefix) || keyNorm.startsWith(prefix + "_")) {
-                    return entry.getValue();
-                }
-            }
-        }
+        // Priority: the block's own key
+        String fromKey = woodTypeOfKey(blockKey);
+        if (fromKey != null) return fromKey;
 
         // Fallback: scan substitutions
         return detectWoodType(substitutions);
     }
 
+    /**
+     * Wood type named by the block key alone — "Wood_{Type}" (e.g.
+     * "Wood_Hardwood_Planks") or bare type name (e.g. "Hardwood_Arenberg").
+     *
+     * @return the wood type (normalised), or null
+     */
+    public static String woodTypeOfKey(String blockKey) {
+        if (!detected || blockKey == null) return null;
+        return MaterialTrie.material(blockKey, MaterialTrie.Owner.CARPENTRY);
+    }
+
     /**
      * Detects the wood type by examining the existing substitution keys.
      *
@@ -175,17 +159,9 @@ public final class CarpentryCompat {
      */
     public static String detectWoodType(String[] substitutions) {
         if (!detected || substitutions == null) return null;
-        for (String sub : substitutions) {
-            if (sub == null) continue;
-            String subNorm = sub.toLowerCase(Locale.ROOT);
-            // Check vanilla wood prefix (Wood_Hardwood, Wood_Softwood, …)
-            for (Map.Entry<String, String> entry : WOOD_PREFIX_TO_TYPE) {
-                String prefix = entry.getKey();
-                if (subNorm.equals(prefix) || subNorm.startsWith(prefix + "_")) {
-                    return entry.getValue();
-                }
-            }
-        }
+        // Check vanilla wood prefix (Wood_Hardwood, Wood_Softwood, …)
+        String wood = MaterialTrie.firstMaterial(substitutions, MaterialTrie.Owner.CARPENTRY, MaterialTrie.Kind.WOOD);
+        if (wood != null) return wood;
         // Fallback: check for Carpentry block-name prefix ({WoodType}_{Design})
         for (String sub : substitutions) {
             if (sub == null) continue;
@@ -230,25 +206,37 @@ public final class CarpentryCompat {
     }
 
     /**
-     * Builds the wood-prefix lookup sorted by descending prefix length
-     * so that "wood_tropicalwood" is tested before shorter prefixes.
+     * Registers the "Wood_{Type}" and bare "{Type}" prefixes with the shared
+     * {@link MaterialTrie} (longest match wins).
      */
     private static void buildWoodPrefixMap() {
+        MaterialTrie.Builder b = MaterialTrie.builder(MaterialTrie.Owner.CARPENTRY);
         for (String type : WOOD_TYPES) {
             String normType = normalise(type);
-            String woodPrefix = normalise("Wood_" + type);
-            WOOD_PREFIX_TO_TYPE.add(Map.entry(woodPrefix, normType));
+            b.add("Wood_" + type, normType, MaterialTrie.Kind.WOOD);
+            b.add(type, normType, MaterialTrie.Kind.TIMBER);
         }
-        WOOD_PREFIX_TO_TYPE.sort((a, b) -> Integer.compare(b.getKey().length(), a.getKey().length()));
+        MaterialTrie.define(b);
+    }
 
-        // Build bare type-name prefix map (for matching carpentry variant keys)
-        for (String type : WOOD_TYPES) {
-            String normType = normalise(type);
-            TYPE_PREFIX_TO_TYPE.add(Map.entry(normType, normType));
-        }
-        TYPE_PREFIX_TO_TYPE.sort((a, b) -> Integer.compare(b.getKey().length(), a.getKey().length()));
+    /**
+     * Replaces the registries with fresh mutable collections so a repeated
+     * {@link #init()} (setup + start, or a reload after sealing) rebuilds
+     * from scratch instead of appending duplicates to frozen structures.
+     */
+    private static void resetRegistries() {
+        VARIANTS_BY_TYPE       = new LinkedHashMap<>();
+        STAIR_VARIANTS_BY_TYPE = new LinkedHashMap<>();
+        HALF_VARIANTS_BY_TYPE  = new LinkedHashMap<>();
+        MaterialTrie.clear(MaterialTrie.Owner.CARPENTRY);
+        CompatSeal.unseal();
+    }
 
-        // built wood-prefix map (info log removed)
+    /** Freezes the wood registries into compact immutable collections (see {@link CompatSeal}). */
+    static void seal(CompatSeal.Tally tally) {
+        VARIANTS_BY_TYPE       = CompatSeal.freezeListMap(VARIANTS_BY_TYPE, tally);
+        STAIR_VARIANTS_BY_TYPE = CompatSeal.freezeListMap(STAIR_VARIANTS_BY_TYPE, tally);
+        HALF_VARIANTS_BY_TYPE  = CompatSeal.freezeListMap(HALF_VARIANTS_BY_TYPE, tally);
     }
 
     /** Lowercase normalisation so lookups are case-insensitive. */
@@ -422,7 +410,7 @@ public final class CarpentryCompat {
             if (woodBlock == null) return null;
             StateData state = woodBlock.getState();
             if (state instanceof Chisel.Data chiselData) {
-                return chiselData.substitutions;
+                return chiselData.snapshot().substitutions;
             }
         } catch (Exception e) {
             LOGGER.atWarning().log("[Chisel] Could not read wood subs for Wood_"
@@ -1,8 +1,6 @@
 package com.Ev0sMods.Ev0sChisel.compat;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedHashSet;
 import java.util.List;
 
 import com.Ev0sMods.Ev0sChisel.Chisel;
@@ -60,8 +58,9 @@ public final class ChippedCompat {
 
     /**
      * Merges ESI stone blocks into the {@code Rock_Stone} vanilla chisel
-     * family.  Existing family members have the ESI blocks appended to their
-     * {@code substitutions}; the ESI blocks themselves receive a full
+     * family.  Existing family members are attached to the shared
+     * {@link FamilyStore} entry and the ESI blocks are appended with a single
+     * copy-on-write swap; the ESI blocks themselves receive a full
      * {@link Chisel.Data} so chiseling from them opens the stone picker.
      */
     public static void init() {
@@ -77,29 +76,24 @@ public final class ChippedCompat {
             BlockType stoneBt = BlockTypeCache.get("Rock_Stone");
             if (stoneBt == null) return;
             Chisel.Data stoneChisel = getChiselData(stoneBt);
-            if (stoneChisel == null || stoneChisel.substitutions == null) return;
-
-            // Build merged substitutions: full vanilla family + ESI blocks
-            LinkedHashSet<String> mergedSet = new LinkedHashSet<>();
-            Collections.addAll(mergedSet, stoneChisel.substitutions);
-            mergedSet.addAll(esiKeys);
-            String[] mergedArr = mergedSet.toArray(new String[0]);
-
-            // Update every existing family member to include the ESI blocks
-            int updated = 0;
-            for (String member : stoneChisel.substitutions) {
+            if (stoneChisel == null) return;
+            ChiselFamily stone = stoneChisel.snapshot();
+            if (stone.substitutions.length == 0) return;
+
+            // Collect live family members and publish full vanilla family +
+            // ESI blocks as one copy-on-write swap
+            List<Chisel.Data> members = new ArrayList<>();
+            for (String member : stone.substitutions) {
                 BlockType bt = BlockTypeCache.get(member);
                 if (bt == null) continue;
                 Chisel.Data cd = getChiselData(bt);
-                if (cd == null) continue;
-                cd.substitutions = mergedArr;
-                updated++;
+                if (cd != null) members.add(cd);
             }
+            int updated = members.size();
+            ChiselFamily merged = FamilyStore.extend("Rock_Stone", stoneChisel, members, esiKeys);
+            if (merged == null) return;
 
             // Inject Chisel.Data onto the ESI blocks themselves
-            String[] stairs  = stoneChisel.stairs    != null ? stoneChisel.stairs    : new String[0];
-            String[] halfs   = stoneChisel.halfSlabs  != null ? stoneChisel.halfSlabs  : new String[0];
-            String[] roofing = stoneChisel.roofing    != null ? stoneChisel.roofing    : new String[0];
             int injected = 0;
             for (String key : esiKeys) {
                 BlockType bt = BlockTypeCache.get(key);
@@ -108,10 +102,11 @@ public final class ChippedCompat {
 
                 Chisel.Data data = new Chisel.Data();
                 data.source        = "Rock_Stone";
-                data.substitutions = mergedArr;
-                data.stairs        = stairs;
-                data.halfSlabs     = halfs;
-                data.roofing       = roofing;
+                data.substitutions = merged.substitutions;
+                data.stairs        = merged.stairs;
+                data.halfSlabs     = merged.halfSlabs;
+                data.roofing       = merged.roofing;
+                FamilyStore.adopt("Rock_Stone", data);
                 if (ComboStateHelper.inject(bt, data, null, null)) injected++;
             }
 
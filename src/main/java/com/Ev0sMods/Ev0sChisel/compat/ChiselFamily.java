@@ -0,0 +1,75 @@
+package com.Ev0sMods.Ev0sChisel.compat;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Immutable snapshot of one chisel family's variant buckets.
+ *
+ * <p>Snapshots are never modified after construction; a compat pass that needs
+ * to extend a family builds a new snapshot (see the {@code with…} helpers) and
+ * swaps it in through {@link FamilyStore}.  Readers therefore take exactly one
+ * reference per operation and always see the four buckets from the same
+ * generation.  The constructors copy the caller's arrays; the snapshot's own
+ * arrays are shared with every reader, so callers must treat them as
+ * read-only.
+ */
+public final class ChiselFamily {
+
+    private static final String[] EMPTY = new String[0];
+
+    /**
+     * Identity of this variant set for caches, or {@code null} when it has
+     * none: two snapshots with the same id have the same buckets.  Set by
+     * {@link ChiselResolver} on the results it hands out.
+     */
+    public final String   id;
+    public final String   source;
+    public final String[] substitutions;
+    public final String[] stairs;
+    public final String[] halfSlabs;
+    public final String[] roofing;
+
+    public ChiselFamily(String source, String[] substitutions, String[] stairs,
+                        String[] halfSlabs, String[] roofing) {
+        this(null, source, substitutions, stairs, halfSlabs, roofing);
+    }
+
+    public ChiselFamily(String id, String source, String[] substitutions, String[] stairs,
+                        String[] halfSlabs, String[] roofing) {
+        this(id, source, copy(substitutions), copy(stairs), copy(halfSlabs), copy(roofing), true);
+    }
+
+    /** Takes the arrays as they are; only for arrays no caller can still reach. */
+    private ChiselFamily(String id, String source, String[] substitutions, String[] stairs,
+                         String[] halfSlabs, String[] roofing, boolean owned) {
+        this.id            = id;
+        this.source        = source;
+        this.substitutions = substitutions;
+        this.stairs        = stairs;
+        this.halfSlabs     = halfSlabs;
+        this.roofing       = roofing;
+    }
+
+    public ChiselFamily withSubstitutions(String[] subs) {
+        return new ChiselFamily(null, source, copy(subs), stairs, halfSlabs, roofing, true);
+    }
+
+    /**
+     * Returns a snapshot whose substitutions are this family's followed by
+     * {@code extra} (order-preserving, deduplicated), or {@code this} when
+     * nothing new would be added.
+     */
+    public ChiselFamily plusSubstitutions(List<String> extra) {
+        if (extra == null || extra.isEmpty()) return this;
+        LinkedHashSet<String> merged = new LinkedHashSet<>();
+        Collections.addAll(merged, substitutions);
+        if (!merged.addAll(extra)) return this;
+        return new ChiselFamily(null, source, merged.toArray(EMPTY), stairs, halfSlabs, roofing, true);
+    }
+
+    private static String[] copy(String[] a) {
+        return a == null || a.length == 0 ? EMPTY : a.clone();
+    }
+}
@@ -0,0 +1,475 @@
+package com.Ev0sMods.Ev0sChisel.compat;
+
+import com.Ev0sMods.Ev0sChisel.Chisel;
+import com.Ev0sMods.Ev0sChisel.ComboState;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.StateData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single definition of the chisel merge rules shared by
+ * {@code ChiselInteraction} and {@code ChiselUIPage}.
+ *
+ * <p>For a block key the engine takes the block's {@link ChiselFamily}
+ * snapshot, detects the rock type, drops cross-family {@code Rock_*} entries,
+ * merges the Masonry / Stoneworks / Macaw / Carpentry variants, derives
+ * stairs / halfs / roofs from the blocks and finally sorts every key into its
+ * bucket.  The result is another {@link ChiselFamily} with the same
+ * {@code source} as the input family.
+ *
+ * <p>The block key only matters through the rock type and the key's own wood
+ * type, so results are cached per {@link ResultKey} — the block's
+ * {@link FamilyStore.Ref#id() family id} plus those two — and every member of
+ * a family shares one set of arrays.  An entry remembers the family's
+ * {@link FamilyStore.Ref#generation() generation} and is recomputed on its
+ * next lookup once that family is republished; other families' entries stay
+ * valid.  Per block key only the detection is remembered.  Both caches are
+ * LRU-bounded; {@link #stats()} reports hits, misses, evictions and size.
+ *
+ * <p>Results carry a {@link ChiselFamily#id} naming the family version and
+ * merge inputs, which the UI uses to key its own caches.
+ *
+ * <p>Everything is computed for every known block by {@link #warm()} at the
+ * end of startup, or on first use for blocks injected later.
+ */
+public final class ChiselResolver {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    /** Upper bound on cached results (distinct family / rock / wood combinations). */
+    private static final int MAX_RESULTS = 4096;
+
+    /** Upper bound on remembered per-block detections. */
+    private static final int MAX_DETECTIONS = 16384;
+
+    /** What a result depends on besides the family contents. */
+    private record ResultKey(String familyId, String rockType, String keyWoodType) {}
+
+    /** A cached result; {@code null} resolved marks a family that resolves to nothing. */
+    private record Result(ChiselFamily resolved, long generation) {}
+
+    /** Block key → the snapshot its detection ran against and the key it maps to. */
+    private record Detection(ChiselFamily input, ResultKey key) {}
+
+    private static final LinkedHashMap<String, Detection> DETECTIONS = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Detection> eldest) {
+            return size() > MAX_DETECTIONS;
+        }
+    };
+
+    private static final LinkedHashMap<ResultKey, Result> RESULTS = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ResultKey, Result> eldest) {
+            if (size() <= MAX_RESULTS) return false;
+            EVICTIONS.increment();
+            return true;
+        }
+    };
+
+    /** Bumped under the {@link #RESULTS} lock whenever an entry is added, replaced or dropped. */
+    private static volatile long version;
+
+    private static final LongAdder HITS      = new LongAdder();
+    private static final LongAdder MISSES    = new LongAdder();
+    private static final LongAdder EVICTIONS = new LongAdder();
+
+    /** Snapshot of the result cache counters. */
+    public record Stats(long hits, long misses, long evictions, int size) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d results, hit rate %.1f%% (%d hits, %d misses), %d evictions",
+                    size, hitRate() * 100, hits, misses, evictions);
+        }
+    }
+
+    private ChiselResolver() {}
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Public API
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * Returns the fully merged variant buckets for {@code blockKey}.
+     *
+     * @return the resolved family, or {@code null} when the block carries no
+     *         chisel state or every bucket ends up empty
+     */
+    public static ChiselFamily resolve(String blockKey) {
+        if (blockKey == null) return null;
+        Chisel.Data data = chiselData(BlockTypeCache.get(blockKey));
+        if (data == null) return null;
+        FamilyStore.Ref ref = FamilyStore.attach(data);
+        // Generation first: a publish in between leaves an older generation
+        // on the entry, which only causes a recompute
+        long gen = ref.generation();
+        ChiselFamily family = ref.get();
+
+        Detection d;
+        synchronized (DETECTIONS) {
+            d = DETECTIONS.get(blockKey);
+        }
+        if (d == null || d.input != family) {
+            d = new Detection(family, detect(blockKey, family, ref.id()));
+            synchronized (DETECTIONS) {
+                DETECTIONS.put(blockKey, d);
+            }
+        }
+
+        Result r;
+        synchronized (RESULTS) {
+            r = RESULTS.get(d.key);
+        }
+        if (r != null && r.generation == gen) {
+            HITS.increment();
+            return r.resolved;
+        }
+        MISSES.increment();
+        ChiselFamily resolved = compute(d.key, family, gen);
+        synchronized (RESULTS) {
+            RESULTS.put(d.key, new Result(resolved, gen));
+            version++;
+        }
+        return resolved;
+    }
+
+    /**
+     * Precomputes the result for every chisel block known to
+     * {@link BlockTypeCache}.  Called once after the compat passes finish.
+     * Live lookups then find both the detection and the shared result and
+     * never merge, until a family is republished.
+     *
+     * @return number of blocks resolved
+     */
+    public static int warm() {
+        clear();
+        long hits0 = HITS.sum();
+        int n = 0;
+        try {
+            for (Map.Entry<String, BlockType> e : BlockTypeCache.snapshot().entrySet()) {
+                if (chiselData(e.getValue()) == null) continue;
+                if (resolve(e.getKey()) != null) n++;
+            }
+        } catch (Throwable t) {
+            LOGGER.atWarning().log("[ChiselResolver] Warm-up failed: " + t.getMessage());
+        }
+        Stats st = stats();
+        LOGGER.atInfo().log("[ChiselResolver] Warmed " + n + " blocks into " + st.size()
+                + " shared results (" + (HITS.sum() - hits0) + " blocks reused a family's result): " + st);
+        return n;
+    }
+
+    /**
+     * Every variant key of every resolved family, in first-seen order.
+     * Covers all chisel blocks once {@link #warm()} has run.
+     */
+    public static String[] variantKeys() {
+        LinkedHashSet<String> keys = new LinkedHashSet<>();
+        Result[] results;
+        synchronized (RESULTS) {
+            results = RESULTS.values().toArray(new Result[0]);
+        }
+        for (Result r : results) {
+            ChiselFamily f = r.resolved;
+            if (f == null) continue;
+            addAll(keys, f.substitutions);
+            addAll(keys, f.stairs);
+            addAll(keys, f.halfSlabs);
+            addAll(keys, f.roofing);
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    /**
+     * Distinct resolved families, one per {@link ChiselFamily#id id}, in
+     * first-seen order.  Covers all chisel blocks once {@link #warm()} has run.
+     */
+    public static List<ChiselFamily> families() {
+        Result[] results;
+        synchronized (RESULTS) {
+            results = RESULTS.values().toArray(new Result[0]);
+        }
+        // Equal ids mean equal buckets, even when two entries computed separate snapshots
+        LinkedHashMap<String, ChiselFamily> out = new LinkedHashMap<>();
+        for (Result r : results) {
+            ChiselFamily f = r.resolved;
+            if (f != null && f.id != null) out.putIfAbsent(f.id, f);
+        }
+        return new ArrayList<>(out.values());
+    }
+
+    /** @return current result cache counters */
+    public static Stats stats() {
+        int size;
+        synchronized (RESULTS) {
+            size = RESULTS.size();
+        }
+        return new Stats(HITS.sum(), MISSES.sum(), EVICTIONS.sum(), size);
+    }
+
+    /** Drops every cached result (used when the compat layer is re-initialised). */
+    public static void clear() {
+        synchronized (DETECTIONS) {
+            DETECTIONS.clear();
+        }
+        synchronized (RESULTS) {
+            RESULTS.clear();
+            version++;
+        }
+    }
+
+    /**
+     * Changes whenever the cached results do, so anything built from
+     * {@link #variantKeys()} or {@link #families()} can tell it is stale.
+     * Read it before the lists: a change in between only causes a rebuild.
+     */
+    public static long version() {
+        return version;
+    }
+
+    /**
+     * Sorts loose keys into the four buckets by name (stairs / halfs / roofs),
+     * de-duplicating and removing bucketed keys from the block list.
+     */
+    public static ChiselFamily normalize(String source, String[] subs, String[] stairs,
+                                         String[] halfs, String[] roofs) {
+        LinkedHashSet<String> blockSet = new LinkedHashSet<>();
+        LinkedHashSet<String> stairSet = new LinkedHashSet<>();
+        LinkedHashSet<String> halfSet  = new LinkedHashSet<>();
+        LinkedHashSet<String> roofSet  = new LinkedHashSet<>();
+        addAll(stairSet, stairs);
+        addAll(halfSet, halfs);
+        addAll(roofSet, roofs);
+        return bucket(null, source, blockSet, stairSet, halfSet, roofSet, subs);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Merge rules
+    // ─────────────────────────────────────────────────────────────────────
+
+    /** The block-key-dependent inputs of {@link #compute}. */
+    private static ResultKey detect(String blockKey, ChiselFamily family, String familyId) {
+        // ── Detect rock type once (blockKey priority) ───────────────────
+        String rockType = MasonryCompat.detectStoneType(blockKey, family.substitutions);
+        if (rockType == null)
+            rockType = MacawCompat.detectRockType(blockKey, family.substitutions);
+        String woodType = CarpentryCompat.isAvailable() ? CarpentryCompat.woodTypeOfKey(blockKey) : null;
+        return new ResultKey(familyId, rockType, woodType);
+    }
+
+    private static ChiselFamily compute(ResultKey key, ChiselFamily family, long generation) {
+        String rockType = key.rockType;
+        String[] subs   = family.substitutions;
+        String[] stairs = family.stairs;
+        String[] halfs  = family.halfSlabs;
+        String[] roofs  = family.roofing;
+
+        LinkedHashSet<String> subSet   = new LinkedHashSet<>();
+        LinkedHashSet<String> stairSet = new LinkedHashSet<>();
+        LinkedHashSet<String> halfSet  = new LinkedHashSet<>();
+        LinkedHashSet<String> roofSet  = new LinkedHashSet<>();
+
+        // ── Filter vanilla Rock_* entries to the detected type only ─────
+        //     (also applied to the vanilla natural blocks merged in here)
+        if (rockType != null) {
+            addRock(subSet, subs, rockType);
+            addRock(subSet, discoverVanillaRockBlocks(canonicalType(rockType, VanillaCompat.getRockTypes())), rockType);
+            addRock(stairSet, stairs, rockType);
+            addRock(halfSet, halfs, rockType);
+            addRock(roofSet, roofs, rockType);
+        } else {
+            addAll(subSet, subs);
+            addAll(stairSet, stairs);
+            addAll(halfSet, halfs);
+            addAll(roofSet, roofs);
+        }
+
+        // ── Masonry / Stoneworks / Macaw ───────────────────────────────
+        if (rockType != null) {
+            if (MasonryCompat.isAvailable()) {
+                addAll(subSet,   MasonryCompat.getVariants(rockType));
+                addAll(stairSet, MasonryCompat.getStairVariants(rockType));
+                addAll(halfSet,  MasonryCompat.getHalfVariants(rockType));
+            }
+            if (StoneworksCompat.isAvailable() && "stone".equals(rockType))
+                addAll(subSet, StoneworksCompat.getVariants());
+            if (MacawCompat.isPathsAvailable()) {
+                addAll(subSet,   MacawCompat.getPathsBlocks(rockType));
+                addAll(stairSet, MacawCompat.getPathsStairs(rockType));
+                addAll(halfSet,  MacawCompat.getPathsHalfs(rockType));
+            }
+            if (MacawCompat.isStairsAvailable())
+                addAll(stairSet, MacawCompat.getMcwStairs(rockType));
+        }
+
+        // ── Carpentry (detected from the rock-filtered blocks) ──────────
+        if (CarpentryCompat.isAvailable()) {
+            // The block's own key wins; otherwise scan the rock-filtered blocks
+            String woodType = key.keyWoodType != null
+                    ? key.keyWoodType
+                    : CarpentryCompat.detectWoodType(subSet.toArray(new String[0]));
+            if (woodType != null) {
+                addAll(subSet,   discoverVanillaWoodBlocks(canonicalType(woodType, VanillaCompat.getWoodTypes())));
+                addAll(subSet,   CarpentryCompat.getVariants(woodType));
+                addAll(stairSet, CarpentryCompat.getStairVariants(woodType));
+                addAll(halfSet,  CarpentryCompat.getHalfVariants(woodType));
+            }
+        }
+
+        // ── Derive stairs / halfs / roofs from the blocks ───────────────
+        if (!subSet.isEmpty()) {
+            String[] blocks = subSet.toArray(new String[0]);
+            addAll(stairSet, MasonryCompat.deriveExistingVariants(blocks, "_Stairs"));
+            addAll(halfSet,  MasonryCompat.deriveExistingVariants(blocks, "_Half"));
+            addAll(roofSet,  MasonryCompat.deriveExistingRoofing(blocks));
+            addAll(roofSet,  VanillaCompat.deriveExistingWoodRoofing(blocks));
+        }
+
+        String id = key.familyId + '|' + key.rockType + '|' + key.keyWoodType + '@' + generation;
+        ChiselFamily out = bucket(id, family.source, new LinkedHashSet<>(), stairSet, halfSet, roofSet,
+                subSet.toArray(new String[0]));
+        boolean empty = out.substitutions.length == 0 && out.stairs.length == 0
+                && out.halfSlabs.length == 0 && out.roofing.length == 0;
+        return empty ? null : out;
+    }
+
+    /** Routes {@code subs} into their buckets by name and builds the result. */
+    private static ChiselFamily bucket(String id, String source, LinkedHashSet<String> blockSet,
+                                       LinkedHashSet<String> stairSet, LinkedHashSet<String> halfSet,
+                                       LinkedHashSet<String> roofSet, String[] subs) {
+        if (subs != null) {
+            for (String key : subs) {
+                if (key == null || key.isEmpty()) continue;
+                if (isRoofVariant(key))       roofSet.add(key);
+                else if (isHalfVariant(key))  halfSet.add(key);
+                else if (isStairVariant(key)) stairSet.add(key);
+                else                          blockSet.add(key);
+            }
+        }
+        blockSet.removeAll(stairSet);
+        blockSet.removeAll(halfSet);
+        blockSet.removeAll(roofSet);
+        return new ChiselFamily(id, source,
+                blockSet.toArray(new String[0]),
+                stairSet.toArray(new String[0]),
+                halfSet.toArray(new String[0]),
+                roofSet.toArray(new String[0]));
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Vanilla discovery
+    // ─────────────────────────────────────────────────────────────────────
+
+    private static List<String> discoverVanillaRockBlocks(String rockType) {
+        if (rockType == null || rockType.isEmpty()) return Collections.emptyList();
+        LinkedHashSet<String> found = new LinkedHashSet<>();
+        for (String suffix : VanillaCompat.getRockNaturalSuffixes()) {
+            addIfExists(found, "Rock_" + rockType + suffix);
+            if (VanillaCompat.isMetalType(rockType))
+                addIfExists(found, "Metal_" + rockType + suffix);
+            if (!suffix.isEmpty())
+                addIfExists(found, rockType + suffix);
+        }
+        return List.copyOf(found);
+    }
+
+    private static List<String> discoverVanillaWoodBlocks(String woodType) {
+        if (woodType == null || woodType.isEmpty()) return Collections.emptyList();
+        LinkedHashSet<String> found = new LinkedHashSet<>();
+        for (String suffix : VanillaCompat.getVanillaWoodSuffixes()) {
+            if (VanillaCompat.isWoodRoofSuffix(suffix)) continue;
+            addIfExists(found, "Wood_" + woodType + suffix);
+        }
+        return List.copyOf(found);
+    }
+
+    private static String canonicalType(String type, String[] knownTypes) {
+        if (type == null || knownTypes == null) return type;
+        for (String knownType : knownTypes)
+            if (knownType.equalsIgnoreCase(type)) return knownType;
+        return type;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────────────
+
+    private static Chisel.Data chiselData(BlockType bt) {
+        if (bt == null) return null;
+        StateData s;
+        try { s = bt.getState(); } catch (Throwable t) { return null; }
+        if (s instanceof Chisel.Data d) return d;
+        if (s instanceof ComboState cs) return cs.chisel;
+        return null;
+    }
+
+    /**
+     * Adds {@code keys}, keeping only {@code Rock_} entries of the given rock
+     * type.  Non-{@code Rock_} entries (mod blocks, masonry, Macaw, ...) are
+     * always retained.
+     */
+    private static void addRock(LinkedHashSet<String> dest, Iterable<String> keys, String rockType) {
+        String matchPrefix = "rock_" + rockType.toLowerCase(Locale.ROOT);
+        for (String s : keys) {
+            if (s == null || s.isEmpty()) continue;
+            if (s.regionMatches(true, 0, "rock_", 0, 5)) {
+                String lower = s.toLowerCase(Locale.ROOT);
+                if (!lower.equals(matchPrefix) && !lower.startsWith(matchPrefix + "_")) continue;
+            }
+            dest.add(s);
+        }
+    }
+
+    private static void addRock(LinkedHashSet<String> dest, String[] keys, String rockType) {
+        if (keys != null) addRock(dest, java.util.Arrays.asList(keys), rockType);
+    }
+
+    private static void addAll(LinkedHashSet<String> dest, String[] keys) {
+        if (keys == null) return;
+        for (String k : keys) if (k != null && !k.isEmpty()) dest.add(k);
+    }
+
+    private static void addAll(LinkedHashSet<String> dest, List<String> keys) {
+        if (keys == null) return;
+        for (String k : keys) if (k != null && !k.isEmpty()) dest.add(k);
+    }
+
+    private static void addIfExists(LinkedHashSet<String> dest, String key) {
+        if (key != null && !key.isEmpty() && BlockTypeCache.exists(key)) dest.add(key);
+    }
+
+    private static boolean isStairVariant(String key) {
+        String lower = key.toLowerCase(Locale.ROOT);
+        return lower.endsWith("_stairs")
+                || lower.contains("_stairs_")
+                || lower.startsWith("mcw_stairs_");
+    }
+
+    private static boolean isHalfVariant(String key) {
+        String lower = key.toLowerCase(Locale.ROOT);
+        return lower.endsWith("_half")
+                || lower.endsWith("_slab")
+                || lower.endsWith("_slabs")
+                || lower.contains("_half_");
+    }
+
+    private static boolean isRoofVariant(String key) {
+        String lower = key.toLowerCase(Locale.ROOT);
+        return lower.contains("_roof")
+                || lower.contains("_shingle");
+    }
+}
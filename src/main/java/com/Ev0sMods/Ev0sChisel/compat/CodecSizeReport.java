@@ -0,0 +1,90 @@
+package com.Ev0sMods.Ev0sChisel.compat;
+
+import com.Ev0sMods.Ev0sChisel.CarpenterHammer;
+import com.Ev0sMods.Ev0sChisel.Chisel;
+import com.Ev0sMods.Ev0sChisel.ComboState;
+import com.Ev0sMods.Ev0sChisel.Paintbrush;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.StateData;
+
+import java.util.Map;
+
+/**
+ * Startup report comparing the verbose and compact per-block component
+ * encodings.
+ *
+ * <p>For every block type that carries tool state, the report builds the
+ * component a freshly placed instance carries (the block's source plus every
+ * variant array) and asks it for its encoded size under {@code X.CODEC} and
+ * {@code X.COMPACT_CODEC}.  The sizes come from the same getters the codecs
+ * call, so an instance whose family cannot be resolved is counted in full,
+ * exactly as it is written.  Figures are BSON bytes per component, not
+ * measured chunk sizes.
+ */
+public final class CodecSizeReport {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private CodecSizeReport() {}
+
+    /** Logs the per-instance size delta over all known tool blocks. */
+    public static void log() {
+        try {
+            long verbose = 0, compact = 0;
+            int components = 0, unresolved = 0;
+            for (Map.Entry<String, BlockType> e : BlockTypeCache.snapshot().entrySet()) {
+                StateData s;
+                try { s = e.getValue().getState(); } catch (Throwable t) { continue; }
+                if (s == null) continue;
+
+                Chisel.Data          cd = s instanceof ComboState cs ? cs.chisel     : s instanceof Chisel.Data d ? d : null;
+                Paintbrush.Data      pd = s instanceof ComboState cs ? cs.paintbrush : s instanceof Paintbrush.Data d ? d : null;
+                CarpenterHammer.Data hd = s instanceof ComboState cs ? cs.hammer     : s instanceof CarpenterHammer.Data d ? d : null;
+
+                if (cd != null) {
+                    ChiselFamily f = cd.snapshot();
+                    Chisel c = new Chisel();
+                    c.source = f.source;
+                    c.substitutions = f.substitutions;
+                    c.stairs = f.stairs;
+                    c.halfSlabs = f.halfSlabs;
+                    c.roofing = f.roofing;
+                    verbose += c.encodedSize(false);
+                    compact += c.encodedSize(true);
+                    if (c.familyId() == null) unresolved++;
+                    components++;
+                }
+                if (pd != null) {
+                    Paintbrush p = new Paintbrush();
+                    p.source = pd.source;
+                    p.colorVariants = pd.colorVariants;
+                    verbose += p.encodedSize(false);
+                    compact += p.encodedSize(true);
+                    if (p.familyId() == null) unresolved++;
+                    components++;
+                }
+                if (hd != null) {
+                    CarpenterHammer h = new CarpenterHammer();
+                    h.source = hd.source;
+                    h.chairs = hd.chairs;
+                    h.tables = hd.tables;
+                    h.storage = hd.storage;
+                    h.windows = hd.windows;
+                    h.lights = hd.lights;
+                    verbose += h.encodedSize(false);
+                    compact += h.encodedSize(true);
+                    if (h.familyId() == null) unresolved++;
+                    components++;
+                }
+            }
+            if (components == 0) return;
+            LOGGER.atInfo().log("[CodecSizeReport] " + components + " tool components: verbose " + verbose
+                    + " B, compact " + compact + " B (avg " + (verbose / components) + " -> "
+                    + (compact / components) + " B/component, saves " + (verbose - compact) + " B); "
+                    + unresolved + " without a resolvable family are written in full.");
+        } catch (Throwable t) {
+            LOGGER.atWarning().log("[CodecSizeReport] Failed: " + t.getMessage());
+        }
+    }
+}
@@ -55,6 +55,7 @@ public final class ComboStateHelper {
 
             ReflectionCache.setField(StateData.class, combo, "id", "Ev0sCombo");
             ReflectionCache.setField(BlockType.class, bt,    "state", combo);
+            if (hammer != null) HammerIndex.record(keyOf(bt));
             return true;
         } catch (Throwable t) {
             LOGGER.atWarning().log("[ComboStateHelper] inject failed for "
@@ -81,6 +82,11 @@ public final class ComboStateHelper {
     // Helpers
     // ─────────────────────────────────────────────────────────────────────
 
+    private static String keyOf(BlockType bt) {
+        Object id = bt.getId();
+        return id != null ? id.toString() : null;
+    }
+
     /**
      * Wraps or converts an existing {@link StateData} into a {@link ComboState},
      * copying over any single-tool data that is already present.
@@ -22,8 +22,9 @@ public final class CompatMerger {
 
     private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
 
-    private static final Map<String, MergedChiselData> MERGED_DATA_BY_TYPE = new LinkedHashMap<>();
-    private static final Set<String> PROCESSED_BLOCKS = new HashSet<>();
+    // Startup-only scratch: released by releaseScratch() once the merge is injected
+    private static Map<String, MergedChiselData> MERGED_DATA_BY_TYPE = new LinkedHashMap<>();
+    private static Set<String> PROCESSED_BLOCKS = new HashSet<>();
 
     private CompatMerger() {}
 
@@ -39,6 +40,19 @@ public final class CompatMerger {
         // unified merge completed (info log removed)
     }
 
+    /**
+     * Drops the merge buffers and de-dup set.  Everything they produced has
+     * already been injected onto the BlockTypes, so nothing reads them after
+     * startup (see {@link CompatSeal}).
+     */
+    static void releaseScratch(CompatSeal.Tally tally) {
+        CompatSeal.release(MERGED_DATA_BY_TYPE, tally);
+        for (MergedChiselData d : MERGED_DATA_BY_TYPE.values()) CompatSeal.releaseBytes(d.footprint(), tally);
+        CompatSeal.release(PROCESSED_BLOCKS, tally);
+        MERGED_DATA_BY_TYPE = new LinkedHashMap<>();
+        PROCESSED_BLOCKS    = new HashSet<>();
+    }
+
     private static void collectAllContributions() {
         // collecting all compat contributions (info log removed)
         
@@ -682,5 +696,11 @@ public final class CompatMerger {
         public String[] getStairsArray() { return stairs.toArray(new String[0]); }
         public String[] getHalfsArray() { return halfs.toArray(new String[0]); }
         public String[] getRoofingArray() { return roofing.toArray(new String[0]); }
+
+        /** Shallow size estimate of the four merge sets. */
+        long footprint() {
+            return 32 + CompatSeal.setBytes(substitutions) + CompatSeal.setBytes(stairs)
+                    + CompatSeal.setBytes(halfs) + CompatSeal.setBytes(roofing);
+        }
     }
 }
@@ -0,0 +1,211 @@
+package com.Ev0sMods.Ev0sChisel.compat;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMaps;
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectSets;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Final startup phase that freezes the compat registries.
+ *
+ * <p>The compat passes build their lookup tables in mutable
+ * {@code LinkedHashMap}/{@code ArrayList} form and then only ever read them
+ * from world threads.  {@link #seal()} runs once at the end of
+ * {@code Ev0sChiselPlugin.start()}: each map and set is copied into a fastutil
+ * linked open-hash table trimmed to its size (flat key / value / link
+ * arrays, no per-entry nodes) that keeps its iteration order (the stone and
+ * wood type order the pages list), lists become immutable array-backed
+ * copies, and each is republished unmodifiable through a {@code volatile}
+ * field.  Startup-only scratch state (merge buffers, de-dup sets, probe
+ * lists) is released.
+ *
+ * <p>The reported byte count is a shallow estimate computed from the
+ * collection layouts (tables, entry nodes, spare capacity, wrappers), not a
+ * heap measurement — the strings themselves are shared and stay alive.
+ */
+public final class CompatSeal {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    /** Set once {@link #seal()} has completed; reset by a re-init of the compat layer. */
+    private static volatile boolean sealed = false;
+
+    private CompatSeal() {}
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Public API
+    // ─────────────────────────────────────────────────────────────────────
+
+    /** @return {@code true} once the registries have been frozen. */
+    public static boolean isSealed() { return sealed; }
+
+    /** Marks the registries as writable again (called by compat {@code init()}s). */
+    static void unseal() { sealed = false; }
+
+    /**
+     * Freezes every compat registry and drops startup scratch data.
+     *
+     * @return estimated number of bytes reclaimed (see the class notes)
+     */
+    public static long seal() {
+        Tally tally = new Tally();
+        try {
+            MasonryCompat.seal(tally);
+            CarpentryCompat.seal(tally);
+            MacawCompat.seal(tally);
+            StatuesCompat.seal(tally);
+            CompatMerger.releaseScratch(tally);
+            VanillaClothCompat.releaseScratch(tally);
+        } catch (Throwable t) {
+            LOGGER.atWarning().log("[CompatSeal] Seal failed: " + t.getMessage());
+        }
+        sealed = true;
+        long reclaimed = Math.max(0, tally.before - tally.after);
+        LOGGER.atInfo().log("[CompatSeal] Sealed " + tally.registries + " registries; estimated ~"
+                + reclaimed + " bytes of collection overhead reclaimed (estimate " + tally.before + " -> "
+                + tally.after + ", not measured).");
+        return reclaimed;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Freezing helpers (used by the compat classes' seal methods)
+    // ─────────────────────────────────────────────────────────────────────
+
+    /** Running footprint estimate for one seal pass. */
+    static final class Tally {
+        long before;
+        long after;
+        int  registries;
+    }
+
+    /** Freezes a {@code type → variant list} registry, keeping key order (stone / wood type order). */
+    static Map<String, List<String>> freezeListMap(Map<String, List<String>> map, Tally t) {
+        if (map == null) return Map.of();
+        t.registries++;
+        t.before += mapBytes(map);
+        Object2ObjectLinkedOpenHashMap<String, List<String>> out = new Object2ObjectLinkedOpenHashMap<>(map.size());
+        for (Map.Entry<String, List<String>> e : map.entrySet()) {
+            List<String> v = e.getValue();
+            t.before += listBytes(v);
+            if (e.getKey() == null || v == null) continue;
+            List<String> frozen = List.copyOf(v);
+            t.after += compactListBytes(frozen.size());
+            out.put(e.getKey(), frozen);
+        }
+        out.trim();
+        t.after += openMapBytes(out.size());
+        return Object2ObjectMaps.unmodifiable(out);
+    }
+
+    /** Freezes a map in iteration order; entries with {@code null} keys or values are dropped. */
+    static <K, V> Map<K, V> freezeMap(Map<K, V> map, Tally t) {
+        if (map == null) return Map.of();
+        t.registries++;
+        t.before += mapBytes(map);
+        Object2ObjectLinkedOpenHashMap<K, V> out = new Object2ObjectLinkedOpenHashMap<>(map.size());
+        for (Map.Entry<K, V> e : map.entrySet())
+            if (e.getKey() != null && e.getValue() != null) out.put(e.getKey(), e.getValue());
+        out.trim();
+        t.after += openMapBytes(out.size());
+        return Object2ObjectMaps.unmodifiable(out);
+    }
+
+    /** Freezes a list, trimming spare capacity. */
+    static <T> List<T> freezeList(List<T> list, Tally t) {
+        if (list == null) return List.of();
+        t.registries++;
+        t.before += listBytes(list);
+        List<T> result = List.copyOf(list);
+        t.after += compactListBytes(result.size());
+        return result;
+    }
+
+    /** Freezes a set while keeping its iteration order. */
+    static <T> Set<T> freezeOrderedSet(Set<T> set, Tally t) {
+        if (set == null) return Set.of();
+        t.registries++;
+        t.before += setBytes(set);
+        ObjectLinkedOpenHashSet<T> out = new ObjectLinkedOpenHashSet<>(set);
+        out.trim();
+        t.after += openSetBytes(out.size());
+        return ObjectSets.unmodifiable(out);
+    }
+
+    /** Accounts for a scratch collection that is about to be released. */
+    static void release(Object scratch, Tally t) {
+        if (scratch == null) return;
+        t.registries++;
+        if (scratch instanceof Map<?, ?> m) t.before += mapBytes(m);
+        else if (scratch instanceof Set<?> s) t.before += setBytes(s);
+        else if (scratch instanceof List<?> l) t.before += listBytes(l);
+        else if (scratch instanceof Collection<?> c) t.before += 32 + 8L * c.size();
+    }
+
+    /** Adds an explicit pre-release estimate (for nested scratch structures). */
+    static void releaseBytes(long bytes, Tally t) {
+        t.before += Math.max(0, bytes);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Shallow footprint estimates (compressed oops, 16-byte object headers)
+    // ─────────────────────────────────────────────────────────────────────
+
+    static long mapBytes(Map<?, ?> m) {
+        if (m == null) return 0;
+        int n = m.size();
+        long node = (m instanceof LinkedHashMap) ? 40 : 32;
+        return 48 + 16 + 4L * tableSize(n) + node * n;
+    }
+
+    static long setBytes(Set<?> s) {
+        if (s == null) return 0;
+        int n = s.size();
+        long node = (s instanceof LinkedHashSet) ? 40 : 32;
+        if (s instanceof HashSet || s instanceof LinkedHashSet)
+            return 16 + 48 + 16 + 4L * tableSize(n) + node * n;
+        return 24 + 16 + 8L * n;
+    }
+
+    static long listBytes(List<?> l) {
+        if (l == null) return 0;
+        int n = l.size();
+        // ArrayList grows by 1.5x: assume ~25% spare capacity on average
+        long arr = 16 + 4L * (n + (n >> 2));
+        // Collections.unmodifiableList / ArrayList wrapper + backing array
+        return (l instanceof ArrayList ? 24 : 40) + arr;
+    }
+
+    private static long compactListBytes(int n) {
+        return 16 + 16 + 4L * n;
+    }
+
+    /** Trimmed linked open-hash map: key, value and link arrays plus the unmodifiable wrapper. */
+    private static long openMapBytes(int n) {
+        long slots = HashCommon.arraySize(n, 0.75f) + 1L;
+        return 72 + 2 * (16 + 4 * slots) + 16 + 8 * slots + 24;
+    }
+
+    /** Trimmed linked open-hash set: key and link arrays plus the unmodifiable wrapper. */
+    private static long openSetBytes(int n) {
+        long slots = HashCommon.arraySize(n, 0.75f) + 1L;
+        return 56 + 16 + 4 * slots + 16 + 8 * slots + 24;
+    }
+
+    private static int tableSize(int n) {
+        int needed = (int) Math.ceil(n / 0.75);
+        int cap = 16;
+        while (cap < needed) cap <<= 1;
+        return cap;
+    }
+}
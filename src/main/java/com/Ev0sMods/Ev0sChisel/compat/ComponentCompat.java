@@ -1,33 +1,152 @@
 package com.Ev0sMods.Ev0sChisel.compat;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * Minimal reflective helpers to interact with prerelease block-component APIs.
  * Tries several common method names and signatures; returns null if unavailable.
+ * <p>
+ * Candidate methods are resolved once per runtime class into
+ * {@link MethodHandle}s (an empty result is cached too), so a repeated call
+ * costs one {@link ClassValue} lookup plus the invocation itself.
  */
 public final class ComponentCompat {
     private ComponentCompat() {}
 
+    private static final String[] COMPONENT_METHOD_NAMES =
+            {"getComponentAt","getBlockComponent","getBlockComponentAt","getComponent","getBlockData","getBlockStateAt"};
+
+    /** {@code (Object chunk, int x, int y, int z, Class compClass) -> Object} */
+    private static final MethodType WITH_CLASS =
+            MethodType.methodType(Object.class, Object.class, int.class, int.class, int.class, Class.class);
+    /** {@code (Object chunk, int x, int y, int z) -> Object} */
+    private static final MethodType WITHOUT_CLASS =
+            MethodType.methodType(Object.class, Object.class, int.class, int.class, int.class);
+
+    /**
+     * Per chunk class: every component accessor that exists, in probe order
+     * (all {@code (x, y, z, Class)} overloads first).  An empty array is the
+     * cached negative result.
+     */
+    private static final ClassValue<MethodHandle[]> COMPONENT_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> c) {
+            List<MethodHandle> out = new ArrayList<>();
+            for (String n : COMPONENT_METHOD_NAMES) {
+                MethodHandle h = handle(c, n, WITH_CLASS, int.class, int.class, int.class, Class.class);
+                if (h != null) out.add(h);
+            }
+            for (String n : COMPONENT_METHOD_NAMES) {
+                MethodHandle h = handle(c, n, WITHOUT_CLASS, int.class, int.class, int.class);
+                if (h != null) out.add(h);
+            }
+            return out.toArray(new MethodHandle[0]);
+        }
+    };
+
+    /**
+     * Per inventory class: public no-arg methods whose names suggest a change
+     * notification ({@code mark*}, {@code notify*}, {@code *changed}), in
+     * {@code getMethods()} order.  Empty when nothing matches.
+     */
+    private static final ClassValue<MethodHandle[]> CHANGE_NOTIFIERS = new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> c) {
+            List<MethodHandle> out = new ArrayList<>();
+            for (Method m : c.getMethods()) {
+                if (m.getParameterCount() != 0 || Modifier.isStatic(m.getModifiers())) continue;
+                String n = m.getName().toLowerCase(Locale.ROOT);
+                if (!(n.contains("mark") || n.contains("notify") || n.contains("changed"))) continue;
+                try {
+                    out.add(MethodHandles.publicLookup().unreflect(m)
+                            .asType(MethodType.methodType(void.class, Object.class)));
+                } catch (Throwable ignored) {}
+            }
+            return out.toArray(new MethodHandle[0]);
+        }
+    };
+
+    private static final String[] SUCCESS_METHOD_NAMES = {"succeeded", "isSuccess", "isSucceeded", "wasSuccessful"};
+
+    /** {@code (Object transaction) -> boolean} */
+    private static final MethodType SUCCESS = MethodType.methodType(boolean.class, Object.class);
+
+    /**
+     * Per transaction class: its success flag accessor, or {@code null} when
+     * it has none of {@link #SUCCESS_METHOD_NAMES}.
+     */
+    private static final ClassValue<MethodHandle> SUCCESS_FLAGS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> c) {
+            for (String n : SUCCESS_METHOD_NAMES) {
+                MethodHandle h = handle(c, n, SUCCESS);
+                if (h != null) return h;
+            }
+            return null;
+        }
+    };
+
     public static Object getBlockComponent(Object chunk, int x, int y, int z, Class<?> compClass) {
         if (chunk == null) return null;
-        Class<?> c = chunk.getClass();
-        String[] names = new String[]{"getComponentAt","getBlockComponent","getBlockComponentAt","getComponent","getBlockData","getBlockStateAt"};
-        for (String n : names) {
+        MethodHandle[] accessors = COMPONENT_ACCESSORS.get(chunk.getClass());
+        for (MethodHandle h : accessors) {
             try {
-                Method m = c.getMethod(n, int.class, int.class, int.class, Class.class);
-                Object o = m.invoke(chunk, x, y, z, compClass);
+                Object o = h.type().parameterCount() == 5
+                        ? (Object) h.invokeExact(chunk, x, y, z, compClass)
+                        : (Object) h.invokeExact(chunk, x, y, z);
                 if (o != null && compClass.isInstance(o)) return o;
             } catch (Throwable ignored) {}
         }
-        for (String n : names) {
+        return null;
+    }
+
+    /**
+     * Best-effort "inventory changed" notification: invokes the first
+     * change-notifier method of {@code target}'s class that completes.
+     * Methods are resolved once per runtime class.
+     */
+    public static void markChanged(Object target) {
+        if (target == null) return;
+        for (MethodHandle h : CHANGE_NOTIFIERS.get(target.getClass())) {
             try {
-                Method m = c.getMethod(n, int.class, int.class, int.class);
-                Object o = m.invoke(chunk, x, y, z);
-                if (o != null && compClass.isInstance(o)) return o;
+                h.invokeExact(target);
+                return;
             } catch (Throwable ignored) {}
         }
-        return null;
+    }
+
+    /**
+     * Whether a container write reported success through the transaction it
+     * returned.  A result without a success flag (or no result) counts as
+     * success; a flag that cannot be read counts as failure.
+     */
+    public static boolean succeeded(Object transaction) {
+        if (transaction == null) return true;
+        MethodHandle h = SUCCESS_FLAGS.get(transaction.getClass());
+        if (h == null) return true;
+        try {
+            return (boolean) h.invokeExact(transaction);
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    /** Public virtual handle for {@code c.name(params)} adapted to {@code type}, or {@code null}. */
+    private static MethodHandle handle(Class<?> c, String name, MethodType type, Class<?>... params) {
+        try {
+            Method m = c.getMethod(name, params);
+            if (Modifier.isStatic(m.getModifiers())) return null;
+            return MethodHandles.publicLookup().unreflect(m).asType(type);
+        } catch (Throwable ignored) {
+            return null;
+        }
     }
 
     public static void registerComponent(Class<?> compClass, String id, Object codec) {
@@ -42,7 +161,7 @@ public final class ComponentCompat {
             }
             if (inst != null) {
                 for (Method m : reg.getMethods()) {
-                    if (!java.lang.reflect.Modifier.isStatic(m.getModifiers()) && m.getName().toLowerCase().contains("register")) {
+                    if (!Modifier.isStatic(m.getModifiers()) && m.getName().toLowerCase().contains("register")) {
                         try { m.invoke(inst, compClass, id, codec); return; } catch (Throwable ignored) {}
                     }
                 }
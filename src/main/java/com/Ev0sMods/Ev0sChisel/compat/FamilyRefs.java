@@ -0,0 +1,172 @@
+package com.Ev0sMods.Ev0sChisel.compat;
+
+import com.Ev0sMods.Ev0sChisel.CarpenterHammer;
+import com.Ev0sMods.Ev0sChisel.Chisel;
+import com.Ev0sMods.Ev0sChisel.ComboState;
+import com.Ev0sMods.Ev0sChisel.Paintbrush;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.StateData;
+
+import java.util.Arrays;
+
+/**
+ * Resolves stable family identifiers back to their variant arrays for the
+ * compact per-block codecs ({@code Chisel.COMPACT_CODEC} and friends).
+ *
+ * <p>A family id is either a {@link FamilyStore} key or the key of any
+ * {@link BlockType} whose injected state carries the family.  Block keys are
+ * asset identifiers and stay stable across restarts, so a saved component only
+ * needs the id and can rebuild the full arrays on load.
+ */
+public final class FamilyRefs {
+
+    private FamilyRefs() {}
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Resolution
+    // ─────────────────────────────────────────────────────────────────────
+
+    /** @return the current chisel family for {@code id}, or {@code null}. */
+    public static ChiselFamily chisel(String id) {
+        if (id == null) return null;
+        ChiselFamily shared = FamilyStore.snapshot(id);
+        if (shared != null) return shared;
+        StateData s = stateOf(id);
+        Chisel.Data d = s instanceof ComboState cs ? cs.chisel : s instanceof Chisel.Data cd ? cd : null;
+        return d != null ? d.snapshot() : null;
+    }
+
+    /** @return the paintbrush state for {@code id}, or {@code null}. */
+    public static Paintbrush.Data paintbrush(String id) {
+        StateData s = stateOf(id);
+        if (s instanceof ComboState cs) return cs.paintbrush;
+        return s instanceof Paintbrush.Data d ? d : null;
+    }
+
+    /** @return the hammer state for {@code id}, or {@code null}. */
+    public static CarpenterHammer.Data hammer(String id) {
+        StateData s = stateOf(id);
+        if (s instanceof ComboState cs) return cs.hammer;
+        return s instanceof CarpenterHammer.Data d ? d : null;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Override helpers
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * Returns {@code value} when it differs from the family's array, else
+     * {@code null} so the compact codec omits the field.
+     */
+    public static String[] override(String[] value, String[] family) {
+        if (value == null) return null;
+        if (family != null && (value == family || Arrays.equals(value, family))) return null;
+        return value;
+    }
+
+    /** Returns {@code override} if present, else the family's array. */
+    public static String[] pick(String[] override, String[] family) {
+        return override != null ? override : family;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Family lookup from an instance's own arrays
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * Returns the key of a block whose chisel family has exactly these
+     * buckets, or {@code null}.  Only the first key of each bucket is tried:
+     * family members all carry the family, so a miss there means the
+     * instance was edited.
+     */
+    public static String chiselMember(String[] subs, String[] stairs, String[] halfs, String[] roofs) {
+        for (String[] bucket : new String[][]{subs, stairs, halfs, roofs}) {
+            String key = first(bucket);
+            if (key == null) continue;
+            ChiselFamily f = chisel(key);
+            if (f != null && same(subs, f.substitutions) && same(stairs, f.stairs)
+                    && same(halfs, f.halfSlabs) && same(roofs, f.roofing)) return key;
+        }
+        return null;
+    }
+
+    /** Returns the key of a block whose paintbrush state lists exactly {@code variants}, or {@code null}. */
+    public static String paintbrushMember(String[] variants) {
+        String key = first(variants);
+        Paintbrush.Data d = key != null ? paintbrush(key) : null;
+        return d != null && same(variants, d.colorVariants) ? key : null;
+    }
+
+    /** Returns the key of a block whose hammer state has exactly these categories, or {@code null}. */
+    public static String hammerMember(String[] chairs, String[] tables, String[] storage,
+                                      String[] windows, String[] lights) {
+        for (String[] category : new String[][]{chairs, tables, storage, windows, lights}) {
+            String key = first(category);
+            if (key == null) continue;
+            CarpenterHammer.Data d = hammer(key);
+            if (d != null && same(chairs, d.chairs) && same(tables, d.tables) && same(storage, d.storage)
+                    && same(windows, d.windows) && same(lights, d.lights)) return key;
+        }
+        return null;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Encoded sizes
+    // ─────────────────────────────────────────────────────────────────────
+
+    /** BSON size of a document holding fields of {@code fieldBytes} total: length prefix and terminator. */
+    public static int documentSize(int fieldBytes) {
+        return 4 + fieldBytes + 1;
+    }
+
+    /** BSON size of one string field, {@code 0} when the codec omits it ({@code null}). */
+    public static int fieldSize(String key, String value) {
+        return value == null ? 0 : 1 + utf8(key) + 1 + 4 + utf8(value) + 1;
+    }
+
+    /** BSON size of one string-array field, {@code 0} when the codec omits it ({@code null}). */
+    public static int fieldSize(String key, String[] values) {
+        if (values == null) return 0;
+        int elements = 0;
+        for (int i = 0; i < values.length; i++) {
+            int indexKey = Integer.toString(i).length() + 1;
+            elements += values[i] != null ? 1 + indexKey + 4 + utf8(values[i]) + 1 : 1 + indexKey;
+        }
+        return 1 + utf8(key) + 1 + documentSize(elements);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────────────
+
+    private static StateData stateOf(String id) {
+        if (id == null) return null;
+        try {
+            BlockType bt = BlockTypeCache.get(id);
+            return bt != null ? bt.getState() : null;
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private static String first(String[] keys) {
+        if (keys == null) return null;
+        for (String k : keys) if (k != null && !k.isEmpty()) return k;
+        return null;
+    }
+
+    /** Bucket equality, with {@code null} and empty treated alike (snapshots store empty arrays). */
+    private static boolean same(String[] a, String[] b) {
+        if (a == null || a.length == 0) return b == null || b.length == 0;
+        return Arrays.equals(a, b);
+    }
+
+    private static int utf8(String s) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            n += c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isSurrogate(c) ? 2 : 3;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,248 @@
+package com.Ev0sMods.Ev0sChisel.compat;
+
+import com.Ev0sMods.Ev0sChisel.Chisel;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.UnaryOperator;
+
+/**
+ * Copy-on-write registry of chisel families.
+ *
+ * <p>Every {@link Chisel.Data} points at one {@link Ref} to an immutable
+ * {@link ChiselFamily}.  There are two kinds:
+ * <ul>
+ *   <li><b>Named</b> refs, one per family id passed to {@link #adopt}.  All
+ *       members share the reference, so one {@link #update} republishes the
+ *       family to every member at once.</li>
+ *   <li><b>Content</b> refs, handed out by {@link Chisel.Data#snapshot()} to
+ *       blocks no compat pass adopted.  Blocks with equal buckets share one
+ *       ref, and its snapshot never changes: a member that gets its own
+ *       merge moves to the ref for the new contents instead.  The intern
+ *       table holds content refs weakly, so one is dropped once its last
+ *       member has moved on.</li>
+ * </ul>
+ * Either way a block keeps returning the same snapshot instance until its
+ * family is republished, and {@link Ref#id()} / {@link Ref#generation()}
+ * name that version for caches derived from it.
+ *
+ * <p>Readers call {@link Chisel.Data#snapshot()} once per operation and work
+ * from that snapshot without locking.  Writers go through
+ * {@link #update(String, UnaryOperator)} or
+ * {@link #replace(Chisel.Data, UnaryOperator)}, which retry on contention so
+ * concurrent compat passes compose.
+ */
+public final class FamilyStore {
+
+    /** A family reference: the current snapshot plus its id and publish count. */
+    public static final class Ref extends AtomicReference<ChiselFamily> {
+        private final String id;
+        private final boolean named;
+        private final AtomicLong generation = new AtomicLong();
+
+        private Ref(String id, boolean named, ChiselFamily initial) {
+            super(initial);
+            this.id = id;
+            this.named = named;
+        }
+
+        /** Stable id: the {@link #adopt} key for named families, a process-local id otherwise. */
+        public String id() { return id; }
+
+        /** Number of times this family was republished; content refs stay at {@code 0}. */
+        public long generation() { return generation.get(); }
+
+        /** Whether this is a named, shared family (see {@link #adopt}). */
+        public boolean named() { return named; }
+    }
+
+    /** Bucket contents of a content ref; list equality compares the arrays element-wise. */
+    private record Contents(String source, List<String> subs, List<String> stairs,
+                            List<String> halfs, List<String> roofs) {
+        static Contents of(ChiselFamily f) {
+            return new Contents(f.source, Arrays.asList(f.substitutions), Arrays.asList(f.stairs),
+                    Arrays.asList(f.halfSlabs), Arrays.asList(f.roofing));
+        }
+    }
+
+    private static final Map<String, Ref> FAMILIES = new ConcurrentHashMap<>();
+    /** Weak intern-table entry; remembers its key so a cleared entry can be removed. */
+    private static final class Interned extends WeakReference<Ref> {
+        final Contents key;
+
+        Interned(Ref ref, Contents key) {
+            super(ref, STALE);
+            this.key = key;
+        }
+    }
+
+    private static final Map<Contents, Interned> CONTENTS = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Ref> STALE = new ReferenceQueue<>();
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    private static final AtomicReferenceFieldUpdater<Chisel.Data, Ref> MEMBER =
+            AtomicReferenceFieldUpdater.newUpdater(Chisel.Data.class, Ref.class, "family");
+
+    /** Bumped on every publish or member move, for caches that span all families. */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private FamilyStore() {}
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Public API
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * Attaches {@code data} to family {@code id}.  The first member adopted
+     * seeds the family from its current snapshot; later members simply share
+     * the existing reference.
+     *
+     * @return the family reference, or {@code null} if either argument is null
+     */
+    public static Ref adopt(String id, Chisel.Data data) {
+        if (id == null || data == null) return null;
+        Ref ref = FAMILIES.computeIfAbsent(id, k -> new Ref(k, true, data.snapshot()));
+        if (MEMBER.getAndSet(data, ref) != ref) GENERATION.incrementAndGet();
+        return ref;
+    }
+
+    /**
+     * Gives {@code data} its content ref, built from its injection-time
+     * arrays, unless it already has a ref.  Called by
+     * {@link Chisel.Data#snapshot()} on first use.
+     *
+     * @return the ref {@code data} now points at
+     */
+    public static Ref attach(Chisel.Data data) {
+        Ref ref = data.family;
+        if (ref != null) return ref;
+        Ref seeded = intern(new ChiselFamily(data.source, data.substitutions, data.stairs,
+                data.halfSlabs, data.roofing));
+        return MEMBER.compareAndSet(data, null, seeded) ? seeded : data.family;
+    }
+
+    /**
+     * Applies {@code fn} to the current snapshot of family {@code id} and
+     * publishes the result with a compare-and-set, retrying on contention.
+     *
+     * @return the published snapshot, or {@code null} if the family is unknown
+     */
+    public static ChiselFamily update(String id, UnaryOperator<ChiselFamily> fn) {
+        Ref ref = id != null ? FAMILIES.get(id) : null;
+        return ref != null ? swap(ref, fn) : null;
+    }
+
+    /**
+     * Gives {@code data} its own family: {@code fn} of its current snapshot.
+     * The block leaves whatever family it shared and moves to the content ref
+     * for the result, so the other members are untouched.  The move is a
+     * compare-and-set on the block's ref, retried on contention.
+     *
+     * @return the snapshot {@code data} now has, or {@code null} for null arguments
+     */
+    public static ChiselFamily replace(Chisel.Data data, UnaryOperator<ChiselFamily> fn) {
+        if (data == null || fn == null) return null;
+        while (true) {
+            Ref cur = attach(data);
+            ChiselFamily now = cur.get();
+            ChiselFamily next = fn.apply(now);
+            if (next == null || next == now) return now;
+            Ref moved = intern(next);
+            if (MEMBER.compareAndSet(data, cur, moved)) {
+                GENERATION.incrementAndGet();
+                return moved.get();
+            }
+        }
+    }
+
+    /**
+     * Appends {@code extraSubs} to the family rooted at {@code base}.  Members
+     * whose buckets match the base are attached to the shared reference for
+     * {@code id} and see the result of one swap; members that carry their own
+     * merged buckets get their own copy-on-write replacement instead.
+     *
+     * @return the published base snapshot, or {@code null} if nothing was done
+     */
+    public static ChiselFamily extend(String id, Chisel.Data base,
+                                      List<Chisel.Data> members, List<String> extraSubs) {
+        if (id == null || base == null || extraSubs == null || extraSubs.isEmpty()) return null;
+        ChiselFamily seed = base.snapshot();
+        adopt(id, base);
+        if (members != null) {
+            for (Chisel.Data cd : members) {
+                if (cd == null || cd == base) continue;
+                if (sameBuckets(cd.snapshot(), seed)) adopt(id, cd);
+                else replace(cd, own -> own.plusSubstitutions(extraSubs));
+            }
+        }
+        return update(id, f -> f.plusSubstitutions(extraSubs));
+    }
+
+    /** @return the current snapshot of named family {@code id}, or {@code null}. */
+    public static ChiselFamily snapshot(String id) {
+        Ref ref = id != null ? FAMILIES.get(id) : null;
+        return ref != null ? ref.get() : null;
+    }
+
+    /** @return a counter that changes whenever any family is republished or a member moves. */
+    public static long generation() { return GENERATION.get(); }
+
+    /** @return number of named families currently registered. */
+    public static int size() { return FAMILIES.size(); }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────────────
+
+    /** The content ref for {@code f}'s buckets, created on first use or after the last one was collected. */
+    private static Ref intern(ChiselFamily f) {
+        expunge();
+        Contents key = Contents.of(f);
+        while (true) {
+            Interned cur = CONTENTS.get(key);
+            Ref ref = cur != null ? cur.get() : null;
+            if (ref != null) return ref;
+            Ref fresh = new Ref("~" + NEXT_ID.incrementAndGet(), false, f);
+            Interned entry = new Interned(fresh, key);
+            if (cur == null ? CONTENTS.putIfAbsent(key, entry) == null : CONTENTS.replace(key, cur, entry))
+                return fresh;
+        }
+    }
+
+    /** Removes intern entries whose content ref no block points at any more. */
+    private static void expunge() {
+        Reference<? extends Ref> r;
+        while ((r = STALE.poll()) != null) {
+            Interned i = (Interned) r;
+            CONTENTS.remove(i.key, i);
+        }
+    }
+
+    private static boolean sameBuckets(ChiselFamily a, ChiselFamily b) {
+        return Arrays.equals(a.substitutions, b.substitutions)
+                && Arrays.equals(a.stairs, b.stairs)
+                && Arrays.equals(a.halfSlabs, b.halfSlabs)
+                && Arrays.equals(a.roofing, b.roofing);
+    }
+
+    private static ChiselFamily swap(Ref ref, UnaryOperator<ChiselFamily> fn) {
+        while (true) {
+            ChiselFamily cur  = ref.get();
+            ChiselFamily next = fn.apply(cur);
+            if (next == null || next == cur) return cur;
+            if (ref.compareAndSet(cur, next)) {
+                ref.generation.incrementAndGet();
+                GENERATION.incrementAndGet();
+                return next;
+            }
+        }
+    }
+}
@@ -44,6 +44,9 @@ public final class GuiFurnitureCompat {
     /** Set to true once at least one Gui Furniture block was found. */
     private static boolean detected = false;
 
+    /** FirstSofa {@code color × type} family, probed on first use. */
+    private static VariantMatrix sofaMatrix;
+
     private GuiFurnitureCompat() {}
 
     // ─────────────────────────────────────────────────────────────────────────
@@ -270,23 +273,53 @@ public final class GuiFurnitureCompat {
     // ── Sofa groups (one per color) ───────────────────────────────────────────
 
     private static int injectSofaGroups() {
+        VariantMatrix sofas = sofaMatrix();
+        if (sofas == null) return 0;
         int count = 0;
-        for (String color : SOFA_COLORS) {
-            // Collect all sofa type variants for this color
-            List<String> chairsForColor = new ArrayList<>();
-            for (String type : SOFA_TYPES) {
-                String key = "Gui_FirstSofa" + type + color;
-                if (exists(key)) chairsForColor.add(key);
-            }
-            if (chairsForColor.isEmpty()) continue;
+        int colorAxis = sofas.axisIndex("color");
+        int typeAxis  = sofas.axisIndex("type");
+        for (String key : sofas.allKeys()) {
+            try {
+                BlockType bt = BlockTypeCache.get(key);
+                if (bt == null) continue;
+                StateData existing = bt.getState();
+                if (existing instanceof CarpenterHammer.Data) continue;
+
+                int cell = sofas.cellOf(key);
+                CarpenterHammer.Data data = new CarpenterHammer.Data();
+                data.source  = "Gui_Sofa_" + sofas.axisValue(cell, colorAxis);
+                // every shape of this colour, shared with the rest of the line
+                data.chairs  = data.bind(sofas, cell, typeAxis);
+                data.tables  = new String[0];
+                data.storage = new String[0];
+                data.windows = new String[0];
+                data.lights  = new String[0];
+
+                ReflectionCache.setField(StateData.class, data, "id", "Ev0sCarpenterHammer");
+                ReflectionCache.setField(BlockType.class, bt,   "state", data);
 
-            String[] chairs = chairsForColor.toArray(new String[0]);
-            count += injectHammerData(chairs, "Gui_Sofa_" + color,
-                    chairs, new String[0], new String[0], new String[0], new String[0]);
+                HammerIndex.record(key);
+                count++;
+            } catch (Throwable t) {
+                LOGGER.atWarning().log("[GuiFurnitureCompat] Inject failed for " + key + ": " + t.getMessage());
+            }
         }
         return count;
     }
 
+    /**
+     * Lazily probes the FirstSofa family as a {@code color × type} matrix,
+     * shared by the hammer (type axis) and paintbrush (color axis) passes.
+     */
+    private static VariantMatrix sofaMatrix() {
+        if (sofaMatrix == null)
+            sofaMatrix = VariantMatrix.probe("Gui_FirstSofa",
+                    new String[]{"color", "type"},
+                    new String[][]{SOFA_COLORS, SOFA_TYPES},
+                    c -> "Gui_FirstSofa" + c[1] + c[0]);
+        return sofaMatrix;
+    }
+
     // ── Vanilla standalone furniture (not tied to wood/rock prefixes) ─────────
 
     private static int injectVanillaFurniture() {
@@ -332,34 +365,30 @@ public final class GuiFurnitureCompat {
     // ─────────────────────────────────────────────────────────────────────────
 
     public static void injectPaintbrushStates() {
+        VariantMatrix sofas = sofaMatrix();
+        if (sofas == null) return;
         int count = 0;
-        for (String type : SOFA_TYPES) {
-            List<String> colorVariants = new ArrayList<>();
-            for (String color : SOFA_COLORS) {
-                String key = "Gui_FirstSofa" + type + color;
-                if (exists(key)) colorVariants.add(key);
-            }
-            if (colorVariants.isEmpty()) continue;
-
-            String[] variants = colorVariants.toArray(new String[0]);
-            // Inject onto every variant of this type so the paintbrush works from any color
-            for (String key : variants) {
-                try {
-                    BlockType bt = BlockTypeCache.get(key);
-                    if (bt == null) continue;
-                    StateData existing = bt.getState();
-                    if (existing instanceof Paintbrush.Data) continue; // already injected
+        int colorAxis = sofas.axisIndex("color");
+        int typeAxis  = sofas.axisIndex("type");
+        // Inject onto every variant so the paintbrush works from any color;
+        // each block only records its cell and shares its shape's color line.
+        for (String key : sofas.allKeys()) {
+            try {
+                BlockType bt = BlockTypeCache.get(key);
+                if (bt == null) continue;
+                StateData existing = bt.getState();
+                if (existing instanceof Paintbrush.Data) continue; // already injected
 
-                    Paintbrush.Data data = new Paintbrush.Data();
-                    data.source       = "Gui_FirstSofa_" + type;
-                    data.colorVariants = variants;
+                int cell = sofas.cellOf(key);
+                Paintbrush.Data data = new Paintbrush.Data();
+                data.source = "Gui_FirstSofa_" + sofas.axisValue(cell, typeAxis);
+                data.bind(sofas, cell, colorAxis);
 
-                    ReflectionCache.setField(StateData.class, data, "id", "Ev0sPaintbrush");
-                    ReflectionCache.setField(BlockType.class, bt,   "state", data);
-                    count++;
-                } catch (Throwable t) {
-                    LOGGER.atWarning().log("[GuiFurnitureCompat] Paintbrush inject failed for " + key + ": " + t.getMessage());
-                }
+                ReflectionCache.setField(StateData.class, data, "id", "Ev0sPaintbrush");
+                ReflectionCache.setField(BlockType.class, bt,   "state", data);
+                count++;
+            } catch (Throwable t) {
+                LOGGER.atWarning().log("[GuiFurnitureCompat] Paintbrush inject failed for " + key + ": " + t.getMessage());
             }
         }
         if (count > 0)
@@ -471,6 +500,8 @@ public final class GuiFurnitureCompat {
 
                 ReflectionCache.setField(StateData.class, data, "id", "Ev0sCarpenterHammer");
                 ReflectionCache.setField(BlockType.class, bt,   "state", data);
+
+                HammerIndex.record(key);
                 count++;
             } catch (Throwable t) {
                 LOGGER.atWarning().log("[GuiFurnitureCompat] Inject failed for " + key + ": " + t.getMessage());
@@ -0,0 +1,180 @@
+package com.Ev0sMods.Ev0sChisel.compat;
+
+import com.Ev0sMods.Ev0sChisel.CarpenterHammer;
+import com.Ev0sMods.Ev0sChisel.ComboState;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.StateData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed carpenter's hammer metadata.
+ *
+ * <p>Each furniture block key is classified once – which category tab it
+ * belongs to and whether it is a door – when its hammer state is injected,
+ * and every hammer window list gets its door-stripped copy computed once.
+ * The hammer click path then only does map lookups.
+ *
+ * <p>Category indices follow the field order of {@link CarpenterHammer.Data}
+ * ({@link #CHAIRS}, {@link #TABLES}, {@link #STORAGE}, {@link #WINDOWS},
+ * {@link #LIGHTS}); {@link #NONE} means the key gives no hint and the first
+ * non-empty category should be used.
+ */
+public final class HammerIndex {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    public static final int NONE    = -1;
+    public static final int CHAIRS  = 0;
+    public static final int TABLES  = 1;
+    public static final int STORAGE = 2;
+    public static final int WINDOWS = 3;
+    public static final int LIGHTS  = 4;
+
+    /** Lowercase key fragments per category, tested in category order. */
+    private static final String[][] HINTS = {
+            {"chair", "sofa", "bench", "stool", "seat", "couch"},
+            {"table", "desk", "coffee"},
+            {"kitchen", "counter", "cupboard", "shelf", "cabinet", "sink", "storage", "chest"},
+            {"window", "shutter", "pane"},
+            {"lantern", "torch", "candle", "lamp", "brazier", "light", "glow"},
+    };
+
+    private static final String DOOR = "_door";
+    private static final int DOOR_BIT = 8;
+
+    /** Block key → {@code (category + 1) | DOOR_BIT}; small boxed ints are shared. */
+    private static final Map<String, Integer> KEYS = new ConcurrentHashMap<>();
+
+    /**
+     * Window array → same array without door keys.  Arrays hash by identity,
+     * so each shared family list is stripped once; a list without doors maps
+     * to itself.
+     */
+    private static final Map<String[], String[]> DOORLESS = new ConcurrentHashMap<>();
+
+    /** Window array → its door keys only; shared and built once per list like {@link #DOORLESS}. */
+    private static final Map<String[], String[]> DOORS = new ConcurrentHashMap<>();
+
+    private HammerIndex() {}
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Public API
+    // ─────────────────────────────────────────────────────────────────────
+
+    /** Classifies {@code key}; called by the compat layers as hammer state is injected. */
+    public static void record(String key) {
+        if (key != null) KEYS.computeIfAbsent(key, HammerIndex::classify);
+    }
+
+    /** @return the category hinted by {@code key}, or {@link #NONE}. */
+    public static int category(String key) {
+        if (key == null) return NONE;
+        return (KEYS.computeIfAbsent(key, HammerIndex::classify) & (DOOR_BIT - 1)) - 1;
+    }
+
+    /** @return {@code true} if {@code key} is a door block. */
+    public static boolean isDoor(String key) {
+        if (key == null) return false;
+        return (KEYS.computeIfAbsent(key, HammerIndex::classify) & DOOR_BIT) != 0;
+    }
+
+    /**
+     * Returns {@code windows} without its door keys.  The result is shared
+     * and must not be modified; it is {@code windows} itself when the list
+     * has no doors.
+     */
+    public static String[] withoutDoors(String[] windows) {
+        if (windows == null || windows.length == 0) return windows;
+        return DOORLESS.computeIfAbsent(windows, HammerIndex::strip);
+    }
+
+    /**
+     * Returns only the door keys of {@code windows}, so a door never cycles
+     * into a one-block window and orphans its top half.  The result is shared
+     * and must not be modified.
+     */
+    public static String[] onlyDoors(String[] windows) {
+        if (windows == null || windows.length == 0) return windows;
+        return DOORS.computeIfAbsent(windows, HammerIndex::keepDoors);
+    }
+
+    /** @return {@code true} if any key in {@code windows} is a door block. */
+    public static boolean hasDoors(String[] windows) {
+        return withoutDoors(windows) != windows;
+    }
+
+    /**
+     * Classifies every block that carries hammer state and strips the door
+     * keys from every window list.  Called once after {@link CompatSeal#seal()},
+     * when the category arrays no longer change.
+     *
+     * @return number of hammer blocks indexed
+     */
+    public static int warm() {
+        DOORLESS.clear();
+        DOORS.clear();
+        int blocks = 0;
+        try {
+            for (Map.Entry<String, BlockType> e : BlockTypeCache.snapshot().entrySet()) {
+                StateData s;
+                try { s = e.getValue().getState(); } catch (Throwable t) { continue; }
+                CarpenterHammer.Data hd = s instanceof ComboState cs ? cs.hammer
+                        : s instanceof CarpenterHammer.Data d ? d : null;
+                if (hd == null) continue;
+                record(e.getKey());
+                withoutDoors(hd.windows);
+                blocks++;
+            }
+        } catch (Throwable t) {
+            LOGGER.atWarning().log("[HammerIndex] Warm-up failed: " + t.getMessage());
+        }
+        return blocks;
+    }
+
+    /** Drops every cached entry. */
+    public static void clear() {
+        KEYS.clear();
+        DOORLESS.clear();
+        DOORS.clear();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Classification
+    // ─────────────────────────────────────────────────────────────────────
+
+    private static Integer classify(String key) {
+        String lower = key.toLowerCase(Locale.ROOT);
+        int category = NONE;
+        for (int c = 0; c < HINTS.length && category == NONE; c++) {
+            for (String h : HINTS[c]) {
+                if (lower.contains(h)) { category = c; break; }
+            }
+        }
+        return (category + 1) | (lower.contains(DOOR) ? DOOR_BIT : 0);
+    }
+
+    private static String[] strip(String[] windows) {
+        List<String> kept = new ArrayList<>(windows.length);
+        boolean doors = false;
+        for (String k : windows) {
+            if (k == null) continue;
+            if (k.toLowerCase(Locale.ROOT).contains(DOOR)) doors = true;
+            else kept.add(k);
+        }
+        return doors ? kept.toArray(new String[0]) : windows;
+    }
+
+    private static String[] keepDoors(String[] windows) {
+        List<String> kept = new ArrayList<>();
+        for (String k : windows) {
+            if (k != null && k.toLowerCase(Locale.ROOT).contains(DOOR)) kept.add(k);
+        }
+        return kept.size() == windows.length ? windows : kept.toArray(new String[0]);
+    }
+}
@@ -105,26 +105,23 @@ public final class MacawCompat {
     // =====================================================================
 
     /** Paths full-block keys by rock type. */
-    private static final Map<String, List<String>> PATHS_BLOCKS_BY_TYPE = new LinkedHashMap<>();
+    private static volatile Map<String, List<String>> PATHS_BLOCKS_BY_TYPE = new LinkedHashMap<>();
 
     /** Paths stair-variant keys by rock type. */
-    private static final Map<String, List<String>> PATHS_STAIRS_BY_TYPE = new LinkedHashMap<>();
+    private static volatile Map<String, List<String>> PATHS_STAIRS_BY_TYPE = new LinkedHashMap<>();
 
     /** Paths half-slab-variant keys by rock type. */
-    private static final Map<String, List<String>> PATHS_HALFS_BY_TYPE  = new LinkedHashMap<>();
+    private static volatile Map<String, List<String>> PATHS_HALFS_BY_TYPE  = new LinkedHashMap<>();
 
     /** McwStairs stair + railing keys by stone type (UI-only list). */
-    private static final Map<String, List<String>> MCW_STAIRS_BY_TYPE = new LinkedHashMap<>();
+    private static volatile Map<String, List<String>> MCW_STAIRS_BY_TYPE = new LinkedHashMap<>();
 
     /**
      * McwStairs <em>all</em> block keys by stone type, including
      * connected-block sub-variants (_Left, _Middle, _Right).
      * Used only for state injection.
      */
-    private static final Map<String, List<String>> MCW_STAIRS_ALL_BY_TYPE = new LinkedHashMap<>();
-
-    /** Rock-prefix → normalised type, sorted longest first. */
-    private static final List<Map.Entry<String, String>> ROCK_PREFIX_TO_TYPE = new ArrayList<>();
+    private static volatile Map<String, List<String>> MCW_STAIRS_ALL_BY_TYPE = new LinkedHashMap<>();
 
     private MacawCompat() {} // utility class
 
@@ -137,6 +134,8 @@ public final class MacawCompat {
      * injects chisel states onto every variant block.
      */
     public static void init() {
+        resetRegistries();
+
         // ── Detect Paths ────────────────────────────────────────────────
         try {
             if (BlockTypeCache.exists("Mcw_Paths_Rock_Stone_Brick_Dumble")) {
@@ -216,36 +215,9 @@ public final class MacawCompat {
      * @return normalised type (e.g. "basalt") or {@code null}
      */
     public static String detectRockType(String blockKey, String[] substitutions) {
-        if (blockKey != null) {
-            String keyNorm = blockKey.toLowerCase(Locale.ROOT);
-            // Rock_{Type} prefix (e.g. "Rock_Basalt_Brick")
-            for (Map.Entry<String, String> entry : ROCK_PREFIX_TO_TYPE) {
-                String prefix = entry.getKey();
-                if (keyNorm.equals(prefix) || keyNorm.startsWith(prefix + "_")) {
-                    return entry.getValue();
-                }
-            }
-            // Mcw_Paths_Rock_{Type}_Brick_ prefix
-            if (keyNorm.startsWith("mcw_paths_rock_")) {
-                String rest = keyNorm.substring("mcw_paths_rock_".length());
-                for (Map.Entry<String, String> entry : ROCK_PREFIX_TO_TYPE) {
-                    String typeNorm = entry.getValue();
-                    if (rest.equals(typeNorm) || rest.startsWith(typeNorm + "_")) {
-                        return typeNorm;
-                    }
-                }
-            }
-            // Mcw_Stairs_{Type}_ prefix
-            if (keyNorm.startsWith("mcw_stairs_")) {
-                String rest = keyNorm.substring("mcw_stairs_".length());
-                for (Map.Entry<String, String> entry : ROCK_PREFIX_TO_TYPE) {
-                    String typeNorm = entry.getValue();
-                    if (rest.equals(typeNorm) || rest.startsWith(typeNorm + "_")) {
-                        return typeNorm;
-                    }
-                }
-            }
-        }
+        // Rock_{Type}, Mcw_Paths_Rock_{Type}_Brick_ or Mcw_Stairs_{Type}_ prefix
+        String fromKey = MaterialTrie.material(blockKey, MaterialTrie.Owner.MACAW);
+        if (fromKey != null) return fromKey;
         return detectRockType(substitutions);
     }
 
@@ -256,18 +228,7 @@ public final class MacawCompat {
      * @return normalised type (e.g. "stone") or {@code null}
      */
     public static String detectRockType(String[] substitutions) {
-        if (substitutions == null) return null;
-        for (String sub : substitutions) {
-            if (sub == null) continue;
-            String subNorm = sub.toLowerCase(Locale.ROOT);
-            for (Map.Entry<String, String> entry : ROCK_PREFIX_TO_TYPE) {
-                String prefix = entry.getKey();
-                if (subNorm.equals(prefix) || subNorm.startsWith(prefix + "_")) {
-                    return entry.getValue();
-                }
-            }
-        }
-        return null;
+        return MaterialTrie.firstMaterial(substitutions, MaterialTrie.Owner.MACAW, MaterialTrie.Kind.ROCK);
     }
 
     // =====================================================================
@@ -330,20 +291,24 @@ public final class MacawCompat {
     }
 
     /**
-     * Builds a prefix map covering all rock types from both Paths and
-     * Stairs, sorted longest-first.
+     * Registers the Rock_, Mcw_Paths_Rock_ and Mcw_Stairs_ prefixes for all
+     * rock types from both Paths and Stairs with the shared
+     * {@link MaterialTrie} (longest match, so "rock_sandstone_red" wins over
+     * "rock_sandstone").
      */
     private static void buildRockPrefixMap() {
         Set<String> allTypes = new LinkedHashSet<>();
         for (String t : PATHS_ROCK_TYPES)   allTypes.add(t);
         for (String t : STAIRS_STONE_TYPES) allTypes.add(t);
 
+        MaterialTrie.Builder b = MaterialTrie.builder(MaterialTrie.Owner.MACAW);
         for (String type : allTypes) {
-            String rockPrefix = normalise("Rock_" + type);
-            ROCK_PREFIX_TO_TYPE.add(Map.entry(rockPrefix, normalise(type)));
+            String norm = normalise(type);
+            b.add("Rock_" + type, norm, MaterialTrie.Kind.ROCK);
+            b.add("Mcw_Paths_Rock_" + type, norm, MaterialTrie.Kind.MCW_PATHS);
+            b.add("Mcw_Stairs_" + type, norm, MaterialTrie.Kind.MCW_STAIRS);
         }
-        // Longest prefix first so "rock_sandstone_red" matches before "rock_sandstone"
-        ROCK_PREFIX_TO_TYPE.sort((a, b) -> Integer.compare(b.getKey().length(), a.getKey().length()));
+        MaterialTrie.define(b);
     }
 
     // =====================================================================
@@ -453,7 +418,7 @@ public final class MacawCompat {
             BlockType rockBlock = BlockTypeCache.get("Rock_" + stoneType);
             if (rockBlock == null) return null;
             StateData state = rockBlock.getState();
-            if (state instanceof Chisel.Data chiselData) return chiselData.substitutions;
+            if (state instanceof Chisel.Data chiselData) return chiselData.snapshot().substitutions;
         } catch (Exception e) {
             LOGGER.atWarning().log("[Chisel] Could not read rock subs for Rock_"
                     + stoneType + ": " + e.getMessage());
@@ -461,6 +426,32 @@ public final class MacawCompat {
         return null;
     }
 
+    /** Fresh mutable registries so a repeated {@link #init()} never writes into sealed ones. */
+    private static void resetRegistries() {
+        PATHS_BLOCKS_BY_TYPE   = new LinkedHashMap<>();
+        PATHS_STAIRS_BY_TYPE   = new LinkedHashMap<>();
+        PATHS_HALFS_BY_TYPE    = new LinkedHashMap<>();
+        MCW_STAIRS_BY_TYPE     = new LinkedHashMap<>();
+        MCW_STAIRS_ALL_BY_TYPE = new LinkedHashMap<>();
+        MaterialTrie.clear(MaterialTrie.Owner.MACAW);
+        CompatSeal.unseal();
+    }
+
+    /**
+     * Freezes the lookup registries (see {@link CompatSeal}).  The
+     * injection-only {@code MCW_STAIRS_ALL_BY_TYPE} list is released outright.
+     */
+    static void seal(CompatSeal.Tally tally) {
+        PATHS_BLOCKS_BY_TYPE = CompatSeal.freezeListMap(PATHS_BLOCKS_BY_TYPE, tally);
+        PATHS_STAIRS_BY_TYPE = CompatSeal.freezeListMap(PATHS_STAIRS_BY_TYPE, tally);
+        PATHS_HALFS_BY_TYPE  = CompatSeal.freezeListMap(PATHS_HALFS_BY_TYPE, tally);
+        MCW_STAIRS_BY_TYPE   = CompatSeal.freezeListMap(MCW_STAIRS_BY_TYPE, tally);
+
+        CompatSeal.release(MCW_STAIRS_ALL_BY_TYPE, tally);
+        for (List<String> l : MCW_STAIRS_ALL_BY_TYPE.values()) CompatSeal.releaseBytes(CompatSeal.listBytes(l), tally);
+        MCW_STAIRS_ALL_BY_TYPE = Map.of();
+    }
+
     private static String normalise(String s) {
         return s.toLowerCase(Locale.ROOT);
     }
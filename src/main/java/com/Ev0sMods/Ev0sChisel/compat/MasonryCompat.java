@@ -23,27 +23,13 @@ public final class MasonryCompat {
     private static boolean detected = false;
 
     /** Stone-type (normalised) → unmodifiable list of full-block variant keys. */
-    private static final Map<String, List<String>> VARIANTS_BY_TYPE = new LinkedHashMap<>();
+    private static volatile Map<String, List<String>> VARIANTS_BY_TYPE = new LinkedHashMap<>();
 
     /** Stone-type (normalised) → unmodifiable list of stair variant keys. */
-    private static final Map<String, List<String>> STAIR_VARIANTS_BY_TYPE = new LinkedHashMap<>();
+    private static volatile Map<String, List<String>> STAIR_VARIANTS_BY_TYPE = new LinkedHashMap<>();
 
     /** Stone-type (normalised) → unmodifiable list of half-slab variant keys. */
-    private static final Map<String, List<String>> HALF_VARIANTS_BY_TYPE = new LinkedHashMap<>();
-
-    /**
-     * Rock-block prefix (normalised, e.g. "rock_stone") → stone type key
-     * (normalised, e.g. "stone").  Sorted longest-first so "sandstone_red"
-     * matches before "sandstone".
-     */
-    private static final List<Map.Entry<String, String>> ROCK_PREFIX_TO_TYPE = new ArrayList<>();
-
-    /**
-     * Bare type-name prefix (normalised, e.g. "basalt") → stone type key.
-     * Sorted longest-first so "sandstone_red" matches before "sandstone".
-     * Used to match masonry variant block keys (e.g. "Basalt_Crosshatch").
-     */
-    private static final List<Map.Entry<String, String>> TYPE_PREFIX_TO_TYPE = new ArrayList<>();
+    private static volatile Map<String, List<String>> HALF_VARIANTS_BY_TYPE = new LinkedHashMap<>();
 
     // ── The 20 masonry patterns (no stairs / half) ──────────────────────
     private static final String[] PATTERNS = {
@@ -76,6 +62,7 @@ public final class MasonryCompat {
         try {
             Class.forName("net.conczin.YmmersiveMasonry");
             detected = true;
+            resetRegistries();
             buildVariantMap();
             buildRockPrefixMap();
         } catch (ClassNotFoundException e) {
@@ -139,24 +126,10 @@ public final class MasonryCompat {
     public static String detectStoneType(String blockKey, String[] substitutions) {
         if (!detected) return null;
 
-        // Priority: match the block's own key
-        if (blockKey != null) {
-            String keyNorm = blockKey.toLowerCase(Locale.ROOT);
-            // Check "Rock_{Type}" prefix  (e.g. "Rock_Basalt", "Rock_Basalt_Brick")
-            for (Map.Entry<String, String> entry : ROCK_PREFIX_TO_TYPE) {
-                String prefix = entry.getKey();
-                if (keyNorm.equals(prefix) || keyNorm.startsWith(prefix + "_")) {
-                    return entry.getValue();
-                }
-            }
-            // Check bare type name  (e.g. "Basalt_Crosshatch" → basalt)
-            for (Map.Entry<String, String> entry : TYPE_PREFIX_TO_TYPE) {
-                String prefix = entry.getKey();
-                if (keyNorm.equals(prefix) || keyNorm.startsWith(prefix + "_")) {
-                    return entry.getValue();
-                }
-            }
-        }
+        // Priority: match the block's own key — "Rock_{Type}" (e.g.
+        // "Rock_Basalt_Brick") or bare type name (e.g. "Basalt_Crosshatch")
+        String fromKey = MaterialTrie.material(blockKey, MaterialTrie.Owner.MASONRY);
+        if (fromKey != null) return fromKey;
 
         // Fallback: scan substitutions (first prefix match wins)
         return detectStoneType(substitutions);
@@ -172,18 +145,8 @@ public final class MasonryCompat {
      * @return the detected stone type (normalised), or null
      */
     public static String detectStoneType(String[] substitutions) {
-        if (!detected || substitutions == null) return null;
-        for (String sub : substitutions) {
-            if (sub == null) continue;
-            String subNorm = sub.toLowerCase(Locale.ROOT);
-            for (Map.Entry<String, String> entry : ROCK_PREFIX_TO_TYPE) {
-                String prefix = entry.getKey();
-                if (subNorm.equals(prefix) || subNorm.startsWith(prefix + "_")) {
-                    return entry.getValue();
-                }
-            }
-        }
-        return null;
+        if (!detected) return null;
+        return MaterialTrie.firstMaterial(substitutions, MaterialTrie.Owner.MASONRY, MaterialTrie.Kind.ROCK);
     }
 
     // ─────────────────────────────────────────────────────────────────────
@@ -210,28 +173,38 @@ public final class MasonryCompat {
     }
 
     /**
-     * Builds the rock-prefix lookup sorted by descending prefix length
-     * so that "rock_sandstone_red" is tested before "rock_sandstone".
+     * Registers the "Rock_{Type}" and bare "{Type}" prefixes with the shared
+     * {@link MaterialTrie}; the trie resolves "rock_sandstone_red" before
+     * "rock_sandstone" by longest match.
      */
     private static void buildRockPrefixMap() {
+        MaterialTrie.Builder b = MaterialTrie.builder(MaterialTrie.Owner.MASONRY);
         for (String type : STONE_TYPES) {
-            // The key in the normalised lookup
             String normType = normalise(type);
-            // The known rock-block prefix for this stone type
-            String rockPrefix = normalise("Rock_" + type);
-            ROCK_PREFIX_TO_TYPE.add(Map.entry(rockPrefix, normType));
+            b.add("Rock_" + type, normType, MaterialTrie.Kind.ROCK);
+            b.add(type, normType, MaterialTrie.Kind.STONE);
         }
-        // Sort longest prefix first to avoid partial matches
-        ROCK_PREFIX_TO_TYPE.sort((a, b) -> Integer.compare(b.getKey().length(), a.getKey().length()));
+        MaterialTrie.define(b);
+    }
 
-        // Build bare type-name prefix map (for matching masonry variant keys)
-        for (String type : STONE_TYPES) {
-            String normType = normalise(type);
-            TYPE_PREFIX_TO_TYPE.add(Map.entry(normType, normType));
-        }
-        TYPE_PREFIX_TO_TYPE.sort((a, b) -> Integer.compare(b.getKey().length(), a.getKey().length()));
+    /**
+     * Replaces the registries with fresh mutable collections so a repeated
+     * {@link #init()} (setup + start, or a reload after sealing) rebuilds
+     * from scratch instead of appending duplicates to frozen structures.
+     */
+    private static void resetRegistries() {
+        VARIANTS_BY_TYPE       = new LinkedHashMap<>();
+        STAIR_VARIANTS_BY_TYPE = new LinkedHashMap<>();
+        HALF_VARIANTS_BY_TYPE  = new LinkedHashMap<>();
+        MaterialTrie.clear(MaterialTrie.Owner.MASONRY);
+        CompatSeal.unseal();
+    }
 
-        // built rock-prefix map (info log removed)
+    /** Freezes the stone registries into compact immutable collections (see {@link CompatSeal}). */
+    static void seal(CompatSeal.Tally tally) {
+        VARIANTS_BY_TYPE       = CompatSeal.freezeListMap(VARIANTS_BY_TYPE, tally);
+        STAIR_VARIANTS_BY_TYPE = CompatSeal.freezeListMap(STAIR_VARIANTS_BY_TYPE, tally);
+        HALF_VARIANTS_BY_TYPE  = CompatSeal.freezeListMap(HALF_VARIANTS_BY_TYPE, tally);
     }
 
     /** Lowercase normalisation so lookups are case-insensitive. */
@@ -366,7 +339,7 @@ public final class MasonryCompat {
             if (rockBlock == null) return null;
             StateData state = rockBlock.getState();
             if (state instanceof Chisel.Data chiselData) {
-                return chiselData.substitutions;
+                return chiselData.snapshot().substitutions;
             }
         } catch (Exception e) {
             LOGGER.atWarning().log("[Chisel] Could not read rock subs for Rock_"
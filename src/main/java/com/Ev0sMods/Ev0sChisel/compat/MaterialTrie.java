@@ -0,0 +1,204 @@
+package com.Ev0sMods.Ev0sChisel.compat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared case-insensitive prefix trie for material detection.
+ *
+ * <p>Masonry, Macaw and Carpentry each used to lowercase a block key and scan
+ * their own longest-first prefix list ({@code rock_basalt}, {@code wood_hardwood},
+ * {@code mcw_paths_rock_stone}, ...).  Every compat now registers its prefixes
+ * here at init and a lookup walks the key's characters once, folding case on
+ * the fly: no lowercased copy, no substring, no allocation.
+ *
+ * <p>A prefix matches when the key equals it or continues with {@code '_'};
+ * the longest match wins.  Each registration is tagged with the compat that
+ * owns it so one compat's detector never picks up another's types.
+ *
+ * <p>The trie is rebuilt whenever a compat (re)defines its prefixes and
+ * published through a {@code volatile} root, so lookups never lock.
+ */
+public final class MaterialTrie {
+
+    /** Compat layer that registered a prefix. */
+    public enum Owner { MASONRY, MACAW, CARPENTRY }
+
+    /** Shape of the key that matched. */
+    public enum Kind {
+        /** {@code Rock_{Type}...} (vanilla rock family). */
+        ROCK,
+        /** {@code {Type}_{Pattern}} (masonry variant keys). */
+        STONE,
+        /** {@code Mcw_Paths_Rock_{Type}...}. */
+        MCW_PATHS,
+        /** {@code Mcw_Stairs_{Type}...}. */
+        MCW_STAIRS,
+        /** {@code Wood_{Type}...} (vanilla wood family). */
+        WOOD,
+        /** {@code {Type}_{Design}} (carpentry variant keys). */
+        TIMBER
+    }
+
+    /** Immutable match result; instances are shared, never allocated per lookup. */
+    public static final class Match {
+        public final String material;
+        public final Kind   kind;
+        public final Owner  owner;
+
+        Match(String material, Kind kind, Owner owner) {
+            this.material = material;
+            this.kind = kind;
+            this.owner = owner;
+        }
+
+        @Override
+        public String toString() { return owner + ":" + kind + ":" + material; }
+    }
+
+    private static final int OWNERS = Owner.values().length;
+
+    /** Registered prefixes per owner, kept so the trie can be rebuilt on re-init. */
+    private static final Map<Owner, List<String>>   DEFINITIONS = new EnumMap<>(Owner.class);
+    private static final Map<Owner, List<Match>>    MATCHES     = new EnumMap<>(Owner.class);
+
+    private static volatile Node root = new Node();
+
+    private MaterialTrie() {}
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Registration
+    // ─────────────────────────────────────────────────────────────────────
+
+    /** Collects one compat's prefixes before {@link #define}. */
+    public static final class Builder {
+        private final Owner owner;
+        private final List<String> prefixes = new ArrayList<>();
+        private final List<Match>    matches  = new ArrayList<>();
+
+        private Builder(Owner owner) { this.owner = owner; }
+
+        /**
+         * Adds a prefix (any case) resolving to the normalised {@code material}.
+         */
+        public Builder add(String prefix, String material, Kind kind) {
+            if (prefix == null || prefix.isEmpty() || material == null) return this;
+            prefixes.add(prefix);
+            matches.add(new Match(material, kind, owner));
+            return this;
+        }
+    }
+
+    public static Builder builder(Owner owner) { return new Builder(owner); }
+
+    /** Replaces every prefix owned by {@code b.owner} and republishes the trie. */
+    public static synchronized void define(Builder b) {
+        DEFINITIONS.put(b.owner, b.prefixes);
+        MATCHES.put(b.owner, b.matches);
+        rebuild();
+    }
+
+    /** Drops every prefix owned by {@code owner}. */
+    public static synchronized void clear(Owner owner) {
+        if (DEFINITIONS.remove(owner) == null) return;
+        MATCHES.remove(owner);
+        rebuild();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Lookup
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * Returns the longest prefix of {@code key} registered by {@code owner},
+     * or {@code null}.
+     */
+    public static Match match(String key, Owner owner) {
+        if (key == null) return null;
+        int o = owner.ordinal();
+        Node n = root;
+        Match best = null;
+        int len = key.length();
+        for (int i = 0; i < len; i++) {
+            n = n.child(fold(key.charAt(i)));
+            if (n == null) return best;
+            if (n.terminal != null && n.terminal[o] != null
+                    && (i + 1 == len || key.charAt(i + 1) == '_')) {
+                best = n.terminal[o];
+            }
+        }
+        return best;
+    }
+
+    /** @return the material of {@link #match(String, Owner)}, or {@code null}. */
+    public static String material(String key, Owner owner) {
+        Match m = match(key, owner);
+        return m != null ? m.material : null;
+    }
+
+    /**
+     * Scans {@code keys} in order and returns the first key's match whose
+     * kind is {@code kind}, or {@code null}.
+     */
+    public static String firstMaterial(String[] keys, Owner owner, Kind kind) {
+        if (keys == null) return null;
+        for (String k : keys) {
+            Match m = match(k, owner);
+            if (m != null && m.kind == kind) return m.material;
+        }
+        return null;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Internals
+    // ─────────────────────────────────────────────────────────────────────
+
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] kids = new Node[0];
+        Match[] terminal;
+
+        Node child(char c) {
+            char[] k = keys;
+            for (int i = 0; i < k.length; i++) if (k[i] == c) return kids[i];
+            return null;
+        }
+
+        Node childOrAdd(char c) {
+            Node n = child(c);
+            if (n != null) return n;
+            int len = keys.length;
+            keys = Arrays.copyOf(keys, len + 1);
+            kids = Arrays.copyOf(kids, len + 1);
+            keys[len] = c;
+            kids[len] = n = new Node();
+            return n;
+        }
+    }
+
+    private static void rebuild() {
+        Node fresh = new Node();
+        for (Map.Entry<Owner, List<String>> e : DEFINITIONS.entrySet()) {
+            int o = e.getKey().ordinal();
+            List<String> prefixes = e.getValue();
+            List<Match> matches = MATCHES.get(e.getKey());
+            for (int i = 0; i < prefixes.size(); i++) {
+                String prefix = prefixes.get(i);
+                Node n = fresh;
+                for (int c = 0; c < prefix.length(); c++) n = n.childOrAdd(fold(prefix.charAt(c)));
+                if (n.terminal == null) n.terminal = new Match[OWNERS];
+                if (n.terminal[o] == null) n.terminal[o] = matches.get(i); // first registration wins
+            }
+        }
+        root = fresh;
+    }
+
+    /** ASCII fast path; falls back to {@link Character#toLowerCase(char)}. */
+    private static char fold(char c) {
+        if (c >= 'A' && c <= 'Z') return (char) (c + 32);
+        return c < 0x80 ? c : Character.toLowerCase(c);
+    }
+}
@@ -99,6 +99,8 @@ public final class NoCubeNeonCompat {
     public static void injectPaintbrushStates() {
         if (!detected || VARIANTS.isEmpty()) return;
 
+        // One shared line for the whole family instead of a fresh copy per block
+        VariantMatrix group = VariantMatrix.ofList("NoCube_Neon", "color", VARIANTS.toArray(new String[0]));
         int injected = 0, failed = 0;
         // beginning injection onto discovered variants (info log removed)
         for (String key : VARIANTS) {
@@ -113,7 +115,7 @@ public final class NoCubeNeonCompat {
 
                 Paintbrush.Data data = new Paintbrush.Data();
                 data.source = "NoCube_Neon";
-                data.colorVariants = VARIANTS.toArray(new String[0]);
+                data.bind(group, group.cellOf(key), 0);
 
                 setField(StateData.class, data, "id", "Ev0sPaintbrush");
                 setField(BlockType.class, bt, "state", data);
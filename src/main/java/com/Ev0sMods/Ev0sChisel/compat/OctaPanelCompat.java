@@ -300,26 +300,20 @@ public final class OctaPanelCompat {
         // ── Stained glass windows ─────────────────────────────────────────
         total += injectFixed(OCTA_WINDOWS, "Octa_Windows");
 
-        // ── Colored numbered wall panels (per-design-N color groups) ───────
-        for (int n = 1; n <= PANEL_DESIGN_MAX; n++) {
-            List<String> group = new ArrayList<>();
-            for (String color : PANEL_COLORS) {
-                String key = color + n;
-                if (exists(key)) group.add(key);
-            }
-            total += inject(group, "Octa_WallPanel_Design" + n);
-        }
+        // ── Colored numbered panels (color × design matrices) ──────────────
+        // Each design's color group is one line of the matrix, shared by
+        // every panel of that design.
+        String[] designs = new String[PANEL_DESIGN_MAX];
+        for (int n = 1; n <= PANEL_DESIGN_MAX; n++) designs[n - 1] = String.valueOf(n);
 
-        // ── Colored numbered floor panels (per-design-N color groups) ──────
-        for (int n = 1; n <= PANEL_DESIGN_MAX; n++) {
-            List<String> group = new ArrayList<>();
-            for (String color : PANEL_COLORS) {
-                // DC exception: DC1F, DC2F, … all others: BlackF1, BlueF1, …
-                String key = color.equals("DC") ? "DC" + n + "F" : color + "F" + n;
-                if (exists(key)) group.add(key);
-            }
-            total += inject(group, "Octa_FloorPanel_Design" + n);
-        }
+        total += injectMatrix(VariantMatrix.probe("Octa_WallPanel",
+                new String[]{"color", "design"}, new String[][]{PANEL_COLORS, designs},
+                c -> c[0] + c[1]), "Octa_WallPanel_Design");
+
+        // DC exception: DC1F, DC2F, … all others: BlackF1, BlueF1, …
+        total += injectMatrix(VariantMatrix.probe("Octa_FloorPanel",
+                new String[]{"color", "design"}, new String[][]{PANEL_COLORS, designs},
+                c -> c[0].equals("DC") ? "DC" + c[1] + "F" : c[0] + "F" + c[1]), "Octa_FloorPanel_Design");
 
         // ── Light bars (wall + floor) ─────────────────────────────────────
         total += injectFixed(LIGHT_BARS_WALL,  "Octa_LightBar_Wall");
@@ -464,17 +458,41 @@ public final class OctaPanelCompat {
     /** Injects a {@link Paintbrush.Data} color group onto every key in the list. */
     private static int inject(List<String> keys, String source) {
         if (keys.isEmpty()) return 0;
-        String[] arr = keys.toArray(new String[0]);
+        VariantMatrix group = VariantMatrix.ofList(source, "variant", keys.toArray(new String[0]));
+        int injected = 0;
+        for (String key : keys) {
+            BlockType bt = BlockTypeCache.get(key);
+            if (bt == null) continue;
+            StateData existing = bt.getState();
+            if (existing instanceof Paintbrush.Data) continue; // already handled
+
+            Paintbrush.Data data = new Paintbrush.Data();
+            data.source = source;
+            data.bind(group, group.cellOf(key), 0);
+            if (ComboStateHelper.inject(bt, null, data, null)) injected++;
+        }
+        return injected;
+    }
+
+    /**
+     * Injects one paint group per design line of a {@code color × design}
+     * matrix; the source label is {@code sourcePrefix + design}.
+     */
+    private static int injectMatrix(VariantMatrix panels, String sourcePrefix) {
+        if (panels == null) return 0;
+        int colorAxis  = panels.axisIndex("color");
+        int designAxis = panels.axisIndex("design");
         int injected = 0;
-        for (String key : arr) {
+        for (String key : panels.allKeys()) {
             BlockType bt = BlockTypeCache.get(key);
             if (bt == null) continue;
             StateData existing = bt.getState();
             if (existing instanceof Paintbrush.Data) continue; // already handled
 
+            int cell = panels.cellOf(key);
             Paintbrush.Data data = new Paintbrush.Data();
-            data.source        = source;
-            data.colorVariants = arr;
+            data.source = sourcePrefix + panels.axisValue(cell, designAxis);
+            data.bind(panels, cell, colorAxis);
             if (ComboStateHelper.inject(bt, null, data, null)) injected++;
         }
         return injected;
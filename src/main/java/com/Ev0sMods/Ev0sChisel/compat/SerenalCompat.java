@@ -1,8 +1,6 @@
 package com.Ev0sMods.Ev0sChisel.compat;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedHashSet;
 import java.util.List;
 
 import com.Ev0sMods.Ev0sChisel.CarpenterHammer;
@@ -357,19 +355,17 @@ public final class SerenalCompat {
                 BlockType baseBt = BlockTypeCache.get(baseKey);
                 if (baseBt != null) {
                     Chisel.Data baseChisel = getChiselData(baseBt);
-                    if (baseChisel != null && baseChisel.substitutions != null) {
-                        LinkedHashSet<String> merged = new LinkedHashSet<>();
-                        Collections.addAll(merged, baseChisel.substitutions);
-                        merged.addAll(serenalShapeKeys);
-                        String[] mergedArr = merged.toArray(new String[0]);
-                        // Update every family member (skip the brick block — it owns its own group)
-                        for (String member : baseChisel.substitutions) {
+                    if (baseChisel != null) {
+                        // Extend every family member (skip the brick block — it owns its own group)
+                        List<Chisel.Data> members = new ArrayList<>();
+                        for (String member : baseChisel.snapshot().substitutions) {
                             if (member.equals(material)) continue;
                             BlockType memberBt = BlockTypeCache.get(member);
                             if (memberBt == null) continue;
                             Chisel.Data memberChisel = getChiselData(memberBt);
-                            if (memberChisel != null) memberChisel.substitutions = mergedArr;
+                            if (memberChisel != null) members.add(memberChisel);
                         }
+                        FamilyStore.extend(baseKey, baseChisel, members, serenalShapeKeys);
                     }
                 }
             }
@@ -389,25 +385,25 @@ public final class SerenalCompat {
         BlockType baseBt = BlockTypeCache.get(familyBaseKey);
         if (baseBt == null) return;
         Chisel.Data baseChisel = getChiselData(baseBt);
-        if (baseChisel == null || baseChisel.substitutions == null) return;
+        if (baseChisel == null) return;
 
-        LinkedHashSet<String> merged = new LinkedHashSet<>();
-        Collections.addAll(merged, baseChisel.substitutions);
-        merged.addAll(tileKeys);
-        String[] mergedArr = merged.toArray(new String[0]);
-
-        for (String member : baseChisel.substitutions) {
+        List<Chisel.Data> members = new ArrayList<>();
+        for (String member : baseChisel.snapshot().substitutions) {
             BlockType bt = BlockTypeCache.get(member);
             if (bt == null) continue;
             Chisel.Data cd = getChiselData(bt);
-            if (cd != null) cd.substitutions = mergedArr;
+            if (cd != null) members.add(cd);
         }
-        baseChisel.substitutions = mergedArr;
+        ChiselFamily merged = FamilyStore.extend(familyBaseKey, baseChisel, members, tileKeys);
+        if (merged == null) return;
+
+        // Tiles keep their own shape buckets but pick up the whole family
         for (String tileKey : tileKeys) {
             BlockType bt = BlockTypeCache.get(tileKey);
             if (bt == null) continue;
             Chisel.Data cd = getChiselData(bt);
-            if (cd != null) cd.substitutions = mergedArr;
+            if (cd != null && cd.family != baseChisel.family)
+                FamilyStore.replace(cd, own -> own.withSubstitutions(merged.substitutions));
         }
     }
 
@@ -0,0 +1,206 @@
+package com.Ev0sMods.Ev0sChisel.compat;
+
+import com.Ev0sMods.Ev0sChisel.Chisel;
+import com.Ev0sMods.Ev0sChisel.ComboState;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.StateData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed statue eligibility for the chisel UI.
+ *
+ * <p>A two-block pillar offers statues based only on the bottom block's key
+ * (and its resolved chisel family), so the statue list for every chisel
+ * block is computed once by {@link #warm()} and looked up afterwards.  Blocks
+ * with no statues map to an empty array, letting
+ * {@code ChiselUIPage} skip the pillar check entirely.  A second table caches
+ * whether a key is itself a statue block, for the crouch-rotate path.
+ *
+ * <p>Keys seen for the first time after startup are resolved lazily and
+ * cached; both tables are cleared when the statue compat re-initialises.
+ */
+public final class StatueIndex {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private static final String[] EMPTY = new String[0];
+
+    /** Block key → statue keys offered for a pillar of that block (empty = none). */
+    private static final Map<String, String[]> STATUES_BY_BLOCK = new ConcurrentHashMap<>();
+
+    /** Block key → whether the key is a statue block (rotated as a pillar). */
+    private static final Map<String, Boolean> IS_STATUE = new ConcurrentHashMap<>();
+
+    /** Vanilla material → furniture statue mapping, checked in this order. */
+    private static final String[][] MATERIAL_STATUES = {
+            {"rock_stone",      "Furniture_Ancient_Statue", "Furniture_Human_Ruins_Statue_Broken"},
+            {"any_wood",        "Furniture_Kweebec_Statue", "Furniture_Temple_Emerald_Statue"},
+            {"rock_shale",      "Furniture_Temple_Dark_Statue_Gaia", "Furniture_Temple_Dark_Statue"},
+            {"rock_chalk",      "Furniture_Temple_Light_Statue"},
+            {"rock_gold",       "Furniture_Temple_Scarak_Statue"},
+            {"white_sandstone", "Furniture_Temple_Wind_Statue_Gaia", "Furniture_Temple_Wind_Statue"},
+    };
+
+    private StatueIndex() {}
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Public API
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * Returns the statue keys offered when {@code bottomKey} forms the bottom
+     * of a two-block pillar.  The array is shared and must not be modified.
+     *
+     * @return statue keys, or an empty array when the block has none
+     */
+    public static String[] statuesFor(String bottomKey) {
+        if (bottomKey == null) return EMPTY;
+        String[] cached = STATUES_BY_BLOCK.get(bottomKey);
+        if (cached != null) return cached;
+        String[] computed;
+        try {
+            computed = compute(bottomKey);
+        } catch (Throwable t) {
+            computed = EMPTY;
+        }
+        STATUES_BY_BLOCK.put(bottomKey, computed);
+        return computed;
+    }
+
+    /** @return {@code true} if {@code blockKey} is a statue block. */
+    public static boolean isStatueBlock(String blockKey) {
+        if (blockKey == null) return false;
+        Boolean cached = IS_STATUE.get(blockKey);
+        if (cached != null) return cached;
+        boolean statue = blockKey.toLowerCase(Locale.ROOT).contains("statue");
+        if (!statue && StatuesCompat.isAvailable()) {
+            try {
+                statue = StatuesCompat.getMappedChiselTypeForStatue(blockKey) != null;
+            } catch (Throwable ignored) {}
+        }
+        IS_STATUE.put(blockKey, statue);
+        return statue;
+    }
+
+    /**
+     * Fills both tables for every block known to {@link BlockTypeCache}.
+     * Called once after {@link ChiselResolver#warm()}.
+     *
+     * @return number of blocks that offer statues
+     */
+    public static int warm() {
+        clear();
+        int capable = 0;
+        try {
+            for (Map.Entry<String, BlockType> e : BlockTypeCache.snapshot().entrySet()) {
+                String key = e.getKey();
+                isStatueBlock(key);
+                if (!hasChiselState(e.getValue())) continue;
+                if (statuesFor(key).length > 0) capable++;
+            }
+        } catch (Throwable t) {
+            LOGGER.atWarning().log("[StatueIndex] Warm-up failed: " + t.getMessage());
+        }
+        return capable;
+    }
+
+    /** Drops the cached entries for one key (its state was injected at runtime). */
+    public static void forget(String blockKey) {
+        if (blockKey == null) return;
+        STATUES_BY_BLOCK.remove(blockKey);
+        IS_STATUE.remove(blockKey);
+    }
+
+    /** Drops every cached entry (statue registries changed). */
+    public static void clear() {
+        STATUES_BY_BLOCK.clear();
+        IS_STATUE.clear();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Resolution
+    // ─────────────────────────────────────────────────────────────────────
+
+    private static String[] compute(String bottomKey) {
+        // Candidate keys to test (base + chisel substitutions)
+        Set<String> candidates = new LinkedHashSet<>();
+        candidates.add(bottomKey);
+        ChiselFamily cv = ChiselResolver.resolve(bottomKey);
+        if (cv != null) Collections.addAll(candidates, cv.substitutions);
+
+        List<String> results = new ArrayList<>();
+        for (String candidate : candidates) {
+            String lower = candidate.toLowerCase(Locale.ROOT);
+            for (String[] row : MATERIAL_STATUES) {
+                if (!matchesMaterial(row[0], lower)) continue;
+                for (int i = 1; i < row.length; i++) if (!results.contains(row[i])) results.add(row[i]);
+            }
+        }
+
+        // Append Ymmersive Statues candidates via compat helper
+        if (StatuesCompat.isAvailable()) {
+            String[] baseSubs = cv != null ? cv.substitutions : null;
+            try {
+                // Determine the desired chisel type for this pillar (e.g., Rock_Marble, any_wood)
+                String desiredChiselType = null;
+                String detectedRockType = null;
+                if (MasonryCompat.isAvailable()) detectedRockType = MasonryCompat.detectStoneType(bottomKey, baseSubs);
+                if (detectedRockType == null) detectedRockType = MacawCompat.detectRockType(bottomKey, baseSubs);
+                if (detectedRockType != null) {
+                    desiredChiselType = StatuesCompat.mapBlockMaterialToChisel(detectedRockType);
+                } else if (CarpentryCompat.isAvailable()) {
+                    String woodType = CarpentryCompat.detectWoodType(bottomKey, baseSubs);
+                    if (woodType != null) desiredChiselType = StatuesCompat.mapBlockMaterialToChisel("wood");
+                } else if (bottomKey.toLowerCase(Locale.ROOT).contains("mossy")) {
+                    desiredChiselType = StatuesCompat.mapBlockMaterialToChisel("mossy");
+                }
+
+                List<String> filtered = new ArrayList<>();
+                for (String candidate : candidates) {
+                    ChiselFamily cv2 = ChiselResolver.resolve(candidate);
+                    List<String> s = StatuesCompat.getCandidatesFor(candidate, cv2 != null ? cv2.substitutions : null);
+                    for (String k : s) {
+                        if (desiredChiselType == null) {
+                            if (!results.contains(k)) results.add(k);
+                        } else {
+                            String mapped = StatuesCompat.getMappedChiselTypeForStatue(k);
+                            if (mapped != null && mapped.equalsIgnoreCase(desiredChiselType)
+                                    && !filtered.contains(k)) filtered.add(k);
+                        }
+                    }
+                }
+                for (String k : filtered) if (!results.contains(k)) results.add(k);
+            } catch (Throwable t) {
+                // On any failure, fall back to the old behavior (add all candidates)
+                for (String candidate : candidates) {
+                    ChiselFamily cv2 = ChiselResolver.resolve(candidate);
+                    List<String> s = StatuesCompat.getCandidatesFor(candidate, cv2 != null ? cv2.substitutions : null);
+                    for (String k : s) if (!results.contains(k)) results.add(k);
+                }
+            }
+        }
+        return results.isEmpty() ? EMPTY : results.toArray(new String[0]);
+    }
+
+    private static boolean matchesMaterial(String material, String lowerKey) {
+        if ("any_wood".equals(material)) return lowerKey.startsWith("wood_");
+        if ("white_sandstone".equals(material)) return lowerKey.contains("sandstone") && lowerKey.contains("white");
+        return material.startsWith("rock_") && lowerKey.contains(material.substring("rock_".length()));
+    }
+
+    private static boolean hasChiselState(BlockType bt) {
+        if (bt == null) return false;
+        StateData s;
+        try { s = bt.getState(); } catch (Throwable t) { return false; }
+        return s instanceof Chisel.Data || (s instanceof ComboState cs && cs.chisel != null);
+    }
+}
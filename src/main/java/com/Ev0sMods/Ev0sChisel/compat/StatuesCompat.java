@@ -37,12 +37,12 @@ public final class StatuesCompat {
 
     private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
     private static boolean detected = false;
-    private static final Set<String> AVAILABLE_STATUES = new LinkedHashSet<>();
-    private static final Map<String, List<String>> STATUES_BY_MATERIAL = new HashMap<>();
-    private static final Map<String, String> STATUE_TO_MATERIAL = new HashMap<>();
+    private static volatile Set<String> AVAILABLE_STATUES = new LinkedHashSet<>();
+    private static volatile Map<String, List<String>> STATUES_BY_MATERIAL = new HashMap<>();
+    private static volatile Map<String, String> STATUE_TO_MATERIAL = new HashMap<>();
     // Map chisel-type (e.g. "Rock_Marble", "Rock_Gold_Smooth", "any_wood") -> statue keys
-    private static final Map<String, List<String>> CHISEL_TO_STATUES = new HashMap<>();
-    private static final Map<String, String> MATERIAL_TO_CHISEL = new HashMap<>();
+    private static volatile Map<String, List<String>> CHISEL_TO_STATUES = new HashMap<>();
+    private static volatile Map<String, String> MATERIAL_TO_CHISEL = new HashMap<>();
 
     private StatuesCompat() {}
 
@@ -50,6 +50,7 @@ public final class StatuesCompat {
         try {
             Class.forName("net.conczin.YmmersiveStatues");
             detected = true;
+            resetRegistries();
 
             // Attempt to locate the Ymmersive Statues JAR and enumerate available
             // furniture/statue keys so we can offer exact JSON names.
@@ -144,6 +145,30 @@ public final class StatuesCompat {
         }
     }
 
+    /** Fresh mutable registries so a repeated {@link #init()} never writes into sealed ones. */
+    private static void resetRegistries() {
+        AVAILABLE_STATUES   = new LinkedHashSet<>();
+        STATUES_BY_MATERIAL = new HashMap<>();
+        STATUE_TO_MATERIAL  = new HashMap<>();
+        CHISEL_TO_STATUES   = new HashMap<>();
+        MATERIAL_TO_CHISEL  = new HashMap<>();
+        StatueIndex.clear();
+        CompatSeal.unseal();
+    }
+
+    /**
+     * Freezes the statue indexes (see {@link CompatSeal}).  Statues whose
+     * material could not be inferred are stored with a {@code null} value
+     * during init; lookups already treat those as absent, so they are dropped.
+     */
+    static void seal(CompatSeal.Tally tally) {
+        AVAILABLE_STATUES   = CompatSeal.freezeOrderedSet(AVAILABLE_STATUES, tally);
+        STATUES_BY_MATERIAL = CompatSeal.freezeListMap(STATUES_BY_MATERIAL, tally);
+        STATUE_TO_MATERIAL  = CompatSeal.freezeMap(STATUE_TO_MATERIAL, tally);
+        CHISEL_TO_STATUES   = CompatSeal.freezeListMap(CHISEL_TO_STATUES, tally);
+        MATERIAL_TO_CHISEL  = CompatSeal.freezeMap(MATERIAL_TO_CHISEL, tally);
+    }
+
     // Infer a simple material token from the statue JSON content.
     // Preferred sources: Tags.Family[0], BlockType.CustomModel filename token, else null.
     private static String inferMaterialFromJson(String json, String filenameBase) {
@@ -472,6 +497,7 @@ public final class StatuesCompat {
                     try {
                         setField(StateData.class, data, "id", "Ev0sChisel");
                         setField(BlockType.class, bt, "state", data);
+                        StatueIndex.forget(statueKey);
                         return true;
                     } catch (Throwable t) {
                         LOGGER.atWarning().log("[Chisel] ensureInjectedFor: failed to inject for " + statueKey + ": " + t.getMessage());
@@ -159,7 +159,7 @@ public final class StoneworksCompat {
             if (rockStone == null) return null;
             StateData state = rockStone.getState();
             if (state instanceof Chisel.Data chiselData) {
-                return chiselData.substitutions;
+                return chiselData.snapshot().substitutions;
             }
         } catch (Exception e) {
             LOGGER.atWarning().log("[Chisel] Could not read Rock_Stone subs: " + e.getMessage());
@@ -136,20 +136,18 @@ public final class TreeSourcesCompat {
 
                 if (existing instanceof Chisel.Data existingData) {
                     // Merge new arrays into any pre-existing chisel data
-                    boolean changed = false;
-                    String[] merged = mergeUnique(existingData.substitutions, substitutions);
-                    if (!java.util.Arrays.equals(existingData.substitutions, merged)) {
-                        existingData.substitutions = merged; changed = true;
-                    }
-                    String[] ms = mergeUnique(existingData.stairs, stairs);
-                    if (!java.util.Arrays.equals(existingData.stairs, ms)) {
-                        existingData.stairs = ms; changed = true;
-                    }
-                    String[] mh = mergeUnique(existingData.halfSlabs, halfSlabs);
-                    if (!java.util.Arrays.equals(existingData.halfSlabs, mh)) {
-                        existingData.halfSlabs = mh; changed = true;
-                    }
-                    if (changed) count++;
+                    // copy-on-write: publish a new snapshot rather than rewriting live arrays
+                    ChiselFamily before = existingData.snapshot();
+                    ChiselFamily after = FamilyStore.replace(existingData, cur -> {
+                        String[] merged = mergeUnique(cur.substitutions, substitutions);
+                        String[] ms = mergeUnique(cur.stairs, stairs);
+                        String[] mh = mergeUnique(cur.halfSlabs, halfSlabs);
+                        boolean changed = !java.util.Arrays.equals(cur.substitutions, merged)
+                                || !java.util.Arrays.equals(cur.stairs, ms)
+                                || !java.util.Arrays.equals(cur.halfSlabs, mh);
+                        return changed ? new ChiselFamily(cur.source, merged, ms, mh, cur.roofing) : cur;
+                    });
+                    if (after != before) count++;
                     continue;
                 }
 
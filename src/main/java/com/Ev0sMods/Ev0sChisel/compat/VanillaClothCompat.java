@@ -108,7 +108,7 @@ public final class VanillaClothCompat {
     // into the unified allCloth group so cross-mod painting works seamlessly.
     // ─────────────────────────────────────────────────────────────────────
 
-    private static final List<String> EXTRA_CLOTH_KEYS = new ArrayList<>();
+    private static List<String> EXTRA_CLOTH_KEYS = new ArrayList<>();
 
     /**
      * Registers additional block keys to be included in the unified
@@ -123,6 +123,15 @@ public final class VanillaClothCompat {
         if (keys != null) EXTRA_CLOTH_KEYS.addAll(keys);
     }
 
+    /**
+     * Drops the extra-key buffer once the cloth group has been injected
+     * (see {@link CompatSeal}).
+     */
+    static void releaseScratch(CompatSeal.Tally tally) {
+        CompatSeal.release(EXTRA_CLOTH_KEYS, tally);
+        EXTRA_CLOTH_KEYS = new ArrayList<>();
+    }
+
     public static String[] getAllColors() {
         return ALL_COLORS;
     }
@@ -283,6 +292,7 @@ public final class VanillaClothCompat {
     private static int injectGroup(String[] keys, String source) {
         if (keys == null || keys.length == 0) return 0;
 
+        VariantMatrix group = VariantMatrix.ofList(source, "variant", keys);
         int injected = 0;
         for (String key : keys) {
                 try {
@@ -293,8 +303,8 @@ public final class VanillaClothCompat {
                 if (existing instanceof Paintbrush.Data) continue; // already handled
 
                 Paintbrush.Data data = new Paintbrush.Data();
-                data.source       = source;
-                data.colorVariants = keys;
+                data.source = source;
+                data.bind(group, group.cellOf(key), 0);
 
                 setField(StateData.class, data, "id", "Ev0sPaintbrush");
                 setField(BlockType.class,  bt,  "state", data);
@@ -557,22 +557,22 @@ public final class VanillaCompat {
                 if (existing instanceof Chisel.Data existingData) {
                     // Block already registered by a prior compat pass.
                     // Merge in any vanilla-discovered arrays that were missing.
-                    String[] mergedSubs = mergeUnique(existingData.substitutions, substitutions);
-                    String[] mergedStairs = mergeUnique(existingData.stairs, stairs);
-                    String[] mergedHalfs = mergeUnique(existingData.halfSlabs, halfSlabs);
-                    String[] mergedRoofing = mergeUnique(existingData.roofing, roofing);
-
-                    boolean changed = !java.util.Arrays.equals(existingData.substitutions, mergedSubs)
-                            || !java.util.Arrays.equals(existingData.stairs, mergedStairs)
-                            || !java.util.Arrays.equals(existingData.halfSlabs, mergedHalfs)
-                            || !java.util.Arrays.equals(existingData.roofing, mergedRoofing);
-                    if (changed) {
-                        existingData.substitutions = mergedSubs;
-                        existingData.stairs = mergedStairs;
-                        existingData.halfSlabs = mergedHalfs;
-                        existingData.roofing = mergedRoofing;
-                        count++;
-                    }
+                    // copy-on-write: publish a new snapshot rather than rewriting live arrays
+                    ChiselFamily before = existingData.snapshot();
+                    ChiselFamily after = FamilyStore.replace(existingData, cur -> {
+                        String[] mergedSubs = mergeUnique(cur.substitutions, substitutions);
+                        String[] mergedStairs = mergeUnique(cur.stairs, stairs);
+                        String[] mergedHalfs = mergeUnique(cur.halfSlabs, halfSlabs);
+                        String[] mergedRoofing = mergeUnique(cur.roofing, roofing);
+                        boolean changed = !java.util.Arrays.equals(cur.substitutions, mergedSubs)
+                                || !java.util.Arrays.equals(cur.stairs, mergedStairs)
+                                || !java.util.Arrays.equals(cur.halfSlabs, mergedHalfs)
+                                || !java.util.Arrays.equals(cur.roofing, mergedRoofing);
+                        return changed
+                                ? new ChiselFamily(cur.source, mergedSubs, mergedStairs, mergedHalfs, mergedRoofing)
+                                : cur;
+                    });
+                    if (after != before) count++;
                     continue;
                 }
 
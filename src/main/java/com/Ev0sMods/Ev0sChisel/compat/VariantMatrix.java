@@ -0,0 +1,255 @@
+package com.Ev0sMods.Ev0sChisel.compat;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Dense multi-axis model of a block family (e.g. {@code colour × shape}).
+ *
+ * <p>Paintbrush and hammer families are matrices: Gui sofas are
+ * {@code SOFA_COLORS × SOFA_TYPES}, Octa numbered panels are
+ * {@code PANEL_COLORS × design}, and so on.  Rather than giving every block its
+ * own copy of its row, a family is probed once into a flat row-major cell
+ * table.  Each block then only records its cell index; lines along an axis
+ * ("every colour of this shape") are built with the matrix and shared by
+ * every member of that line.
+ *
+ * <p>Neighbour lookups ("same shape, next colour") are answered from
+ * precomputed per-axis successor / predecessor tables, so cycling is a single
+ * array read regardless of how many holes the family has.
+ *
+ * <p>Instances are immutable once built and safe to share across threads.
+ */
+public final class VariantMatrix {
+
+    /** Sentinel returned by lookups for keys / cells that are not part of the matrix. */
+    public static final int NONE = -1;
+
+    private final String   name;
+    private final String[] axisNames;
+    private final String[][] axisValues;
+    private final int[]    strides;
+    /** Row-major cell table; {@code null} where the probed key does not exist. */
+    private final String[] cells;
+    private final Object2IntOpenHashMap<String> cellByKey;
+    /** {@code next[axis][cell]} / {@code prev[axis][cell]} – neighbouring present cell on that axis. */
+    private final int[][] next;
+    private final int[][] prev;
+    /**
+     * Shared line arrays, indexed by {@code [axis][lineBase]}.  Filled in the
+     * constructor so the final field publishes them to every thread.
+     */
+    private final String[][][] lines;
+    private final int size;
+
+    private VariantMatrix(String name, String[] axisNames, String[][] axisValues, String[] cells) {
+        this.name       = name;
+        this.axisNames  = axisNames;
+        this.axisValues = axisValues;
+        this.cells      = cells;
+
+        int axes = axisNames.length;
+        this.strides = new int[axes];
+        int stride = 1;
+        for (int a = axes - 1; a >= 0; a--) {
+            strides[a] = stride;
+            stride *= axisValues[a].length;
+        }
+
+        this.cellByKey = new Object2IntOpenHashMap<>();
+        cellByKey.defaultReturnValue(NONE);
+        int present = 0;
+        for (int c = 0; c < cells.length; c++) {
+            if (cells[c] == null) continue;
+            if (cellByKey.putIfAbsent(cells[c], c) == NONE) present++;
+        }
+        this.size = present;
+
+        this.next  = new int[axes][];
+        this.prev  = new int[axes][];
+        this.lines = new String[axes][][];
+        for (int a = 0; a < axes; a++) {
+            next[a]  = new int[cells.length];
+            prev[a]  = new int[cells.length];
+            lines[a] = new String[cells.length][];
+            buildNeighbours(a);
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Factories
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * Probes every coordinate of the cartesian product of {@code axisValues}
+     * and keeps the keys that exist in the asset registry.
+     *
+     * @param name       family label (used for logging / sources)
+     * @param axisNames  one name per axis, e.g. {@code {"color", "shape"}}
+     * @param axisValues candidate values per axis, in display order
+     * @param keyFn      maps one value per axis (same order as {@code axisNames})
+     *                   to a block key; may return {@code null} to skip a cell
+     * @return the probed matrix, or {@code null} when no cell exists
+     */
+    public static VariantMatrix probe(String name, String[] axisNames, String[][] axisValues,
+                                      Function<String[], String> keyFn) {
+        if (axisNames == null || axisValues == null || axisNames.length != axisValues.length
+                || axisNames.length == 0) return null;
+        int total = 1;
+        for (String[] vals : axisValues) total *= vals.length;
+        if (total == 0) return null;
+
+        String[] cells = new String[total];
+        String[] coord = new String[axisNames.length];
+        int[] idx = new int[axisNames.length];
+        boolean any = false;
+        for (int c = 0; c < total; c++) {
+            for (int a = 0; a < coord.length; a++) coord[a] = axisValues[a][idx[a]];
+            String key = keyFn.apply(coord.clone());
+            if (key != null && BlockTypeCache.exists(key)) {
+                cells[c] = key;
+                any = true;
+            }
+            // odometer increment, last axis fastest (row-major)
+            for (int a = idx.length - 1; a >= 0; a--) {
+                if (++idx[a] < axisValues[a].length) break;
+                idx[a] = 0;
+            }
+        }
+        return any ? new VariantMatrix(name, axisNames.clone(), axisValues, cells) : null;
+    }
+
+    /**
+     * Wraps an already-discovered flat group as a one-axis matrix.  Used for
+     * families without a meaningful second axis so they still share a single
+     * line array and get constant-time cycling.
+     *
+     * @return the matrix, or {@code null} when {@code keys} is empty
+     */
+    public static VariantMatrix ofList(String name, String axisName, String[] keys) {
+        if (keys == null || keys.length == 0) return null;
+        return new VariantMatrix(name, new String[]{axisName},
+                new String[][]{keys.clone()}, keys.clone());
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Queries
+    // ─────────────────────────────────────────────────────────────────────
+
+    public String getName() { return name; }
+
+    /** @return number of blocks that actually exist in this family. */
+    public int size() { return size; }
+
+    public int axisCount() { return axisNames.length; }
+
+    /** @return the index of the named axis, or {@link #NONE}. */
+    public int axisIndex(String axisName) {
+        for (int a = 0; a < axisNames.length; a++)
+            if (axisNames[a].equalsIgnoreCase(axisName)) return a;
+        return NONE;
+    }
+
+    /** @return the cell index of {@code key}, or {@link #NONE} when it is not a member. */
+    public int cellOf(String key) {
+        return key == null ? NONE : cellByKey.getInt(key);
+    }
+
+    /** @return the block key at {@code cell}, or {@code null} for holes / out-of-range. */
+    public String keyAt(int cell) {
+        return cell < 0 || cell >= cells.length ? null : cells[cell];
+    }
+
+    /** @return the coordinate of {@code cell} on {@code axis}. */
+    public int coordinate(int cell, int axis) {
+        return (cell / strides[axis]) % axisValues[axis].length;
+    }
+
+    /** @return the axis value label (e.g. {@code "Red"}) of {@code cell} on {@code axis}. */
+    public String axisValue(int cell, int axis) {
+        return axisValues[axis][coordinate(cell, axis)];
+    }
+
+    /**
+     * Returns the neighbouring cell along {@code axis}, wrapping around and
+     * skipping holes.  Positive {@code step} moves forward, negative backward;
+     * only the sign matters for steps of magnitude one, larger steps walk the
+     * tables repeatedly.
+     *
+     * @return the target cell, or {@code cell} itself when it is alone on its line
+     */
+    public int step(int cell, int axis, int step) {
+        if (cell < 0 || cell >= cells.length || axis < 0 || axis >= axisNames.length) return NONE;
+        int c = cell;
+        if (step > 0)      for (int i = 0; i < step;  i++) c = next[axis][c];
+        else if (step < 0) for (int i = 0; i < -step; i++) c = prev[axis][c];
+        return c;
+    }
+
+    /** Key-based convenience for {@link #step(int, int, int)}; {@code null} if not a member. */
+    public String step(String key, int axis, int step) {
+        int c = cellOf(key);
+        return c == NONE ? null : keyAt(step(c, axis, step));
+    }
+
+    /**
+     * Returns every present key on the line through {@code cell} along
+     * {@code axis} (all other coordinates fixed).  The array is built with the
+     * matrix and shared by every caller, so it must be treated as read-only.
+     */
+    public String[] line(int cell, int axis) {
+        if (cell < 0 || cell >= cells.length || axis < 0 || axis >= axisNames.length)
+            return new String[0];
+        int base = cell - coordinate(cell, axis) * strides[axis];
+        return lines[axis][base];
+    }
+
+    /** @return every present key in row-major order (fresh array). */
+    public String[] allKeys() {
+        List<String> out = new ArrayList<>(size);
+        for (String k : cells) if (k != null) out.add(k);
+        return out.toArray(new String[0]);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Internal helpers
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * Fills the successor / predecessor tables and the line arrays for one
+     * axis, skipping holes and wrapping.
+     */
+    private void buildNeighbours(int axis) {
+        int len    = axisValues[axis].length;
+        int stride = strides[axis];
+        int[] present = new int[len];
+        for (int base = 0; base < cells.length; base++) {
+            if (coordinate(base, axis) != 0) continue; // visit each line once, from its origin
+            int n = 0;
+            for (int i = 0; i < len; i++) {
+                int c = base + i * stride;
+                if (cells[c] != null) present[n++] = c;
+                next[axis][c] = c;
+                prev[axis][c] = c;
+            }
+            String[] line = new String[n];
+            for (int i = 0; i < n; i++) {
+                next[axis][present[i]] = present[(i + 1) % n];
+                prev[axis][present[i]] = present[(i - 1 + n) % n];
+                line[i] = cells[present[i]];
+            }
+            lines[axis][base] = line;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("VariantMatrix[").append(name);
+        for (int a = 0; a < axisNames.length; a++)
+            sb.append(a == 0 ? " " : " x ").append(axisNames[a]).append('(').append(axisValues[a].length).append(')');
+        return sb.append(", ").append(size).append(" present]").toString();
+    }
+}
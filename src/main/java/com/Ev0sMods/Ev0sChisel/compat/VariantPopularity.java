@@ -0,0 +1,315 @@
+package com.Ev0sMods.Ev0sChisel.compat;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import it.unimi.dsi.fastutil.objects.Object2FloatMap;
+import it.unimi.dsi.fastutil.objects.Object2FloatOpenHashMap;
+import org.json.JSONObject;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * How often each variant gets picked, server-wide and per player, for the
+ * popularity orderings of the chisel page.
+ *
+ * <p>Scores live in fastutil {@code String → float} maps and decay: every
+ * {@value #DECAY_EVERY} selections all scores are halved and those that fell
+ * below {@value #FORGET_BELOW} are dropped, so the tables track recent use
+ * and stay small.  The server table is capped at {@value #MAX_SERVER}
+ * entries, each player's at {@value #MAX_PLAYER}.
+ *
+ * <p>{@link #order} hands out one reordered copy per variant list id,
+ * rebuilt every {@value #RERANK_EVERY} selections rather than on each click,
+ * so the grid does not shuffle under the player and the shared page cache
+ * keeps hitting.  At most {@value #MAX_RANKED} copies are kept, least
+ * recently used first out.  {@link #orderFor} sorts per player on each call.
+ *
+ * <p>{@link #load} / {@link #save} persist the tables as JSON; the plugin
+ * loads them at start and saves on shutdown and after each decay.
+ */
+public final class VariantPopularity {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    /** Variant ordering of the chisel page ({@code VariantOrder} on the interaction asset). */
+    public enum Order {
+        /** As merged by the compat layers. */
+        MERGE,
+        /** Most-picked first across the server. */
+        SERVER,
+        /** The player's own picks first, then server-wide. */
+        PLAYER;
+
+        /** @return the order for an asset value; out-of-range values mean {@link #MERGE} */
+        public static Order of(int value) {
+            Order[] all = values();
+            return value >= 0 && value < all.length ? all[value] : MERGE;
+        }
+    }
+
+    private static final int   DECAY_EVERY  = 1024;
+    private static final int   RERANK_EVERY = 64;
+    private static final float FORGET_BELOW = 0.05f;
+    private static final int   MAX_SERVER   = 8192;
+    private static final int   MAX_PLAYER   = 256;
+    private static final int   MAX_RANKED   = 4096;
+
+    private static final Object LOCK = new Object();
+    private static final Object2FloatOpenHashMap<String> SERVER = new Object2FloatOpenHashMap<>();
+    private static final Map<String, Object2FloatOpenHashMap<String>> PLAYERS = new HashMap<>();
+    private static long selections;
+    /** Bumped every {@link #RERANK_EVERY} selections; stale reorderings are rebuilt. */
+    private static int rank;
+
+    /** A server-ordered copy and the rerank it was sorted at. */
+    public record Ranked(int rank, String[] order) {}
+
+    /** List id → its server-ordered copy; the id is a string, so nothing in a value keeps its key alive. */
+    private static final LinkedHashMap<String, Ranked> RANKED = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Ranked> eldest) {
+            return size() > MAX_RANKED;
+        }
+    };
+
+    private static volatile Path file;
+
+    /** Player-ref class → {@code getUuid()} handle, or {@code null} when there is none. */
+    private static final ClassValue<MethodHandle> UUID_GETTER = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> c) {
+            try {
+                Method m = c.getMethod("getUuid");
+                if (Modifier.isStatic(m.getModifiers())) return null;
+                return MethodHandles.publicLookup().unreflect(m)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+            } catch (Throwable t) {
+                return null;
+            }
+        }
+    };
+
+    private VariantPopularity() {}
+
+    // ── Recording ────────────────────────────────────────────────────
+
+    /** Records that {@code player} (may be {@code null}) picked {@code variantKey}. */
+    public static void record(String player, String variantKey) {
+        if (variantKey == null) return;
+        boolean decayed = false;
+        synchronized (LOCK) {
+            SERVER.addTo(variantKey, 1f);
+            if (player != null) PLAYERS.computeIfAbsent(player, k -> new Object2FloatOpenHashMap<>()).addTo(variantKey, 1f);
+            selections++;
+            if (selections % RERANK_EVERY == 0) rank++;
+            if (selections % DECAY_EVERY == 0) {
+                decay();
+                decayed = true;
+            }
+        }
+        if (decayed) saveInBackground();
+    }
+
+    /** @return a stable id for a player ref ({@code getUuid()}), or {@code null} when it has none */
+    public static String playerId(Object playerRef) {
+        if (playerRef == null) return null;
+        MethodHandle h = UUID_GETTER.get(playerRef.getClass());
+        if (h == null) return null;
+        try {
+            Object id = (Object) h.invokeExact(playerRef);
+            return id != null ? id.toString() : null;
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    // ── Ordering ─────────────────────────────────────────────────────
+
+    /** @return the current rerank counter; a server ordering stays the same while it does */
+    public static int rank() {
+        synchronized (LOCK) {
+            return rank;
+        }
+    }
+
+    /**
+     * {@code variants} most-picked first server-wide (ties keep merge order).
+     * {@code id} names the list's contents (a resolved family id and bucket);
+     * the copy is shared under it and reused until the next rerank.  A
+     * {@code null} id sorts a fresh copy.
+     */
+    public static String[] order(String id, String[] variants) {
+        return ranked(id, variants).order;
+    }
+
+    /** {@link #order} together with the rerank it was sorted at. */
+    public static Ranked ranked(String id, String[] variants) {
+        int r;
+        String[] sorted;
+        synchronized (LOCK) {
+            r = rank;
+            if (variants == null || variants.length < 2) return new Ranked(r, variants);
+            if (id == null) return new Ranked(r, sort(variants, null));
+        }
+        synchronized (RANKED) {
+            Ranked cached = RANKED.get(id);
+            if (cached != null && cached.rank == r) return cached;
+        }
+        synchronized (LOCK) {
+            sorted = sort(variants, null);
+        }
+        // Unchanged order keeps the original array
+        if (Arrays.equals(sorted, variants)) sorted = variants;
+        Ranked out = new Ranked(r, sorted);
+        synchronized (RANKED) {
+            RANKED.put(id, out);
+        }
+        return out;
+    }
+
+    /** {@code variants} by {@code player}'s picks, then server-wide; a fresh copy each call. */
+    public static String[] orderFor(String player, String id, String[] variants) {
+        if (player == null) return order(id, variants);
+        if (variants == null || variants.length < 2) return variants;
+        synchronized (LOCK) {
+            Object2FloatOpenHashMap<String> mine = PLAYERS.get(player);
+            if (mine != null && !mine.isEmpty()) return sort(variants, mine);
+        }
+        return order(id, variants);
+    }
+
+    /** Stable sort by (player score, server score), descending; caller holds {@link #LOCK}. */
+    private static String[] sort(String[] variants, Object2FloatOpenHashMap<String> mine) {
+        Integer[] idx = new Integer[variants.length];
+        for (int i = 0; i < idx.length; i++) idx[i] = i;
+        Arrays.sort(idx, (a, b) -> {
+            if (mine != null) {
+                int c = Float.compare(mine.getFloat(variants[b]), mine.getFloat(variants[a]));
+                if (c != 0) return c;
+            }
+            return Float.compare(SERVER.getFloat(variants[b]), SERVER.getFloat(variants[a]));
+        });
+        String[] out = new String[variants.length];
+        for (int i = 0; i < idx.length; i++) out[i] = variants[idx[i]];
+        return out;
+    }
+
+    // ── Decay ────────────────────────────────────────────────────────
+
+    /** Halves every score and forgets the faded ones; caller holds {@link #LOCK}. */
+    private static void decay() {
+        halve(SERVER, MAX_SERVER);
+        Iterator<Object2FloatOpenHashMap<String>> it = PLAYERS.values().iterator();
+        while (it.hasNext()) {
+            Object2FloatOpenHashMap<String> m = it.next();
+            halve(m, MAX_PLAYER);
+            if (m.isEmpty()) it.remove();
+        }
+    }
+
+    private static void halve(Object2FloatOpenHashMap<String> m, int cap) {
+        for (Iterator<Object2FloatMap.Entry<String>> it = m.object2FloatEntrySet().fastIterator(); it.hasNext(); ) {
+            Object2FloatMap.Entry<String> e = it.next();
+            float v = e.getFloatValue() * 0.5f;
+            if (v < FORGET_BELOW) it.remove();
+            else e.setValue(v);
+        }
+        if (m.size() <= cap) return;
+        // Over the cap: keep the top scores
+        float[] scores = m.values().toFloatArray();
+        Arrays.sort(scores);
+        float min = scores[scores.length - cap];
+        m.object2FloatEntrySet().removeIf(e -> e.getFloatValue() < min);
+    }
+
+    // ── Persistence ──────────────────────────────────────────────────
+
+    /** Loads the tables from {@code path} (missing file: start empty) and saves back there later. */
+    public static void load(Path path) {
+        file = path;
+        if (path == null || !Files.isRegularFile(path)) return;
+        try {
+            JSONObject root = new JSONObject(Files.readString(path, StandardCharsets.UTF_8));
+            synchronized (LOCK) {
+                SERVER.clear();
+                PLAYERS.clear();
+                selections = root.optLong("selections");
+                read(root.optJSONObject("server"), SERVER);
+                JSONObject players = root.optJSONObject("players");
+                if (players != null) {
+                    for (String id : players.keySet()) {
+                        Object2FloatOpenHashMap<String> m = new Object2FloatOpenHashMap<>();
+                        read(players.optJSONObject(id), m);
+                        if (!m.isEmpty()) PLAYERS.put(id, m);
+                    }
+                }
+                rank++;
+            }
+            LOGGER.atInfo().log("[VariantPopularity] Loaded " + SERVER.size() + " variants, "
+                    + PLAYERS.size() + " players");
+        } catch (Throwable t) {
+            LOGGER.atWarning().log("[VariantPopularity] Failed to load " + path + ": " + t.getMessage());
+        }
+    }
+
+    /** Writes the tables to the file given to {@link #load}; no-op before that. */
+    public static void save() {
+        Path path = file;
+        if (path == null) return;
+        try {
+            String json;
+            synchronized (LOCK) {
+                JSONObject players = new JSONObject();
+                for (Map.Entry<String, Object2FloatOpenHashMap<String>> e : PLAYERS.entrySet())
+                    players.put(e.getKey(), write(e.getValue()));
+                json = new JSONObject()
+                        .put("selections", selections)
+                        .put("server", write(SERVER))
+                        .put("players", players)
+                        .toString();
+            }
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.writeString(tmp, json, StandardCharsets.UTF_8);
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Throwable t) {
+            LOGGER.atWarning().log("[VariantPopularity] Failed to save " + path + ": " + t.getMessage());
+        }
+    }
+
+    private static void saveInBackground() {
+        if (file == null) return;
+        Thread.ofVirtual().name("Ev0sChisel-PopularitySave").start(VariantPopularity::save);
+    }
+
+    private static void read(JSONObject o, Object2FloatOpenHashMap<String> into) {
+        if (o == null) return;
+        for (String k : o.keySet()) {
+            float v = (float) o.optDouble(k, 0);
+            if (v >= FORGET_BELOW) into.put(k, v);
+        }
+    }
+
+    private static JSONObject write(Object2FloatOpenHashMap<String> m) {
+        JSONObject o = new JSONObject();
+        for (Object2FloatMap.Entry<String> e : m.object2FloatEntrySet()) o.put(e.getKey(), e.getFloatValue());
+        return o;
+    }
+}
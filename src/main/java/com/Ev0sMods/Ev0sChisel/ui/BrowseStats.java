@@ -0,0 +1,61 @@
+package com.Ev0sMods.Ev0sChisel.ui;
+
+import com.Ev0sMods.Ev0sChisel.compat.VariantPopularity;
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Output pages a player looks at before picking a variant, per page kind.
+ *
+ * <p>Sessions count every output page they show (open, page flip, tab
+ * switch, search) and report the count with each selection, then start over
+ * from the page still on screen.  The running average is logged every
+ * {@value #REPORT_EVERY} selections; a value near {@code 1} means the
+ * variant was usually on the first page shown.  Chisel stats are kept per
+ * {@link VariantPopularity.Order}.
+ */
+final class BrowseStats {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private static final int REPORT_EVERY = 256;
+
+    private static final BrowseStats[] CHISEL = new BrowseStats[VariantPopularity.Order.values().length];
+    static {
+        for (VariantPopularity.Order o : VariantPopularity.Order.values())
+            CHISEL[o.ordinal()] = new BrowseStats("Chisel/" + o.name().toLowerCase(Locale.ROOT));
+    }
+    static final BrowseStats HAMMER = new BrowseStats("CarpenterHammer");
+
+    private final String page;
+    private final LongAdder selections = new LongAdder();
+    private final LongAdder pagesViewed = new LongAdder();
+
+    private BrowseStats(String page) {
+        this.page = page;
+    }
+
+    /** Chisel page stats, kept apart per variant ordering so the orderings can be compared. */
+    static BrowseStats chisel(VariantPopularity.Order order) {
+        return CHISEL[order.ordinal()];
+    }
+
+    /** Records one selection made after viewing {@code pages} output pages. */
+    void selected(int pages) {
+        pagesViewed.add(Math.max(1, pages));
+        selections.increment();
+        long n = selections.sum();
+        if (n % REPORT_EVERY == 0)
+            LOGGER.atInfo().log(String.format(Locale.ROOT,
+                    "[%s] %.2f pages viewed (%.2f flipped) per selection over %d selections",
+                    page, pagesPerSelection(), pagesPerSelection() - 1, n));
+    }
+
+    /** @return average output pages viewed per selection, {@code 0} before the first */
+    double pagesPerSelection() {
+        long n = selections.sum();
+        return n == 0 ? 0.0 : (double) pagesViewed.sum() / n;
+    }
+}
@@ -1,6 +1,7 @@
 package com.Ev0sMods.Ev0sChisel.ui;
 
 import au.ellie.hyui.builders.PageBuilder;
+import au.ellie.hyui.events.UIContext;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.logger.HytaleLogger;
 import com.hypixel.hytale.math.util.ChunkUtil;
@@ -13,12 +14,20 @@ import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.BiConsumer;
+
 /**
  * UI page for the Carpenter's Hammer.
  * <p>
  * Shows five furniture category tabs (Chair, Table, Storage, Window, Light).
  * Clicking a variant in the active tab replaces the targeted block in-world.
- * Pagination is supported when a tab has more than {@value #ITEMS_PER_PAGE} items.
+ * A tab of up to {@value #MAX_ROWS} rows shows on one page; longer tabs are paged.
  */
 public final class CarpenterHammerUIPage {
 
@@ -27,8 +36,10 @@ public final class CarpenterHammerUIPage {
     /** The five furniture tabs. */
     public enum Tab { CHAIR, TABLE, STORAGE, WINDOW, LIGHT }
 
-    private static final int GRID_COLUMNS   = 4;
-    private static final int ITEMS_PER_PAGE = GRID_COLUMNS * 3; // 12 per page
+    /* Grid sizing; see UiFragments.perPage */
+    private static final int GRID_COLUMNS = 4;
+    private static final int MIN_ROWS     = 3;
+    private static final int MAX_ROWS     = 6;
 
     private static final String STYLE = """
             <style>
@@ -101,6 +112,10 @@ public final class CarpenterHammerUIPage {
             </style>
             """;
 
+    /** {@link #STYLE} plus the page frame, compiled once; the slot is the page body. */
+    private static final UiTemplate PAGE = UiFragments.shell(STYLE, "Carpenter's Hammer",
+            "layout-mode: Top; padding-top: 12; padding-bottom: 12; padding-left: 24; padding-right: 24;");
+
     private CarpenterHammerUIPage() {}
 
     // ─────────────────────────────────────────────────────────────────────
@@ -131,207 +146,245 @@ public final class CarpenterHammerUIPage {
             String[] lights,
             Tab activeTab,
             int outputPage) {
+        Session s = new Session(playerRef, store, world, blockPos,
+                new View(activeTab, chairs, tables, storage, windows, lights), outputPage);
+        SESSIONS.put(playerRef, new WeakReference<>(s));
+        s.show();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Sessions
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * Live session per player.  The value is weak too, since the session
+     * reaches its own key through the store; the bound listeners keep it
+     * alive while the page is open.  Closing the page or disconnecting
+     * removes the entry right away.
+     */
+    private static final Map<PlayerRef, WeakReference<Session>> SESSIONS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** @return {@code playerRef}'s live session, or {@code null} */
+    private static Session live(PlayerRef playerRef) {
+        WeakReference<Session> s = SESSIONS.get(playerRef);
+        return s != null ? s.get() : null;
+    }
+
+    /** Drops {@code s} if it is still {@code playerRef}'s live session. */
+    private static void release(PlayerRef playerRef, Session s) {
+        synchronized (SESSIONS) {
+            if (live(playerRef) == s) SESSIONS.remove(playerRef);
+        }
+    }
+
+    /** Drops {@code playerRef}'s session; called when the player disconnects. */
+    public static void disconnected(PlayerRef playerRef) {
+        SESSIONS.remove(playerRef);
+    }
+
+    /**
+     * One player's hammer page: the targeted block, the category lists and
+     * the current tab and page.  Clicks go through {@link #dispatch}, which
+     * updates that state and reopens the page.
+     */
+    private static final class Session {
+        final PlayerRef playerRef;
+        final Store<EntityStore> store;
+        final Vector3i blockPos;
+        final WorldChunk chunk;
+
+        View     view;
+        int      page;
+        String[] pgOut = new String[0];
+        /** Output pages shown since the last selection; see {@link BrowseStats}. */
+        int      pagesViewed = 1;
+
+        private final Map<String, BiConsumer<Object, UIContext>> listeners = new HashMap<>();
+        /** Pages opened so far; closing any but the latest is a replacement, not a close. */
+        private volatile int pageSeq;
+
+        Session(PlayerRef playerRef, Store<EntityStore> store, World world, Vector3i blockPos,
+                View view, int page) {
+            this.playerRef = playerRef;
+            this.store     = store;
+            this.blockPos  = blockPos;
+            // Cache chunk once for event handlers
+            this.chunk     = world.getChunkIfInMemory(ChunkUtil.indexChunkFromBlock(blockPos.x, blockPos.z));
+            this.view      = view;
+            this.page      = page;
+        }
+
+        void show() {
+            View v = view;
+            int totalPages = v.pages();
+            page  = Math.max(0, Math.min(page, totalPages - 1));
+            pgOut = v.page(page);
+
+            // ── Build HTML (shared across players, next page prefetched) ──
+            String html = render(totalPages);
+
+            PageBuilder builder = PageBuilder.pageForPlayer(playerRef)
+                    .fromHtml(html)
+                    .withLifetime(CustomPageLifetime.CanDismissOrCloseThroughInteraction);
+
+            if (hasItems(v.chairs))  bind(builder, "tab_chair");
+            if (hasItems(v.tables))  bind(builder, "tab_table");
+            if (hasItems(v.storage)) bind(builder, "tab_storage");
+            if (hasItems(v.windows)) bind(builder, "tab_window");
+            if (hasItems(v.lights))  bind(builder, "tab_light");
+
+            if (page > 0)              bind(builder, "out_prev");
+            if (page < totalPages - 1) bind(builder, "out_next");
+            // Output ids are page slots (out_0 ..)
+            for (int i = 0; i < pgOut.length; i++) bind(builder, "out_" + i);
+
+            int opened = ++pageSeq;
+            PageClose.onClose(builder, () -> {
+                if (opened == pageSeq) release(playerRef, this);
+            });
+            builder.open(store);
+        }
+
+        private String render(int totalPages) {
+            View v = view;
+            int p = page;
+            if (p + 1 < totalPages)
+                RenderedPageCache.prefetch(new PageKey(v, p + 1), () -> buildHtml(v, p + 1));
+            return RenderedPageCache.get(new PageKey(v, p), () -> buildHtml(v, p));
+        }
+
+        private void bind(PageBuilder builder, String id) {
+            builder.addEventListener(id, CustomUIEventBindingType.Activating,
+                    listeners.computeIfAbsent(id, k -> (ignored, ctx) -> dispatch(k)));
+        }
+
+        /** Single entry point for every element on the page. */
+        void dispatch(String id) {
+            // A newer page replaced this one; ignore clicks that raced it
+            if (live(playerRef) != this) return;
+            switch (id) {
+                case "tab_chair"   -> selectTab(Tab.CHAIR);
+                case "tab_table"   -> selectTab(Tab.TABLE);
+                case "tab_storage" -> selectTab(Tab.STORAGE);
+                case "tab_window"  -> selectTab(Tab.WINDOW);
+                case "tab_light"   -> selectTab(Tab.LIGHT);
+                case "out_prev"    -> { page--; pagesViewed++; show(); }
+                case "out_next"    -> { page++; pagesViewed++; show(); }
+                default -> {
+                    if (id.startsWith("out_")) placeBlock(id);
+                }
+            }
+        }
 
-        // Cache chunk once for event handlers
-        final WorldChunk cachedChunk = world.getChunkIfInMemory(
-                ChunkUtil.indexChunkFromBlock(blockPos.x, blockPos.z));
-
-        // ── Resolve active-tab items ──────────────────────────────────────
-        String[] allItems = switch (activeTab) {
-            case CHAIR   -> safe(chairs);
-            case TABLE   -> safe(tables);
-            case STORAGE -> safe(storage);
-            case WINDOW  -> safe(windows);
-            case LIGHT   -> safe(lights);
-        };
-
-        int total       = allItems.length;
-        int totalPages  = Math.max(1, (total + ITEMS_PER_PAGE - 1) / ITEMS_PER_PAGE);
-        int curPage     = Math.max(0, Math.min(outputPage, totalPages - 1));
-        int start       = curPage * ITEMS_PER_PAGE;
-        int end         = Math.min(start + ITEMS_PER_PAGE, total);
-        String[] pgOut  = new String[end - start];
-        if (pgOut.length > 0)
-            System.arraycopy(allItems, start, pgOut, 0, pgOut.length);
-
-        // Tab presence flags
-        boolean hasChairs   = hasItems(chairs);
-        boolean hasTables   = hasItems(tables);
-        boolean hasStorage  = hasItems(storage);
-        boolean hasWindows  = hasItems(windows);
-        boolean hasLights   = hasItems(lights);
-
-        // ── Build HTML ────────────────────────────────────────────────────
-        String html = buildHtml(
-                pgOut, start, activeTab,
-                hasChairs,  first(chairs),
-                hasTables,  first(tables),
-                hasStorage, first(storage),
-                hasWindows, first(windows),
-                hasLights,  first(lights),
-                curPage, totalPages);
-
-        // ── Assemble page ─────────────────────────────────────────────────
-        PageBuilder builder = PageBuilder.pageForPlayer(playerRef)
-                .fromHtml(html)
-                .withLifetime(CustomPageLifetime.CanDismissOrCloseThroughInteraction);
-
-        final int fPage = curPage;
-
-        // Tab switch handlers
-        if (hasChairs && activeTab != Tab.CHAIR)
-            builder.addEventListener("tab_chair", CustomUIEventBindingType.Activating,
-                    (i, c) -> openHammer(playerRef, store, world, blockPos, player,
-                            chairs, tables, storage, windows, lights, Tab.CHAIR, 0));
-        if (hasTables && activeTab != Tab.TABLE)
-            builder.addEventListener("tab_table", CustomUIEventBindingType.Activating,
-                    (i, c) -> openHammer(playerRef, store, world, blockPos, player,
-                            chairs, tables, storage, windows, lights, Tab.TABLE, 0));
-        if (hasStorage && activeTab != Tab.STORAGE)
-            builder.addEventListener("tab_storage", CustomUIEventBindingType.Activating,
-                    (i, c) -> openHammer(playerRef, store, world, blockPos, player,
-                            chairs, tables, storage, windows, lights, Tab.STORAGE, 0));
-        if (hasWindows && activeTab != Tab.WINDOW)
-            builder.addEventListener("tab_window", CustomUIEventBindingType.Activating,
-                    (i, c) -> openHammer(playerRef, store, world, blockPos, player,
-                            chairs, tables, storage, windows, lights, Tab.WINDOW, 0));
-        if (hasLights && activeTab != Tab.LIGHT)
-            builder.addEventListener("tab_light", CustomUIEventBindingType.Activating,
-                    (i, c) -> openHammer(playerRef, store, world, blockPos, player,
-                            chairs, tables, storage, windows, lights, Tab.LIGHT, 0));
-
-        // Pagination handlers
-        if (curPage > 0)
-            builder.addEventListener("out_prev", CustomUIEventBindingType.Activating,
-                    (i, c) -> openHammer(playerRef, store, world, blockPos, player,
-                            chairs, tables, storage, windows, lights, activeTab, fPage - 1));
-        if (curPage < totalPages - 1)
-            builder.addEventListener("out_next", CustomUIEventBindingType.Activating,
-                    (i, c) -> openHammer(playerRef, store, world, blockPos, player,
-                            chairs, tables, storage, windows, lights, activeTab, fPage + 1));
-
-        // Output item click → replace targeted block
-        for (int i = 0; i < pgOut.length; i++) {
-            final String blockKey = pgOut[i];
-            final String btnId    = "out_" + (start + i);
-            builder.addEventListener(btnId, CustomUIEventBindingType.Activating,
-                    (ignored, ctx) -> {
-                        try {
-                            if (cachedChunk != null)
-                                cachedChunk.setBlock(blockPos.x, blockPos.y, blockPos.z, blockKey);
-                        } catch (Throwable t) {
-                            LOGGER.atWarning().log("[CarpenterHammer] Failed to set block: " + t.getMessage());
-                        }
-                    });
+        private void selectTab(Tab tab) {
+            if (tab == view.tab) return;
+            view = new View(tab, view.chairs, view.tables, view.storage, view.windows, view.lights);
+            page = 0;
+            pagesViewed++;
+            show();
         }
 
-        builder.open(store);
+        /** Output item click → replace targeted block */
+        private void placeBlock(String id) {
+            try {
+                int i = Integer.parseInt(id, 4, id.length(), 10);
+                if (i < 0 || i >= pgOut.length) return;
+                if (chunk != null)
+                    chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, pgOut[i]);
+                BrowseStats.HAMMER.selected(pagesViewed);
+                pagesViewed = 1;
+            } catch (Throwable t) {
+                LOGGER.atWarning().log("[CarpenterHammer] Failed to set block: " + t.getMessage());
+            }
+        }
     }
 
     // ─────────────────────────────────────────────────────────────────────
     // HTML builder
     // ─────────────────────────────────────────────────────────────────────
 
-    private static String buildHtml(
-            String[] pageOut, int outStart,
-            Tab activeTab,
-            boolean hasChairs,  String iconChair,
-            boolean hasTables,  String iconTable,
-            boolean hasStorage, String iconStorage,
-            boolean hasWindows, String iconWindow,
-            boolean hasLights,  String iconLight,
-            int curPage, int totalPages) {
+    /**
+     * The five category lists and the active tab.  With the page number it
+     * keys {@link RenderedPageCache}; the lists are shared snapshots and
+     * compare by identity.
+     */
+    private record View(Tab tab, String[] chairs, String[] tables, String[] storage,
+                        String[] windows, String[] lights) {
+
+        String[] items() {
+            return switch (tab) {
+                case CHAIR   -> safe(chairs);
+                case TABLE   -> safe(tables);
+                case STORAGE -> safe(storage);
+                case WINDOW  -> safe(windows);
+                case LIGHT   -> safe(lights);
+            };
+        }
+
+        int perPage() {
+            return UiFragments.perPage(items().length, GRID_COLUMNS, MIN_ROWS, MAX_ROWS);
+        }
+
+        int pages() {
+            int per = perPage();
+            return Math.max(1, (items().length + per - 1) / per);
+        }
+
+        String[] page(int page) {
+            String[] all = items();
+            int per   = perPage();
+            int start = page * per;
+            int end   = Math.min(start + per, all.length);
+            return start < end ? Arrays.copyOfRange(all, start, end) : new String[0];
+        }
+    }
+
+    private record PageKey(View view, int page) {}
 
-        StringBuilder sb = new StringBuilder(4096);
+    private static String buildHtml(View v, int curPage) {
+        StringBuilder sb = new StringBuilder(PAGE.staticLength() + 4096);
 
         sb.append("<p class=\"title-label\">Carpenter's Hammer</p>\n");
         sb.append("<p class=\"info-label\">Select a variant to replace this block.</p>\n");
+        appendOutputs(sb, v, curPage);
+
+        return PAGE.render(sb.length(), sb);
+    }
+
+    /** Tab bar, grid and pager. */
+    private static void appendOutputs(StringBuilder sb, View v, int curPage) {
+        Tab activeTab  = v.tab;
+        String[] pageOut = v.page(curPage);
+        int totalPages = v.pages();
 
         // ── Tab bar (icon buttons, same pattern as ChiselUIPage) ─────────
         sb.append("<div class=\"tab-row\">\n");
-        if (hasChairs)  appendIconTab(sb, "tab_chair",   iconChair,   "Chair",   activeTab == Tab.CHAIR);
-        if (hasTables)  appendIconTab(sb, "tab_table",   iconTable,   "Table",   activeTab == Tab.TABLE);
-        if (hasStorage) appendIconTab(sb, "tab_storage", iconStorage, "Storage", activeTab == Tab.STORAGE);
-        if (hasWindows) appendIconTab(sb, "tab_window",  iconWindow,  "Window",  activeTab == Tab.WINDOW);
-        if (hasLights)  appendIconTab(sb, "tab_light",   iconLight,   "Light",   activeTab == Tab.LIGHT);
-        sb.append("</div>\n");
-        sb.append("<div class=\"separator\"></div>\n");
+        if (hasItems(v.chairs))  UiFragments.tab(sb, "tab_chair",   first(v.chairs),  "Chair",   "Chair",   activeTab == Tab.CHAIR);
+        if (hasItems(v.tables))  UiFragments.tab(sb, "tab_table",   first(v.tables),  "Table",   "Table",   activeTab == Tab.TABLE);
+        if (hasItems(v.storage)) UiFragments.tab(sb, "tab_storage", first(v.storage), "Storage", "Storage", activeTab == Tab.STORAGE);
+        if (hasItems(v.windows)) UiFragments.tab(sb, "tab_window",  first(v.windows), "Window",  "Window",  activeTab == Tab.WINDOW);
+        if (hasItems(v.lights))  UiFragments.tab(sb, "tab_light",   first(v.lights),  "Light",   "Light",   activeTab == Tab.LIGHT);
+        sb.append(UiFragments.DIV_CLOSE);
+        sb.append(UiFragments.SEPARATOR);
 
         // ── Item grid ─────────────────────────────────────────────────────
         if (pageOut.length == 0) {
             sb.append("<p class=\"info-label\">No furniture found for this category.</p>\n");
         } else {
             sb.append("<div class=\"btn-grid\">\n");
-            for (int i = 0; i < pageOut.length; i++) {
-                if (i % GRID_COLUMNS == 0)
-                    sb.append("  <div style=\"layout-mode: Left; horizontal-align: center; padding-top: 2; padding-bottom: 2;\">\n");
-                String key  = pageOut[i];
-                String name = friendlyName(key);
-                sb.append(String.format(
-                        "    <button id=\"out_%d\" data-hyui-tooltiptext=\"%s\" "
-                        + "style=\"anchor-width: 52; anchor-height: 52; padding: 6; margin-top: 4; margin-bottom: 4; margin-left: 4; margin-right: 4;\">"
-                        + "<span class=\"item-icon\" data-hyui-item-id=\"%s\" "
-                        + "style=\"anchor-width: 40; anchor-height: 40;\"></span>"
-                        + "</button>\n",
-                        outStart + i, name, key));
-                if (i % GRID_COLUMNS == GRID_COLUMNS - 1 || i == pageOut.length - 1)
-                    sb.append("  </div>\n");
-            }
-            sb.append("</div>\n");
+            UiFragments.grid(sb, pageOut, 0, GRID_COLUMNS, CarpenterHammerUIPage::friendlyName);
+            sb.append(UiFragments.DIV_CLOSE);
         }
 
         // ── Pagination controls ───────────────────────────────────────────
-        if (totalPages > 1) {
-            sb.append("<div class=\"page-row\">\n");
-            sb.append(curPage > 0
-                    ? "  <button id=\"out_prev\" class=\"page-btn\">&lt;</button>\n"
-                    : "  <button class=\"page-btn-disabled\">&lt;</button>\n");
-            sb.append(String.format("  <p class=\"page-label\">%d / %d</p>\n", curPage + 1, totalPages));
-            sb.append(curPage < totalPages - 1
-                    ? "  <button id=\"out_next\" class=\"page-btn\">&gt;</button>\n"
-                    : "  <button class=\"page-btn-disabled\">&gt;</button>\n");
-            sb.append("</div>\n");
-        }
-
-        return STYLE + String.format("""
-                <div style="layout-mode: Right; anchor-width: 100%%; anchor-height: 100%%;">
-                    <div class="decorated-container" data-hyui-title="Carpenter's Hammer"
-                             style="anchor-width: 660; margin-right: 40; vertical-align: middle;">
-                        <div class="container-contents" style="layout-mode: Top; padding-top: 12; padding-bottom: 12; padding-left: 24; padding-right: 24;">
-                %s
-                        </div>
-                    </div>
-                </div>
-                """, sb.toString());
+        UiFragments.pager(sb, curPage, totalPages, "out_prev", "out_next");
     }
 
     // ─────────────────────────────────────────────────────────────────────
     // Helpers
     // ─────────────────────────────────────────────────────────────────────
 
-    /**
-     * Appends a single icon-based tab button. Active tab gets a highlight
-     * background; the {@code id} is used by HyUI event listeners.
-     */
-    private static void appendIconTab(StringBuilder sb, String id,
-                                       String iconBlockId, String tooltip,
-                                       boolean active) {
-        String bgStyle = active ? " background-color: #ffffff(0.12);" : "";
-        String baseStyle = "anchor-width: 52; anchor-height: 52; padding: 4; margin-left: 4; margin-right: 4;" + bgStyle;
-        if (iconBlockId != null && !iconBlockId.isEmpty()) {
-            sb.append(String.format(
-                    "  <button id=\"%s\" style=\"%s\" data-hyui-tooltiptext=\"%s\">"
-                    + "<span class=\"item-icon\" data-hyui-item-id=\"%s\" "
-                    + "style=\"anchor-width: 40; anchor-height: 40;\"></span>"
-                    + "</button>\n",
-                    id, baseStyle, tooltip, iconBlockId));
-        } else {
-            sb.append(String.format(
-                    "  <button id=\"%s\" style=\"%s\" data-hyui-tooltiptext=\"%s\">%s</button>\n",
-                    id, baseStyle, tooltip, tooltip));
-        }
-    }
-
     /**
      * Converts a block key like {@code Gui_LogChair} to a readable name
      * by stripping common mod prefixes and replacing underscores with spaces.
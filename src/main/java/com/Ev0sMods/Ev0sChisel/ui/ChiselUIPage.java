@@ -1,13 +1,15 @@
 package com.Ev0sMods.Ev0sChisel.ui;
 
 import au.ellie.hyui.builders.PageBuilder;
-import com.Ev0sMods.Ev0sChisel.Chisel;
+import au.ellie.hyui.events.UIContext;
 import com.Ev0sMods.Ev0sChisel.compat.CarpentryCompat;
+import com.Ev0sMods.Ev0sChisel.compat.ChiselFamily;
+import com.Ev0sMods.Ev0sChisel.compat.ChiselResolver;
 import com.Ev0sMods.Ev0sChisel.compat.LabelsCompat;
 import com.Ev0sMods.Ev0sChisel.compat.MacawCompat;
 import com.Ev0sMods.Ev0sChisel.compat.MasonryCompat;
-import com.Ev0sMods.Ev0sChisel.compat.StoneworksCompat;
-import com.Ev0sMods.Ev0sChisel.compat.VanillaCompat;
+import com.Ev0sMods.Ev0sChisel.compat.StatueIndex;
+import com.Ev0sMods.Ev0sChisel.compat.VariantPopularity;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.logger.HytaleLogger;
 import com.hypixel.hytale.math.util.ChunkUtil;
@@ -15,17 +17,17 @@ import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.protocol.packets.interface_.CustomPageLifetime;
 import com.hypixel.hytale.protocol.packets.interface_.CustomUIEventBindingType;
 import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
-import com.hypixel.hytale.server.core.asset.type.blocktype.config.StateData;
 import com.hypixel.hytale.server.core.entity.LivingEntity;
 import com.hypixel.hytale.server.core.inventory.Inventory;
-import com.hypixel.hytale.server.core.inventory.ItemStack;
-import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
+import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * Unified Chisel UI – combines in-world block chiselling and inventory-based
@@ -40,7 +42,6 @@ import java.util.*;
 public final class ChiselUIPage {
 
     private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
-    private static final java.util.concurrent.ConcurrentHashMap<String, ChiselVariants> CHISEL_VARIANTS_CACHE = new java.util.concurrent.ConcurrentHashMap<>();
 
     /** The two sub-pages the player can switch between. */
     public enum Mode { CHISEL, TABLE }
@@ -48,404 +49,609 @@ public final class ChiselUIPage {
     /** Output tab types inside the UI. */
     public enum Tab { BLOCKS, STAIRS, HALF_SLABS, ROOFING, STATUE, LABELS }
 
-    /* Layout / paging constants */
-    private static final int GRID_COLUMNS   = 4;
-    private static final int ITEMS_PER_PAGE = GRID_COLUMNS * 3; // 3 rows
-    private static final int INV_COLUMNS    = 8;
-    private static final int INV_PER_PAGE   = INV_COLUMNS * 4;  // 4 rows
+    /* Layout / paging constants; see UiFragments.perPage */
+    private static final int GRID_COLUMNS     = 4;
+    private static final int MIN_ROWS         = 3;
+    private static final int CHISEL_MAX_ROWS  = 6;  // the grid has the page to itself
+    private static final int TABLE_MAX_ROWS   = 4;  // shares the page with the inventory panel
+    private static final int INV_COLUMNS      = 8;
+    private static final int INV_MIN_ROWS     = 4;
+    private static final int INV_MAX_ROWS     = 5;
 
     // (Icon strings are now sourced dynamically from the first item of each variant array)
 
-    /* Lightweight holder for inventory items presented in the table */
-    private static final class InvItem {
-        final Object itemId;
-        final String blockKey;
-        final int count;
-        final short slot;
-        final int section;
-
-        InvItem(Object itemId, String blockKey, int count, short slot, int section) {
-            this.itemId = itemId;
-            this.blockKey = blockKey;
-            this.count = count;
-            this.slot = slot;
-            this.section = section;
-        }
+    // ═════════════════════════════════════════════════════════════════
+    // Sessions
+    // ═════════════════════════════════════════════════════════════════
+
+    /**
+     * Live session per player.  The session holds the player's ref, store and
+     * entity, so it is kept through a weak reference: a strong value would keep
+     * its own weak key reachable and the entry would never clear.  While the
+     * page is open the session stays reachable through the listeners bound to
+     * it.  The entry is removed as soon as the page is closed (see
+     * {@link PageClose}) or the player disconnects; the weak references only
+     * back that up.
+     */
+    private static final Map<PlayerRef, WeakReference<Session>> SESSIONS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** @return {@code playerRef}'s live session, or {@code null} */
+    private static Session live(PlayerRef playerRef) {
+        WeakReference<Session> s = SESSIONS.get(playerRef);
+        return s != null ? s.get() : null;
     }
 
-    /* Simple carrier for resolved chisel variant arrays */
-    private static final class ChiselVariants {
-        final String[] subs, stairs, halfs, roofs;
-        ChiselVariants(String[] subs, String[] stairs, String[] halfs, String[] roofs) {
-            this.subs = subs; this.stairs = stairs; this.halfs = halfs; this.roofs = roofs;
+    /** Drops {@code s} if it is still {@code playerRef}'s live session. */
+    private static void release(PlayerRef playerRef, Session s) {
+        synchronized (SESSIONS) {
+            if (live(playerRef) == s) SESSIONS.remove(playerRef);
         }
     }
 
-    public static void open(PlayerRef playerRef,
-                            Store<EntityStore> store,
-                            World world,
-                            Vector3i blockPos,
-                            LivingEntity player,
-                            String[] chiselSubs,
-                            String[] chiselStairs,
-                            String[] chiselHalfs,
-                            String[] chiselRoofs,
-                            String inputKey,
-                            int inputCount,
-                            short inputSlot,
-                            int inputSection,
-                            Mode mode,
-                            Tab tab,
-                            int outputPage,
-                            int invPage) {
-
-        boolean hasChiselData = !empty(chiselSubs) || !empty(chiselStairs)
-                || !empty(chiselHalfs) || !empty(chiselRoofs);
-
-        // ── Resolve output variant arrays based on mode ─────────────
+    /** Drops {@code playerRef}'s session; called when the player disconnects. */
+    public static void disconnected(PlayerRef playerRef) {
+        SESSIONS.remove(playerRef);
+    }
+
+    /**
+     * One player's chisel page: the targeted block, the family it was opened
+     * with and the current mode, tab, pages and input.  Every click goes
+     * through {@link #dispatch}, which parses the element id, updates that
+     * state and re-renders.  The listener bound to each element id is created
+     * once per session and reused by every re-render.
+     */
+    private static final class Session {
+        final PlayerRef playerRef;
+        final Store<EntityStore> store;
+        final World world;
+        final Vector3i blockPos;
+        final LivingEntity player;
+        final WorldChunk chunk;
+        /** Chisel mode's block and the variants it was opened with; resolved once, by the render stage. */
+        final String blockKey;
+        final ChiselFamily fallback;
+        private volatile ChiselFamily chiselFamily;
+        /** Whether the last delivered render found variants to chisel into. */
+        boolean hasChiselData;
+
+        Mode   mode;
+        Tab    tab = Tab.BLOCKS;
+        int    outputPage, invPage;
+        String inputKey;
+        int    inputCount;
+        short  inputSlot = -1;
+        int    inputSection = -1;
+        /** Output pages shown since the last selection; see {@link BrowseStats}. */
+        int    pagesViewed = 1;
+        String query;
+        Object typedQuery;
+
+        // What the last render showed; clicks are checked against it
+        View          view;
+        String[]      pgOut = new String[0];
+        int           outStart;
+        List<InventoryIndex.Stack> pgInv = Collections.emptyList();
+        int           invStart;
+        int           totalInvPg = 1;
+
+        private final Map<String, BiConsumer<Object, UIContext>> onActivate = new HashMap<>();
+        private final Map<String, BiConsumer<Object, UIContext>> onRightClick = new HashMap<>();
+        /** Remembers what is typed; the search runs on "Go". */
+        private final BiConsumer<Object, UIContext> onSearchText = (value, ctx) -> typedQuery = value;
+
+        /** Variant ordering, and the family lists this session already showed, by family id (kept stable while it is open). */
+        final VariantPopularity.Order order;
+        final String playerId;
+        private final Map<String, Lists> ordered = Collections.synchronizedMap(new HashMap<>());
+
+        Session(PlayerRef playerRef, Store<EntityStore> store, World world, Vector3i blockPos,
+                LivingEntity player, String blockKey, ChiselFamily fallback, Mode mode,
+                VariantPopularity.Order order) {
+            this.playerRef = playerRef;
+            this.store     = store;
+            this.world     = world;
+            this.blockPos  = blockPos;
+            this.player    = player;
             // Cache the chunk once to avoid repeated world lookups in event handlers
-            final WorldChunk cachedChunk = world.getChunkIfInMemory(ChunkUtil.indexChunkFromBlock(blockPos.x, blockPos.z));
+            this.chunk     = world.getChunkIfInMemory(ChunkUtil.indexChunkFromBlock(blockPos.x, blockPos.z));
+            this.blockKey  = blockKey;
+            this.fallback  = fallback;
+            this.mode = mode;
+            this.order = order;
+            this.playerId = VariantPopularity.playerId(playerRef);
+        }
+
+        /**
+         * The family chisel mode shows: {@code blockKey}'s merged family, or
+         * the variants the page was opened with when it has none.  Resolved
+         * on the first render and kept for the session, so clicks place from
+         * the same lists the page showed.
+         */
+        private ChiselFamily chiselFamily() {
+            ChiselFamily f = chiselFamily;
+            if (f != null || fallback == null) return f;
+            f = resolveChiselVariants(blockKey);
+            if (f == null) f = ChiselResolver.normalize(null, fallback.substitutions, fallback.stairs,
+                    fallback.halfSlabs, fallback.roofing);
+            return chiselFamily = f;
+        }
+
+        /**
+         * {@code f}'s lists in this session's order, the same for the whole
+         * session.  Server orderings are shared copies keyed by family id and
+         * rerank, so sessions opened under the same rerank render the same
+         * cached pages; per-player orderings are not shared.
+         */
+        private Lists ordered(ChiselFamily f) {
+            // Without an id (unresolved fallback) there is nothing to key by: merge order, not shared
+            if (f.id == null) return new Lists(null, f.substitutions, f.stairs, f.halfSlabs, f.roofing);
+            return ordered.computeIfAbsent(f.id, id -> switch (order) {
+                case MERGE  -> new Lists(id, f.substitutions, f.stairs, f.halfSlabs, f.roofing);
+                case SERVER -> {
+                    VariantPopularity.Ranked subs   = VariantPopularity.ranked(id + "/subs",   f.substitutions);
+                    VariantPopularity.Ranked stairs = VariantPopularity.ranked(id + "/stairs", f.stairs);
+                    VariantPopularity.Ranked halfs  = VariantPopularity.ranked(id + "/halfs",  f.halfSlabs);
+                    VariantPopularity.Ranked roofs  = VariantPopularity.ranked(id + "/roofs",  f.roofing);
+                    // A rerank between the four lookups leaves a mix no other session shares
+                    boolean one = subs.rank() == stairs.rank() && subs.rank() == halfs.rank()
+                            && subs.rank() == roofs.rank();
+                    yield new Lists(one ? id + '#' + subs.rank() : null,
+                            subs.order(), stairs.order(), halfs.order(), roofs.order());
+                }
+                case PLAYER -> new Lists(null,
+                        VariantPopularity.orderFor(playerId, id + "/subs",   f.substitutions),
+                        VariantPopularity.orderFor(playerId, id + "/stairs", f.stairs),
+                        VariantPopularity.orderFor(playerId, id + "/halfs",  f.halfSlabs),
+                        VariantPopularity.orderFor(playerId, id + "/roofs",  f.roofing));
+            });
+        }
+
+        /** Makes this the player's live session and opens its page. */
+        void start() {
+            SESSIONS.put(playerRef, new WeakReference<>(this));
+            show();
+        }
+
+        private void clearInput() {
+            inputKey = null; inputCount = 0; inputSlot = -1; inputSection = -1;
+            tab = Tab.BLOCKS;
+            outputPage = 0;
+        }
+
+        /** What {@link #show} read on the world thread; the render stage works from this alone. */
+        private record Request(Mode mode, Tab tab, int outputPage, int invPage,
+                               String inputKey, int inputCount, String query, String[] statues,
+                               List<InventoryIndex.Stack> fullInv) {}
+
+        /** A rendered page and the state it shows. */
+        private record Frame(boolean hasChiselData, View view, int outputPage, int outStart, String[] pgOut, int totalOutPg,
+                             List<InventoryIndex.Stack> pgInv, int invPage, int invStart, int totalInvPg,
+                             String html) {}
+
+        /** Renders requested so far; only the latest one is delivered. */
+        private int renderSeq;
+        /** Pages opened so far; closing any but the latest is a replacement, not a close. */
+        private volatile int pageSeq;
+
+        /**
+         * Renders the current state.  The block and inventory are read here,
+         * on the world thread; variant resolution, pagination and HTML run
+         * off it in {@link #render}, and {@link #deliver} shows the result
+         * back on the world thread.
+         */
+        void show() {
+            int seq = ++renderSeq;
+
             // ── Statue detection (two-block pillar of same key/variants) ──
-            String[] statueVariants = resolveStatueVariants(cachedChunk, blockPos);
-            boolean hasStatues = statueVariants != null && statueVariants.length > 0;
-        String[] outSubs, outStairs, outHalfs, outRoofs;
-        if (mode == Mode.CHISEL) {
-            outSubs   = chiselSubs;
-            outStairs = chiselStairs;
-            outHalfs  = chiselHalfs;
-            outRoofs  = chiselRoofs;
-        } else {
-            outSubs = null; outStairs = null; outHalfs = null; outRoofs = null;
-            if (inputKey != null) {
-                ChiselVariants v = resolveChiselVariants(inputKey);
-                if (v != null) {
-                    outSubs = v.subs; outStairs = v.stairs;
-                    outHalfs = v.halfs; outRoofs = v.roofs;
+            String[] statueVariants = resolveStatueVariants(chunk, blockPos);
+
+            // ── Inventory (TABLE mode only) ─────────────────────────────
+            List<InventoryIndex.Stack> fullInv = mode == Mode.TABLE ? readPlayerInventory(player) : null;
+
+            Request req = new Request(mode, tab, outputPage, invPage, inputKey, inputCount, query,
+                    statueVariants != null ? statueVariants : NO_STATUES, fullInv);
+            OffThreadRender.render(world, () -> render(req), frame -> deliver(seq, frame));
+        }
+
+        /** Render stage: no world or inventory access, only {@code r} and this session's own state. */
+        private Frame render(Request r) {
+            String[] statueVariants = r.statues;
+            boolean hasStatues = statueVariants.length > 0;
+
+            ChiselFamily chiselFamily = chiselFamily();
+            boolean hasChiselData = chiselFamily != null && (!empty(chiselFamily.substitutions)
+                    || !empty(chiselFamily.stairs) || !empty(chiselFamily.halfSlabs) || !empty(chiselFamily.roofing));
+
+            // ── Resolve output variant arrays based on mode ─────────────
+            Lists lists = NO_LISTS;
+            if (r.mode == Mode.CHISEL) {
+                if (chiselFamily != null) lists = ordered(chiselFamily);
+            } else if (r.inputKey != null) {
+                ChiselFamily v = resolveChiselVariants(r.inputKey);
+                if (v != null) lists = ordered(v);
+            } else if (r.query != null) {
+                // Searches every family; keyed by what the search index was built from
+                lists = new Lists("*@" + ChiselResolver.version(), null, null, null, null);
+            }
+            String[] outSubs = lists.subs, outStairs = lists.stairs, outHalfs = lists.halfs, outRoofs = lists.roofs;
+
+            // If we detected a two-block statue pillar, prefer showing the
+            // statue's mapped base chisel material in the BLOCKS tab so the
+            // user can convert a statue back into its material blocks.
+            boolean remapped = false;
+            if (hasStatues && (r.tab == Tab.BLOCKS)) {
+                boolean hasAny = (outSubs != null && outSubs.length > 0);
+                if (!hasAny) {
+                    java.util.LinkedHashSet<String> mapped = new java.util.LinkedHashSet<>();
+                    for (String s : statueVariants) {
+                        try {
+                            String m = com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.getMappedChiselTypeForStatue(s);
+                            if (m != null && !m.isEmpty()) mapped.add(m);
+                        } catch (Throwable ignored) {}
+                    }
+                    if (!mapped.isEmpty()) {
+                        outSubs = mapped.toArray(new String[0]);
+                        remapped = true;
+                    }
                 }
             }
+
+            // Detect whether the current substitutions are label variants (not regular material blocks).
+            // When true, we surface a dedicated "Labels" tab instead of the generic "Blocks" tab.
+            boolean hasLabels = LabelsCompat.isAvailable()
+                    && len(outSubs) > 0
+                    && LabelsCompat.isLabelKey(first(outSubs));
+
+            // If opening with BLOCKS active but this is actually a labels block, redirect to LABELS tab
+            Tab tab = (hasLabels && r.tab == Tab.BLOCKS) ? Tab.LABELS : r.tab;
+
+            // Statue-mapped substitutions are built here each render, and per-player
+            // orderings are only ever seen by one player: neither is shared
+            View v = new View(remapped ? null : lists.key, r.mode, tab, outSubs, outStairs, outHalfs, outRoofs,
+                    statueVariants, hasChiselData, hasLabels, r.inputKey != null, r.query);
+
+            // ── Paginate output grid ────────────────────────────────────
+            int totalOutPg = v.pages();
+            int outputPage = Math.max(0, Math.min(r.outputPage, totalOutPg - 1));
+            int outStart   = outputPage * v.perPage();
+            String[] pgOut = v.page(outputPage);
+
+            // ── Paginate inventory (TABLE mode only) ────────────────────
+            List<InventoryIndex.Stack> pgInv;
+            int invPage, invStart, totalInvPg;
+            if (r.fullInv != null) {
+                List<InventoryIndex.Stack> fullInv = r.fullInv;
+                int invPerPage = UiFragments.perPage(fullInv.size(), INV_COLUMNS, INV_MIN_ROWS, INV_MAX_ROWS);
+                totalInvPg = Math.max(1, (fullInv.size() + invPerPage - 1) / invPerPage);
+                invPage    = Math.max(0, Math.min(r.invPage, totalInvPg - 1));
+                invStart   = invPage * invPerPage;
+                int invEnd = Math.min(invStart + invPerPage, fullInv.size());
+                pgInv      = fullInv.subList(invStart, invEnd);
+            } else {
+                pgInv = Collections.emptyList();
+                invStart = 0;
+                totalInvPg = 1;
+                invPage = 0;
+            }
+
+            // ── Build HTML ──────────────────────────────────────────────
+            // Chisel mode is entirely shared; table mode shares the output
+            // section and renders the player's input slot and inventory around it.
+            String shared = renderShared(v, outputPage, totalOutPg);
+            String html = (r.mode == Mode.CHISEL)
+                    ? shared
+                    : buildTableHtml(pgInv, invStart, r.inputKey, r.inputCount, hasChiselData, r.query,
+                            shared, invPage, totalInvPg);
+
+            return new Frame(hasChiselData, v, outputPage, outStart, pgOut, totalOutPg,
+                    pgInv, invPage, invStart, totalInvPg, html);
+        }
+
+        /** Delivery stage, back on the world thread: adopts {@code f} and shows it. */
+        private void deliver(int seq, Frame f) {
+            // A newer render, or a newer session, superseded this one
+            if (seq != renderSeq || live(playerRef) != this) return;
+
+            View v = f.view;
+            hasChiselData = f.hasChiselData;
+            if (v.mode == Mode.CHISEL && !hasChiselData) {
+                LOGGER.atWarning().log("[Chisel] No substitutions found on block");
+                return;
+            }
+            tab        = v.tab;
+            view       = v;
+            outputPage = f.outputPage;
+            outStart   = f.outStart;
+            pgOut      = f.pgOut;
+            pgInv      = f.pgInv;
+            invPage    = f.invPage;
+            invStart   = f.invStart;
+            totalInvPg = f.totalInvPg;
+
+            // ── Create page & bind the elements it shows ────────────────
+            PageBuilder builder = PageBuilder.pageForPlayer(playerRef)
+                    .fromHtml(f.html)
+                    .withLifetime(CustomPageLifetime.CanDismissOrCloseThroughInteraction);
+
+            if (v.mode != Mode.CHISEL && hasChiselData) bind(builder, "mode_chisel");
+            if (v.mode != Mode.TABLE) bind(builder, "mode_table");
+
+            builder.addEventListener("search_text", CustomUIEventBindingType.ValueChanged, onSearchText);
+            bind(builder, "search_go");
+            bind(builder, "search_clear");
+
+            if (v.tabsShown()) {
+                if (v.hasBlocks())  bind(builder, "tab_blocks");
+                if (v.hasStairs())  bind(builder, "tab_stairs");
+                if (v.hasHalfs())   bind(builder, "tab_halfslabs");
+                if (v.hasRoofs())   bind(builder, "tab_roofing");
+                if (v.hasStatues()) bind(builder, "tab_statues");
+                if (v.hasLabels)    bind(builder, "tab_labels");
+            }
+
+            if (outputPage > 0)                bind(builder, "out_prev");
+            if (outputPage < f.totalOutPg - 1) bind(builder, "out_next");
+            // Output ids are page slots (out_0 ..), resolved against outStart on click
+            for (int i = 0; i < pgOut.length; i++) {
+                String id = "out_" + i;
+                bind(builder, id);
+                if (v.mode == Mode.TABLE) bindRightClick(builder, id);
+            }
+
+            if (v.mode == Mode.TABLE) {
+                for (int i = 0; i < pgInv.size(); i++) bind(builder, "inv_" + (invStart + i));
+                if (invPage > 0)              bind(builder, "inv_prev");
+                if (invPage < totalInvPg - 1) bind(builder, "inv_next");
+                if (v.hasInput)               bind(builder, "clear_input");
+            }
+
+            int opened = ++pageSeq;
+            PageClose.onClose(builder, () -> {
+                if (opened == pageSeq) release(playerRef, this);
+            });
+            builder.open(store);
+        }
+
+        private void bind(PageBuilder builder, String id) {
+            builder.addEventListener(id, CustomUIEventBindingType.Activating,
+                    onActivate.computeIfAbsent(id, k -> (ignored, ctx) -> dispatch(k, false)));
+        }
+
+        private void bindRightClick(PageBuilder builder, String id) {
+            builder.addEventListener(id, CustomUIEventBindingType.RightClicking,
+                    onRightClick.computeIfAbsent(id, k -> (ignored, ctx) -> dispatch(k, true)));
+        }
+
+        /** Single entry point for every element on the page. */
+        void dispatch(String id, boolean rightClick) {
+            // A newer page replaced this one; ignore clicks that raced it
+            if (live(playerRef) != this) return;
+            try {
+                if (handle(id, rightClick)) show();
+            } catch (Throwable t) {
+                LOGGER.atWarning().log("[Chisel] UI action '" + id + "' failed: " + t.getMessage());
+            }
         }
 
-        // If we detected a two-block statue pillar, prefer showing the
-        // statue's mapped base chisel material in the BLOCKS tab so the
-        // user can convert a statue back into its material blocks.
-        if (hasStatues && (tab == Tab.BLOCKS)) {
-            boolean hasAny = (outSubs != null && outSubs.length > 0);
-            if (!hasAny) {
-                java.util.LinkedHashSet<String> mapped = new java.util.LinkedHashSet<>();
-                for (String s : statueVariants) {
-                    try {
-                        String m = com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.getMappedChiselTypeForStatue(s);
-                        if (m != null && !m.isEmpty()) mapped.add(m);
-                    } catch (Throwable ignored) {}
+        /** @return {@code true} if the click changed what the page shows */
+        private boolean handle(String id, boolean rightClick) {
+            switch (id) {
+                case "mode_chisel" -> {
+                    if (!hasChiselData) return false;
+                    mode = Mode.CHISEL;
+                    clearInput();
+                    invPage = 0;
+                    query = null;
+                    pagesViewed = 1;
+                    return true;
+                }
+                case "mode_table" -> {
+                    mode = Mode.TABLE;
+                    clearInput();
+                    invPage = 0;
+                    query = null;
+                    pagesViewed = 1;
+                    return true;
+                }
+                case "search_go" -> {
+                    String q = VariantSearch.normalizeQuery(typedQuery);
+                    if (Objects.equals(q, query)) return false;
+                    query = q;
+                    outputPage = 0;
+                    pagesViewed++;
+                    return true;
                 }
-                if (!mapped.isEmpty()) {
-                    outSubs = mapped.toArray(new String[0]);
+                case "search_clear" -> {
+                    typedQuery = null;
+                    if (query == null) return false;
+                    query = null;
+                    outputPage = 0;
+                    pagesViewed++;
+                    return true;
+                }
+                case "tab_blocks"    -> { return selectTab(Tab.BLOCKS); }
+                case "tab_stairs"    -> { return selectTab(Tab.STAIRS); }
+                case "tab_halfslabs" -> { return selectTab(Tab.HALF_SLABS); }
+                case "tab_roofing"   -> { return selectTab(Tab.ROOFING); }
+                case "tab_statues"   -> { return selectTab(Tab.STATUE); }
+                case "tab_labels"    -> { return selectTab(Tab.LABELS); }
+                case "out_prev"      -> { outputPage--; pagesViewed++; return true; }
+                case "out_next"      -> { outputPage++; pagesViewed++; return true; }
+                case "inv_prev"      -> { invPage--; return true; }
+                case "inv_next"      -> { invPage++; return true; }
+                case "clear_input"   -> { clearInput(); pagesViewed = 1; return true; }
+                default -> {
+                    if (id.startsWith("out_")) return clickOutput(index(id, 0, pgOut.length), rightClick);
+                    if (id.startsWith("inv_")) return selectInput(index(id, invStart, pgInv.size()));
+                    return false;
                 }
             }
         }
 
-        // Detect whether the current substitutions are label variants (not regular material blocks).
-        // When true, we surface a dedicated "Labels" tab instead of the generic "Blocks" tab.
-        boolean hasLabels = LabelsCompat.isAvailable()
-                && len(outSubs) > 0
-                && LabelsCompat.isLabelKey(first(outSubs));
-        boolean hasBlocks = !hasLabels && len(outSubs) > 0;
-        boolean hasStairs = len(outStairs) > 0;
-        boolean hasHalfs  = len(outHalfs) > 0;
-        boolean hasRoofs  = len(outRoofs) > 0;
-
-        // If opening with BLOCKS active but this is actually a labels block, redirect to LABELS tab
-        final Tab activeTab = (hasLabels && tab == Tab.BLOCKS) ? Tab.LABELS : tab;
-
-        String[] allOutputs = switch (activeTab) {
-            case BLOCKS     -> safe(outSubs);
-            case STAIRS     -> safe(outStairs);
-            case HALF_SLABS -> safe(outHalfs);
-            case ROOFING    -> safe(outRoofs);
-            case STATUE     -> safe(statueVariants);
-            case LABELS     -> safe(outSubs);
-        };
-
-        // ── Paginate output grid ────────────────────────────────────
-        int totalOut   = allOutputs.length;
-        int totalOutPg = Math.max(1, (totalOut + ITEMS_PER_PAGE - 1) / ITEMS_PER_PAGE);
-        int curOutPg   = Math.max(0, Math.min(outputPage, totalOutPg - 1));
-        int outStart   = curOutPg * ITEMS_PER_PAGE;
-        int outEnd     = Math.min(outStart + ITEMS_PER_PAGE, totalOut);
-        String[] pgOut = new String[outEnd - outStart];
-        if (pgOut.length > 0)
-            System.arraycopy(allOutputs, outStart, pgOut, 0, pgOut.length);
-
-        // ── Paginate inventory (TABLE mode only) ────────────────────
-        List<InvItem> pgInv = Collections.emptyList();
-        int invStart = 0, curInvPg = 0, totalInvPg = 1;
-        if (mode == Mode.TABLE) {
-            List<InvItem> fullInv = readPlayerInventory(player);
-            totalInvPg = Math.max(1, (fullInv.size() + INV_PER_PAGE - 1) / INV_PER_PAGE);
-            curInvPg   = Math.max(0, Math.min(invPage, totalInvPg - 1));
-            invStart   = curInvPg * INV_PER_PAGE;
-            int invEnd = Math.min(invStart + INV_PER_PAGE, fullInv.size());
-            pgInv      = fullInv.subList(invStart, invEnd);
+        private boolean selectTab(Tab t) {
+            if (t == tab) return false;
+            tab = t;
+            outputPage = 0;
+            pagesViewed++;
+            return true;
         }
 
-        // ── Build HTML ──────────────────────────────────────────────
-        String html;
-        String iconBlocks = first(outSubs);
-        String iconStairs = first(outStairs);
-        String iconHalfs  = first(outHalfs);
-        String iconRoofs  = first(outRoofs);
-
-        if (mode == Mode.CHISEL) {
-            html = buildChiselHtml(pgOut, outStart, activeTab,
-                hasBlocks, iconBlocks, hasStairs, iconStairs,
-                hasHalfs, iconHalfs, hasRoofs, iconRoofs,
-                hasStatues, first(statueVariants), hasLabels, iconBlocks,
-                hasChiselData, curOutPg, totalOutPg);
-        } else {
-            html = buildTableHtml(pgInv, invStart, pgOut, outStart,
-                inputKey, inputCount, activeTab,
-                hasBlocks, iconBlocks, hasStairs, iconStairs,
-                hasHalfs, iconHalfs, hasRoofs, iconRoofs,
-                hasStatues, first(statueVariants), hasLabels, iconBlocks,
-                hasChiselData, curOutPg, totalOutPg,
-                curInvPg, totalInvPg);
+        /** Selects an inventory stack as the table input. */
+        private boolean selectInput(int i) {
+            if (i < 0) return false;
+            InventoryIndex.Stack item = pgInv.get(i);
+            mode = Mode.TABLE;
+            clearInput();
+            inputKey = item.blockKey;
+            inputCount = item.count;
+            inputSlot = item.slot;
+            inputSection = item.section;
+            pagesViewed = 1;
+            return true;
         }
 
-        // ── Create page & register events ───────────────────────────
-        PageBuilder builder = PageBuilder.pageForPlayer(playerRef)
-                .fromHtml(html)
-                .withLifetime(CustomPageLifetime.CanDismissOrCloseThroughInteraction);
-
-        // Capture for lambdas
-        final int fCurInvPg = curInvPg;
-        final int fCurOutPg = curOutPg;
-        final int fInvStart = invStart;
-
-        // ── Mode toggle handlers ────────────────────────────────────
-        if (mode != Mode.CHISEL && hasChiselData) {
-            builder.addEventListener("mode_chisel", CustomUIEventBindingType.Activating,
-                    (i, c) -> open(playerRef, store, world, blockPos, player,
-                            chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                            null, 0, (short) -1, -1,
-                            Mode.CHISEL, Tab.BLOCKS, 0, 0));
-        }
-        if (mode != Mode.TABLE) {
-            builder.addEventListener("mode_table", CustomUIEventBindingType.Activating,
-                    (i, c) -> open(playerRef, store, world, blockPos, player,
-                            chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                            null, 0, (short) -1, -1,
-                            Mode.TABLE, Tab.BLOCKS, 0, 0));
+        /**
+         * Table-mode search hit without an input: selects the first inventory
+         * stack that converts into {@code outputKey} and opens its tab at
+         * the page showing it.
+         */
+        private boolean selectInputFor(String outputKey) {
+            for (InventoryIndex.Stack item : readPlayerInventory(player)) {
+                ChiselFamily f = resolveChiselVariants(item.blockKey);
+                if (f == null) continue;
+                Tab t;
+                String[] list;
+                int at;
+                Lists l = ordered(f);
+                if      ((at = indexOf(list = l.subs,   outputKey)) >= 0) t = Tab.BLOCKS;
+                else if ((at = indexOf(list = l.stairs, outputKey)) >= 0) t = Tab.STAIRS;
+                else if ((at = indexOf(list = l.halfs,  outputKey)) >= 0) t = Tab.HALF_SLABS;
+                else if ((at = indexOf(list = l.roofs,  outputKey)) >= 0) t = Tab.ROOFING;
+                else continue;
+                clearInput();
+                inputKey = item.blockKey;
+                inputCount = item.count;
+                inputSlot = item.slot;
+                inputSection = item.section;
+                tab = t;
+                outputPage = at / outputsPerPage(Mode.TABLE, list.length);
+                query = null;
+                return true;
+            }
+            return false;
         }
 
-        // (Removed explicit switch button listeners; mode-row handles switching)
-
-        // ── Tab handlers ────────────────────────────────────────────
-        if (hasBlocks && activeTab != Tab.BLOCKS)
-            builder.addEventListener("tab_blocks", CustomUIEventBindingType.Activating,
-                    (i, c) -> open(playerRef, store, world, blockPos, player,
-                            chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                            inputKey, inputCount, inputSlot, inputSection,
-                            mode, Tab.BLOCKS, 0, fCurInvPg));
-        if (hasStairs && activeTab != Tab.STAIRS)
-            builder.addEventListener("tab_stairs", CustomUIEventBindingType.Activating,
-                    (i, c) -> open(playerRef, store, world, blockPos, player,
-                            chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                            inputKey, inputCount, inputSlot, inputSection,
-                            mode, Tab.STAIRS, 0, fCurInvPg));
-        if (hasHalfs && activeTab != Tab.HALF_SLABS)
-            builder.addEventListener("tab_halfslabs", CustomUIEventBindingType.Activating,
-                    (i, c) -> open(playerRef, store, world, blockPos, player,
-                            chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                            inputKey, inputCount, inputSlot, inputSection,
-                            mode, Tab.HALF_SLABS, 0, fCurInvPg));
-        if (hasRoofs && activeTab != Tab.ROOFING)
-            builder.addEventListener("tab_roofing", CustomUIEventBindingType.Activating,
-                    (i, c) -> open(playerRef, store, world, blockPos, player,
-                            chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                            inputKey, inputCount, inputSlot, inputSection,
-                            mode, Tab.ROOFING, 0, fCurInvPg));
-        if (hasStatues && activeTab != Tab.STATUE) {
-            boolean tabRendered = (mode == Mode.CHISEL)
-                    || (mode == Mode.TABLE && inputKey != null
-                        && (hasBlocks || hasStairs || hasHalfs || hasRoofs || hasStatues));
-            if (tabRendered) {
-                builder.addEventListener("tab_statues", CustomUIEventBindingType.Activating,
-                    (i, c) -> open(playerRef, store, world, blockPos, player,
-                        chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                        inputKey, inputCount, inputSlot, inputSection,
-                        mode, Tab.STATUE, 0, fCurInvPg));
+        /** Chisel mode: replace the block.  Table mode: left = every stack of the input, right = half the selected stack. */
+        private boolean clickOutput(int i, boolean rightClick) {
+            if (i < 0) return false;
+            String outputKey = pgOut[i];
+            if (mode == Mode.CHISEL) {
+                placeBlock(outputKey);
+                selected(outputKey);
+                return false;
             }
+            if (inputKey == null) return selectInputFor(outputKey);
+            if (!rightClick) {
+                if (inputCount > 0
+                        && convertItems(player, inputSlot, inputSection,
+                                inputKey, outputKey, -1)) selected(outputKey);
+                clearInput();
+                return true;
+            }
+            if (inputCount <= 0) return false;
+            int half = (inputCount + 1) / 2;
+            if (!convertItems(player, inputSlot, inputSection,
+                    inputKey, outputKey, half)) return true;
+            selected(outputKey);
+            int rem = inputCount - half;
+            if (rem > 0) inputCount = rem;
+            else clearInput();
+            return true;
         }
-        if (hasLabels && activeTab != Tab.LABELS)
-            builder.addEventListener("tab_labels", CustomUIEventBindingType.Activating,
-                    (i, c) -> open(playerRef, store, world, blockPos, player,
-                            chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                            inputKey, inputCount, inputSlot, inputSection,
-                            mode, Tab.LABELS, 0, fCurInvPg));
-
-        // ── Output pagination ───────────────────────────────────────
-        if (curOutPg > 0)
-            builder.addEventListener("out_prev", CustomUIEventBindingType.Activating,
-                    (i, c) -> open(playerRef, store, world, blockPos, player,
-                            chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                            inputKey, inputCount, inputSlot, inputSection,
-                            mode, activeTab, fCurOutPg - 1, fCurInvPg));
-        if (curOutPg < totalOutPg - 1)
-            builder.addEventListener("out_next", CustomUIEventBindingType.Activating,
-                    (i, c) -> open(playerRef, store, world, blockPos, player,
-                            chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                            inputKey, inputCount, inputSlot, inputSection,
-                            mode, activeTab, fCurOutPg + 1, fCurInvPg));
-
-        // ── Mode-specific event handlers ────────────────────────────
-        if (mode == Mode.CHISEL) {
-            // Click output → replace block in world
-            for (int i = 0; i < pgOut.length; i++) {
-                final String blockKey = pgOut[i];
-                final String btnId = "out_" + (outStart + i);
-                builder.addEventListener(btnId, CustomUIEventBindingType.Activating,
-                        (ignored, ctx) -> {
+
+        /** {@code key} was picked; the page still shown starts the next count. */
+        private void selected(String key) {
+            VariantPopularity.record(playerId, key);
+            BrowseStats.chisel(order).selected(pagesViewed);
+            pagesViewed = 1;
+        }
+
+        private void placeBlock(String blockKey) {
+            try {
+                WorldChunk chunk = this.chunk;
+                if (chunk != null) {
+                    // STATUE tab replaces a two-block pillar (bottom+top)
+                    if (view.tab == Tab.STATUE) {
+                        // STATUE tab: place the statue key (user expects statue placement)
+                        try {
+                            chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, blockKey);
+                            chunk.setBlock(blockPos.x, blockPos.y + 1, blockPos.z, blockKey);
+                            LOGGER.atWarning().log("[Chisel] STATUE tab placed statue key: " + blockKey);
+                        } catch (Throwable ex) {
                             try {
-                                WorldChunk chunk = cachedChunk;
-                                if (chunk != null) {
-                            // STATUE tab replaces a two-block pillar (bottom+top)
-                            if (activeTab == Tab.STATUE) {
-                                // STATUE tab: place the statue key (user expects statue placement)
-                                try {
-                                    chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, blockKey);
-                                    chunk.setBlock(blockPos.x, blockPos.y + 1, blockPos.z, blockKey);
-                                    LOGGER.atWarning().log("[Chisel] STATUE tab placed statue key: " + blockKey);
-                                } catch (Throwable ex) {
+                                chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, blockKey);
+                                chunk.setBlock(blockPos.x, blockPos.y + 1, blockPos.z, blockKey);
+                            } catch (Throwable ignoredEx) {}
+                        }
+                    } else {
+                        // BLOCKS tab: if the chosen key is actually a Ymmersive statue,
+                        // map it back to its material (e.g., Rock_Marble) and replace
+                        // the two-block pillar with two stacked material blocks.
+                        try {
+                            boolean handled = false;
+                            if (com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.isAvailable()) {
+                                String mapped = com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.getMappedChiselTypeForStatue(blockKey);
+                                if (mapped != null && mapped.toLowerCase(java.util.Locale.ROOT).startsWith("rock_")) {
+                                    // place material blocks on bottom+top and verify
+                                    chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, mapped);
+                                    chunk.setBlock(blockPos.x, blockPos.y + 1, blockPos.z, mapped);
                                     try {
-                                        chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, blockKey);
-                                        chunk.setBlock(blockPos.x, blockPos.y + 1, blockPos.z, blockKey);
-                                    } catch (Throwable ignoredEx) {}
-                                }
-                            } else {
-                                // BLOCKS tab: if the chosen key is actually a Ymmersive statue,
-                                // map it back to its material (e.g., Rock_Marble) and replace
-                                // the two-block pillar with two stacked material blocks.
-                                try {
-                                    boolean handled = false;
-                                    if (com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.isAvailable()) {
-                                        String mapped = com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.getMappedChiselTypeForStatue(blockKey);
-                                        if (mapped != null && mapped.toLowerCase(java.util.Locale.ROOT).startsWith("rock_")) {
-                                            // place material blocks on bottom+top and verify
-                                            chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, mapped);
-                                            chunk.setBlock(blockPos.x, blockPos.y + 1, blockPos.z, mapped);
-                                            try {
-                                                com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType bBottom2 = chunk.getBlockType(blockPos.x, blockPos.y, blockPos.z);
-                                                com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType bTop2 = chunk.getBlockType(blockPos.x, blockPos.y + 1, blockPos.z);
-                                                String bottomId2 = bBottom2 != null ? bBottom2.getId().toString() : "<null>";
-                                                String topId2 = bTop2 != null ? bTop2.getId().toString() : "<null>";
-                                                if (!mapped.equals(bottomId2)) chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, mapped);
-                                                if (!mapped.equals(topId2)) chunk.setBlock(blockPos.x, blockPos.y + 1, blockPos.z, mapped);
-                                            } catch (Throwable v) {
-                                                LOGGER.atWarning().log("[Chisel] BLOCKS tab: verification failed: " + v.getMessage());
-                                            }
-                                            handled = true;
-                                            LOGGER.atWarning().log("[Chisel] BLOCKS tab replacement attempted: key=" + blockKey + " mapped=" + mapped);
-                                        }
-                                    }
-                                    if (!handled) {
-                                        if (hasStatues) {
-                                            // Under statue conditions, place a two-block pillar (bottom+top)
-                                            chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, blockKey);
-                                            chunk.setBlock(blockPos.x, blockPos.y + 1, blockPos.z, blockKey);
-                                            LOGGER.atWarning().log("[Chisel] BLOCKS tab placed pillar fallback: " + blockKey);
-                                        } else {
-                                            chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, blockKey);
-                                            LOGGER.atWarning().log("[Chisel] BLOCKS tab placed key fallback: " + blockKey);
-                                        }
+                                        com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType bBottom2 = chunk.getBlockType(blockPos.x, blockPos.y, blockPos.z);
+                                        com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType bTop2 = chunk.getBlockType(blockPos.x, blockPos.y + 1, blockPos.z);
+                                        String bottomId2 = bBottom2 != null ? bBottom2.getId().toString() : "<null>";
+                                        String topId2 = bTop2 != null ? bTop2.getId().toString() : "<null>";
+                                        if (!mapped.equals(bottomId2)) chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, mapped);
+                                        if (!mapped.equals(topId2)) chunk.setBlock(blockPos.x, blockPos.y + 1, blockPos.z, mapped);
+                                    } catch (Throwable v) {
+                                        LOGGER.atWarning().log("[Chisel] BLOCKS tab: verification failed: " + v.getMessage());
                                     }
-                                } catch (Throwable ex) {
-                                    try { chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, blockKey); } catch (Throwable ignoredEx) {}
+                                    handled = true;
+                                    LOGGER.atWarning().log("[Chisel] BLOCKS tab replacement attempted: key=" + blockKey + " mapped=" + mapped);
                                 }
                             }
+                            if (!handled) {
+                                if (view.hasStatues()) {
+                                    // Under statue conditions, place a two-block pillar (bottom+top)
+                                    chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, blockKey);
+                                    chunk.setBlock(blockPos.x, blockPos.y + 1, blockPos.z, blockKey);
+                                    LOGGER.atWarning().log("[Chisel] BLOCKS tab placed pillar fallback: " + blockKey);
+                                } else {
+                                    chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, blockKey);
+                                    LOGGER.atWarning().log("[Chisel] BLOCKS tab placed key fallback: " + blockKey);
+                                }
                             }
-                                // removed info log for setBlock action
+                        } catch (Throwable ex) {
+                            try { chunk.setBlock(blockPos.x, blockPos.y, blockPos.z, blockKey); } catch (Throwable ignoredEx) {}
                         }
-                     catch (Throwable t) {
-                        LOGGER.atWarning().log("[Chisel] Failed to set block: "
-                                + t.getMessage());
-                     }}
-                );
-            }
-            
-        } else {
-            // ── Inventory item clicks → select as input ─────────────
-            for (int i = 0; i < pgInv.size(); i++) {
-                final InvItem item = pgInv.get(i);
-                final String btnId = "inv_" + (fInvStart + i);
-                builder.addEventListener(btnId, CustomUIEventBindingType.Activating,
-                        (ignored, ctx) -> open(playerRef, store, world, blockPos, player,
-                                chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                                item.blockKey, item.count, item.slot, item.section,
-                                Mode.TABLE, Tab.BLOCKS, 0, fCurInvPg));
-            }
-
-            // ── Inventory pagination ────────────────────────────────
-            if (curInvPg > 0)
-                builder.addEventListener("inv_prev", CustomUIEventBindingType.Activating,
-                        (i, c) -> open(playerRef, store, world, blockPos, player,
-                                chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                                inputKey, inputCount, inputSlot, inputSection,
-                                Mode.TABLE, activeTab, fCurOutPg, fCurInvPg - 1));
-            if (curInvPg < totalInvPg - 1)
-                builder.addEventListener("inv_next", CustomUIEventBindingType.Activating,
-                        (i, c) -> open(playerRef, store, world, blockPos, player,
-                                chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                                inputKey, inputCount, inputSlot, inputSection,
-                                Mode.TABLE, activeTab, fCurOutPg, fCurInvPg + 1));
-
-            // ── Output clicks: left = convert all, right = half ─────
-            for (int i = 0; i < pgOut.length; i++) {
-                final String outputKey = pgOut[i];
-                final String btnId = "out_" + (outStart + i);
-
-                builder.addEventListener(btnId, CustomUIEventBindingType.Activating,
-                        (ignored, ctx) -> {
-                    if (inputKey != null && inputCount > 0)
-                        convertItems(player, inputSlot, inputSection,
-                                inputKey, inputCount, outputKey, inputCount);
-                    open(playerRef, store, world, blockPos, player,
-                            chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                            null, 0, (short) -1, -1,
-                            Mode.TABLE, Tab.BLOCKS, 0, fCurInvPg);
-                });
-
-                builder.addEventListener(btnId, CustomUIEventBindingType.RightClicking,
-                        (ignored, ctx) -> {
-                    if (inputKey != null && inputCount > 0) {
-                        int half = (inputCount + 1) / 2;
-                        int rem  = inputCount - half;
-                        convertItems(player, inputSlot, inputSection,
-                                inputKey, inputCount, outputKey, half);
-                        if (rem > 0)
-                            open(playerRef, store, world, blockPos, player,
-                                    chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                                    inputKey, rem, inputSlot, inputSection,
-                                    Mode.TABLE, activeTab, fCurOutPg, fCurInvPg);
-                        else
-                            open(playerRef, store, world, blockPos, player,
-                                    chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                                    null, 0, (short) -1, -1,
-                                    Mode.TABLE, Tab.BLOCKS, 0, fCurInvPg);
                     }
-                });
+                }
+            } catch (Throwable t) {
+                LOGGER.atWarning().log("[Chisel] Failed to set block: "
+                        + t.getMessage());
             }
-
-            // ── Clear-input button ──────────────────────────────────
-            if (inputKey != null)
-                builder.addEventListener("clear_input", CustomUIEventBindingType.Activating,
-                        (i, c) -> open(playerRef, store, world, blockPos, player,
-                                chiselSubs, chiselStairs, chiselHalfs, chiselRoofs,
-                                null, 0, (short) -1, -1,
-                                Mode.TABLE, Tab.BLOCKS, 0, fCurInvPg));
         }
 
-        builder.open(store);
-        // removed mode open info log
+        /** Parses {@code prefix_N} into an index into the last rendered page, or {@code -1}. */
+        private static int index(String id, int start, int size) {
+            int i;
+            try {
+                i = Integer.parseInt(id, 4, id.length(), 10) - start;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+            return i >= 0 && i < size ? i : -1;
+        }
     }
 
     /** Opens in Chisel mode (in-world block replacement). */
@@ -458,24 +664,33 @@ public final class ChiselUIPage {
                                   String[] stairs,
                                   String[] halfs,
                                   String[] roofs) {
-        ChiselVariants resolved = null;
+        openChisel(playerRef, store, world, blockPos, player, subs, stairs, halfs, roofs,
+                VariantPopularity.Order.MERGE);
+    }
+
+    /** Opens in Chisel mode with variants in {@code order}. */
+    public static void openChisel(PlayerRef playerRef,
+                                  Store<EntityStore> store,
+                                  World world,
+                                  Vector3i blockPos,
+                                  LivingEntity player,
+                                  String[] subs,
+                                  String[] stairs,
+                                  String[] halfs,
+                                  String[] roofs,
+                                  VariantPopularity.Order order) {
+        // Only the block key is read here; the render stage resolves its family
+        String blockKey = null;
         try {
             WorldChunk chunk = world.getChunkIfInMemory(ChunkUtil.indexChunkFromBlock(blockPos.x, blockPos.z));
             if (chunk != null) {
                 BlockType blockType = chunk.getBlockType(blockPos.x, blockPos.y, blockPos.z);
-                String blockKey = blockType != null && blockType.getId() != null ? String.valueOf(blockType.getId()) : null;
-                resolved = resolveChiselVariants(blockKey);
+                blockKey = blockType != null && blockType.getId() != null ? String.valueOf(blockType.getId()) : null;
             }
         } catch (Throwable ignored) {}
 
-        ChiselVariants normalized = resolved != null
-                ? resolved
-                : normalizeVariantBuckets(subs, stairs, halfs, roofs);
-
-        open(playerRef, store, world, blockPos, player,
-                normalized.subs, normalized.stairs, normalized.halfs, normalized.roofs,
-                null, 0, (short) -1, -1,
-                Mode.CHISEL, Tab.BLOCKS, 0, 0);
+        new Session(playerRef, store, world, blockPos, player, blockKey,
+                new ChiselFamily(null, subs, stairs, halfs, roofs), Mode.CHISEL, order).start();
     }
 
     /** Opens in Table mode (inventory conversion). */
@@ -484,78 +699,229 @@ public final class ChiselUIPage {
                                  World world,
                                  Vector3i blockPos,
                                  LivingEntity player) {
-        open(playerRef, store, world, blockPos, player,
-                null, null, null, null,
-                null, 0, (short) -1, -1,
-                Mode.TABLE, Tab.BLOCKS, 0, 0);
+        openTable(playerRef, store, world, blockPos, player, VariantPopularity.Order.MERGE);
+    }
+
+    /** Opens in Table mode with variants in {@code order}. */
+    public static void openTable(PlayerRef playerRef,
+                                 Store<EntityStore> store,
+                                 World world,
+                                 Vector3i blockPos,
+                                 LivingEntity player,
+                                 VariantPopularity.Order order) {
+        new Session(playerRef, store, world, blockPos, player, null, null, Mode.TABLE, order).start();
+    }
+
+    /**
+     * Pre-renders the page every chisel open of a family starts on (first
+     * page of its default tab) into {@link RenderedPageCache}, in the
+     * background.  Called once after {@link ChiselResolver#warm()}.  Tab and
+     * page switches reopen the whole page too, but start from pages the
+     * cross-player cache fills as they are viewed; only the opening page is
+     * worth rendering ahead.
+     */
+    public static void pregenerate() {
+        Map<PageKey, Supplier<String>> pages = new LinkedHashMap<>();
+        for (ChiselFamily f : ChiselResolver.families()) {
+            String[] subs = f.substitutions, stairs = f.stairs, halfs = f.halfSlabs, roofs = f.roofing;
+            boolean hasChiselData = !empty(subs) || !empty(stairs) || !empty(halfs) || !empty(roofs);
+            if (!hasChiselData) continue;
+            boolean hasLabels = LabelsCompat.isAvailable() && len(subs) > 0 && LabelsCompat.isLabelKey(first(subs));
+            // Same view Session.render builds for a fresh merge-order chisel open of a plain block
+            View v = new View(f.id, Mode.CHISEL, hasLabels ? Tab.LABELS : Tab.BLOCKS,
+                    subs, stairs, halfs, roofs, NO_STATUES, true, hasLabels, false, null);
+            // Families that render the same view share one page
+            pages.putIfAbsent(PageKey.of(v, 0), () -> buildShared(v, 0));
+        }
+        RenderedPageCache.pregenerate(pages);
     }
 
     // ═════════════════════════════════════════════════════════════════
     // HTML builders
     // ═════════════════════════════════════════════════════════════════
 
+    /**
+     * What the player-independent part of a page shows.  {@code lists} names
+     * the variant arrays for {@link PageKey}: a resolved family id (which
+     * carries that family's generation), plus the rerank for server order;
+     * {@code null} when they are not shared and the page is not cached.
+     */
+    private record View(String lists, Mode mode, Tab tab,
+                        String[] subs, String[] stairs, String[] halfs, String[] roofs,
+                        String[] statues, boolean hasChiselData, boolean hasLabels,
+                        boolean hasInput, String query, String[] outputs) {
+
+        /** Selects and, for a query, searches the active tab's variants once, up front. */
+        View(String lists, Mode mode, Tab tab,
+             String[] subs, String[] stairs, String[] halfs, String[] roofs,
+             String[] statues, boolean hasChiselData, boolean hasLabels,
+             boolean hasInput, String query) {
+            this(lists, mode, tab, subs, stairs, halfs, roofs, statues, hasChiselData, hasLabels, hasInput, query,
+                    outputs(mode, tab, subs, stairs, halfs, roofs, statues, hasInput, query));
+        }
+
+        boolean hasBlocks()  { return !hasLabels && len(subs) > 0; }
+        boolean hasStairs()  { return len(stairs) > 0; }
+        boolean hasHalfs()   { return len(halfs) > 0; }
+        boolean hasRoofs()   { return len(roofs) > 0; }
+        boolean hasStatues() { return len(statues) > 0; }
+
+        /** Table mode only renders the tab row once an input is selected. */
+        boolean tabsShown() {
+            if (mode == Mode.TABLE && !hasInput) return false;
+            return hasBlocks() || hasStairs() || hasHalfs() || hasRoofs() || hasStatues() || hasLabels;
+        }
+
+        /**
+         * Active tab's variants; with a query, its matches (every family's in
+         * table mode without input), at most {@link VariantSearch#MAX_RESULTS}.
+         */
+        private static String[] outputs(Mode mode, Tab tab, String[] subs, String[] stairs, String[] halfs,
+                                        String[] roofs, String[] statues, boolean hasInput, String query) {
+            String[] all = switch (tab) {
+                case BLOCKS, LABELS -> safe(subs);
+                case STAIRS         -> safe(stairs);
+                case HALF_SLABS     -> safe(halfs);
+                case ROOFING        -> safe(roofs);
+                case STATUE         -> safe(statues);
+            };
+            if (query == null) return all;
+            return mode == Mode.TABLE && !hasInput
+                    ? VariantSearch.findAll(query)
+                    : VariantSearch.find(all, query);
+        }
+
+        int perPage() {
+            return outputsPerPage(mode, outputs.length);
+        }
+
+        /** Search results page like any other list. */
+        int pages() {
+            int per = perPage();
+            return Math.max(1, (outputs.length + per - 1) / per);
+        }
+
+        String[] page(int page) {
+            String[] all = outputs;
+            int per   = perPage();
+            int start = page * per;
+            int end   = Math.min(start + per, all.length);
+            return start < end ? Arrays.copyOfRange(all, start, end) : new String[0];
+        }
+    }
+
+    /** Output page size for a list of {@code total}: up to six rows in chisel mode, four beside the inventory. */
+    private static int outputsPerPage(Mode mode, int total) {
+        return UiFragments.perPage(total, GRID_COLUMNS,
+                MIN_ROWS, mode == Mode.CHISEL ? CHISEL_MAX_ROWS : TABLE_MAX_ROWS);
+    }
+
+    /**
+     * {@link RenderedPageCache} key of one page: {@link View} with the
+     * variant arrays replaced by their {@code lists} name, so two sessions
+     * showing the same family version in the same order share entries.
+     */
+    private record PageKey(String lists, Mode mode, Tab tab, List<String> statues,
+                           boolean hasChiselData, boolean hasLabels, boolean hasInput,
+                           String query, int page) {
+        static PageKey of(View v, int page) {
+            return new PageKey(v.lists, v.mode, v.tab, Arrays.asList(v.statues), v.hasChiselData,
+                    v.hasLabels, v.hasInput, v.query, page);
+        }
+    }
+
+    /** A family's four lists as a session shows them, and the {@link View#lists} name they share pages under. */
+    private record Lists(String key, String[] subs, String[] stairs, String[] halfs, String[] roofs) {}
+
+    /** No family: empty lists, shared by every page without one. */
+    private static final Lists NO_LISTS = new Lists("", null, null, null, null);
+
+    /**
+     * Returns the shared part of {@code page} -- the whole page in chisel
+     * mode, the output section in table mode -- from the cross-player cache
+     * when the view's lists are shared, and queues the next page for prefetch.
+     */
+    private static String renderShared(View view, int page, int pages) {
+        if (view.lists == null) return buildShared(view, page);
+        if (page + 1 < pages)
+            RenderedPageCache.prefetch(PageKey.of(view, page + 1), () -> buildShared(view, page + 1));
+        return RenderedPageCache.get(PageKey.of(view, page), () -> buildShared(view, page));
+    }
+
+    private static String buildShared(View view, int page) {
+        if (view.mode == Mode.CHISEL) return buildChiselHtml(view, page);
+        // Table mode: tab row, grid, pager and hint -- the same for every player
+        StringBuilder sb = new StringBuilder(2048);
+        appendTableOutputs(sb, view, page);
+        return sb.toString();
+    }
+
     // ── Chisel mode layout ──────────────────────────────────────────
 
-    private static String buildChiselHtml(String[] pageOut, int outStart,
-                                          Tab activeTab,
-                                          boolean hasBlocks, String iconBlocks,
-                                          boolean hasStairs, String iconStairs,
-                                          boolean hasHalfs,  String iconHalfs,
-                                          boolean hasRoofs,  String iconRoofs,
-                                          boolean hasStatues, String iconStatues,
-                                          boolean hasLabels, String iconLabels,
-                                          boolean hasChiselData,
-                                          int curOutPg, int totalOutPg) {
-        StringBuilder sb = new StringBuilder();
-
-        sb.append(buildModeToggle(Mode.CHISEL, hasChiselData));
-        sb.append("<div class=\"separator\"></div>\n");
+    private static String buildChiselHtml(View v, int page) {
+        StringBuilder sb = new StringBuilder(CHISEL_PAGE.staticLength() + 4096);
+
+        appendModeToggle(sb, Mode.CHISEL, v.hasChiselData);
+        sb.append(UiFragments.SEPARATOR);
 
         sb.append("<p class=\"title-label\">Choose a Block</p>\n");
         sb.append("<p class=\"info-label\">Select a variant to chisel this block into.</p>\n");
+        UiFragments.searchRow(sb, v.query);
+
+        appendChiselOutputs(sb, v, page);
+
+        return CHISEL_PAGE.render(sb.length(), sb);
+    }
 
-        sb.append(buildTabRow(hasBlocks, iconBlocks, hasStairs, iconStairs,
-            hasHalfs, iconHalfs, hasRoofs, iconRoofs, hasStatues, iconStatues,
-            hasLabels, iconLabels, activeTab));
-        sb.append("<div class=\"separator\"></div>\n");
+    private static void appendChiselOutputs(StringBuilder sb, View v, int page) {
+        appendTabRow(sb, v);
+        sb.append(UiFragments.SEPARATOR);
 
         sb.append("<div class=\"btn-grid\">\n");
-        sb.append(buildGrid(pageOut, outStart));
-        sb.append("</div>\n");
+        String[] pageOut = v.page(page);
+        UiFragments.grid(sb, pageOut, 0, GRID_COLUMNS, ChiselUIPage::prettifyBlockKey);
+        if (pageOut.length == 0 && v.query != null)
+            sb.append("<p class=\"info-label\">No variants match the search.</p>\n");
+        sb.append(UiFragments.DIV_CLOSE);
 
-        sb.append(buildPager(curOutPg, totalOutPg, "out_prev", "out_next"));
-
-        return STYLE + String.format("""
-                <div style="layout-mode: Right; anchor-width: 100%%; anchor-height: 100%%;">
-                    <div class="decorated-container" data-hyui-title="Chisel"
-                             style="anchor-width: 660; margin-right: 40; vertical-align: middle;">
-                        <div class="container-contents" style="layout-mode: Top; padding-top: 12; padding-bottom: 12; padding-left: 24; padding-right: 24;">
-                %s
-                        </div>
-                    </div>
-                </div>
-                """, sb.toString());
+        UiFragments.pager(sb, page, v.pages(), "out_prev", "out_next");
     }
 
     // ── Table mode layout ───────────────────────────────────────────
 
-    private static String buildTableHtml(List<InvItem> pageInv, int invStartIdx,
-                                         String[] pageOut, int outStart,
+    private static void appendTableOutputs(StringBuilder sb, View v, int page) {
+        String[] pageOut = v.page(page);
+
+        if (v.tabsShown()) appendTabRow(sb, v);
+
+        sb.append("    <div class=\"btn-grid\">\n");
+        if (pageOut.length > 0) {
+            UiFragments.grid(sb, pageOut, 0, GRID_COLUMNS, ChiselUIPage::prettifyBlockKey);
+        } else if (v.query != null) {
+            sb.append("      <p class=\"info-label\">No variants match the search.</p>\n");
+        } else if (v.hasInput) {
+            sb.append("      <p class=\"info-label\">No chisel variants available for this block.</p>\n");
+        } else {
+            sb.append("      <p class=\"info-label\">Place a block in the input slot to see variants.</p>\n");
+        }
+        sb.append("    </div>\n");
+
+        UiFragments.pager(sb, page, v.pages(), "out_prev", "out_next");
+
+        if (v.hasInput && pageOut.length > 0)
+            sb.append("    <p class=\"hint-label\">Left-click: convert every stack  |  Right-click: convert half</p>\n");
+        else if (v.query != null && pageOut.length > 0)
+            sb.append("    <p class=\"hint-label\">Click a result to pick a matching block from your inventory</p>\n");
+    }
+
+    private static String buildTableHtml(List<InventoryIndex.Stack> pageInv, int invStartIdx,
                                          String inputKey, int inputCount,
-                                         Tab activeTab,
-                                         boolean hasBlocks, String iconBlocks,
-                                         boolean hasStairs, String iconStairs,
-                                         boolean hasHalfs,  String iconHalfs,
-                                         boolean hasRoofs,  String iconRoofs,
-                                         boolean hasStatues, String iconStatues,
-                                         boolean hasLabels, String iconLabels,
-                                         boolean hasChiselData,
-                                         int curOutPg, int totalOutPg,
+                                         boolean hasChiselData, String query, String outputSection,
                                          int curInvPg, int totalInvPg) {
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(TABLE_PAGE.staticLength() + outputSection.length() + 4096);
 
-        sb.append(buildModeToggle(Mode.TABLE, hasChiselData));
-        sb.append("<div class=\"separator\"></div>\n");
+        appendModeToggle(sb, Mode.TABLE, hasChiselData);
+        sb.append(UiFragments.SEPARATOR);
 
         // Single-column layout: Output on top, Inventory at bottom so the
         // inventory panel naturally grows with content and sits beneath
@@ -568,14 +934,7 @@ public final class ChiselUIPage {
         sb.append("    <div style=\"layout-mode: Left; horizontal-align: center; padding-top: 6; padding-bottom: 6;\">\n");
         if (inputKey != null) {
             String inputName = prettifyBlockKey(inputKey);
-            sb.append(String.format(
-                    "      <button id=\"clear_input\" data-hyui-tooltiptext=\"Click to clear\" "
-                  + "style=\"anchor-width: 56; anchor-height: 56; padding: 6; margin-top: 4; margin-bottom: 4; margin-left: 4; margin-right: 4;\">"
-                  + "<span class=\"item-icon\" data-hyui-item-id=\"%s\" "
-                  + "style=\"anchor-width: 40; anchor-height: 40;\"></span>"
-                  + "</button>\n", inputKey));
-            sb.append(String.format(
-                    "      <p class=\"input-count\">%s  x%d</p>\n", inputName, inputCount));
+            INPUT_SLOT.render(sb, inputKey, inputName, inputCount);
         } else {
             sb.append("      <div class=\"empty-slot\"></div>\n");
             sb.append("      <p class=\"info-label\">Select an item from inventory</p>\n");
@@ -583,25 +942,8 @@ public final class ChiselUIPage {
         sb.append("    </div>\n");
         sb.append("    <div class=\"separator\"></div>\n");
 
-        if (inputKey != null && (hasBlocks || hasStairs || hasHalfs || hasRoofs || hasStatues || hasLabels))
-            sb.append(buildTabRow(hasBlocks, iconBlocks, hasStairs, iconStairs,
-                hasHalfs, iconHalfs, hasRoofs, iconRoofs, hasStatues, iconStatues,
-                hasLabels, iconLabels, activeTab));
-
-        sb.append("    <div class=\"btn-grid\">\n");
-        if (pageOut.length > 0) {
-            sb.append(buildGrid(pageOut, outStart));
-        } else if (inputKey != null) {
-            sb.append("      <p class=\"info-label\">No chisel variants available for this block.</p>\n");
-        } else {
-            sb.append("      <p class=\"info-label\">Place a block in the input slot to see variants.</p>\n");
-        }
-        sb.append("    </div>\n");
-
-        sb.append(buildPager(curOutPg, totalOutPg, "out_prev", "out_next"));
-
-        if (inputKey != null && pageOut.length > 0)
-            sb.append("    <p class=\"hint-label\">Left-click: convert all  |  Right-click: convert half</p>\n");
+        UiFragments.searchRow(sb, query);
+        sb.append(outputSection);
 
         sb.append("  </div>\n");
 
@@ -613,192 +955,84 @@ public final class ChiselUIPage {
         for (int i = 0; i < pageInv.size(); i++) {
             if (i % INV_COLUMNS == 0)
                 sb.append("    <div style=\"layout-mode: Left; horizontal-align: center; padding-top: 2; padding-bottom: 2;\">\n");
-            InvItem item = pageInv.get(i);
+            InventoryIndex.Stack item = pageInv.get(i);
             String name = prettifyBlockKey(item.blockKey);
-            sb.append(String.format(
-                    "      <button id=\"inv_%d\" data-hyui-tooltiptext=\"%s x%d\" "
-                  + "style=\"anchor-width: 42; anchor-height: 42; padding: 4; margin-top: 2; margin-bottom: 2; margin-left: 2; margin-right: 2;\">"
-                  + "<span class=\"item-icon\" data-hyui-item-id=\"%s\" "
-                  + "style=\"anchor-width: 32; anchor-height: 32;\"></span>"
-                  + "</button>\n",
-                    invStartIdx + i, name, item.count, item.blockKey));
+            INV_BUTTON.render(sb, invStartIdx + i, name, item.count, item.blockKey);
             if (i % INV_COLUMNS == INV_COLUMNS - 1 || i == pageInv.size() - 1)
                 sb.append("    </div>\n");
         }
         if (pageInv.isEmpty())
             sb.append("    <p class=\"info-label\">No block items in inventory.</p>\n");
 
-        sb.append(buildPager(curInvPg, totalInvPg, "inv_prev", "inv_next"));
+        UiFragments.pager(sb, curInvPg, totalInvPg, "inv_prev", "inv_next");
         sb.append("  </div>\n");
 
         sb.append("</div>\n");
 
-        return STYLE + String.format("""
-                <div style="layout-mode: Right; anchor-width: 100%%; anchor-height: 100%%;">
-                    <div class="decorated-container" data-hyui-title="Chisel"
-                        style="anchor-width: 660; margin-right: 40; vertical-align: middle;">
-                        <div class="container-contents" style="layout-mode: Top; padding-top: 8; padding-bottom: 8; padding-left: 12; padding-right: 12;">
-                %s
-                        </div>
-                    </div>
-                </div>
-                """, sb.toString());
+        return TABLE_PAGE.render(sb.length(), sb);
     }
 
     // ── Shared HTML helpers ─────────────────────────────────────────
 
-    private static String buildModeToggle(Mode active, boolean hasChiselData) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("<div class=\"mode-row\">\n");
+    private static void appendModeToggle(StringBuilder sb, Mode active, boolean hasChiselData) {
         String chiselCls = hasChiselData ? (active == Mode.CHISEL ? "mode-btn-active" : "mode-btn") : "mode-btn-disabled";
-        sb.append(String.format("  <button id=\"mode_chisel\" class=\"%s\">Chisel</button>\n", chiselCls));
-        sb.append(String.format("  <button id=\"mode_table\" class=\"%s\">Table</button>\n", active == Mode.TABLE ? "mode-btn-active" : "mode-btn"));
-        sb.append("</div>\n");
-        return sb.toString();
+        MODE_TOGGLE.render(sb, chiselCls, active == Mode.TABLE ? "mode-btn-active" : "mode-btn");
     }
 
-    private static String buildTabRow(boolean hasBlocks, String iconBlocks,
-                                      boolean hasStairs, String iconStairs,
-                                      boolean hasHalfs,  String iconHalfs,
-                                      boolean hasRoofs,  String iconRoofs,
-                                      boolean hasStatues, String iconStatues,
-                                      boolean hasLabels, String iconLabels,
-                                      Tab activeTab) {
-        StringBuilder sb = new StringBuilder();
+    private static void appendTabRow(StringBuilder sb, View v) {
+        Tab activeTab = v.tab;
         sb.append("<div class=\"tab-row\">\n");
-        if (hasBlocks) appendIconTab(sb, "tab_blocks",    iconBlocks, "Blocks",     activeTab == Tab.BLOCKS);
-        if (hasStairs) appendIconTab(sb, "tab_stairs",    iconStairs, "Stairs",     activeTab == Tab.STAIRS);
-        if (hasHalfs)  appendIconTab(sb, "tab_halfslabs", iconHalfs,  "Half Slabs", activeTab == Tab.HALF_SLABS);
-        if (hasRoofs)  appendIconTab(sb, "tab_roofing",   iconRoofs,  "Roofing",    activeTab == Tab.ROOFING);
-        if (hasStatues) appendIconTab(sb, "tab_statues", iconStatues, "Statues", activeTab == Tab.STATUE);
-        if (hasLabels) appendIconTab(sb, "tab_labels", iconLabels, "Labels", activeTab == Tab.LABELS);
-        sb.append("</div>\n");
-        return sb.toString();
-    }
-
-    private static String buildGrid(String[] items, int startIdx) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < items.length; i++) {
-            if (i % GRID_COLUMNS == 0)
-                sb.append("<div style=\"layout-mode: Left; horizontal-align: center; padding-top: 2; padding-bottom: 2;\">\n");
-            String name = prettifyBlockKey(items[i]);
-            sb.append(String.format(
-                    "  <button id=\"out_%d\" data-hyui-tooltiptext=\"%s\" "
-                  + "style=\"anchor-width: 52; anchor-height: 52; padding: 6; margin-top: 4; margin-bottom: 4; margin-left: 4; margin-right: 4;\">"
-                  + "<span class=\"item-icon\" data-hyui-item-id=\"%s\" "
-                  + "style=\"anchor-width: 40; anchor-height: 40;\"></span>"
-                  + "</button>\n",
-                    startIdx + i, name, items[i]));
-            if (i % GRID_COLUMNS == GRID_COLUMNS - 1 || i == items.length - 1)
-                sb.append("</div>\n");
-        }
-        return sb.toString();
-    }
-
-    private static String buildPager(int cur, int total,
-                                     String prevId, String nextId) {
-        if (total <= 1) return "";
-        StringBuilder sb = new StringBuilder();
-        sb.append("<div class=\"page-row\">\n");
-        sb.append(cur > 0
-                ? String.format("  <button id=\"%s\" class=\"page-btn\">&lt;</button>\n", prevId)
-                : "  <button class=\"page-btn-disabled\">&lt;</button>\n");
-        sb.append(String.format("  <p class=\"page-label\">%d / %d</p>\n", cur + 1, total));
-        sb.append(cur < total - 1
-                ? String.format("  <button id=\"%s\" class=\"page-btn\">&gt;</button>\n", nextId)
-                : "  <button class=\"page-btn-disabled\">&gt;</button>\n");
-        sb.append("</div>\n");
-        return sb.toString();
-    }
-
-    private static void appendIconTab(StringBuilder sb, String id,
-                                      String iconBlockId, String tooltip,
-                                      boolean active) {
-        String bgStyle = active ? " background-color: #ffffff(0.12);" : "";
-        String baseStyle = "anchor-width: 52; anchor-height: 52; padding: 4; margin-left: 4; margin-right: 4;"
-                + bgStyle;
-        if (iconBlockId != null && !iconBlockId.isEmpty()) {
-            sb.append(String.format(
-                    "  <button id=\"%s\" style=\"%s\" data-hyui-tooltiptext=\"%s\">"
-                  + "<span class=\"item-icon\" data-hyui-item-id=\"%s\" "
-                  + "style=\"anchor-width: 40; anchor-height: 40;\"></span>"
-                  + "</button>\n",
-                    id, baseStyle, tooltip, iconBlockId));
-        } else {
-            sb.append(String.format(
-                    "  <button id=\"%s\" style=\"%s\" data-hyui-tooltiptext=\"%s\">%s</button>\n",
-                    id, baseStyle, tooltip, tooltip.split(" ")[0]));
-        }
+        if (v.hasBlocks())  UiFragments.tab(sb, "tab_blocks",    first(v.subs),    "Blocks",     "Blocks",  activeTab == Tab.BLOCKS);
+        if (v.hasStairs())  UiFragments.tab(sb, "tab_stairs",    first(v.stairs),  "Stairs",     "Stairs",  activeTab == Tab.STAIRS);
+        if (v.hasHalfs())   UiFragments.tab(sb, "tab_halfslabs", first(v.halfs),   "Half Slabs", "Half",    activeTab == Tab.HALF_SLABS);
+        if (v.hasRoofs())   UiFragments.tab(sb, "tab_roofing",   first(v.roofs),   "Roofing",    "Roofing", activeTab == Tab.ROOFING);
+        if (v.hasStatues()) UiFragments.tab(sb, "tab_statues",   first(v.statues), "Statues",    "Statues", activeTab == Tab.STATUE);
+        if (v.hasLabels)    UiFragments.tab(sb, "tab_labels",    first(v.subs),    "Labels",     "Labels",  activeTab == Tab.LABELS);
+        sb.append(UiFragments.DIV_CLOSE);
     }
 
     // ═════════════════════════════════════════════════════════════════
     // Inventory reading
     // ═════════════════════════════════════════════════════════════════
 
-    private static List<InvItem> readPlayerInventory(LivingEntity player) {
-        List<InvItem> items = new ArrayList<>();
+    /** Block stacks in the hotbar and storage, hotbar first; see {@link InventoryIndex}. */
+    private static List<InventoryIndex.Stack> readPlayerInventory(LivingEntity player) {
         try {
-            Inventory inv = player.getInventory();
-            if (inv == null) {
+            InventoryIndex idx = InventoryIndex.of(player.getInventory());
+            if (idx == null) {
                 LOGGER.atWarning().log("[Chisel] Player inventory is null");
-                return items;
+                return Collections.emptyList();
             }
-                collectBlockItems(items, inv.getHotbar(), 0);
-                collectBlockItems(items, inv.getStorage(), 1);
-                // removed info log for inventory read
+            return idx.blocks();
         } catch (Throwable t) {
-            LOGGER.atWarning().log("[Chisel] Error reading inventory: "
-                    + t.getMessage());
-            t.printStackTrace();
-        }
-        return items;
-    }
-
-    private static void collectBlockItems(List<InvItem> dest,
-                                          ItemContainer container,
-                                          int section) {
-        if (container == null) return;
-        short capacity = container.getCapacity();
-        for (short slot = 0; slot < capacity; slot++) {
-            ItemStack stack = container.getItemStack(slot);
-            if (stack == null || stack.isEmpty()) continue;
-            String blockKey = stack.getBlockKey();
-            if (blockKey != null && !blockKey.isEmpty())
-                dest.add(new InvItem(stack.getItemId(), blockKey,
-                        stack.getQuantity(), slot, section));
+            LOGGER.atWarning().withCause(t).log("[Chisel] Error reading inventory");
         }
+        return Collections.emptyList();
     }
 
     // ═════════════════════════════════════════════════════════════════
     // Inventory manipulation – conversion
     // ═════════════════════════════════════════════════════════════════
 
-    private static void convertItems(LivingEntity player,
-                                     short inputSlot, int inputSection,
-                                     String inputKey, int inputCount,
-                                     String outputKey, int convertCount) {
+    /**
+     * Converts {@code convertCount} items in the selected slot to
+     * {@code outputKey}, or every {@code inputKey} stack when
+     * {@code convertCount < 0}, as one {@link InventoryTransaction}.
+     */
+    private static boolean convertItems(LivingEntity player,
+                                        short inputSlot, int inputSection,
+                                        String inputKey,
+                                        String outputKey, int convertCount) {
         try {
-            Inventory inv = player.getInventory();
-            if (inv == null) return;
-            ItemContainer container = (inputSection == 0)
-                    ? inv.getHotbar() : inv.getStorage();
-            if (container == null) return;
-
-            int remaining = inputCount - convertCount;
-            if (remaining <= 0) {
-                container.setItemStackForSlot(inputSlot,
-                        new ItemStack(outputKey, inputCount));
-            } else {
-                container.setItemStackForSlot(inputSlot,
-                        new ItemStack(inputKey, remaining));
-                inv.getCombinedHotbarFirst().addItemStack(
-                        new ItemStack(outputKey, convertCount));
-            }
-                            markInventoryChanged(inv);
-                // removed conversion info log
+            InventoryTransaction tx = InventoryTransaction.begin(player.getInventory());
+            if (tx == null) return false;
+            if (convertCount < 0) tx.convertAll(inputKey, outputKey, Integer.MAX_VALUE);
+            else tx.convert(inputSection, inputSlot, inputKey, outputKey, convertCount);
+            return tx.commit();
         } catch (Throwable t) {
             LOGGER.atWarning().log("[Chisel] Conversion failed: "
                     + t.getMessage());
+            return false;
         }
     }
 
@@ -806,203 +1040,54 @@ public final class ChiselUIPage {
     // Chisel variant resolution
     // ═════════════════════════════════════════════════════════════════
 
-    private static ChiselVariants resolveChiselVariants(String blockKey) {
-        if (blockKey == null) return null;
-        ChiselVariants cached = CHISEL_VARIANTS_CACHE.get(blockKey);
-        if (cached != null) return cached;
-
-        BlockType bt = com.Ev0sMods.Ev0sChisel.compat.BlockTypeCache.get(blockKey);
-        if (bt == null) return null;
-        StateData state = bt.getState();
-        if (!(state instanceof Chisel.Data chiselData)) return null;
-
-        String[] subs   = chiselData.substitutions;
-        String[] stairs = chiselData.stairs;
-        String[] halfs  = chiselData.halfSlabs;
-        String[] roofs  = chiselData.roofing;
-
-        String detectedRockType = MasonryCompat.detectStoneType(blockKey, subs);
-        if (detectedRockType == null)
-            detectedRockType = MacawCompat.detectRockType(blockKey, subs);
-
-        if (detectedRockType != null) {
-            subs = merge(subs, discoverVanillaRockBlocksForUi(canonicalType(detectedRockType, VanillaCompat.getRockTypes())));
-            subs   = filterByRockType(subs,   detectedRockType);
-            stairs = filterByRockType(stairs,  detectedRockType);
-            halfs  = filterByRockType(halfs,   detectedRockType);
-            roofs  = filterByRockType(roofs,   detectedRockType);
-        }
-
-        if (MasonryCompat.isAvailable() && detectedRockType != null) {
-            subs   = merge(subs,  MasonryCompat.getVariants(detectedRockType));
-            stairs = merge(stairs, MasonryCompat.getStairVariants(detectedRockType));
-            halfs  = merge(halfs,  MasonryCompat.getHalfVariants(detectedRockType));
-        }
-        if (StoneworksCompat.isAvailable() && "stone".equals(detectedRockType))
-            subs = merge(subs, StoneworksCompat.getVariants());
-
-        if ((MacawCompat.isPathsAvailable() || MacawCompat.isStairsAvailable())
-                && detectedRockType != null) {
-            if (MacawCompat.isPathsAvailable()) {
-                subs   = merge(subs,   MacawCompat.getPathsBlocks(detectedRockType));
-                stairs = merge(stairs, MacawCompat.getPathsStairs(detectedRockType));
-                halfs  = merge(halfs,  MacawCompat.getPathsHalfs(detectedRockType));
-            }
-            if (MacawCompat.isStairsAvailable())
-                stairs = merge(stairs, MacawCompat.getMcwStairs(detectedRockType));
-        }
-
-        if (CarpentryCompat.isAvailable() && subs != null) {
-            String woodType = CarpentryCompat.detectWoodType(blockKey, subs);
-            if (woodType != null) {
-                subs   = merge(subs,   discoverVanillaWoodBlocksForUi(canonicalType(woodType, VanillaCompat.getWoodTypes())));
-                subs   = merge(subs,   CarpentryCompat.getVariants(woodType));
-                stairs = merge(stairs, CarpentryCompat.getStairVariants(woodType));
-                halfs  = merge(halfs,  CarpentryCompat.getHalfVariants(woodType));
-            }
-        }
-
-        if (!empty(subs)) {
-            stairs = merge(stairs, Arrays.asList(safe(MasonryCompat.deriveExistingVariants(subs, "_Stairs"))));
-            halfs  = merge(halfs, Arrays.asList(safe(MasonryCompat.deriveExistingVariants(subs, "_Half"))));
-            roofs  = merge(roofs, Arrays.asList(safe(MasonryCompat.deriveExistingRoofing(subs))));
-            roofs  = merge(roofs, Arrays.asList(VanillaCompat.deriveExistingWoodRoofing(subs)));
-        }
-
-        ChiselVariants result = normalizeVariantBuckets(subs, stairs, halfs, roofs);
-
-        if (empty(result.subs) && empty(result.stairs) && empty(result.halfs) && empty(result.roofs))
-            return null;
-
-        CHISEL_VARIANTS_CACHE.put(blockKey, result);
-        return result;
+    /** Precomputed variant buckets for {@code blockKey}; see {@link ChiselResolver}. */
+    private static ChiselFamily resolveChiselVariants(String blockKey) {
+        return ChiselResolver.resolve(blockKey);
     }
 
     // ── Statue detection (two-block pillar) ───────────────────────
+    /** Shared "no statues" result, so views of plain blocks compare equal and hit the page cache. */
+    private static final String[] NO_STATUES = new String[0];
+
     private static String[] resolveStatueVariants(World world, Vector3i blockPos) {
         try {
             WorldChunk chunk = world.getChunkIfInMemory(ChunkUtil.indexChunkFromBlock(blockPos.x, blockPos.z));
             return resolveStatueVariants(chunk, blockPos);
         } catch (Throwable t) {
-            return new String[0];
+            return NO_STATUES;
         }
     }
 
-    // Chunk-based resolver avoids repeated world lookups; prefer calling this
+    // Chunk-based resolver avoids repeated world lookups; prefer calling this.
+    // The statue list depends only on the bottom block and is precomputed by
+    // StatueIndex, so blocks without statues skip the pillar check entirely.
     private static String[] resolveStatueVariants(WorldChunk chunk, Vector3i blockPos) {
         try {
-            if (chunk == null) return new String[0];
+            if (chunk == null) return NO_STATUES;
             com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType bottom = chunk.getBlockType(blockPos.x, blockPos.y, blockPos.z);
-            com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType top = chunk.getBlockType(blockPos.x, blockPos.y + 1, blockPos.z);
-            if (bottom == null || top == null) return new String[0];
-            String bottomKey = (String) bottom.getId();
-            String topKey = (String) top.getId();
-            if (bottomKey == null || topKey == null) return new String[0];
-            if (!sameVariant(bottomKey, topKey)) return new String[0];
-
-            // Candidate keys to test (base + chisel substitutions)
-            java.util.Set<String> candidates = new java.util.LinkedHashSet<>();
-            candidates.add(bottomKey);
-            ChiselVariants cv = resolveChiselVariants(bottomKey);
-            if (cv != null && cv.subs != null) java.util.Collections.addAll(candidates, cv.subs);
-
-            // Material -> furniture mapping (from user's spec)
-            java.util.Map<String, String[]> mat = new java.util.LinkedHashMap<>();
-            mat.put("rock_stone", new String[]{"Furniture_Ancient_Statue", "Furniture_Human_Ruins_Statue_Broken"});
-            mat.put("any_wood", new String[]{"Furniture_Kweebec_Statue", "Furniture_Temple_Emerald_Statue"});
-            mat.put("rock_shale", new String[]{"Furniture_Temple_Dark_Statue_Gaia", "Furniture_Temple_Dark_Statue"});
-            mat.put("rock_chalk", new String[]{"Furniture_Temple_Light_Statue"});
-            mat.put("rock_gold", new String[]{"Furniture_Temple_Scarak_Statue"});
-            mat.put("white_sandstone", new String[]{"Furniture_Temple_Wind_Statue_Gaia", "Furniture_Temple_Wind_Statue"});
-
-            java.util.List<String> results = new java.util.ArrayList<>();
-            for (String candidate : candidates) {
-                String lower = candidate.toLowerCase(java.util.Locale.ROOT);
-                for (java.util.Map.Entry<String, String[]> e : mat.entrySet()) {
-                    String key = e.getKey();
-                    boolean match = false;
-                    if ("any_wood".equals(key)) {
-                        if (lower.startsWith("wood_")) match = true;
-                    } else if ("white_sandstone".equals(key)) {
-                        if (lower.contains("sandstone") && lower.contains("white")) match = true;
-                    } else if (key.startsWith("rock_")) {
-                        String rockType = key.substring("rock_".length());
-                        if (lower.contains(rockType)) match = true;
-                    }
-                    if (match) {
-                        for (String f : e.getValue()) if (!results.contains(f)) results.add(f);
-                    }
-                }
-            }
-
-            // Append Ymmersive Statues candidates via compat helper
-            if (com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.isAvailable()) {
-                // Determine the desired chisel type for this pillar (e.g., Rock_Marble, any_wood)
-                String desiredChiselType = null;
-                try {
-                    ChiselVariants baseCv = resolveChiselVariants(bottomKey);
-                    String[] baseSubs = (baseCv != null) ? baseCv.subs : null;
-                    String detectedRockType = null;
-                    if (MasonryCompat.isAvailable()) detectedRockType = MasonryCompat.detectStoneType(bottomKey, baseSubs);
-                    if (detectedRockType == null) detectedRockType = MacawCompat.detectRockType(bottomKey, baseSubs);
-                    if (detectedRockType != null) {
-                        desiredChiselType = com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.mapBlockMaterialToChisel(detectedRockType);
-                    } else if (CarpentryCompat.isAvailable()) {
-                        String woodType = CarpentryCompat.detectWoodType(bottomKey, baseSubs);
-                        if (woodType != null) desiredChiselType = com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.mapBlockMaterialToChisel("wood");
-                    } else if (bottomKey.toLowerCase(java.util.Locale.ROOT).contains("mossy")) {
-                        desiredChiselType = com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.mapBlockMaterialToChisel("mossy");
-                    }
-
-                    java.util.List<String> filtered = new java.util.ArrayList<>();
-                    for (String candidate : candidates) {
-                        ChiselVariants cv2 = resolveChiselVariants(candidate);
-                        String[] subsArr = (cv2 != null) ? cv2.subs : null;
-                        java.util.List<String> s = com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.getCandidatesFor(candidate, subsArr);
-                        for (String k : s) {
-                            String mapped = com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.getMappedChiselTypeForStatue(k);
-                            if (desiredChiselType == null) {
-                                if (!results.contains(k)) results.add(k);
-                            } else {
-                                if (mapped != null && mapped.equalsIgnoreCase(desiredChiselType)) {
-                                    if (!filtered.contains(k)) filtered.add(k);
-                                }
-                            }
-                        }
-                    }
-                    if (desiredChiselType != null) {
-                        for (String k : filtered) if (!results.contains(k)) results.add(k);
-                    }
-                } catch (Throwable t) {
-                    // On any failure, fall back to the old behavior (add all candidates)
-                    for (String candidate : candidates) {
-                        ChiselVariants cv2 = resolveChiselVariants(candidate);
-                        String[] subsArr = (cv2 != null) ? cv2.subs : null;
-                        java.util.List<String> s = com.Ev0sMods.Ev0sChisel.compat.StatuesCompat.getCandidatesFor(candidate, subsArr);
-                        for (String k : s) if (!results.contains(k)) results.add(k);
-                    }
-                }
-            }
-
-            // Debug: log statue candidate resolution for troubleshooting material/state issues
-            // removed statue candidate resolution info log
+            String bottomKey = bottom != null ? (String) bottom.getId() : null;
+            String[] statues = StatueIndex.statuesFor(bottomKey);
+            if (statues.length == 0) return NO_STATUES;
 
-            return results.toArray(new String[0]);
+            com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType top = chunk.getBlockType(blockPos.x, blockPos.y + 1, blockPos.z);
+            String topKey = top != null ? (String) top.getId() : null;
+            if (topKey == null || !sameVariant(bottomKey, topKey)) return NO_STATUES;
+            return statues;
         } catch (Throwable t) {
-            return new String[0];
+            return NO_STATUES;
         }
     }
 
     private static boolean sameVariant(String a, String b) {
         if (a == null || b == null) return false;
         if (a.equals(b)) return true;
-        ChiselVariants va = resolveChiselVariants(a);
-        if (va != null && va.subs != null) {
-            for (String s : va.subs) if (b.equals(s)) return true;
+        ChiselFamily va = resolveChiselVariants(a);
+        if (va != null && va.substitutions != null) {
+            for (String s : va.substitutions) if (b.equals(s)) return true;
         }
-        ChiselVariants vb = resolveChiselVariants(b);
-        if (vb != null && vb.subs != null) {
-            for (String s : vb.subs) if (a.equals(s)) return true;
+        ChiselFamily vb = resolveChiselVariants(b);
+        if (vb != null && vb.substitutions != null) {
+            for (String s : vb.substitutions) if (a.equals(s)) return true;
         }
         return false;
     }
@@ -1166,6 +1251,30 @@ public final class ChiselUIPage {
             </style>
             """;
 
+    // Page frames and repeated fragments, compiled once (see UiTemplate)
+    private static final UiTemplate CHISEL_PAGE = UiFragments.shell(STYLE, "Chisel",
+            "layout-mode: Top; padding-top: 12; padding-bottom: 12; padding-left: 24; padding-right: 24;");
+    private static final UiTemplate TABLE_PAGE = UiFragments.shell(STYLE, "Chisel",
+            "layout-mode: Top; padding-top: 8; padding-bottom: 8; padding-left: 12; padding-right: 12;");
+    private static final UiTemplate MODE_TOGGLE = UiTemplate.compile(
+            "<div class=\"mode-row\">\n"
+          + "  <button id=\"mode_chisel\" class=\"${chiselClass}\">Chisel</button>\n"
+          + "  <button id=\"mode_table\" class=\"${tableClass}\">Table</button>\n"
+          + "</div>\n");
+    private static final UiTemplate INPUT_SLOT = UiTemplate.compile(
+            "      <button id=\"clear_input\" data-hyui-tooltiptext=\"Click to clear\" "
+          + "style=\"anchor-width: 56; anchor-height: 56; padding: 6; margin-top: 4; margin-bottom: 4; margin-left: 4; margin-right: 4;\">"
+          + "<span class=\"item-icon\" data-hyui-item-id=\"${item}\" "
+          + "style=\"anchor-width: 40; anchor-height: 40;\"></span>"
+          + "</button>\n"
+          + "      <p class=\"input-count\">${name}  x${count}</p>\n");
+    private static final UiTemplate INV_BUTTON = UiTemplate.compile(
+            "      <button id=\"inv_${index}\" data-hyui-tooltiptext=\"${name} x${count}\" "
+          + "style=\"anchor-width: 42; anchor-height: 42; padding: 4; margin-top: 2; margin-bottom: 2; margin-left: 2; margin-right: 2;\">"
+          + "<span class=\"item-icon\" data-hyui-item-id=\"${item}\" "
+          + "style=\"anchor-width: 32; anchor-height: 32;\"></span>"
+          + "</button>\n");
+
     // ═════════════════════════════════════════════════════════════════
     // Helpers
     // ═════════════════════════════════════════════════════════════════
@@ -1177,167 +1286,14 @@ public final class ChiselUIPage {
         return local.replace('_', ' ');
     }
 
-    private static String canonicalType(String type, String[] knownTypes) {
-        if (type == null || knownTypes == null) return type;
-        for (String knownType : knownTypes) {
-            if (knownType.equalsIgnoreCase(type)) {
-                return knownType;
-            }
-        }
-        return type;
-    }
-
-    private static List<String> discoverVanillaRockBlocksForUi(String rockType) {
-        if (rockType == null || rockType.isEmpty()) return Collections.emptyList();
-        LinkedHashSet<String> found = new LinkedHashSet<>();
-        for (String suffix : VanillaCompat.getRockNaturalSuffixes()) {
-            addIfExists(found, "Rock_" + rockType + suffix);
-            if (VanillaCompat.isMetalType(rockType)) {
-                addIfExists(found, "Metal_" + rockType + suffix);
-            }
-            if (!suffix.isEmpty()) {
-                addIfExists(found, rockType + suffix);
-            }
-        }
-        return new ArrayList<>(found);
-    }
-
-    private static List<String> discoverVanillaWoodBlocksForUi(String woodType) {
-        if (woodType == null || woodType.isEmpty()) return Collections.emptyList();
-        LinkedHashSet<String> found = new LinkedHashSet<>();
-        for (String suffix : VanillaCompat.getVanillaWoodSuffixes()) {
-            if (VanillaCompat.isWoodRoofSuffix(suffix)) {
-                continue;
-            }
-            addIfExists(found, "Wood_" + woodType + suffix);
-        }
-        return new ArrayList<>(found);
-    }
-
-    private static ChiselVariants normalizeVariantBuckets(String[] subs,
-                                                          String[] stairs,
-                                                          String[] halfs,
-                                                          String[] roofs) {
-        LinkedHashSet<String> stairSet = new LinkedHashSet<>();
-        LinkedHashSet<String> halfSet = new LinkedHashSet<>();
-        LinkedHashSet<String> roofSet = new LinkedHashSet<>();
-        LinkedHashSet<String> blockSet = new LinkedHashSet<>();
-
-        addAll(stairSet, stairs);
-        addAll(halfSet, halfs);
-        addAll(roofSet, roofs);
-
-        if (subs != null) {
-            for (String key : subs) {
-                if (key == null || key.isEmpty()) continue;
-                if (isRoofVariant(key)) {
-                    roofSet.add(key);
-                } else if (isHalfVariant(key)) {
-                    halfSet.add(key);
-                } else if (isStairVariant(key)) {
-                    stairSet.add(key);
-                } else {
-                    blockSet.add(key);
-                }
-            }
-        }
-
-        removeAll(blockSet, stairSet);
-        removeAll(blockSet, halfSet);
-        removeAll(blockSet, roofSet);
-
-        return new ChiselVariants(
-                blockSet.toArray(new String[0]),
-                stairSet.toArray(new String[0]),
-                halfSet.toArray(new String[0]),
-                roofSet.toArray(new String[0]));
-    }
-
     private static String[]  safe(String[] a)  { return a != null ? a : new String[0]; }
     private static int       len(String[] a)   { return a != null ? a.length : 0; }
     private static boolean   empty(String[] a) { return a == null || a.length == 0; }
     private static String    first(String[] a) { return (a != null && a.length > 0) ? a[0] : null; }
 
-    private static boolean isStairVariant(String key) {
-        String lower = key.toLowerCase(Locale.ROOT);
-        return lower.endsWith("_stairs")
-                || lower.contains("_stairs_")
-                || lower.startsWith("mcw_stairs_");
-    }
-
-    private static boolean isHalfVariant(String key) {
-        String lower = key.toLowerCase(Locale.ROOT);
-        return lower.endsWith("_half")
-                || lower.endsWith("_slab")
-                || lower.endsWith("_slabs")
-                || lower.contains("_half_");
-    }
-
-    private static boolean isRoofVariant(String key) {
-        String lower = key.toLowerCase(Locale.ROOT);
-        return lower.contains("_roof")
-                || lower.contains("_shingle");
-    }
-
-    private static void addIfExists(Set<String> dest, String key) {
-        if (key != null && !key.isEmpty()
-                && com.Ev0sMods.Ev0sChisel.compat.BlockTypeCache.exists(key)) {
-            dest.add(key);
-        }
-    }
-
-    private static void addAll(Set<String> dest, String[] arr) {
-        if (arr == null) return;
-        for (String key : arr) {
-            if (key != null && !key.isEmpty()) {
-                dest.add(key);
-            }
-        }
-    }
-
-    private static void removeAll(Set<String> dest, Set<String> toRemove) {
-        for (String key : toRemove) {
-            dest.remove(key);
-        }
-    }
-
-    private static String[] filterByRockType(String[] arr, String rockType) {
-        if (arr == null || rockType == null) return arr;
-        String matchPrefix = "rock_" + rockType.toLowerCase(Locale.ROOT);
-        List<String> filtered = new ArrayList<>();
-        for (String s : arr) {
-            if (s == null) continue; // Ignore missing/null keys
-            String lower = s.toLowerCase(Locale.ROOT);
-            if (lower.startsWith("rock_")) {
-                if (lower.equals(matchPrefix)
-                        || lower.startsWith(matchPrefix + "_"))
-                    filtered.add(s);
-            } else {
-                filtered.add(s);
-            }
-        }
-        return filtered.toArray(new String[0]);
-    }
-
-    private static String[] merge(String[] base, List<String> extra) {
-        if (extra == null || extra.isEmpty()) return base;
-        LinkedHashSet<String> set = new LinkedHashSet<>();
-        if (base != null) Collections.addAll(set, base);
-        set.addAll(extra);
-        return set.toArray(new String[0]);
-    }
-
-    // Best-effort: mark inventory/store as changed using reflection (replacement for HytaleCompat.markInventoryChanged)
-    private static void markInventoryChanged(Inventory inv) {
-        if (inv == null) return;
-        try {
-            java.lang.Class<?> c = inv.getClass();
-            for (java.lang.reflect.Method m : c.getMethods()) {
-                String n = m.getName().toLowerCase(java.util.Locale.ROOT);
-                if ((n.contains("mark") || n.contains("notify") || n.contains("changed")) && m.getParameterCount() == 0) {
-                    try { m.invoke(inv); return; } catch (Throwable ignored) {}
-                }
-            }
-        } catch (Throwable ignored) {}
+    private static int indexOf(String[] a, String key) {
+        if (a == null) return -1;
+        for (int i = 0; i < a.length; i++) if (key.equals(a[i])) return i;
+        return -1;
     }
 }
@@ -0,0 +1,211 @@
+package com.Ev0sMods.Ev0sChisel.ui;
+
+import com.hypixel.hytale.server.core.inventory.Inventory;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Per-player index of the hotbar and storage for table mode and dye
+ * accounting.
+ *
+ * <p>The pages used to walk both containers on every open and click,
+ * deriving block keys and item ids for each slot, and the paintbrush did it
+ * again for each {@code Dye_Base} count and removal.  The index keeps, per
+ * inventory:
+ * <ul>
+ *   <li>every non-empty slot, in hotbar-then-storage order;</li>
+ *   <li>block key &rarr; slots and counts;</li>
+ *   <li>the {@code Dye_Base} total and the slots holding it.</li>
+ * </ul>
+ *
+ * <p>The server exposes no inventory change notification we can subscribe
+ * to, so {@link #of} revalidates against the containers instead: one
+ * {@code getItemStack} per slot, compared by identity and quantity with the
+ * last snapshot.  Only slots that changed are re-derived, and the aggregates
+ * are rebuilt only when something did — the common "nothing moved since the
+ * last click" case allocates nothing.  Our own writes replace the slot's
+ * stack and so are picked up the same way.
+ *
+ * <p>Writes go through {@link InventoryTransaction}.
+ *
+ * <p>Indexes are keyed weakly by {@link Inventory} and dropped with it.
+ */
+final class InventoryIndex {
+
+    static final String DYE_BASE = "Dye_Base";
+
+    /** Hotbar, storage; the section number matches the pages' {@code inputSection}. */
+    static final int SECTIONS = 2;
+
+    /** One non-empty slot. */
+    static final class Stack {
+        /** Block key, or the item id for non-block items. */
+        final String blockKey;
+        final boolean block;
+        final int count;
+        final short slot;
+        final int section;
+
+        Stack(String blockKey, boolean block, int count, short slot, int section) {
+            this.blockKey = blockKey;
+            this.block = block;
+            this.count = count;
+            this.slot = slot;
+            this.section = section;
+        }
+    }
+
+    private static final Map<Inventory, InventoryIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // ── Snapshot, per section ─────────────────────────────────────────
+    private final ItemStack[][] seen = new ItemStack[SECTIONS][];
+    private final int[][] seenQty = new int[SECTIONS][];
+    private final Stack[][] stacks = new Stack[SECTIONS][];
+
+    // ── Aggregates, rebuilt when the snapshot changes ────────────────
+    private List<Stack> items = List.of();
+    private List<Stack> blocks = List.of();
+    private List<Stack> dyes = List.of();
+    private final Object2ObjectOpenHashMap<String, List<Stack>> byKey = new Object2ObjectOpenHashMap<>();
+    private int dyeBase;
+
+    private InventoryIndex() {}
+
+    /** @return the index for {@code inv}, brought up to date; {@code null} for a null inventory */
+    static InventoryIndex of(Inventory inv) {
+        if (inv == null) return null;
+        InventoryIndex idx;
+        synchronized (INDEXES) {
+            idx = INDEXES.computeIfAbsent(inv, k -> new InventoryIndex());
+        }
+        synchronized (idx) {
+            idx.refresh(inv);
+        }
+        return idx;
+    }
+
+    /** Every non-empty slot, hotbar first. */
+    synchronized List<Stack> items() { return items; }
+
+    /** Slots holding a placeable block, hotbar first. */
+    synchronized List<Stack> blocks() { return blocks; }
+
+    /** Slots holding {@code blockKey}, hotbar first; empty when none. */
+    synchronized List<Stack> slotsOf(String blockKey) {
+        List<Stack> l = byKey.get(blockKey);
+        return l != null ? l : List.of();
+    }
+
+    /** @return total quantity of {@code blockKey} across both sections */
+    synchronized int count(String blockKey) {
+        int n = 0;
+        for (Stack s : slotsOf(blockKey)) n += s.count;
+        return n;
+    }
+
+    /** @return total {@code Dye_Base} held */
+    synchronized int dyeBase() { return dyeBase; }
+
+    /** Slots holding {@code Dye_Base}, hotbar first. */
+    synchronized List<Stack> dyeSlots() { return dyes; }
+
+    /** @return the indexed stack in {@code slot} of {@code section}, or {@code null} when empty */
+    synchronized Stack at(int section, short slot) {
+        Stack[] s = stacks[section];
+        return s != null && slot >= 0 && slot < s.length ? s[slot] : null;
+    }
+
+    /** @return number of slots in {@code section} as of the last refresh */
+    synchronized int capacity(int section) {
+        return stacks[section] != null ? stacks[section].length : 0;
+    }
+
+    static ItemContainer container(Inventory inv, int section) {
+        return section == 0 ? inv.getHotbar() : inv.getStorage();
+    }
+
+    // ── Revalidation ─────────────────────────────────────────────────
+
+    private void refresh(Inventory inv) {
+        boolean changed = false;
+        for (int section = 0; section < SECTIONS; section++)
+            changed |= refresh(container(inv, section), section);
+        if (changed) rebuild();
+    }
+
+    /** @return {@code true} if any slot of {@code section} differs from the snapshot */
+    private boolean refresh(ItemContainer container, int section) {
+        int cap = container != null ? container.getCapacity() : 0;
+        boolean changed = false;
+        if (seen[section] == null || seen[section].length != cap) {
+            seen[section] = new ItemStack[cap];
+            seenQty[section] = new int[cap];
+            stacks[section] = new Stack[cap];
+            changed = true;
+        }
+        ItemStack[] seenS = seen[section];
+        int[] qtyS = seenQty[section];
+        Stack[] stacksS = stacks[section];
+        for (short slot = 0; slot < cap; slot++) {
+            ItemStack st = container.getItemStack(slot);
+            int qty = st != null ? st.getQuantity() : 0;
+            if (st == seenS[slot] && qty == qtyS[slot]) continue;
+            seenS[slot] = st;
+            qtyS[slot] = qty;
+            stacksS[slot] = derive(st, slot, section);
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static Stack derive(ItemStack st, short slot, int section) {
+        if (st == null || st.isEmpty()) return null;
+        String key = keyOf(st);
+        if (key == null || key.isEmpty()) return null;
+        return new Stack(key, isBlock(st), st.getQuantity(), slot, section);
+    }
+
+    /** The key a {@link Stack} of {@code st} has: its block key, or its item id for non-block items. */
+    static String keyOf(ItemStack st) {
+        return isBlock(st) ? st.getBlockKey() : st.getItemId();
+    }
+
+    private static boolean isBlock(ItemStack st) {
+        String blockKey = st.getBlockKey();
+        return blockKey != null && !blockKey.isEmpty();
+    }
+
+    private void rebuild() {
+        List<Stack> all = new ArrayList<>();
+        List<Stack> blk = new ArrayList<>();
+        List<Stack> dye = new ArrayList<>();
+        byKey.clear();
+        int dyeTotal = 0;
+        for (int section = 0; section < SECTIONS; section++) {
+            Stack[] stacksS = stacks[section];
+            if (stacksS == null) continue;
+            for (Stack s : stacksS) {
+                if (s == null) continue;
+                all.add(s);
+                if (s.block) {
+                    blk.add(s);
+                    byKey.computeIfAbsent(s.blockKey, k -> new ArrayList<>(2)).add(s);
+                } else if (DYE_BASE.equals(s.blockKey)) {
+                    dye.add(s);
+                    dyeTotal += s.count;
+                }
+            }
+        }
+        items = Collections.unmodifiableList(all);
+        blocks = Collections.unmodifiableList(blk);
+        dyes = Collections.unmodifiableList(dye);
+        dyeBase = dyeTotal;
+    }
+}
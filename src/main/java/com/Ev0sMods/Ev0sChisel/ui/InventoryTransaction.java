@@ -0,0 +1,237 @@
+package com.Ev0sMods.Ev0sChisel.ui;
+
+import com.Ev0sMods.Ev0sChisel.compat.ComponentCompat;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.inventory.Inventory;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * All-or-nothing batch of slot writes for table-mode conversions and dye
+ * charges.
+ *
+ * <p>Conversions used to write one slot at a time as they went, with
+ * {@code addItemStack} for partial outputs, so a failure halfway could eat
+ * input without producing output.  A transaction is planned first against
+ * the {@link InventoryIndex} — every write, including where partial outputs
+ * land — and nothing touches the inventory until {@link #commit()}, which:
+ * <ol>
+ *   <li>checks every planned slot still holds the stack the plan read;</li>
+ *   <li>runs the world change attached with {@link #alongWith}, if any, and
+ *       gives up without writing when it does not happen;</li>
+ *   <li>applies the writes in plan order, checking the slot transaction
+ *       each one returns;</li>
+ *   <li>restores every written slot, and undoes the world change, if one of
+ *       them throws or reports failure;</li>
+ *   <li>sends a single change notification.</li>
+ * </ol>
+ *
+ * <p>A conversion only plans against a slot that still holds the input the
+ * player selected, and only for plain stacks: outputs are new stacks, so
+ * a stack carrying metadata would lose it and is refused instead.
+ *
+ * <p>Partial outputs go to an empty slot, hotbar first, instead of
+ * {@code addItemStack}, so they can be undone; a plan that runs out of empty
+ * slots (or dye) fails before anything is written.  Several steps touching
+ * one slot collapse into a single write.
+ */
+final class InventoryTransaction {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private static final class Write {
+        final int section;
+        final short slot;
+        /** Live stack when the slot was first planned; checked again on commit. */
+        final ItemStack before;
+        ItemStack after;
+
+        Write(int section, short slot, ItemStack before) {
+            this.section = section;
+            this.slot = slot;
+            this.before = before;
+            this.after = before;
+        }
+    }
+
+    private final Inventory inv;
+    private final InventoryIndex index;
+    /** Keyed by {@code section << 16 | slot}, in the order slots were first planned. */
+    private final Int2ObjectLinkedOpenHashMap<Write> writes = new Int2ObjectLinkedOpenHashMap<>();
+    private boolean failed;
+    private int converted;
+    /** World change committed with the slot writes; {@code null} for none. */
+    private BooleanSupplier change;
+    private Runnable undoChange;
+
+    private InventoryTransaction(Inventory inv, InventoryIndex index) {
+        this.inv = inv;
+        this.index = index;
+    }
+
+    /** @return an empty transaction on {@code inv}, or {@code null} for a null inventory */
+    static InventoryTransaction begin(Inventory inv) {
+        InventoryIndex idx = InventoryIndex.of(inv);
+        return idx != null ? new InventoryTransaction(inv, idx) : null;
+    }
+
+    /** @return items converted by the steps planned so far */
+    int converted() { return converted; }
+
+    /**
+     * Converts {@code amount} items of the {@code inputKey} stack in
+     * {@code slot} to {@code outputKey}.  The whole stack converts in place;
+     * otherwise the remainder stays and the output takes an empty slot.  Fails
+     * the plan when the slot no longer holds {@code inputKey} or the stack has
+     * metadata.
+     */
+    InventoryTransaction convert(int section, short slot, String inputKey, String outputKey, int amount) {
+        if (failed || amount <= 0) return this;
+        Write w = write(section, slot);
+        ItemStack cur = w != null ? w.after : null;
+        // The player may have moved something else into the slot since selecting it
+        if (cur == null || cur.isEmpty() || !inputKey.equals(InventoryIndex.keyOf(cur))) return fail();
+        if (cur.getMetadata() != null) return fail();
+        int qty = cur.getQuantity();
+        if (qty < amount) return fail();
+        if (qty == amount) {
+            w.after = new ItemStack(outputKey, qty);
+        } else {
+            Write out = freeSlot();
+            if (out == null) return fail();
+            w.after = new ItemStack(cur.getItemId(), qty - amount);
+            out.after = new ItemStack(outputKey, amount);
+        }
+        converted += amount;
+        return this;
+    }
+
+    /**
+     * Converts up to {@code limit} items of every stack of
+     * {@code inputKey}, hotbar first.  Whole stacks convert in place; only a
+     * stack cut short by {@code limit} needs an empty slot.
+     */
+    InventoryTransaction convertAll(String inputKey, String outputKey, int limit) {
+        for (InventoryIndex.Stack s : index.slotsOf(inputKey)) {
+            if (failed || limit <= 0) break;
+            int n = Math.min(s.count, limit);
+            convert(s.section, s.slot, inputKey, outputKey, n);
+            limit -= n;
+        }
+        return this;
+    }
+
+    /** Consumes {@code amount} {@code Dye_Base}; fails the plan when there is not enough. */
+    InventoryTransaction chargeDyeBase(int amount) {
+        if (failed || amount <= 0) return this;
+        if (index.dyeBase() < amount) return fail();
+        for (InventoryIndex.Stack s : index.dyeSlots()) {
+            if (amount <= 0) break;
+            Write w = write(s.section, s.slot);
+            if (w == null || w.after == null) continue;
+            int qty = w.after.getQuantity();
+            int take = Math.min(qty, amount);
+            w.after = qty > take ? new ItemStack(InventoryIndex.DYE_BASE, qty - take) : null;
+            amount -= take;
+        }
+        return amount > 0 ? fail() : this;
+    }
+
+    /**
+     * Attaches a world change (a block replaced by the paintbrush) to this
+     * transaction: {@code change} runs during {@link #commit()} once the
+     * planned slots are checked, and the slot writes only happen if it
+     * returns {@code true}.  {@code undo} reverts it if a write then fails.
+     */
+    InventoryTransaction alongWith(BooleanSupplier change, Runnable undo) {
+        this.change = change;
+        this.undoChange = undo;
+        return this;
+    }
+
+    /** Applies the plan; {@code false} if planning failed or it was rolled back. */
+    boolean commit() {
+        if (failed) return false;
+        if (writes.isEmpty() && change == null) return true;
+        List<Write> done = new ArrayList<>(writes.size());
+        boolean changed = false;
+        try {
+            for (Write w : writes.values()) {
+                ItemContainer c = InventoryIndex.container(inv, w.section);
+                if (c == null || c.getItemStack(w.slot) != w.before)
+                    throw new IllegalStateException("slot " + w.slot + " changed since planning");
+            }
+            if (change != null) {
+                if (!change.getAsBoolean()) return false;
+                changed = true;
+            }
+            for (Write w : writes.values()) {
+                if (w.after == w.before) continue;
+                Object result = InventoryIndex.container(inv, w.section).setItemStackForSlot(w.slot, w.after);
+                // A refused write may still have changed the slot; restore it too
+                done.add(w);
+                if (!ComponentCompat.succeeded(result))
+                    throw new IllegalStateException("write to slot " + w.slot + " was refused");
+            }
+        } catch (Throwable t) {
+            for (int i = done.size() - 1; i >= 0; i--) {
+                Write w = done.get(i);
+                boolean restored;
+                try {
+                    restored = ComponentCompat.succeeded(
+                            InventoryIndex.container(inv, w.section).setItemStackForSlot(w.slot, w.before));
+                } catch (Throwable ignored) {
+                    restored = false;
+                }
+                if (!restored)
+                    LOGGER.atWarning().log("[Chisel] Could not restore slot " + w.slot + " of section " + w.section);
+            }
+            if (changed && undoChange != null) {
+                try { undoChange.run(); } catch (Throwable ignored) {}
+            }
+            LOGGER.atWarning().log("[Chisel] Inventory transaction rolled back: " + t.getMessage());
+            if (!done.isEmpty()) ComponentCompat.markChanged(inv);
+            return false;
+        }
+        ComponentCompat.markChanged(inv);
+        return true;
+    }
+
+    // ── Planning ─────────────────────────────────────────────────────
+
+    /** Planned write for a slot, reading its live stack the first time; {@code null} without a container. */
+    private Write write(int section, short slot) {
+        int key = section << 16 | (slot & 0xFFFF);
+        Write w = writes.get(key);
+        if (w != null) return w;
+        ItemContainer c = InventoryIndex.container(inv, section);
+        if (c == null) return null;
+        w = new Write(section, slot, c.getItemStack(slot));
+        writes.put(key, w);
+        return w;
+    }
+
+    /** First slot that is empty once the writes planned so far apply, hotbar first. */
+    private Write freeSlot() {
+        for (int section = 0; section < InventoryIndex.SECTIONS; section++) {
+            int cap = index.capacity(section);
+            for (short slot = 0; slot < cap; slot++) {
+                Write w = writes.get(section << 16 | slot);
+                if (w != null ? w.after != null : index.at(section, slot) != null) continue;
+                w = write(section, slot);
+                if (w != null && (w.after == null || w.after.isEmpty())) return w;
+            }
+        }
+        return null;
+    }
+
+    private InventoryTransaction fail() {
+        failed = true;
+        return this;
+    }
+}
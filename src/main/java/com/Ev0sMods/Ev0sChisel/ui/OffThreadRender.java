@@ -0,0 +1,88 @@
+package com.Ev0sMods.Ev0sChisel.ui;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs the render stage of a page off the world thread and hands the
+ * result back to it.
+ *
+ * <p>Opening a page used to resolve variants, paginate and build HTML inside
+ * the interaction callback, on the world thread.  Pages now read the block
+ * and inventory there into an immutable request, run the pure stage on a
+ * virtual thread through {@link #render}, and deliver the result with the
+ * world's own executor.  A world that is not an {@link Executor} runs both
+ * stages inline, as before.
+ *
+ * <p>Render time is world-thread time saved.  Its average, with the average
+ * delivery time that stays on the world thread, is logged every
+ * {@value #REPORT_EVERY} renders.
+ */
+final class OffThreadRender {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private static final int REPORT_EVERY = 256;
+
+    private static final ExecutorService WORKERS =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Ev0sChisel-Render-", 0).factory());
+
+    private static final LongAdder RENDERS      = new LongAdder();
+    private static final LongAdder RENDER_NANOS = new LongAdder();
+    private static final LongAdder DELIVER_NANOS = new LongAdder();
+
+    private OffThreadRender() {}
+
+    /**
+     * Runs {@code render} on a worker, then {@code deliver} with its result
+     * on {@code world}'s thread.  A failing render is logged and nothing is
+     * delivered.
+     */
+    static <T> void render(World world, Supplier<T> render, Consumer<T> deliver) {
+        if (!(((Object) world) instanceof Executor onWorld)) {
+            deliver.accept(render.get());
+            return;
+        }
+        WORKERS.execute(() -> {
+            T result;
+            long t0 = System.nanoTime();
+            try {
+                result = render.get();
+            } catch (Throwable t) {
+                LOGGER.atWarning().log("[UI] Page render failed: " + t.getMessage());
+                return;
+            }
+            long rendered = System.nanoTime() - t0;
+            try {
+                onWorld.execute(() -> {
+                    long t1 = System.nanoTime();
+                    try {
+                        deliver.accept(result);
+                    } finally {
+                        record(rendered, System.nanoTime() - t1);
+                    }
+                });
+            } catch (Throwable t) {
+                LOGGER.atWarning().log("[UI] Could not hand page back to the world thread: " + t.getMessage());
+            }
+        });
+    }
+
+    private static void record(long renderNanos, long deliverNanos) {
+        RENDER_NANOS.add(renderNanos);
+        DELIVER_NANOS.add(deliverNanos);
+        RENDERS.increment();
+        long n = RENDERS.sum();
+        if (n % REPORT_EVERY == 0)
+            LOGGER.atInfo().log("[UI] " + n + " renders: " + (RENDER_NANOS.sum() / n / 1000)
+                    + " us each moved off the world thread, " + (DELIVER_NANOS.sum() / n / 1000)
+                    + " us left on it");
+    }
+}
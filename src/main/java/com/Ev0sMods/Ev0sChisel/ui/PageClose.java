@@ -0,0 +1,87 @@
+package com.Ev0sMods.Ev0sChisel.ui;
+
+import au.ellie.hyui.builders.PageBuilder;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+
+/**
+ * Best-effort "page closed" hook for {@link PageBuilder}.
+ *
+ * <p>The dismiss callback is not part of the HyUI surface this plugin
+ * compiles against, so the builder class is probed once for a public
+ * {@code onDismiss} / {@code onClose}-style method taking a single
+ * functional interface, and the release action is bound through a proxy of
+ * that interface.  Without such a method nothing is bound; sessions are then
+ * released on disconnect and by the collector.
+ */
+final class PageClose {
+
+    private static final String[] NAMES = {"onDismiss", "withOnDismiss", "onClose", "withOnClose", "onDismissed"};
+
+    /** Per builder class: the dismiss-callback setter, or {@code null} when it has none. */
+    private static final ClassValue<Method> SETTERS = new ClassValue<>() {
+        @Override
+        protected Method computeValue(Class<?> c) {
+            for (String n : NAMES) {
+                for (Method m : c.getMethods()) {
+                    if (!m.getName().equals(n) || m.getParameterCount() != 1 || Modifier.isStatic(m.getModifiers()))
+                        continue;
+                    if (callback(m.getParameterTypes()[0]) != null) return m;
+                }
+            }
+            return null;
+        }
+    };
+
+    private PageClose() {}
+
+    /** Runs {@code release} when the page built by {@code builder} is dismissed or closed, if HyUI offers the hook. */
+    static void onClose(PageBuilder builder, Runnable release) {
+        Method setter = SETTERS.get(builder.getClass());
+        if (setter == null) return;
+        Class<?> type = setter.getParameterTypes()[0];
+        Method callback = callback(type);
+        try {
+            Object listener = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, m, args) -> {
+                if (m.getDeclaringClass() == Object.class) {
+                    return switch (m.getName()) {
+                        case "equals"   -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default         -> "PageClose(" + release + ")";
+                    };
+                }
+                if (m.equals(callback)) {
+                    try { release.run(); } catch (Throwable ignored) {}
+                }
+                return defaultValue(m.getReturnType());
+            });
+            setter.invoke(builder, listener);
+        } catch (Throwable ignored) {}
+    }
+
+    /** The single abstract method of {@code type}, or {@code null} if it is not a functional interface. */
+    private static Method callback(Class<?> type) {
+        if (!type.isInterface()) return null;
+        Method found = null;
+        for (Method m : type.getMethods()) {
+            if (!Modifier.isAbstract(m.getModifiers())) continue;
+            if (found != null) return null;
+            found = m;
+        }
+        return found;
+    }
+
+    private static Object defaultValue(Class<?> t) {
+        if (!t.isPrimitive() || t == void.class) return null;
+        if (t == boolean.class) return false;
+        if (t == char.class) return '\0';
+        if (t == long.class) return 0L;
+        if (t == float.class) return 0f;
+        if (t == double.class) return 0d;
+        if (t == byte.class) return (byte) 0;
+        if (t == short.class) return (short) 0;
+        return 0;
+    }
+}
@@ -9,14 +9,11 @@ import com.hypixel.hytale.protocol.packets.interface_.CustomPageLifetime;
 import com.hypixel.hytale.protocol.packets.interface_.CustomUIEventBindingType;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.inventory.Inventory;
-import com.hypixel.hytale.server.core.inventory.ItemStack;
-import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hypixel.hytale.server.core.entity.LivingEntity;
 
-import java.util.ArrayList;
 import java.util.List;
 import com.Ev0sMods.Ev0sChisel.compat.BlockTypeCache;
 		
@@ -26,36 +23,6 @@ import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
 /** Minimal paintbrush UI: displays color variants and applies selected variant to the targeted block. */
 public final class PaintbrushUIPage {
     
-	// Inventory item holder for table mode
-	private static final class InvItem {
-		final String blockKey;
-		final int count;
-		final short slot;
-		final int section;
-		InvItem(String blockKey, int count, short slot, int section) {
-			this.blockKey = blockKey;
-			this.count = count;
-			this.slot = slot;
-			this.section = section;
-		}
-	}
-
-	// Helper: collect block items from inventory
-	private static void collectBlockItems(List<InvItem> dest, ItemContainer container, int section) {
-		if (container == null) return;
-		short capacity = container.getCapacity();
-		for (short slot = 0; slot < capacity; slot++) {
-			ItemStack stack = container.getItemStack(slot);
-			if (stack == null || stack.isEmpty()) continue;
-			String blockKey = stack.getBlockKey();
-			if (blockKey == null || blockKey.isEmpty()) {
-				blockKey = stack.getItemId();
-			}
-			if (!blockKey.isEmpty())
-				dest.add(new InvItem(blockKey, stack.getQuantity(), slot, section));
-		}
-	}
-
 	/** Opens paintbrush table mode for inventory conversion. */
 	public static void openPaintbrushTable(PlayerRef playerRef, Store<EntityStore> store, World world, Vector3i blockPos, LivingEntity player, String[] variants) {
 		openPaintbrushTable(playerRef, store, world, blockPos, player, variants, 0);
@@ -65,15 +32,13 @@ public final class PaintbrushUIPage {
 	public static void openPaintbrushTable(PlayerRef playerRef, Store<EntityStore> store, World world, Vector3i blockPos, LivingEntity player, String[] variants, int variantPage) {
 		if (variants == null) variants = new String[0];
 		final String[] variantsFinal = variants;
-		Inventory inv = player.getInventory();
-		if (inv == null) {
+		InventoryIndex idx = InventoryIndex.of(player.getInventory());
+		if (idx == null) {
 			openPaintbrush(playerRef, store, world, blockPos, player, variantsFinal);
 			return;
 		}
-		List<InvItem> items = new ArrayList<>();
-		collectBlockItems(items, inv.getHotbar(), 0);
-		collectBlockItems(items, inv.getStorage(), 1);
-		int dyeCount = getDyeBaseCount(inv);
+		List<InventoryIndex.Stack> items = idx.items();
+		int dyeCount = idx.dyeBase();
 
 		// pagination for variants: 9x4 grid
 		final int VAR_COLUMNS = 9;
@@ -85,12 +50,10 @@ public final class PaintbrushUIPage {
 		int startIndex = page * VAR_PER_PAGE;
 		int endIndex = Math.min(startIndex + VAR_PER_PAGE, totalVariants);
 
-		StringBuilder sb = new StringBuilder();
+		StringBuilder sb = new StringBuilder(8192);
 		sb.append("<p class=\"title-label\">Paintbrush Table</p>\n");
 		sb.append("<p class=\"info-label\">Convert blocks in your inventory to color variants.\nEach conversion consumes 1 Dye_Base per item.</p>\n");
-		sb.append(String.format("<div style=\"layout-mode: Left; vertical-align: middle; padding-top:6; padding-bottom:6;\">"
-				+ "<span class=\"item-icon\" data-hyui-item-id=\"Dye_Base\" style=\"anchor-width:24;anchor-height:24;\"></span>"
-				+ "<p class=\"input-count\">Dye Base: %d</p></div>\n", dyeCount));
+		DYE_COUNT.render(sb, dyeCount);
 		sb.append("<div class=\"separator\"></div>\n");
 
 		// Inventory grid
@@ -106,7 +69,7 @@ public final class PaintbrushUIPage {
 				if (slot % VAR_COLUMNS == 0) sb.append("  <div class=\"variant-row\">\n");
 				if (idx < endIndex) {
 					String key = variantsFinal[idx];
-					sb.append(buildIconButton("out_" + slot, key, key));
+					UiFragments.iconButton(sb, "out_", slot, key, key);
 				} else {
 					sb.append("      <div class=\"empty-slot\"></div>\n");
 				}
@@ -114,9 +77,7 @@ public final class PaintbrushUIPage {
 			}
 			// Pagination controls
 			sb.append("<div class=\"page-row\">\n");
-			sb.append(String.format("  <button id=\"page_prev\" class=\"page-btn\">Prev</button>\n"));
-			sb.append(String.format("  <p class=\"page-label\">Page %d / %d</p>\n", page + 1, totalPages));
-			sb.append(String.format("  <button id=\"page_next\" class=\"page-btn\">Next</button>\n"));
+			PAGER.render(sb, page + 1, totalPages);
 			sb.append("</div>\n");
 		}
 		sb.append("</div>\n");
@@ -131,26 +92,22 @@ public final class PaintbrushUIPage {
 		sb.append("<div class=\"btn-grid\">\n");
 		for (int i = 0; i < showCount; i++) {
 			if (i % INV_COLUMNS == 0) sb.append("  <div class=\"variant-row\">\n");
-			InvItem item = items.get(i);
-			sb.append(buildIconButton("inv_" + i, item.blockKey, item.blockKey + " x" + item.count));
+			InventoryIndex.Stack item = items.get(i);
+			INV_BUTTON.render(sb, i, item.blockKey, item.count, item.blockKey);
 			if (i % INV_COLUMNS == INV_COLUMNS - 1 || i == showCount - 1) sb.append("  </div>\n");
 		}
 		sb.append("</div>\n");
 
-		String html = STYLE + String.format("<div style=\"layout-mode: Right; anchor-width: 100%%; anchor-height: 100%%;\">\n" +
-			"  <div class=\"decorated-container\" data-hyui-title=\"Paintbrush Table\" style=\"anchor-width:660; margin-right: 40; vertical-align: middle;\">\n" +
-			"    <div class=\"container-contents\" style=\"layout-mode: Top; padding-top: 8; padding-bottom: 8; padding-left: 12; padding-right: 12;\">%s</div>\n" +
-			"  </div>\n" +
-			"</div>", sb.toString());
+		String html = TABLE_PAGE.render(sb.length(), sb);
 
 		PageBuilder builder = PageBuilder.pageForPlayer(playerRef)
 				.fromHtml(html)
 				.withLifetime(CustomPageLifetime.CanDismissOrCloseThroughInteraction);
 
 		for (int i = 0; i < showCount; i++) {
-			InvItem it = items.get(i);
+			InventoryIndex.Stack it = items.get(i);
 			final String[] itemVars = resolveVariantsForBlock(it.blockKey);
-			final InvItem fIt = it;
+			final InventoryIndex.Stack fIt = it;
 			builder.addEventListener("inv_" + i, CustomUIEventBindingType.Activating, (e, ctx) -> {
 				openPaintbrushTableInput(playerRef, store, world, blockPos, player, itemVars.length > 0 ? itemVars : variantsFinal, fIt.blockKey, fIt.count, fIt.slot, fIt.section, 0);
 			});
@@ -190,21 +147,22 @@ public final class PaintbrushUIPage {
 		if (variants == null) variants = new String[0];
 		final String[] variantsFinal = variants;
 		
-        Inventory inv = player.getInventory();
-		int dyeCount = getDyeBaseCount(inv);
-		List<InvItem> items = new ArrayList<>();
-		collectBlockItems(items, inv.getHotbar(), 0);
-		collectBlockItems(items, inv.getStorage(), 1);
-		StringBuilder sb = new StringBuilder();
+		Inventory inv = player.getInventory();
+		InventoryIndex idx = InventoryIndex.of(inv);
+		if (idx == null) {
+			openPaintbrush(playerRef, store, world, blockPos, player, variantsFinal);
+			return;
+		}
+		int dyeCount = idx.dyeBase();
+		List<InventoryIndex.Stack> items = idx.items();
+		StringBuilder sb = new StringBuilder(8192);
 		sb.append("<p class=\"title-label\">Paintbrush Table</p>\n");
 		sb.append("<p class=\"info-label\">Convert blocks in your inventory to color variants.\nEach conversion consumes 1 Dye_Base per item.</p>\n");
-		sb.append(String.format("<div style=\"layout-mode: Left; vertical-align: middle; padding-top:6; padding-bottom:6;\">"
-				+ "<span class=\"item-icon\" data-hyui-item-id=\"Dye_Base\" style=\"anchor-width:24;anchor-height:24;\"></span>"
-				+ "<p class=\"input-count\">Dye Base: %d</p></div>\n", dyeCount));
+		DYE_COUNT.render(sb, dyeCount);
 		sb.append("<div class=\"separator\"></div>\n");
 		sb.append("<div class=\"section-label\">Input</div>\n");
-		sb.append(buildIconButton("clear_input", inputKey, "Clear input"));
-		sb.append(String.format("<p class=\"input-count\">%s x%d</p>\n", inputKey, inputCount));
+		UiFragments.iconButton(sb, "clear_input", inputKey, "Clear input");
+		INPUT_COUNT.render(sb, inputKey, inputCount);
 		sb.append("<div class=\"separator\"></div>\n");
 		// Color variants area with pagination (9x4 grid)
 		sb.append("<div class=\"section-label\">Color Variants</div>\n");
@@ -222,7 +180,7 @@ public final class PaintbrushUIPage {
 			if (slot % VAR_COLUMNS == 0) sb.append("  <div class=\"variant-row\">\n");
 			if (idx < endIndex) {
 				String key = variantsFinal[idx];
-				sb.append(buildIconButton("out_" + slot, key, key));
+				UiFragments.iconButton(sb, "out_", slot, key, key);
 			} else {
 				sb.append("      <div class=\"empty-slot\"></div>\n");
 			}
@@ -231,9 +189,7 @@ public final class PaintbrushUIPage {
 
 		// Pagination controls
 		sb.append("<div class=\"page-row\">\n");
-		sb.append(String.format("  <button id=\"page_prev\" class=\"page-btn\">Prev</button>\n"));
-		sb.append(String.format("  <p class=\"page-label\">Page %d / %d</p>\n", page + 1, totalPages));
-		sb.append(String.format("  <button id=\"page_next\" class=\"page-btn\">Next</button>\n"));
+		PAGER.render(sb, page + 1, totalPages);
 		sb.append("</div>\n");
 		sb.append("</div>\n");
 
@@ -247,17 +203,13 @@ public final class PaintbrushUIPage {
 		sb.append("<div class=\"btn-grid\">\n");
 		for (int i = 0; i < showCount; i++) {
 			if (i % INV_COLUMNS == 0) sb.append("  <div class=\"variant-row\">\n");
-			InvItem item = items.get(i);
-			sb.append(buildIconButton("inv_" + i, item.blockKey, item.blockKey + " x" + item.count));
+			InventoryIndex.Stack item = items.get(i);
+			INV_BUTTON.render(sb, i, item.blockKey, item.count, item.blockKey);
 			if (i % INV_COLUMNS == INV_COLUMNS - 1 || i == showCount - 1) sb.append("  </div>\n");
 		}
 		sb.append("</div>\n");
 
-		String html = STYLE + String.format("<div style=\"layout-mode: Right; anchor-width: 100%%; anchor-height: 100%%;\">\n" +
-				"  <div class=\"decorated-container\" data-hyui-title=\"Paintbrush Table\" style=\"anchor-width:660; margin-right: 40; vertical-align: middle;\">\n" +
-				"    <div class=\"container-contents\" style=\"layout-mode: Top; padding-top: 8; padding-bottom: 8; padding-left: 12; padding-right: 12;\">%s</div>\n" +
-				"  </div>\n" +
-				"</div>", sb.toString());
+		String html = TABLE_PAGE.render(sb.length(), sb);
 
 		PageBuilder builder = PageBuilder.pageForPlayer(playerRef)
 				.fromHtml(html)
@@ -270,39 +222,26 @@ public final class PaintbrushUIPage {
 			if (variantIndex >= endIndex) continue; // no listener for empty slots
 			final String key = variantsFinal[variantIndex];
 			builder.addEventListener("out_" + s, CustomUIEventBindingType.Activating, (e, ctx) -> {
-				int dyeAvailable = getDyeBaseCount(inv);
-				int toConvert = Math.min(inputCount, dyeAvailable);
+				// Every stack of the input, one Dye_Base per item, as one transaction
+				InventoryIndex cur = InventoryIndex.of(inv);
+				int toConvert = Math.min(cur.count(inputKey), cur.dyeBase());
 				if (toConvert > 0) {
-					removeDyeBase(inv, toConvert);
-					ItemContainer container = (inputSection == 0) ? inv.getHotbar() : inv.getStorage();
-					if (container != null) {
-						if (toConvert >= inputCount) {
-							container.setItemStackForSlot(inputSlot, new ItemStack(key, toConvert));
-						} else {
-							container.setItemStackForSlot(inputSlot, new ItemStack(key, toConvert));
-							inv.getCombinedHotbarFirst().addItemStack(new ItemStack(inputKey, inputCount - toConvert));
-						}
-						markInventoryChanged(inv);
-					}
+					InventoryTransaction.begin(inv)
+							.convertAll(inputKey, key, toConvert)
+							.chargeDyeBase(toConvert)
+							.commit();
 				}
-				openPaintbrushTableInput(playerRef, store, world, blockPos, player, variantsFinal, key, inputCount - toConvert, inputSlot, inputSection, page);
+				openPaintbrushTable(playerRef, store, world, blockPos, player, variantsFinal, page);
 			});
 			builder.addEventListener("out_" + s, CustomUIEventBindingType.RightClicking, (e, ctx) -> {
-				int dyeAvailable = getDyeBaseCount(inv);
+				InventoryIndex cur = InventoryIndex.of(inv);
 				int half = (inputCount + 1) / 2;
-				int toConvert = Math.min(half, dyeAvailable);
-				if (toConvert > 0) {
-					removeDyeBase(inv, toConvert);
-					ItemContainer container = (inputSection == 0) ? inv.getHotbar() : inv.getStorage();
-					if (container != null) {
-						if (inputCount > toConvert) {
-							container.setItemStackForSlot(inputSlot, new ItemStack(inputKey, inputCount - toConvert));
-						} else {
-							container.setItemStackForSlot(inputSlot, null);
-						}
-						inv.getCombinedHotbarFirst().addItemStack(new ItemStack(key, toConvert));
-						markInventoryChanged(inv);
-					}
+				int toConvert = Math.min(half, cur.dyeBase());
+				if (toConvert > 0 && !InventoryTransaction.begin(inv)
+						.convert(inputSection, inputSlot, inputKey, key, toConvert)
+						.chargeDyeBase(toConvert)
+						.commit()) {
+					toConvert = 0;
 				}
 				openPaintbrushTableInput(playerRef, store, world, blockPos, player, variantsFinal, inputKey, Math.max(0, inputCount - toConvert), inputSlot, inputSection, page);
 			});
@@ -326,59 +265,8 @@ public final class PaintbrushUIPage {
 		builder.open(store);
 	}
 
-	// Helper: count Dye_Base in inventory
-	private static int getDyeBaseCount(Inventory inv) {
-		int count = 0;
-		for (ItemContainer container : new ItemContainer[]{inv.getHotbar(), inv.getStorage()}) {
-			if (container == null) continue;
-			short cap = container.getCapacity();
-			for (short s = 0; s < cap; s++) {
-				ItemStack st = container.getItemStack(s);
-				if (st != null && !st.isEmpty() && "Dye_Base".equals(st.getItemId()))
-					count += st.getQuantity();
-			}
-		}
-		return count;
-	}
-
-	// Helper: remove Dye_Base from inventory
-	private static void removeDyeBase(Inventory inv, int amount) {
-		for (ItemContainer container : new ItemContainer[]{inv.getHotbar(), inv.getStorage()}) {
-			if (container == null) continue;
-			short cap = container.getCapacity();
-			for (short s = 0; s < cap && amount > 0; s++) {
-				ItemStack st = container.getItemStack(s);
-				if (st != null && !st.isEmpty() && "Dye_Base".equals(st.getItemId())) {
-					int qty = st.getQuantity();
-					int toRemove = Math.min(qty, amount);
-					if (qty > toRemove) {
-						container.setItemStackForSlot(s, new ItemStack("Dye_Base", qty - toRemove));
-					} else {
-						container.setItemStackForSlot(s, null);
-					}
-
-					amount -= toRemove;
-				}
-			}
-		}
-	}
-
 	private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
 
-	// Best-effort: mark inventory/store as changed using reflection (replacement for HytaleCompat.markInventoryChanged)
-	private static void markInventoryChanged(Inventory inv) {
-		if (inv == null) return;
-		try {
-			java.lang.Class<?> c = inv.getClass();
-			for (java.lang.reflect.Method m : c.getMethods()) {
-				String n = m.getName().toLowerCase(java.util.Locale.ROOT);
-				if ((n.contains("mark") || n.contains("notify") || n.contains("changed")) && m.getParameterCount() == 0) {
-					try { m.invoke(inv); return; } catch (Throwable ignored) {}
-				}
-			}
-		} catch (Throwable ignored) {}
-	}
-
 	// Resolve color variants for a given block key using Paintbrush data only.
 	// Chisel variants are explicitly ignored — Paintbrush UI should only
 	// present color groups injected by VanillaClothCompat or NoCubeNeonCompat.
@@ -401,32 +289,19 @@ public final class PaintbrushUIPage {
 	}
 
 	public static void openPaintbrush(PlayerRef playerRef, Store<EntityStore> store, World world, Vector3i blockPos, LivingEntity player, String[] variants, int variantPage) {
+		openPaintbrush(playerRef, store, world, blockPos, player, variants, variantPage, null);
+	}
+
+	/** @param query normalised search (see {@link VariantSearch}); {@code null} shows every variant */
+	private static void openPaintbrush(PlayerRef playerRef, Store<EntityStore> store, World world, Vector3i blockPos, LivingEntity player, String[] variants, int variantPage, String query) {
 		if (variants == null){ variants = new String[0]; }
 		final String[] variantList = variants;
+		final String[] shown = VariantSearch.find(variantList, query);
 
 		int dyeCount = 0;
 		try {
-			Inventory inv = player.getInventory();
-			if (inv != null) {
-				ItemContainer hot = inv.getHotbar();
-				ItemContainer stor = inv.getStorage();
-				if (hot != null) {
-					short cap = hot.getCapacity();
-					for (short s = 0; s < cap; s++) {
-						ItemStack st = hot.getItemStack(s);
-						if (st != null && !st.isEmpty() && "Dye_Base".equals(st.getItemId()))
-							dyeCount += st.getQuantity();
-					}
-				}
-				if (stor != null) {
-					short cap = stor.getCapacity();
-					for (short s = 0; s < cap; s++) {
-						ItemStack st = stor.getItemStack(s);
-						if (st != null && !st.isEmpty() && "Dye_Base".equals(st.getItemId()))
-							dyeCount += st.getQuantity();
-					}
-				}
-			}
+			InventoryIndex idx = InventoryIndex.of(player.getInventory());
+			if (idx != null) dyeCount = idx.dyeBase();
 		} catch (Throwable t) {
 			LOGGER.atWarning().log("[Paintbrush] Failed to read inventory for dye count: " + t.getMessage());
 		}
@@ -435,53 +310,48 @@ public final class PaintbrushUIPage {
 		final int VAR_COLUMNS = 9;
 		final int VAR_ROWS = 4;
 		final int VAR_PER_PAGE = VAR_COLUMNS * VAR_ROWS; // 36
-		int totalVariants = variantList == null ? 0 : variantList.length;
+		int totalVariants = shown.length;
 		int totalPages = Math.max(1, (totalVariants + VAR_PER_PAGE - 1) / VAR_PER_PAGE);
 		int page = Math.max(0, Math.min(variantPage, totalPages - 1));
 		int startIndex = page * VAR_PER_PAGE;
 		int endIndex = Math.min(startIndex + VAR_PER_PAGE, totalVariants);
 
-		StringBuilder sb = new StringBuilder();
+		StringBuilder sb = new StringBuilder(8192);
 		sb.append("<p class=\"title-label\">Paintbrush</p>\n");
 		sb.append("<p class=\"info-label\">Select a color variant to apply.</p>\n");
-		sb.append(String.format("<div style=\"layout-mode: Left; vertical-align: middle; padding-top:6; padding-bottom:6;\">"
-			+ "<span class=\"item-icon\" data-hyui-item-id=\"Dye_Base\" style=\"anchor-width:24;anchor-height:24;\"></span>"
-			+ "<p class=\"input-count\">Dye Base: %d</p></div>\n", dyeCount));
+		DYE_COUNT.render(sb, dyeCount);
 		sb.append("<div class=\"separator\"></div>\n");
 		sb.append("<div class=\"mode-row\">\n");
 		sb.append("  <button id=\"pb_table_btn\" class=\"mode-btn\">Table Mode</button>\n");
 		sb.append("</div>\n");
+		UiFragments.searchRow(sb, query);
 
 		sb.append("<div class=\"btn-grid\">\n");
 		if (totalVariants == 0) {
 			sb.append("  <div class=\"variant-row\">\n");
-			sb.append("    <p class=\"hint-label\">NO icons</p>\n");
+			sb.append(query != null
+					? "    <p class=\"hint-label\">No variants match the search.</p>\n"
+					: "    <p class=\"hint-label\">NO icons</p>\n");
 			sb.append("  </div>\n");
 		} else {
 			for (int slot = 0; slot < VAR_PER_PAGE; slot++) {
 				int idx = startIndex + slot;
 				if (slot % VAR_COLUMNS == 0) sb.append("  <div class=\"variant-row\">\n");
 				if (idx < endIndex) {
-					String key = variantList[idx];
-					sb.append(buildIconButton("vb_" + slot, key, key));
+					String key = shown[idx];
+					UiFragments.iconButton(sb, "vb_", slot, key, key);
 				} else {
 					sb.append("      <div class=\"empty-slot\"></div>\n");
 				}
 				if (slot % VAR_COLUMNS == VAR_COLUMNS - 1 || slot == VAR_PER_PAGE - 1) sb.append("  </div>\n");
 			}
 			sb.append("<div class=\"page-row\">\n");
-			sb.append(String.format("  <button id=\"page_prev\" class=\"page-btn\">Prev</button>\n"));
-			sb.append(String.format("  <p class=\"page-label\">Page %d / %d</p>\n", page + 1, totalPages));
-			sb.append(String.format("  <button id=\"page_next\" class=\"page-btn\">Next</button>\n"));
+			PAGER.render(sb, page + 1, totalPages);
 			sb.append("</div>\n");
 		}
 		sb.append("</div>\n");
 
-		String html = STYLE + String.format("<div style=\"layout-mode: Right; anchor-width: 100%%; anchor-height: 100%%;\">\n" +
-			"  <div class=\"decorated-container\" data-hyui-title=\"Paintbrush\" style=\"anchor-width:660; margin-right: 40; vertical-align: middle;\">\n" +
-			"    <div class=\"container-contents\" style=\"layout-mode: Top; padding-top: 8; padding-bottom: 8; padding-left: 12; padding-right: 12;\">%s</div>\n" +
-			"  </div>\n" +
-			"</div>", sb.toString());
+		String html = BRUSH_PAGE.render(sb.length(), sb);
 
 		PageBuilder builder = PageBuilder.pageForPlayer(playerRef)
 				.fromHtml(html)
@@ -493,46 +363,13 @@ public final class PaintbrushUIPage {
 				final int s = slot;
 				final int variantIndex = startIndex + s;
 				if (variantIndex >= endIndex) continue;
-				final String key = variantList[variantIndex];
+				final String key = shown[variantIndex];
 				builder.addEventListener("vb_" + s, CustomUIEventBindingType.Activating, (e, ctx) -> {
 					try {
-						Inventory inv = player.getInventory();
-						if (inv == null) {
-							return;
-						}
-						ItemContainer foundContainer = null;
-						short foundSlot = -1;
-						int foundQty = 0;
-						ItemContainer hot = inv.getHotbar();
-						ItemContainer stor = inv.getStorage();
-						if (hot != null) {
-							short cap = hot.getCapacity();
-							for (short si = 0; si < cap; si++) {
-								ItemStack st = hot.getItemStack(si);
-								if (st != null && !st.isEmpty() && "Dye_Base".equals(st.getItemId())) { foundContainer = hot; foundSlot = si; foundQty = st.getQuantity(); break; }
-							}
-						}
-						if (foundContainer == null && stor != null) {
-							short cap = stor.getCapacity();
-							for (short si = 0; si < cap; si++) {
-								ItemStack st = stor.getItemStack(si);
-								if (st != null && !st.isEmpty() && "Dye_Base".equals(st.getItemId())) { foundContainer = stor; foundSlot = si; foundQty = st.getQuantity(); break; }
-							}
-						}
-						if (foundContainer == null) {
+						if (!paint(player, world, blockPos, key)) {
 							return;
 						}
-						if (!applyPaintVariant(world, blockPos, key)) {
-							LOGGER.atWarning().log("[Paintbrush] Failed to replace world block with " + key);
-							return;
-						}
-						if (foundQty > 1) {
-							foundContainer.setItemStackForSlot(foundSlot, new ItemStack("Dye_Base", foundQty - 1));
-						} else {
-							foundContainer.setItemStackForSlot(foundSlot, null);
-						}
-						markInventoryChanged(inv);
-						try { openPaintbrush(playerRef, store, world, blockPos, player, variantList, page); } catch (Throwable t2) { LOGGER.atWarning().log("[Paintbrush] Failed to refresh UI: " + t2.getMessage()); }
+						try { openPaintbrush(playerRef, store, world, blockPos, player, variantList, page, query); } catch (Throwable t2) { LOGGER.atWarning().log("[Paintbrush] Failed to refresh UI: " + t2.getMessage()); }
 					} catch (Throwable t) { LOGGER.atWarning().log("[Paintbrush] Failed to apply variant: " + t.getMessage()); }
 				});
 			}
@@ -541,26 +378,60 @@ public final class PaintbrushUIPage {
 			final int tp = totalPages;
 			builder.addEventListener("page_prev", CustomUIEventBindingType.Activating, (e, ctx) -> {
 				int newPage = Math.max(0, currentPage - 1);
-				openPaintbrush(playerRef, store, world, blockPos, player, variantList, newPage);
+				openPaintbrush(playerRef, store, world, blockPos, player, variantList, newPage, query);
 			});
 			builder.addEventListener("page_next", CustomUIEventBindingType.Activating, (e, ctx) -> {
 				int newPage = Math.min(tp - 1, currentPage + 1);
-				openPaintbrush(playerRef, store, world, blockPos, player, variantList, newPage);
+				openPaintbrush(playerRef, store, world, blockPos, player, variantList, newPage, query);
 			});
 		}
 
 		builder.addEventListener("pb_table_btn", CustomUIEventBindingType.Activating, (e, ctx) -> {
 			openPaintbrushTable(playerRef, store, world, blockPos, player, variantList);
 		});
+
+		// Search: remember what is typed, run it on "Go"
+		final Object[] typed = { query };
+		builder.addEventListener("search_text", CustomUIEventBindingType.ValueChanged, (value, ctx) -> typed[0] = value);
+		builder.addEventListener("search_go", CustomUIEventBindingType.Activating, (e, ctx) ->
+				openPaintbrush(playerRef, store, world, blockPos, player, variantList, 0, VariantSearch.normalizeQuery(typed[0])));
+		builder.addEventListener("search_clear", CustomUIEventBindingType.Activating, (e, ctx) ->
+				openPaintbrush(playerRef, store, world, blockPos, player, variantList, 0, null));
 		builder.open(store);
 	}
 
-	private static String buildIconButton(String id, String itemKey, String tooltip) {
-		return String.format(
-				"      <button id=\"%s\" data-hyui-tooltiptext=\"%s\" style=\"anchor-width: 52; anchor-height: 52; padding: 6; margin-top: 4; margin-bottom: 4; margin-left: 4; margin-right: 4;\">"
-				+ "<span class=\"item-icon\" data-hyui-item-id=\"%s\" style=\"anchor-width: 40; anchor-height: 40;\"></span>"
-				+ "</button>\n",
-				id, tooltip, itemKey);
+	/**
+	 * Repaints the block at {@code blockPos} to {@code blockKey} for one
+	 * {@code Dye_Base}, charged in the same {@link InventoryTransaction} as
+	 * the block change: without dye nothing changes, and a failed charge puts
+	 * the old block back.
+	 *
+	 * @return {@code true} if the block was repainted and paid for
+	 */
+	public static boolean paint(LivingEntity player, World world, Vector3i blockPos, String blockKey) {
+		Inventory inv = player != null ? player.getInventory() : null;
+		InventoryIndex idx = InventoryIndex.of(inv);
+		if (idx == null || idx.dyeBase() <= 0 || world == null || blockPos == null) {
+			return false;
+		}
+		WorldChunk chunk = world.getChunkIfInMemory(ChunkUtil.indexChunkFromBlock(blockPos.x, blockPos.z));
+		if (chunk == null) {
+			return false;
+		}
+		BlockType before = chunk.getBlockType(blockPos.x, blockPos.y, blockPos.z);
+		String beforeKey = before != null && before.getId() != null ? String.valueOf(before.getId()) : null;
+		if (beforeKey == null || beforeKey.equals(blockKey)) {
+			return false;
+		}
+		boolean ok = InventoryTransaction.begin(inv)
+				.chargeDyeBase(1)
+				.alongWith(() -> applyPaintVariant(world, blockPos, blockKey),
+						() -> applyPaintVariant(world, blockPos, beforeKey))
+				.commit();
+		if (!ok) {
+			LOGGER.atWarning().log("[Paintbrush] Failed to repaint block with " + blockKey);
+		}
+		return ok;
 	}
 
 	private static boolean applyPaintVariant(World world, Vector3i blockPos, String blockKey) {
@@ -786,4 +657,25 @@ public final class PaintbrushUIPage {
 				}
 			</style>
 			""";
+
+	// Page frames and repeated fragments, compiled once (see UiTemplate)
+	private static final String CONTENTS_STYLE =
+			"layout-mode: Top; padding-top: 8; padding-bottom: 8; padding-left: 12; padding-right: 12;";
+	private static final UiTemplate BRUSH_PAGE = UiFragments.shell(STYLE, "Paintbrush", CONTENTS_STYLE);
+	private static final UiTemplate TABLE_PAGE = UiFragments.shell(STYLE, "Paintbrush Table", CONTENTS_STYLE);
+	private static final UiTemplate DYE_COUNT = UiTemplate.compile(
+			"<div style=\"layout-mode: Left; vertical-align: middle; padding-top:6; padding-bottom:6;\">"
+			+ "<span class=\"item-icon\" data-hyui-item-id=\"Dye_Base\" style=\"anchor-width:24;anchor-height:24;\"></span>"
+			+ "<p class=\"input-count\">Dye Base: ${count}</p></div>\n");
+	private static final UiTemplate INPUT_COUNT = UiTemplate.compile(
+			"<p class=\"input-count\">${item} x${count}</p>\n");
+	private static final UiTemplate INV_BUTTON = UiTemplate.compile(
+			"  <button id=\"inv_${index}\" data-hyui-tooltiptext=\"${item} x${count}\" "
+			+ "style=\"anchor-width: 52; anchor-height: 52; padding: 6; margin-top: 4; margin-bottom: 4; margin-left: 4; margin-right: 4;\">"
+			+ "<span class=\"item-icon\" data-hyui-item-id=\"${icon}\" style=\"anchor-width: 40; anchor-height: 40;\"></span>"
+			+ "</button>\n");
+	private static final UiTemplate PAGER = UiTemplate.compile(
+			"  <button id=\"page_prev\" class=\"page-btn\">Prev</button>\n"
+			+ "  <p class=\"page-label\">Page ${current} / ${total}</p>\n"
+			+ "  <button id=\"page_next\" class=\"page-btn\">Next</button>\n");
 }
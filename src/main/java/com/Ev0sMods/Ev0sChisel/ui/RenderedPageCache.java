@@ -0,0 +1,120 @@
+package com.Ev0sMods.Ev0sChisel.ui;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Rendered HTML shared across players.
+ *
+ * <p>Everything a page shows for a given family, mode, tab and page number
+ * is the same for every player, so it is rendered once and reused.  Keys are
+ * records built by the pages.  The chisel page names its lists by resolved
+ * family id, which carries that family's generation, so a republished
+ * family simply renders under new keys while other families keep theirs.
+ * The hammer page keys by its category arrays, which compare by identity.
+ * The cache is LRU, bounded by the total number of characters held, so
+ * superseded entries age out.
+ *
+ * <p>{@link #prefetch} renders a page on a single background thread (the
+ * builders are pure functions of immutable arrays), so the "next page" click
+ * is usually a hit, and {@link #pregenerate} fills the cache with the pages
+ * opens start on at first run.
+ */
+final class RenderedPageCache {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    /** Upper bound on cached characters (~4 MB of char data). */
+    private static final int MAX_CHARS = 2_000_000;
+
+    private static final LinkedHashMap<Object, String> ENTRIES = new LinkedHashMap<>(64, 0.75f, true);
+    private static int chars;
+
+    /** One daemon thread; a full queue drops the oldest request. */
+    private static final ThreadPoolExecutor PREFETCH = new ThreadPoolExecutor(
+            1, 1, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(16),
+            r -> {
+                Thread t = new Thread(r, "Ev0sChisel-PagePrefetch");
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.DiscardOldestPolicy());
+
+    static { PREFETCH.allowCoreThreadTimeOut(true); }
+
+    private RenderedPageCache() {}
+
+    /** Returns the cached HTML for {@code key}, rendering and storing it on a miss. */
+    static String get(Object key, Supplier<String> render) {
+        String html = lookup(key);
+        if (html != null) return html;
+        html = render.get();
+        store(key, html);
+        return html;
+    }
+
+    /** Renders {@code key} in the background unless it is already cached. */
+    static void prefetch(Object key, Supplier<String> render) {
+        if (lookup(key) != null) return;
+        PREFETCH.execute(() -> {
+            if (lookup(key) != null) return;
+            try {
+                store(key, render.get());
+            } catch (Throwable ignored) {
+                // best-effort: the page renders on demand instead
+            }
+        });
+    }
+
+    /**
+     * Renders {@code pages} in order on the background thread, skipping
+     * cached ones, until the cache is half full; the rest stays for on-demand
+     * renders and prefetch.
+     */
+    static void pregenerate(Map<?, ? extends Supplier<String>> pages) {
+        if (pages.isEmpty()) return;
+        PREFETCH.execute(() -> {
+            int n = 0;
+            for (Map.Entry<?, ? extends Supplier<String>> e : pages.entrySet()) {
+                synchronized (ENTRIES) {
+                    if (chars >= MAX_CHARS / 2) break;
+                }
+                if (lookup(e.getKey()) != null) continue;
+                try {
+                    store(e.getKey(), e.getValue().get());
+                    n++;
+                } catch (Throwable ignored) {
+                    // best-effort: the page renders on demand instead
+                }
+            }
+            LOGGER.atInfo().log("[UI] Pre-generated " + n + " of " + pages.size() + " pages");
+        });
+    }
+
+    private static String lookup(Object key) {
+        synchronized (ENTRIES) {
+            return ENTRIES.get(key);
+        }
+    }
+
+    private static void store(Object key, String html) {
+        if (html.length() > MAX_CHARS / 4) return;
+        synchronized (ENTRIES) {
+            String old = ENTRIES.put(key, html);
+            if (old != null) chars -= old.length();
+            chars += html.length();
+            Iterator<String> it = ENTRIES.values().iterator();
+            while (chars > MAX_CHARS && it.hasNext()) {
+                chars -= it.next().length();
+                it.remove();
+            }
+        }
+    }
+}
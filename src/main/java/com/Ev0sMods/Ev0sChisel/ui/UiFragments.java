@@ -0,0 +1,160 @@
+package com.Ev0sMods.Ev0sChisel.ui;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * HTML fragments shared by the chisel, paintbrush and hammer pages, compiled
+ * once into {@link UiTemplate}s.  Each helper appends into the page's single
+ * {@link StringBuilder}.
+ */
+final class UiFragments {
+
+    /** 52×52 item button with a 40×40 icon (output grids, variant grids). */
+    private static final UiTemplate ICON_BUTTON = UiTemplate.compile(
+            "  <button id=\"${id}\" data-hyui-tooltiptext=\"${tooltip}\" "
+          + "style=\"anchor-width: 52; anchor-height: 52; padding: 6; margin-top: 4; margin-bottom: 4; margin-left: 4; margin-right: 4;\">"
+          + "<span class=\"item-icon\" data-hyui-item-id=\"${item}\" "
+          + "style=\"anchor-width: 40; anchor-height: 40;\"></span>"
+          + "</button>\n");
+
+    /** Same as {@link #ICON_BUTTON} with a numbered {@code prefix_N} id. */
+    private static final UiTemplate INDEXED_ICON_BUTTON = UiTemplate.compile(
+            "  <button id=\"${prefix}${index}\" data-hyui-tooltiptext=\"${tooltip}\" "
+          + "style=\"anchor-width: 52; anchor-height: 52; padding: 6; margin-top: 4; margin-bottom: 4; margin-left: 4; margin-right: 4;\">"
+          + "<span class=\"item-icon\" data-hyui-item-id=\"${item}\" "
+          + "style=\"anchor-width: 40; anchor-height: 40;\"></span>"
+          + "</button>\n");
+
+    private static final String TAB_STYLE =
+            "anchor-width: 52; anchor-height: 52; padding: 4; margin-left: 4; margin-right: 4;";
+    private static final String TAB_ACTIVE_STYLE = TAB_STYLE + " background-color: #ffffff(0.12);";
+
+    private static final UiTemplate ICON_TAB = UiTemplate.compile(
+            "  <button id=\"${id}\" style=\"${style}\" data-hyui-tooltiptext=\"${tooltip}\">"
+          + "<span class=\"item-icon\" data-hyui-item-id=\"${icon}\" "
+          + "style=\"anchor-width: 40; anchor-height: 40;\"></span>"
+          + "</button>\n");
+
+    private static final UiTemplate TEXT_TAB = UiTemplate.compile(
+            "  <button id=\"${id}\" style=\"${style}\" data-hyui-tooltiptext=\"${tooltip}\">${label}</button>\n");
+
+    private static final UiTemplate PREV_ENABLED = UiTemplate.compile(
+            "  <button id=\"${id}\" class=\"page-btn\">&lt;</button>\n");
+    private static final UiTemplate NEXT_ENABLED = UiTemplate.compile(
+            "  <button id=\"${id}\" class=\"page-btn\">&gt;</button>\n");
+    private static final String PREV_DISABLED = "  <button class=\"page-btn-disabled\">&lt;</button>\n";
+    private static final String NEXT_DISABLED = "  <button class=\"page-btn-disabled\">&gt;</button>\n";
+    private static final UiTemplate PAGE_LABEL = UiTemplate.compile(
+            "  <p class=\"page-label\">${current} / ${total}</p>\n");
+
+    /** Search field with Go / clear buttons; see {@link VariantSearch}. */
+    private static final UiTemplate SEARCH_ROW = UiTemplate.compile(
+            "<div style=\"layout-mode: Left; horizontal-align: center; padding-top: 4; padding-bottom: 4;\">\n"
+          + "  <input type=\"text\" id=\"search_text\" value=\"${query}\" placeholder=\"Search variants\" "
+          + "style=\"anchor-width: 260; anchor-height: 28;\"/>\n"
+          + "  <button id=\"search_go\" class=\"page-btn\">Go</button>\n"
+          + "  <button id=\"search_clear\" class=\"page-btn\">x</button>\n"
+          + "</div>\n");
+
+    static final String GRID_ROW_OPEN =
+            "<div style=\"layout-mode: Left; horizontal-align: center; padding-top: 2; padding-bottom: 2;\">\n";
+    static final String DIV_CLOSE = "</div>\n";
+    static final String SEPARATOR = "<div class=\"separator\"></div>\n";
+
+    private UiFragments() {}
+
+    /**
+     * Compiles the outer page frame: {@code style}, then a right-anchored
+     * decorated container titled {@code title} whose contents use
+     * {@code contentsStyle}.  The single slot is the page body.
+     */
+    static UiTemplate shell(String style, String title, String contentsStyle) {
+        return UiTemplate.compile(style
+                + "<div style=\"layout-mode: Right; anchor-width: 100%; anchor-height: 100%;\">\n"
+                + "    <div class=\"decorated-container\" data-hyui-title=\"" + title + "\"\n"
+                + "             style=\"anchor-width: 660; margin-right: 40; vertical-align: middle;\">\n"
+                + "        <div class=\"container-contents\" style=\"" + contentsStyle + "\">\n"
+                + "${body}"
+                + "        </div>\n"
+                + "    </div>\n"
+                + "</div>\n");
+    }
+
+    /** Appends the search row showing {@code query} (may be {@code null}). */
+    static void searchRow(StringBuilder sb, String query) {
+        SEARCH_ROW.render(sb, query != null ? escape(query) : "");
+    }
+
+    /** Escapes text typed by a player for use in an attribute or text node. */
+    static String escape(String s) {
+        StringBuilder out = null;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String rep = switch (c) {
+                case '&'  -> "&amp;";
+                case '<'  -> "&lt;";
+                case '>'  -> "&gt;";
+                case '"'  -> "&quot;";
+                default   -> null;
+            };
+            if (rep == null) {
+                if (out != null) out.append(c);
+                continue;
+            }
+            if (out == null) out = new StringBuilder(s.length() + 8).append(s, 0, i);
+            out.append(rep);
+        }
+        return out != null ? out.toString() : s;
+    }
+
+    static void iconButton(StringBuilder sb, String id, String item, String tooltip) {
+        ICON_BUTTON.render(sb, id, tooltip, item);
+    }
+
+    static void iconButton(StringBuilder sb, String idPrefix, int index, String item, String tooltip) {
+        INDEXED_ICON_BUTTON.render(sb, idPrefix, index, tooltip, item);
+    }
+
+    /**
+     * Appends one tab button: the icon of {@code iconBlockId} when known,
+     * else {@code label} as text.  The active tab gets a highlight background.
+     */
+    static void tab(StringBuilder sb, String id, String iconBlockId, String tooltip, String label, boolean active) {
+        String style = active ? TAB_ACTIVE_STYLE : TAB_STYLE;
+        if (iconBlockId != null && !iconBlockId.isEmpty()) ICON_TAB.render(sb, id, style, tooltip, iconBlockId);
+        else TEXT_TAB.render(sb, id, style, tooltip, label);
+    }
+
+    /**
+     * Appends {@code items} as rows of {@code columns} icon buttons with ids
+     * {@code out_<startIdx + i>}, tooltips from {@code name}.  Pages pass
+     * {@code 0} so ids are slots on the page and stay stable across page flips.
+     */
+    static void grid(StringBuilder sb, String[] items, int startIdx, int columns, UnaryOperator<String> name) {
+        for (int i = 0; i < items.length; i++) {
+            if (i % columns == 0) sb.append(GRID_ROW_OPEN);
+            iconButton(sb, "out_", startIdx + i, items[i], name.apply(items[i]));
+            if (i % columns == columns - 1 || i == items.length - 1) sb.append(DIV_CLOSE);
+        }
+    }
+
+    /**
+     * Items per page for a grid of {@code total} items in {@code columns}:
+     * a list that fits in {@code maxRows} is shown whole on one page (never
+     * shorter than {@code minRows}); a longer one gets {@code maxRows} per page.
+     */
+    static int perPage(int total, int columns, int minRows, int maxRows) {
+        int rows = (total + columns - 1) / columns;
+        return columns * Math.max(minRows, Math.min(rows, maxRows));
+    }
+
+    /** Appends a {@code < n / total >} pager; nothing when there is a single page. */
+    static void pager(StringBuilder sb, int cur, int total, String prevId, String nextId) {
+        if (total <= 1) return;
+        sb.append("<div class=\"page-row\">\n");
+        if (cur > 0) PREV_ENABLED.render(sb, prevId); else sb.append(PREV_DISABLED);
+        PAGE_LABEL.render(sb, cur + 1, total);
+        if (cur < total - 1) NEXT_ENABLED.render(sb, nextId); else sb.append(NEXT_DISABLED);
+        sb.append(DIV_CLOSE);
+    }
+}
@@ -0,0 +1,76 @@
+package com.Ev0sMods.Ev0sChisel.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal precompiled HTML template for the HyUI pages.
+ *
+ * <p>A template is split once, at class-init time, into its static chunks and
+ * {@code ${name}} slots.  Rendering appends chunk, value, chunk, ... straight
+ * into the caller's {@link StringBuilder}: no {@code String.format} parsing,
+ * no intermediate strings for nested fragments, and the builder can be sized
+ * from {@link #staticLength()} up front.
+ *
+ * <p>Slots are filled positionally, in order of appearance; the names only
+ * document the template.  Values are appended as-is (no escaping), matching
+ * what the pages emitted before.  Instances are immutable and shared.
+ */
+final class UiTemplate {
+
+    private final String[] chunks;
+    private final int staticLength;
+
+    private UiTemplate(String[] chunks) {
+        this.chunks = chunks;
+        int n = 0;
+        for (String c : chunks) n += c.length();
+        this.staticLength = n;
+    }
+
+    /** Splits {@code source} on its {@code ${name}} markers. */
+    static UiTemplate compile(String source) {
+        List<String> parts = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int open = source.indexOf("${", from);
+            if (open < 0) break;
+            int close = source.indexOf('}', open + 2);
+            if (close < 0) throw new IllegalArgumentException("Unclosed slot at " + open);
+            parts.add(source.substring(from, open));
+            from = close + 1;
+        }
+        parts.add(source.substring(from));
+        return new UiTemplate(parts.toArray(new String[0]));
+    }
+
+    /** @return number of slots */
+    int slots() { return chunks.length - 1; }
+
+    /** @return total length of the static text, for sizing builders */
+    int staticLength() { return staticLength; }
+
+    /**
+     * Appends the template to {@code out}, filling slot {@code i} with
+     * {@code values[i]}.  {@code CharSequence} and {@code Integer} values are
+     * appended without an intermediate {@code toString()}.
+     */
+    StringBuilder render(StringBuilder out, Object... values) {
+        int slots = chunks.length - 1;
+        if (values.length != slots)
+            throw new IllegalArgumentException("Expected " + slots + " values, got " + values.length);
+        for (int i = 0; i < slots; i++) {
+            out.append(chunks[i]);
+            Object v = values[i];
+            if (v instanceof CharSequence cs) out.append(cs);
+            else if (v instanceof Integer n) out.append(n.intValue());
+            else out.append(v);
+        }
+        return out.append(chunks[slots]);
+    }
+
+    /** Renders into a fresh builder sized for the static text plus {@code dynamicHint} chars. */
+    String render(int dynamicHint, Object... values) {
+        return render(new StringBuilder(staticLength + dynamicHint), values).toString();
+    }
+}
@@ -0,0 +1,121 @@
+package com.Ev0sMods.Ev0sChisel.ui;
+
+import com.Ev0sMods.Ev0sChisel.compat.ChiselResolver;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Name search over variant lists for the chisel and paintbrush pages.
+ *
+ * <p>Each list gets a trigram index over its readable names (namespace
+ * dropped, {@code _} as space, lower-case), built on first search and keyed
+ * by array identity — lists are shared family snapshots, and a republished
+ * family simply gets a new index.  An index holds only the derived names, never
+ * its list, so the weak key clears once the list is dropped.  A query of three or more characters walks
+ * the shortest posting list among its trigrams and confirms each candidate
+ * with {@code contains}; shorter queries scan the names directly.
+ *
+ * <p>{@link #findAll} searches the union of every resolved family for table
+ * mode, rebuilt when {@link ChiselResolver#version()} moves.
+ */
+final class VariantSearch {
+
+    /** Matches kept per search; the pages show them at their normal page size. */
+    static final int MAX_RESULTS = 240;
+
+    private static final Map<String[], Index> INDEX = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** The union index and the list it was built from, swapped together. */
+    private record Global(String[] keys, Index index, long version) {}
+
+    private static volatile Global global;
+
+    private VariantSearch() {}
+
+    /** @return {@code raw} normalised for searching, or {@code null} when blank */
+    static String normalizeQuery(Object raw) {
+        if (raw == null) return null;
+        String q = raw.toString().trim().replace('_', ' ').toLowerCase(Locale.ROOT);
+        return q.isEmpty() ? null : q;
+    }
+
+    /** Entries of {@code variants} whose name contains {@code query}, in list order. */
+    static String[] find(String[] variants, String query) {
+        if (variants == null || variants.length == 0) return new String[0];
+        if (query == null) return variants;
+        Index idx;
+        synchronized (INDEX) {
+            idx = INDEX.computeIfAbsent(variants, Index::new);
+        }
+        return idx.find(variants, query);
+    }
+
+    /** Variants of every resolved family whose name contains {@code query}. */
+    static String[] findAll(String query) {
+        if (query == null) return new String[0];
+        long version = ChiselResolver.version();
+        Global g = global;
+        if (g == null || g.version != version) {
+            String[] keys = ChiselResolver.variantKeys();
+            g = new Global(keys, new Index(keys), version);
+            global = g;
+        }
+        return g.index.find(g.keys, query);
+    }
+
+    private static String name(String key) {
+        int c = key.indexOf(':');
+        return (c >= 0 ? key.substring(c + 1) : key).replace('_', ' ').toLowerCase(Locale.ROOT);
+    }
+
+    /** Names and trigram postings for one list; positions index into that list. */
+    private static final class Index {
+        final String[] names;
+        final Map<String, int[]> trigrams;
+
+        Index(String[] keys) {
+            this.names = new String[keys.length];
+            Map<String, IntArrayList> build = new Object2ObjectOpenHashMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                String n = keys[i] != null ? name(keys[i]) : "";
+                names[i] = n;
+                for (int j = 0; j + 3 <= n.length(); j++) {
+                    IntArrayList postings = build.computeIfAbsent(n.substring(j, j + 3), k -> new IntArrayList(4));
+                    // A name can repeat a trigram; postings stay sorted and unique
+                    if (postings.isEmpty() || postings.getInt(postings.size() - 1) != i) postings.add(i);
+                }
+            }
+            Map<String, int[]> out = new Object2ObjectOpenHashMap<>(build.size());
+            build.forEach((k, v) -> out.put(k, v.toIntArray()));
+            this.trigrams = out;
+        }
+
+        /** {@code keys} is the list this index was built from. */
+        String[] find(String[] keys, String q) {
+            String[] out = new String[Math.min(MAX_RESULTS, keys.length)];
+            int n = 0;
+            if (q.length() < 3) {
+                for (int i = 0; i < names.length && n < out.length; i++)
+                    if (names[i].contains(q)) out[n++] = keys[i];
+            } else {
+                int[] shortest = null;
+                for (int j = 0; j + 3 <= q.length(); j++) {
+                    int[] p = trigrams.get(q.substring(j, j + 3));
+                    if (p == null) return new String[0];
+                    if (shortest == null || p.length < shortest.length) shortest = p;
+                }
+                for (int i : shortest) {
+                    if (n == out.length) break;
+                    if (names[i].contains(q)) out[n++] = keys[i];
+                }
+            }
+            return n == out.length ? out : Arrays.copyOf(out, n);
+        }
+    }
+}
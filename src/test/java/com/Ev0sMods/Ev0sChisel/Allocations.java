@@ -0,0 +1,48 @@
+package com.Ev0sMods.Ev0sChisel;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Per-thread allocation counter for the allocation regression tests.
+ *
+ * <p>Reads the bytes the current thread has allocated through the HotSpot
+ * {@code ThreadMXBean} extension before and after a measured loop.  The
+ * helpers under test are meant to allocate nothing once warm, so a budget of
+ * well under one byte per call catches any per-call object.
+ */
+public final class Allocations {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private Allocations() {}
+
+    /** @return whether this JVM counts per-thread allocations */
+    public static boolean supported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Runs {@code body} {@code warmup} times, then {@code calls} times while
+     * counting.
+     *
+     * @return bytes allocated per measured call
+     */
+    public static double perCall(int warmup, int calls, Runnable body) {
+        for (int i = 0; i < warmup; i++) body.run();
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < calls; i++) body.run();
+        long after = THREADS.getCurrentThreadAllocatedBytes();
+        return (double) (after - before) / calls;
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t
+                    && t.isThreadAllocatedMemorySupported()) {
+                t.setThreadAllocatedMemoryEnabled(true);
+                return t;
+            }
+        } catch (Throwable ignored) {}
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.Ev0sMods.Ev0sChisel.Interactions;
+
+import com.Ev0sMods.Ev0sChisel.Allocations;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class InteractionSupportTest {
+
+    /** Bytes per call the steady-state helpers may allocate (measurement noise only). */
+    private static final double BUDGET = 0.5;
+
+    private static volatile boolean sink;
+
+    @Test
+    void containsIgnoreCaseMatchesAnyCase() {
+        assertTrue(InteractionSupport.containsIgnoreCase("Rock_Stone_Brick", "stone"));
+        assertTrue(InteractionSupport.containsIgnoreCase("ymmersive_Statues_Knight", "ymmersive_statues"));
+        assertTrue(InteractionSupport.containsIgnoreCase("stone", "stone"));
+        assertFalse(InteractionSupport.containsIgnoreCase("Rock_Basalt", "stone"));
+        assertFalse(InteractionSupport.containsIgnoreCase("Ston", "stone"));
+        assertFalse(InteractionSupport.containsIgnoreCase(null, "stone"));
+    }
+
+    @Test
+    void endsWithIgnoreCaseChecksTheTail() {
+        assertTrue(InteractionSupport.endsWithIgnoreCase("Wood_Oak_Stairs", "_stairs"));
+        assertTrue(InteractionSupport.endsWithIgnoreCase("Rock_Stone_HALF", "_half"));
+        assertFalse(InteractionSupport.endsWithIgnoreCase("Wood_Oak_Stairs_Corner", "_stairs"));
+        assertFalse(InteractionSupport.endsWithIgnoreCase("_stair", "_stairs"));
+        assertFalse(InteractionSupport.endsWithIgnoreCase(null, "_stairs"));
+    }
+
+    @Test
+    void startsWithIgnoreCaseChecksTheHead() {
+        assertTrue(InteractionSupport.startsWithIgnoreCase("Rock_Basalt", "rock_"));
+        assertFalse(InteractionSupport.startsWithIgnoreCase("Wood_Rock", "rock_"));
+        assertFalse(InteractionSupport.startsWithIgnoreCase("Roc", "rock_"));
+        assertFalse(InteractionSupport.startsWithIgnoreCase(null, "rock_"));
+    }
+
+    @Test
+    void safeSharesTheEmptyArray() {
+        assertSame(InteractionSupport.EMPTY, InteractionSupport.safe(null));
+        String[] a = {"Rock_Stone"};
+        assertSame(a, InteractionSupport.safe(a));
+    }
+
+    @Test
+    void packPosKeepsNeighboursApart() {
+        long origin = InteractionSupport.packPos(0, 0, 0);
+        assertNotEquals(origin, InteractionSupport.packPos(1, 0, 0));
+        assertNotEquals(origin, InteractionSupport.packPos(0, 1, 0));
+        assertNotEquals(origin, InteractionSupport.packPos(0, 0, 1));
+        assertNotEquals(InteractionSupport.packPos(-1, 0, 0), InteractionSupport.packPos(0, 0, -1));
+        assertNotEquals(InteractionSupport.packPos(-1, 64, 5), InteractionSupport.packPos(-1, 65, 5));
+        assertEquals(InteractionSupport.packPos(-300, 70, 12000), InteractionSupport.packPos(-300, 70, 12000));
+    }
+
+    @Test
+    void nullInteractionTypeIsNotARightClick() {
+        assertFalse(InteractionSupport.isRightClick(null));
+    }
+
+    // ── Allocation regression ───────────────────────────────────────
+
+    @Test
+    void keyTestsDoNotAllocate() {
+        assumeTrue(Allocations.supported());
+        String key = "Rock_Stone_Brick_Stairs";
+        double perCall = Allocations.perCall(20_000, 200_000, () -> sink =
+                InteractionSupport.containsIgnoreCase(key, "_roof")
+                        | InteractionSupport.endsWithIgnoreCase(key, "_stairs")
+                        | InteractionSupport.startsWithIgnoreCase(key, "rock_"));
+        assertTrue(perCall < BUDGET, "key tests allocated " + perCall + " bytes per call");
+    }
+
+    @Test
+    void safeAndPackPosDoNotAllocate() {
+        assumeTrue(Allocations.supported());
+        double perCall = Allocations.perCall(20_000, 200_000, () -> sink =
+                InteractionSupport.safe(null).length == 0 && InteractionSupport.packPos(12, 64, -7) != 0);
+        assertTrue(perCall < BUDGET, "safe/packPos allocated " + perCall + " bytes per call");
+    }
+}
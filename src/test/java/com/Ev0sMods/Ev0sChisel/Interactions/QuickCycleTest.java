@@ -0,0 +1,67 @@
+package com.Ev0sMods.Ev0sChisel.Interactions;
+
+import com.Ev0sMods.Ev0sChisel.Allocations;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class QuickCycleTest {
+
+    private static final String[] BLOCKS = {"Rock_Stone", "Rock_Stone_Brick", "Rock_Stone_Cobble"};
+    private static final String[] STAIRS = {"Rock_Stone_Stairs", "Rock_Stone_Brick_Stairs"};
+
+    private static volatile String sink;
+
+    @Test
+    void stepsForwardAndBackWithWrapAround() {
+        assertEquals("Rock_Stone_Brick", QuickCycle.step(BLOCKS, "Rock_Stone", 1));
+        assertEquals("Rock_Stone", QuickCycle.step(BLOCKS, "Rock_Stone_Cobble", 1));
+        assertEquals("Rock_Stone_Cobble", QuickCycle.step(BLOCKS, "Rock_Stone", -1));
+        assertEquals("Rock_Stone_Cobble", QuickCycle.step(BLOCKS, "Rock_Stone_Brick", 4));
+    }
+
+    @Test
+    void keyOutsideTheListStepsFromItsEnds() {
+        assertEquals("Rock_Stone", QuickCycle.step(BLOCKS, "Wood_Oak", 1));
+        assertEquals("Rock_Stone_Cobble", QuickCycle.step(BLOCKS, "Wood_Oak", -1));
+        assertEquals("Rock_Stone", QuickCycle.step(BLOCKS, null, 1));
+    }
+
+    @Test
+    void emptyListHasNoNeighbour() {
+        assertNull(QuickCycle.step(new String[0], "Rock_Stone", 1));
+        assertNull(QuickCycle.step(null, "Rock_Stone", 1));
+    }
+
+    @Test
+    void indexOfKeepsTheFirstPosition() {
+        String[] dup = {"A", "B", "A", null};
+        assertEquals(0, QuickCycle.indexOf(dup, "A"));
+        assertEquals(1, QuickCycle.indexOf(dup, "B"));
+        assertEquals(-1, QuickCycle.indexOf(dup, "C"));
+        assertEquals(-1, QuickCycle.indexOf(dup, null));
+    }
+
+    @Test
+    void listOfPicksTheListHoldingTheKey() {
+        assertSame(STAIRS, QuickCycle.listOf("Rock_Stone_Brick_Stairs", BLOCKS, STAIRS));
+        assertSame(BLOCKS, QuickCycle.listOf("Rock_Stone", BLOCKS, STAIRS));
+        assertNull(QuickCycle.listOf("Wood_Oak", BLOCKS, STAIRS));
+    }
+
+    @Test
+    void applyIgnoresNoOps() {
+        assertFalse(QuickCycle.apply(null, 0, 0, 0, "Rock_Stone", "Rock_Stone_Brick"));
+    }
+
+    // ── Allocation regression ───────────────────────────────────────
+
+    @Test
+    void steppingAWarmListDoesNotAllocate() {
+        assumeTrue(Allocations.supported());
+        double perCall = Allocations.perCall(20_000, 200_000, () ->
+                sink = QuickCycle.step(BLOCKS, "Rock_Stone_Brick", 1));
+        assertTrue(perCall < 0.5, "step allocated " + perCall + " bytes per call");
+    }
+}
@@ -0,0 +1,77 @@
+package com.Ev0sMods.Ev0sChisel.compat;
+
+import com.Ev0sMods.Ev0sChisel.Allocations;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cached {@code MethodHandle} lookup in {@link ComponentCompat} against the
+ * per-call reflective lookup it replaced, on a stub chunk whose accessor is
+ * found after a few misses, as with the real chunk class.  Run with
+ * {@code ./gradlew benchmark}; the numbers are printed, not asserted.
+ */
+@Tag("benchmark")
+class ComponentCompatBenchmark {
+
+    private static final int WARMUP = 50_000;
+    private static final int RUNS   = 1_000_000;
+
+    /** Stands in for a chunk: only the third probed name exists. */
+    public static final class StubChunk {
+        private final Marker component = new Marker();
+
+        public Object getBlockComponentAt(int x, int y, int z, Class<?> type) {
+            return type.isInstance(component) ? component : null;
+        }
+    }
+
+    public static final class Marker {}
+
+    private static final String[] NAMES =
+            {"getComponentAt", "getBlockComponent", "getBlockComponentAt", "getComponent", "getBlockData", "getBlockStateAt"};
+
+    private static volatile Object sink;
+
+    @Test
+    void cachedHandlesAgainstReflection() {
+        StubChunk chunk = new StubChunk();
+        assertSame(chunk.component, ComponentCompat.getBlockComponent(chunk, 1, 2, 3, Marker.class));
+        assertSame(chunk.component, reflective(chunk, 1, 2, 3, Marker.class));
+
+        double cached = time(() -> sink = ComponentCompat.getBlockComponent(chunk, 1, 2, 3, Marker.class));
+        double reflected = time(() -> sink = reflective(chunk, 1, 2, 3, Marker.class));
+        System.out.printf(Locale.ROOT, "[ComponentCompatBenchmark] cached handles: %.1f ns/call, %s; "
+                        + "reflective lookup: %.1f ns/call, %s (%.1fx)%n",
+                cached, allocated(() -> sink = ComponentCompat.getBlockComponent(chunk, 1, 2, 3, Marker.class)),
+                reflected, allocated(() -> sink = reflective(chunk, 1, 2, 3, Marker.class)), reflected / cached);
+    }
+
+    /** The lookup before the handle cache: resolve every candidate by name on each call. */
+    private static Object reflective(Object chunk, int x, int y, int z, Class<?> type) {
+        for (String n : NAMES) {
+            try {
+                Method m = chunk.getClass().getMethod(n, int.class, int.class, int.class, Class.class);
+                Object o = m.invoke(chunk, x, y, z, type);
+                if (o != null && type.isInstance(o)) return o;
+            } catch (Throwable ignored) {}
+        }
+        return null;
+    }
+
+    private static double time(Runnable body) {
+        for (int i = 0; i < WARMUP; i++) body.run();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) body.run();
+        return (double) (System.nanoTime() - t0) / RUNS;
+    }
+
+    private static String allocated(Runnable body) {
+        if (!Allocations.supported()) return "allocation not measured";
+        return String.format(Locale.ROOT, "%.0f B/call", Allocations.perCall(WARMUP, RUNS, body));
+    }
+}
@@ -0,0 +1,97 @@
+package com.Ev0sMods.Ev0sChisel.compat;
+
+import com.Ev0sMods.Ev0sChisel.Allocations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MaterialTrieTest {
+
+    private static volatile Object sink;
+
+    @BeforeEach
+    void define() {
+        MaterialTrie.define(MaterialTrie.builder(MaterialTrie.Owner.MASONRY)
+                .add("Rock_Basalt", "Basalt", MaterialTrie.Kind.ROCK)
+                .add("Rock_Basalt_Cobble", "Basalt_Cobble", MaterialTrie.Kind.ROCK)
+                .add("Basalt", "Basalt", MaterialTrie.Kind.STONE));
+        MaterialTrie.define(MaterialTrie.builder(MaterialTrie.Owner.CARPENTRY)
+                .add("Wood_Oak", "Oak", MaterialTrie.Kind.WOOD));
+    }
+
+    @AfterEach
+    void clear() {
+        for (MaterialTrie.Owner o : MaterialTrie.Owner.values()) MaterialTrie.clear(o);
+    }
+
+    @Test
+    void longestPrefixWins() {
+        assertEquals("Basalt_Cobble", MaterialTrie.material("Rock_Basalt_Cobble_Brick", MaterialTrie.Owner.MASONRY));
+        assertEquals("Basalt", MaterialTrie.material("Rock_Basalt_Brick", MaterialTrie.Owner.MASONRY));
+    }
+
+    @Test
+    void prefixMustEndTheKeyOrAWord() {
+        assertEquals("Basalt", MaterialTrie.material("Rock_Basalt", MaterialTrie.Owner.MASONRY));
+        assertNull(MaterialTrie.match("Rock_Basaltic", MaterialTrie.Owner.MASONRY));
+        assertNull(MaterialTrie.match("Rock_Bas", MaterialTrie.Owner.MASONRY));
+    }
+
+    @Test
+    void lookupFoldsCase() {
+        MaterialTrie.Match m = MaterialTrie.match("ROCK_BASALT_pillar", MaterialTrie.Owner.MASONRY);
+        assertNotNull(m);
+        assertEquals("Basalt", m.material);
+        assertEquals(MaterialTrie.Kind.ROCK, m.kind);
+        assertEquals(MaterialTrie.Owner.MASONRY, m.owner);
+    }
+
+    @Test
+    void ownersDoNotSeeEachOthersPrefixes() {
+        assertNull(MaterialTrie.match("Wood_Oak_Planks", MaterialTrie.Owner.MASONRY));
+        assertNull(MaterialTrie.match("Rock_Basalt", MaterialTrie.Owner.CARPENTRY));
+        assertNull(MaterialTrie.match("Rock_Basalt", MaterialTrie.Owner.MACAW));
+        assertEquals("Oak", MaterialTrie.material("Wood_Oak_Planks", MaterialTrie.Owner.CARPENTRY));
+    }
+
+    @Test
+    void redefiningReplacesAndClearingDrops() {
+        MaterialTrie.define(MaterialTrie.builder(MaterialTrie.Owner.MASONRY)
+                .add("Rock_Marble", "Marble", MaterialTrie.Kind.ROCK));
+        assertNull(MaterialTrie.match("Rock_Basalt", MaterialTrie.Owner.MASONRY));
+        assertEquals("Marble", MaterialTrie.material("Rock_Marble", MaterialTrie.Owner.MASONRY));
+        assertEquals("Oak", MaterialTrie.material("Wood_Oak", MaterialTrie.Owner.CARPENTRY));
+
+        MaterialTrie.clear(MaterialTrie.Owner.MASONRY);
+        assertNull(MaterialTrie.match("Rock_Marble", MaterialTrie.Owner.MASONRY));
+    }
+
+    @Test
+    void firstMaterialFiltersByKind() {
+        String[] keys = {"Basalt_Tiles", "Rock_Basalt_Cobble", "Rock_Basalt"};
+        assertEquals("Basalt_Cobble", MaterialTrie.firstMaterial(keys, MaterialTrie.Owner.MASONRY, MaterialTrie.Kind.ROCK));
+        assertEquals("Basalt", MaterialTrie.firstMaterial(keys, MaterialTrie.Owner.MASONRY, MaterialTrie.Kind.STONE));
+        assertNull(MaterialTrie.firstMaterial(keys, MaterialTrie.Owner.MASONRY, MaterialTrie.Kind.MCW_PATHS));
+        assertNull(MaterialTrie.firstMaterial(null, MaterialTrie.Owner.MASONRY, MaterialTrie.Kind.ROCK));
+    }
+
+    @Test
+    void nullKeyHasNoMatch() {
+        assertNull(MaterialTrie.match(null, MaterialTrie.Owner.MASONRY));
+    }
+
+    // ── Allocation regression ───────────────────────────────────────
+
+    @Test
+    void lookupDoesNotAllocate() {
+        assumeTrue(Allocations.supported());
+        double perCall = Allocations.perCall(20_000, 200_000, () -> {
+            sink = MaterialTrie.match("Rock_Basalt_Cobble_Brick_Stairs", MaterialTrie.Owner.MASONRY);
+            sink = MaterialTrie.match("Wood_Birch_Planks", MaterialTrie.Owner.CARPENTRY);
+        });
+        assertTrue(perCall < 0.5, "match allocated " + perCall + " bytes per call");
+    }
+}
@@ -0,0 +1,79 @@
+package com.Ev0sMods.Ev0sChisel.ui;
+
+import com.Ev0sMods.Ev0sChisel.Allocations;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Render time and output size of a full variant page built from the shared
+ * fragments: frame, search row, four tabs, a grid and its pager.  Run with
+ * {@code ./gradlew benchmark}; the numbers are printed, not asserted.
+ */
+@Tag("benchmark")
+class UiRenderBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int RUNS   = 100_000;
+
+    private static final UiTemplate PAGE = UiFragments.shell("<style>.page-btn { anchor-width: 32; }</style>\n",
+            "Chisel", "layout-mode: Top;");
+
+    private static volatile String sink;
+
+    @Test
+    void chiselGrid() {
+        report("chisel grid, 24 of 60", variants(60), 24, 4);
+    }
+
+    @Test
+    void paintbrushGrid() {
+        report("paintbrush grid, 40 of 40", variants(40), 40, 8);
+    }
+
+    private static void report(String label, String[] all, int perPage, int columns) {
+        String[] page = Arrays.copyOf(all, perPage);
+        String html = render(page, columns, all.length / perPage + 1);
+        assertEquals(html, render(page, columns, all.length / perPage + 1));
+
+        for (int i = 0; i < WARMUP; i++) sink = render(page, columns, 3);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) sink = render(page, columns, 3);
+        double micros = (System.nanoTime() - t0) / 1000.0 / RUNS;
+
+        String alloc = Allocations.supported()
+                ? String.format(Locale.ROOT, "%.0f B allocated", Allocations.perCall(0, RUNS, () -> sink = render(page, columns, 3)))
+                : "allocation not measured";
+        System.out.printf(Locale.ROOT, "[UiRenderBenchmark] %s: %.2f us/render, %d chars (%d bytes UTF-8), %s%n",
+                label, micros, html.length(), html.getBytes(StandardCharsets.UTF_8).length, alloc);
+    }
+
+    private static String render(String[] page, int columns, int pages) {
+        StringBuilder body = new StringBuilder(page.length * 360 + 2048);
+        UiFragments.searchRow(body, "stone");
+        body.append(UiFragments.GRID_ROW_OPEN);
+        UiFragments.tab(body, "tab_blocks",    page[0], "Blocks",     "Blocks", true);
+        UiFragments.tab(body, "tab_stairs",    page[1], "Stairs",     "Stairs", false);
+        UiFragments.tab(body, "tab_halfslabs", null,    "Half Slabs", "Halfs",  false);
+        UiFragments.tab(body, "tab_roofing",   null,    "Roofing",    "Roofs",  false);
+        body.append(UiFragments.DIV_CLOSE).append(UiFragments.SEPARATOR);
+        UiFragments.grid(body, page, 0, columns, UiRenderBenchmark::name);
+        UiFragments.pager(body, 1, pages, "out_prev", "out_next");
+        return PAGE.render(body.length(), body);
+    }
+
+    private static String name(String key) {
+        return key.replace('_', ' ');
+    }
+
+    private static String[] variants(int n) {
+        String[] out = new String[n];
+        for (int i = 0; i < n; i++) out[i] = "Rock_Stone_Variant_" + i;
+        return out;
+    }
+}
@@ -0,0 +1,99 @@
+package com.Ev0sMods.Ev0sChisel.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UiTemplateTest {
+
+    @Test
+    void fillsSlotsInOrder() {
+        UiTemplate t = UiTemplate.compile("<button id=\"${id}\">${label} x${count}</button>");
+        assertEquals(3, t.slots());
+        assertEquals("<button id=\"out_3\">Stone x64</button>",
+                t.render(new StringBuilder(), "out_3", "Stone", 64).toString());
+    }
+
+    @Test
+    void staticLengthCountsOnlyTheFixedText() {
+        UiTemplate t = UiTemplate.compile("ab${x}cd${y}e");
+        assertEquals(5, t.staticLength());
+        assertEquals(2, t.slots());
+    }
+
+    @Test
+    void templateWithoutSlotsRendersAsIs() {
+        UiTemplate t = UiTemplate.compile("<div></div>\n");
+        assertEquals(0, t.slots());
+        assertEquals("<div></div>\n", t.render(0));
+    }
+
+    @Test
+    void adjacentAndEdgeSlots() {
+        UiTemplate t = UiTemplate.compile("${a}${b}-${c}");
+        assertEquals("12-3", t.render(0, 1, "2", new StringBuilder("3")));
+    }
+
+    @Test
+    void bothRenderFormsAgree() {
+        UiTemplate t = UiTemplate.compile("<p>${n} / ${total}</p>");
+        StringBuilder sb = new StringBuilder("head:");
+        t.render(sb, 2, 7);
+        assertEquals("head:" + t.render(16, 2, 7), sb.toString());
+    }
+
+    @Test
+    void rejectsTheWrongNumberOfValues() {
+        UiTemplate t = UiTemplate.compile("${a}-${b}");
+        assertThrows(IllegalArgumentException.class, () -> t.render(0, "only one"));
+        assertThrows(IllegalArgumentException.class, () -> t.render(0, "1", "2", "3"));
+    }
+
+    @Test
+    void rejectsAnUnclosedSlot() {
+        assertThrows(IllegalArgumentException.class, () -> UiTemplate.compile("<p>${open</p>"));
+    }
+
+    // ── Fragments built on it ───────────────────────────────────────
+
+    @Test
+    void escapeReplacesMarkupAndKeepsPlainText() {
+        assertEquals("a &amp; b &lt;i&gt; &quot;q&quot;", UiFragments.escape("a & b <i> \"q\""));
+        String plain = "stone brick";
+        assertSame(plain, UiFragments.escape(plain));
+    }
+
+    @Test
+    void perPageShowsShortListsWholeAndCapsLongOnes() {
+        assertEquals(12, UiFragments.perPage(0, 4, 3, 6));
+        assertEquals(12, UiFragments.perPage(9, 4, 3, 6));
+        assertEquals(20, UiFragments.perPage(17, 4, 3, 6));
+        assertEquals(24, UiFragments.perPage(100, 4, 3, 6));
+    }
+
+    @Test
+    void pagerIsEmptyForOnePage() {
+        StringBuilder sb = new StringBuilder();
+        UiFragments.pager(sb, 0, 1, "out_prev", "out_next");
+        assertEquals(0, sb.length());
+        UiFragments.pager(sb, 1, 3, "out_prev", "out_next");
+        assertTrue(sb.indexOf("out_prev") >= 0 && sb.indexOf("out_next") >= 0);
+    }
+
+    @Test
+    void gridWrapsRowsAndNumbersSlots() {
+        StringBuilder sb = new StringBuilder();
+        UiFragments.grid(sb, new String[]{"A", "B", "C", "D", "E"}, 0, 4, k -> k);
+        String html = sb.toString();
+        assertEquals(2, count(html, UiFragments.GRID_ROW_OPEN));
+        assertEquals(2, count(html, UiFragments.DIV_CLOSE));
+        assertTrue(html.contains("out_0") && html.contains("out_4"));
+        assertFalse(html.contains("out_5"));
+    }
+
+    private static int count(String s, String part) {
+        int n = 0;
+        for (int i = s.indexOf(part); i >= 0; i = s.indexOf(part, i + part.length())) n++;
+        return n;
+    }
+}
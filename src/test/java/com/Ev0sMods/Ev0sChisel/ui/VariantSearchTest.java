@@ -0,0 +1,65 @@
+package com.Ev0sMods.Ev0sChisel.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VariantSearchTest {
+
+    private static final String[] VARIANTS = {
+            "hytale:Rock_Stone", "hytale:Rock_Stone_Brick", "Rock_Basalt_Brick", "Wood_Oak_Planks"
+    };
+
+    @Test
+    void normalizeQueryTrimsFoldsAndBlanks() {
+        assertNull(VariantSearch.normalizeQuery(null));
+        assertNull(VariantSearch.normalizeQuery("   "));
+        assertEquals("stone brick", VariantSearch.normalizeQuery("  Stone_Brick "));
+    }
+
+    @Test
+    void findKeepsListOrder() {
+        assertArrayEquals(new String[]{"hytale:Rock_Stone_Brick", "Rock_Basalt_Brick"},
+                VariantSearch.find(VARIANTS, "brick"));
+    }
+
+    @Test
+    void namesDropTheNamespaceAndUnderscores() {
+        assertEquals(0, VariantSearch.find(VARIANTS, "hytale").length);
+        assertArrayEquals(new String[]{"hytale:Rock_Stone_Brick"}, VariantSearch.find(VARIANTS, "stone brick"));
+    }
+
+    @Test
+    void shortQueriesScanNames() {
+        assertArrayEquals(new String[]{"Wood_Oak_Planks"}, VariantSearch.find(VARIANTS, "oa"));
+        assertEquals(0, VariantSearch.find(VARIANTS, "zz").length);
+    }
+
+    @Test
+    void missingTrigramFindsNothing() {
+        assertEquals(0, VariantSearch.find(VARIANTS, "marble").length);
+    }
+
+    @Test
+    void nullQueryReturnsTheListAndEmptyListsFindNothing() {
+        assertSame(VARIANTS, VariantSearch.find(VARIANTS, null));
+        assertEquals(0, VariantSearch.find(new String[0], "stone").length);
+        assertEquals(0, VariantSearch.find(null, "stone").length);
+    }
+
+    @Test
+    void resultsAreCapped() {
+        String[] many = new String[VariantSearch.MAX_RESULTS * 2];
+        for (int i = 0; i < many.length; i++) many[i] = "Rock_Stone_" + i;
+        String[] found = VariantSearch.find(many, "stone");
+        assertEquals(VariantSearch.MAX_RESULTS, found.length);
+        assertEquals("Rock_Stone_0", found[0]);
+    }
+
+    @Test
+    void repeatedSearchesAgree() {
+        String[] first = VariantSearch.find(VARIANTS, "rock");
+        assertArrayEquals(first, VariantSearch.find(VARIANTS, "rock"));
+        assertEquals(3, first.length);
+    }
+}